@@ -0,0 +1,196 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2018 André H. Juffer, Biocenter Oulu
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.bco.cm.application.query;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.bco.cm.domain.course.Course;
+import org.bco.cm.domain.course.CourseDescription;
+import org.bco.cm.domain.course.CourseDescriptionId;
+import org.bco.cm.domain.course.CourseId;
+import org.bco.cm.domain.course.StartCourseService;
+import org.bco.cm.domain.enrolment.Enrolment;
+import org.bco.cm.domain.enrolment.EnrolmentNumber;
+import org.bco.cm.domain.student.Student;
+import org.bco.cm.domain.student.StudentId;
+import org.bco.cm.domain.teacher.Teacher;
+import org.bco.cm.domain.teacher.TeacherId;
+import org.bco.cm.dto.CourseDTO;
+import org.bco.cm.dto.CourseDescriptionDTO;
+import org.bco.cm.dto.ModuleDTO;
+import org.bco.cm.dto.StudentDTO;
+import org.bco.cm.dto.TeacherDTO;
+import org.bco.cm.infrastructure.persistence.memory.InMemoryCourseRepository;
+import org.bco.cm.infrastructure.persistence.memory.InMemoryCourseRoster;
+import org.bco.cm.infrastructure.persistence.memory.InMemoryEnrolmentRepository;
+import org.bco.cm.infrastructure.persistence.memory.InMemoryReadOnlyCourseRepository;
+import org.bco.cm.infrastructure.persistence.memory.InMemoryReadOnlyEnrolmentRepository;
+import org.bco.cm.infrastructure.persistence.memory.InMemorySeatInventory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Course specifications queried against the in-memory read-only registries of
+ * the "memory" profile, so that no database is involved.
+ * @author Andr&#233; H. Juffer, Biocenter Oulu
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CourseSpecificationBenchmark {
+    
+    private static final int TEACHERS = 50;
+    private static final int ENROLMENTS_PER_STUDENT = 10;
+    
+    @Param({"100", "10000"})
+    public int courses;
+    
+    private InMemoryReadOnlyCourseRepository readOnlyCourseRegistry_;
+    private InMemoryReadOnlyEnrolmentRepository readOnlyEnrolmentRegistry_;
+    private CourseSpecification teachers_;
+    private CourseSpecification students_;
+    private CourseSpecification all_;
+    private CourseSpecification current_;
+    
+    @Setup
+    public void setUp()
+    {
+        InMemoryCourseRepository courseRepository = new InMemoryCourseRepository();
+        InMemoryEnrolmentRepository enrolmentRepository = new InMemoryEnrolmentRepository();
+        readOnlyCourseRegistry_ = new InMemoryReadOnlyCourseRepository();
+        readOnlyCourseRegistry_.setCourseRepository(courseRepository);
+        readOnlyCourseRegistry_.setEnrolmentRepository(enrolmentRepository);
+        readOnlyEnrolmentRegistry_ = new InMemoryReadOnlyEnrolmentRepository();
+        readOnlyEnrolmentRegistry_.setEnrolmentRepository(enrolmentRepository);
+        
+        Instant now = Instant.now();
+        Teacher[] teachers = new Teacher[TEACHERS];
+        CourseDescription[] courseDescriptions = new CourseDescription[TEACHERS];
+        for (int t = 0; t < TEACHERS; t++) {
+            TeacherDTO teacher = new TeacherDTO();
+            teacher.setFirstName("Teacher");
+            teacher.setSurname("#" + t);
+            teachers[t] = Teacher.valueOf(TeacherId.generateId(), teacher);
+            courseDescriptions[t] = courseDescription(teachers[t]);
+        }
+        List<Course> active = new ArrayList<>();
+        for (int n = 0; n < courses; n++) {
+            CourseDTO spec = new CourseDTO();
+            // A third each of past, active and future courses.
+            Instant start = now.plus((n % 3 - 1) * 60, ChronoUnit.DAYS);
+            spec.setStartDate(start);
+            spec.setEndDate(start.plus(30, ChronoUnit.DAYS));
+            spec.setNumberOfSeats(20);
+            Course course = 
+                Course.activate(CourseId.generate(), courseDescriptions[n % TEACHERS], spec);
+            if ( course.isActive() ) {
+                if ( n % 2 == 0 ) {
+                    StartCourseService.start(course, teachers[n % TEACHERS]);
+                }
+                active.add(course);
+            }
+            courseRepository.add(course);
+        }
+        
+        // Enrol a student in courses spread over the active ones.
+        InMemorySeatInventory seats = new InMemorySeatInventory();
+        seats.setEnrolmentRepository(enrolmentRepository);
+        InMemoryCourseRoster roster = new InMemoryCourseRoster(courseRepository);
+        StudentDTO spec = new StudentDTO();
+        spec.setFirstName("Student");
+        spec.setSurname("#0");
+        Student student = Student.valueOf(StudentId.generate(), spec);
+        int enrolments = Math.min(ENROLMENTS_PER_STUDENT, active.size());
+        for (int n = 0; n < enrolments; n++) {
+            Course course = active.get(n * active.size() / enrolments);
+            enrolmentRepository.add(
+                Enrolment.register(EnrolmentNumber.generate(), course, student, seats, roster)
+            );
+        }
+        
+        teachers_ = new CourseSpecification();
+        teachers_.setTeacherId(teachers[0].getTeacherId().stringValue());
+        students_ = new CourseSpecification();
+        students_.setStudentId(student.getStudentId().stringValue());
+        all_ = new CourseSpecification();
+        all_.selectAll();
+        current_ = new CourseSpecification();
+        current_.selectActive();
+        current_.selectOngoing();
+    }
+    
+    @Benchmark
+    public List<CourseDTO> teachersCourses()
+    {
+        return teachers_.query(readOnlyCourseRegistry_, readOnlyEnrolmentRegistry_);
+    }
+    
+    @Benchmark
+    public List<CourseDTO> studentsCourses()
+    {
+        return students_.query(readOnlyCourseRegistry_, readOnlyEnrolmentRegistry_);
+    }
+    
+    @Benchmark
+    public List<CourseDTO> notEndedCourses()
+    {
+        return all_.query(readOnlyCourseRegistry_, readOnlyEnrolmentRegistry_);
+    }
+    
+    @Benchmark
+    public List<CourseDTO> activeAndOngoingCourses()
+    {
+        return current_.query(readOnlyCourseRegistry_, readOnlyEnrolmentRegistry_);
+    }
+    
+    private static CourseDescription courseDescription(Teacher teacher)
+    {
+        CourseDescriptionDTO spec = new CourseDescriptionDTO();
+        spec.setTitle("Benchmark course");
+        spec.setSummary("Course used by benchmarks.");
+        List<ModuleDTO> modules = new ArrayList<>();
+        ModuleDTO module = new ModuleDTO();
+        module.setName("Module #0");
+        modules.add(module);
+        spec.setModules(modules);
+        return CourseDescription.valueOf(teacher, CourseDescriptionId.generate(), spec);
+    }
+    
+}
@@ -0,0 +1,114 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2018 André H. Juffer, Biocenter Oulu
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.bco.cm.domain.course;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import org.bco.cm.domain.student.Student;
+import org.bco.cm.domain.student.StudentId;
+import org.bco.cm.domain.teacher.Teacher;
+import org.bco.cm.domain.teacher.TeacherId;
+import org.bco.cm.dto.AssignmentDTO;
+import org.bco.cm.dto.CourseDTO;
+import org.bco.cm.dto.CourseDescriptionDTO;
+import org.bco.cm.dto.ModuleDTO;
+import org.bco.cm.dto.StudentDTO;
+import org.bco.cm.dto.TeacherDTO;
+
+/**
+ * Builds courses for benchmarks.
+ * @author Andr&#233; H. Juffer, Biocenter Oulu
+ */
+final class CourseFixtures {
+    
+    private CourseFixtures()
+    {
+    }
+    
+    /**
+     * Creates course description.
+     * @param modules Number of modules.
+     * @param items Number of assignments per module.
+     * @return Course description.
+     */
+    static CourseDescription courseDescription(int modules, int items)
+    {
+        TeacherDTO tspec = new TeacherDTO();
+        tspec.setFirstName("Bench");
+        tspec.setSurname("Mark");
+        Teacher teacher = Teacher.valueOf(TeacherId.generateId(), tspec);
+        
+        CourseDescriptionDTO spec = new CourseDescriptionDTO();
+        spec.setTitle("Benchmark course");
+        spec.setSummary("Course used by benchmarks.");
+        CourseDescription courseDescription = 
+            CourseDescription.valueOf(teacher, CourseDescriptionId.generate(), spec);
+        for (int m = 0; m < modules; m++) {
+            ModuleDTO module = new ModuleDTO();
+            module.setName("Module #" + m);
+            for (int i = 0; i < items; i++) {
+                AssignmentDTO assignment = new AssignmentDTO();
+                assignment.setTitle("Assignment #" + i);
+                assignment.setContent("Content of assignment #" + i);
+                module.addModuleItem(assignment);
+            }
+            courseDescription.addModule(module);
+        }
+        return courseDescription;
+    }
+    
+    /**
+     * Creates active course, open for enrolment.
+     * @param modules Number of modules.
+     * @param items Number of assignments per module.
+     * @param seats Number of seats.
+     * @return Course.
+     */
+    static Course course(int modules, int items, int seats)
+    {
+        CourseDTO spec = new CourseDTO();
+        Instant now = Instant.now();
+        spec.setStartDate(now.minus(1, ChronoUnit.DAYS));
+        spec.setEndDate(now.plus(30, ChronoUnit.DAYS));
+        spec.setNumberOfSeats(seats);
+        return Course.activate(
+            CourseId.generate(), CourseFixtures.courseDescription(modules, items), spec
+        );
+    }
+    
+    /**
+     * Creates student.
+     * @param n Sequence number.
+     * @return Student.
+     */
+    static Student student(int n)
+    {
+        StudentDTO spec = new StudentDTO();
+        spec.setFirstName("Student");
+        spec.setSurname("#" + n);
+        return Student.valueOf(StudentId.generate(), spec);
+    }
+    
+}
@@ -0,0 +1,100 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2018 André H. Juffer, Biocenter Oulu
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.bco.cm.domain.course;
+
+import java.util.concurrent.TimeUnit;
+import org.bco.cm.dto.CourseDTO;
+import org.bco.cm.dto.ModuleDTO;
+import org.bco.cm.infrastructure.persistence.memory.InMemoryCourseRepository;
+import org.bco.cm.infrastructure.persistence.memory.InMemoryCourseRoster;
+import org.bco.cm.infrastructure.persistence.memory.InMemorySeatInventory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Module lookup and deep copying to DTOs as the number of modules grows.
+ * @author Andr&#233; H. Juffer, Biocenter Oulu
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CourseModulesBenchmark {
+    
+    private static final int ITEMS = 10;
+    private static final int ROSTER_SIZE = 100;
+    
+    @Param({"1", "10", "100"})
+    public int modules;
+    
+    private Course course_;
+    private SeatInventory seats_;
+    private CourseRoster roster_;
+    private Module module_;
+    private int lastModuleId_;
+    
+    @Setup
+    public void setUp()
+    {
+        seats_ = new InMemorySeatInventory();
+        roster_ = new InMemoryCourseRoster(new InMemoryCourseRepository());
+        course_ = CourseFixtures.course(modules, ITEMS, ROSTER_SIZE);
+        for (int n = 0; n < ROSTER_SIZE; n++) {
+            course_.enrolled(CourseFixtures.student(n), seats_, roster_);
+        }
+        module_ = course_.getModules().get(0);
+        lastModuleId_ = course_.getModules().get(modules - 1).getModuleId();
+    }
+    
+    @Benchmark
+    public Module findModule()
+    {
+        return course_.findModule(lastModuleId_);
+    }
+    
+    @Benchmark
+    public ModuleDTO moduleToDTO()
+    {
+        return module_.toDTO();
+    }
+    
+    @Benchmark
+    public CourseDTO courseToDTO()
+    {
+        return course_.toDTO();
+    }
+    
+}
@@ -0,0 +1,92 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2018 André H. Juffer, Biocenter Oulu
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.bco.cm.domain.course;
+
+import java.util.concurrent.TimeUnit;
+import org.bco.cm.domain.student.Student;
+import org.bco.cm.infrastructure.persistence.memory.InMemoryCourseRepository;
+import org.bco.cm.infrastructure.persistence.memory.InMemoryCourseRoster;
+import org.bco.cm.infrastructure.persistence.memory.InMemorySeatInventory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Enrolment and seat numbering as the roster grows.
+ * @author Andr&#233; H. Juffer, Biocenter Oulu
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CourseRosterBenchmark {
+    
+    @Param({"10", "100", "1000", "10000"})
+    public int rosterSize;
+    
+    private Course course_;
+    private SeatInventory seats_;
+    private CourseRoster roster_;
+    private Student student_;
+    
+    @Setup
+    public void setUp()
+    {
+        seats_ = new InMemorySeatInventory();
+        roster_ = new InMemoryCourseRoster(new InMemoryCourseRepository());
+        course_ = CourseFixtures.course(1, 1, rosterSize + 1);
+        for (int n = 0; n < rosterSize; n++) {
+            course_.enrolled(CourseFixtures.student(n), seats_, roster_);
+        }
+        student_ = CourseFixtures.student(rosterSize);
+    }
+    
+    /**
+     * Enrols and then removes one student, so the roster size stays fixed.
+     */
+    @Benchmark
+    public void enrolled()
+    {
+        course_.enrolled(student_, seats_, roster_);
+        course_.enrolmentCanceled(student_, seats_, roster_);
+    }
+    
+    @Benchmark
+    public int numberSeats()
+    {
+        return seats_.numberSeats(course_, 1);
+    }
+    
+}
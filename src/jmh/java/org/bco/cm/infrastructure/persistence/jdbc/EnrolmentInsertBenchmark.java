@@ -0,0 +1,191 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2018 André H. Juffer, Biocenter Oulu
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.bco.cm.infrastructure.persistence.jdbc;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.bco.cm.util.TimeOrderedUuidGenerator;
+import org.bco.cm.util.UuidGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Inserts into a copy of table enrolments, with its indexes, keyed by random 
+ * or by time-ordered UUIDs. Measures batches of inserts per second. At the 
+ * end, prints the size of every index before and after a reindex: the ratio 
+ * is the index bloat caused by page splits.
+ * <p>
+ * Requires a PostgreSQL database with the schema migrated, given by system 
+ * properties cm.benchmark.url, cm.benchmark.user and cm.benchmark.password. 
+ * Table enrolments itself is not touched.
+ * @author Andr&#233; H. Juffer, Biocenter Oulu
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class EnrolmentInsertBenchmark {
+    
+    private static final String TABLE = "enrolments_benchmark";
+    private static final int BATCH_SIZE = 100;
+    private static final int COURSES = 100;
+    
+    private static final String INSERT = 
+        "insert into " + TABLE + " (id, enrolment_number, course_id, " +
+        "student_id, date_of_registration) values (?, ?, ?, ?, ?)";
+    private static final String INDEX_SIZES = 
+        "select indexrelid::regclass::text, pg_relation_size(indexrelid) " +
+        "from pg_index where indrelid = '" + TABLE + "'::regclass " +
+        "order by 1";
+    
+    @Param({"random", "time-ordered"})
+    public String generator;
+    
+    @Param({"100000"})
+    public int initialRows;
+    
+    private UuidGenerator generator_;
+    private List<UUID> courseIds_;
+    private Connection connection_;
+    private PreparedStatement insert_;
+    private long rows_;
+    
+    @Setup
+    public void setUp() throws SQLException
+    {
+        generator_ = generator.equals("random") ? 
+            UUID::randomUUID : new TimeOrderedUuidGenerator();
+        courseIds_ = new ArrayList<>();
+        for (int n = 0; n < COURSES; n++) {
+            courseIds_.add(generator_.generate());
+        }
+        connection_ = DriverManager.getConnection(
+            System.getProperty("cm.benchmark.url", "jdbc:postgresql://localhost:5432/cm"),
+            System.getProperty("cm.benchmark.user", "cm"),
+            System.getProperty("cm.benchmark.password", "")
+        );
+        try (Statement statement = connection_.createStatement()) {
+            statement.execute("drop table if exists " + TABLE);
+            statement.execute(
+                "create table " + TABLE + " (like enrolments including all)"
+            );
+        }
+        connection_.setAutoCommit(false);
+        insert_ = connection_.prepareStatement(INSERT);
+        rows_ = 0;
+        for (int n = 0; n < initialRows; n += BATCH_SIZE) {
+            this.insertBatch();
+        }
+        connection_.setAutoCommit(true);
+        try (Statement statement = connection_.createStatement()) {
+            statement.execute("vacuum analyze " + TABLE);
+        }
+        connection_.setAutoCommit(false);
+    }
+    
+    @TearDown
+    public void tearDown() throws SQLException
+    {
+        try {
+            connection_.setAutoCommit(true);
+            Map<String, Long> before = this.indexSizes();
+            try (Statement statement = connection_.createStatement()) {
+                statement.execute("reindex table " + TABLE);
+            }
+            Map<String, Long> after = this.indexSizes();
+            System.out.println();
+            System.out.println(generator + ", " + rows_ + " rows:");
+            before.forEach((index, size) -> System.out.printf(
+                "  %-50s %8d kB, %8d kB after reindex, bloat %.2f%n",
+                index, size / 1024, after.get(index) / 1024, 
+                (double)size / after.get(index)
+            ));
+            try (Statement statement = connection_.createStatement()) {
+                statement.execute("drop table " + TABLE);
+            }
+        } finally {
+            connection_.close();
+        }
+    }
+    
+    /**
+     * Inserts and commits BATCH_SIZE enrolments.
+     * @return Number of rows in table.
+     */
+    @Benchmark
+    public long insertBatch() throws SQLException
+    {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long now = System.currentTimeMillis();
+        for (int n = 0; n < BATCH_SIZE; n++) {
+            insert_.setObject(1, generator_.generate());
+            insert_.setObject(2, generator_.generate());
+            insert_.setObject(3, courseIds_.get(random.nextInt(COURSES)));
+            insert_.setString(4, "student-" + rows_);
+            insert_.setLong(5, now);
+            insert_.addBatch();
+            rows_++;
+        }
+        insert_.executeBatch();
+        connection_.commit();
+        return rows_;
+    }
+    
+    private Map<String, Long> indexSizes() throws SQLException
+    {
+        Map<String, Long> sizes = new LinkedHashMap<>();
+        try (Statement statement = connection_.createStatement();
+             ResultSet result = statement.executeQuery(INDEX_SIZES)) {
+            while ( result.next() ) {
+                sizes.put(result.getString(1), result.getLong(2));
+            }
+        }
+        return sizes;
+    }
+    
+}
@@ -24,8 +24,6 @@
 
 package org.bco.cm;
 
-import com.tribc.cqrs.domain.command.CommandBus;
-import com.tribc.ddd.domain.event.EventBus;
 import org.bco.cm.api.facade.CourseCatalogFacade;
 import org.bco.cm.api.facade.CourseFacade;
 import org.bco.cm.api.facade.EnrolmentFacade;
@@ -38,6 +36,8 @@ import org.bco.cm.application.command.handler.CmCommandBus;
 import org.bco.cm.application.command.handler.DeleteCourseHandler;
 import org.bco.cm.application.command.handler.DeleteCourseModuleHandler;
 import org.bco.cm.application.command.handler.EnrolStudentHandler;
+import org.bco.cm.application.command.handler.EnrolStudentsHandler;
+import org.bco.cm.application.command.handler.ImportCoursesHandler;
 import org.bco.cm.application.command.handler.PostNewCourseHandler;
 import org.bco.cm.application.command.handler.RegisterNewStudentHandler;
 import org.bco.cm.application.command.handler.RegisterNewTeacherHandler;
@@ -46,13 +46,21 @@ import org.bco.cm.application.command.handler.UpdateCourseDescriptionHandler;
 import org.bco.cm.application.command.handler.UpdateCourseHandler;
 import org.bco.cm.application.command.handler.UpdateCourseModuleHandler;
 import org.bco.cm.application.event.handler.CmEventBus;
+import org.bco.cm.application.event.handler.CourseActivatedHandler;
+import org.bco.cm.application.event.handler.CourseDescriptionRemovedHandler;
+import org.bco.cm.application.event.handler.CourseDescriptionUpdatedHandler;
+import org.bco.cm.application.event.handler.CourseStartedHandler;
+import org.bco.cm.application.event.handler.CourseUpdatedHandler;
 import org.bco.cm.application.event.handler.EnrolmentCanceledHandler;
 import org.bco.cm.application.event.handler.EnrolmentCreatedHandler;
 import org.bco.cm.application.event.handler.NewStudentRegisteredHandler;
 import org.bco.cm.application.event.handler.NewTeacherRegisteredHandler;
+import org.bco.cm.application.event.handler.EventOutbox;
+import org.bco.cm.application.event.handler.OrderedExecutor;
+import org.bco.cm.application.event.handler.OutboxEventCodec;
+import org.bco.cm.application.event.handler.OutboxRelay;
 import org.bco.cm.application.query.ReadOnlyStudentRegistry;
 import org.bco.cm.application.query.ReadOnlyTeacherRegistry;
-import org.bco.cm.application.query.ReadOnlyCourseCatalog;
 import org.bco.cm.domain.course.CourseCatalog;
 import org.bco.cm.domain.student.StudentRegistry;
 import org.bco.cm.domain.teacher.TeacherRegistry;
@@ -62,33 +70,126 @@ import org.bco.cm.infrastructure.persistence.hibernate.HibernateReadOnlyTeacherR
 import org.bco.cm.infrastructure.persistence.hibernate.HibernateStudentRegistry;
 import org.bco.cm.infrastructure.persistence.hibernate.HibernateTeacherRegistry;
 import org.bco.cm.infrastructure.persistence.hibernate.HibernateReadOnlyCourseCatalog;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import java.util.UUID;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.context.annotation.Primary;
 import org.bco.cm.application.event.handler.NewCourseAddedToCatalogHandler;
+import org.bco.cm.application.query.ReadModelProjection;
 import org.bco.cm.application.query.ReadOnlyCourseRegistry;
 import org.bco.cm.application.query.ReadOnlyEnrolmentRegistry;
 import org.bco.cm.domain.course.CourseRegistry;
+import org.bco.cm.domain.course.CourseRoster;
+import org.bco.cm.domain.course.ModuleCopier;
+import org.bco.cm.domain.course.SeatInventory;
 import org.bco.cm.domain.enrolment.EnrolmentRegistry;
 import org.bco.cm.infrastructure.persistence.hibernate.HibernateCourseRegistry;
+import org.bco.cm.infrastructure.persistence.hibernate.HibernateCourseRoster;
 import org.bco.cm.infrastructure.persistence.hibernate.HibernateEnrolmentRegistry;
+import org.bco.cm.infrastructure.persistence.hibernate.HibernateModuleCopier;
+import org.bco.cm.infrastructure.persistence.hibernate.HibernateReadModelProjection;
 import org.bco.cm.infrastructure.persistence.hibernate.HibernateReadOnlyCourseRegistry;
 import org.bco.cm.infrastructure.persistence.hibernate.HibernateReadOnlyEnrolmentRegistry;
+import org.bco.cm.infrastructure.persistence.jdbc.JdbcEventOutbox;
+import org.bco.cm.infrastructure.persistence.jdbc.JdbcSeatInventory;
+import org.bco.cm.infrastructure.persistence.memory.CachingReadOnlyCourseCatalog;
+import org.bco.cm.infrastructure.persistence.memory.CachingSeatInventory;
+import org.bco.cm.infrastructure.persistence.memory.DurableStore;
+import org.bco.cm.infrastructure.persistence.memory.InMemoryCourseCatalog;
+import org.bco.cm.infrastructure.persistence.memory.InMemoryCourseRepository;
+import org.bco.cm.infrastructure.persistence.memory.InMemoryCourseRoster;
+import org.bco.cm.infrastructure.persistence.memory.InMemoryEnrolmentRepository;
+import org.bco.cm.infrastructure.persistence.memory.InMemoryModuleCopier;
+import org.bco.cm.infrastructure.persistence.memory.InMemoryReadModelProjection;
+import org.bco.cm.infrastructure.persistence.memory.InMemoryReadOnlyCourseCatalog;
+import org.bco.cm.infrastructure.persistence.memory.InMemoryReadOnlyCourseRepository;
+import org.bco.cm.infrastructure.persistence.memory.InMemoryReadOnlyEnrolmentRepository;
+import org.bco.cm.infrastructure.persistence.memory.InMemoryReadOnlyStudentRepository;
+import org.bco.cm.infrastructure.persistence.memory.InMemoryReadOnlyTeacherRepository;
+import org.bco.cm.infrastructure.persistence.memory.InMemorySeatInventory;
+import org.bco.cm.infrastructure.persistence.memory.InMemoryStudentRepository;
+import org.bco.cm.infrastructure.persistence.memory.InMemoryTeacherRepository;
+import org.bco.cm.infrastructure.persistence.memory.InMemoryTransactionManager;
+import org.bco.cm.util.TimeOrderedUuidGenerator;
+import org.bco.cm.util.UuidGenerator;
+import org.bco.cm.util.UuidGeneratorInstaller;
 import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.Profile;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.EnableTransactionManagement;
 
 /**
- * Bean configuration.
+ * Bean configuration. With profile "memory", all aggregates are held in memory
+ * and no database is needed. Adding profile "durable" keeps them in a 
+ * write-ahead log and snapshots on disk.
  * @author Andr&#233; H. Juffer, Biocenter Oulu
  */
 @Configuration
+@EnableTransactionManagement
 @ComponentScan(basePackages = "org.bco.cm")
 public class CmConfiguration 
 {
     
-    // Repositories.
+    @Value("${cm.events.async:false}")
+    private boolean asyncEvents_;
+    
+    @Value("${cm.events.lanes:4}")
+    private int eventLanes_;
+    
+    @Value("${cm.events.queue-capacity:1000}")
+    private int eventQueueCapacity_;
+    
+    @Value("${cm.commands.max-attempts:5}")
+    private int commandMaxAttempts_;
+    
+    @Value("${cm.commands.backoff:20}")
+    private long commandBackoff_;
+    
+    @Value("${cm.commands.max-backoff:500}")
+    private long commandMaxBackoff_;
+    
+    @Value("${cm.seats.cache-ttl:1000}")
+    private long seatsCacheTtl_;
+    
+    @Value("${cm.catalog.import-batch-size:500}")
+    private int catalogImportBatchSize_;
+    
+    @Value("${cm.catalog.cache.max-size:1000}")
+    private int catalogCacheMaxSize_;
+    
+    @Value("${cm.catalog.cache.ttl:60000}")
+    private long catalogCacheTtl_;
+    
+    @Value("${cm.outbox.enabled:false}")
+    private boolean outbox_;
+    
+    @Value("${cm.outbox.batch-size:100}")
+    private int outboxBatchSize_;
+    
+    @Value("${cm.outbox.poll-interval:1000}")
+    private long outboxPollInterval_;
+    
+    @Value("${cm.outbox.max-attempts:10}")
+    private int outboxMaxAttempts_;
+    
+    @Value("${cm.ids.time-ordered:true}")
+    private boolean timeOrderedIds_;
+    
+    @Value("${cm.store.directory:cm-store}")
+    private String storeDirectory_;
+    
+    @Value("${cm.store.snapshot-interval:60000}")
+    private long storeSnapshotInterval_;
+    
+    // Repositories. Unless profile "memory" is active, aggregates are stored 
+    // in the database.
     
     @Bean
     @Primary
+    @Profile("!memory")
     StudentRegistry studentRegistry()
     {
         return new HibernateStudentRegistry();
@@ -96,6 +197,7 @@ public class CmConfiguration
     
     @Bean
     @Primary
+    @Profile("!memory")
     ReadOnlyStudentRegistry readOnlyStudentRegistry()
     {
         return new HibernateReadOnlyStudentRegistry();
@@ -103,6 +205,7 @@ public class CmConfiguration
     
     @Bean
     @Primary    
+    @Profile("!memory")
     TeacherRegistry teacherRegistry()
     {
         return new HibernateTeacherRegistry();
@@ -110,6 +213,7 @@ public class CmConfiguration
     
     @Bean
     @Primary
+    @Profile("!memory")
     ReadOnlyTeacherRegistry readOnlyTeacherRegistry()
     {
         return new HibernateReadOnlyTeacherRegistry();
@@ -117,20 +221,40 @@ public class CmConfiguration
     
     @Bean
     @Primary
+    @Profile("!memory")
     CourseCatalog courseCatalog()
     {
         return new HibernateCourseCatalog();
     }
     
     @Bean
-    @Primary
-    ReadOnlyCourseCatalog readOnlyCourseCatalog()
+    @Profile("!memory")
+    HibernateReadOnlyCourseCatalog hibernateReadOnlyCourseCatalog()
     {
         return new HibernateReadOnlyCourseCatalog();
     }
     
     @Bean
     @Primary
+    @Profile("!memory")
+    CachingReadOnlyCourseCatalog readOnlyCourseCatalog()
+    {
+        return new CachingReadOnlyCourseCatalog(
+            this.hibernateReadOnlyCourseCatalog(), 
+            catalogCacheMaxSize_, catalogCacheTtl_
+        );
+    }
+    
+    @Bean
+    @Profile("!memory")
+    MeterBinder courseCatalogCacheMetrics()
+    {
+        return this.readOnlyCourseCatalog().metrics();
+    }
+    
+    @Bean
+    @Primary
+    @Profile("!memory")
     CourseRegistry courseRegistry()
     {
         return new HibernateCourseRegistry();
@@ -138,30 +262,179 @@ public class CmConfiguration
     
     @Bean
     @Primary
+    @Profile("!memory")
     ReadOnlyCourseRegistry readOnlyCourseRegistry()
     {
         return new HibernateReadOnlyCourseRegistry();
     }
     
     @Bean
+    @Profile("!memory")
     ReadOnlyEnrolmentRegistry readOnlyEnrolmentRegistry()
     {
         return new HibernateReadOnlyEnrolmentRegistry();
     }
     
     @Bean
+    @Profile("!memory")
     EnrolmentRegistry enrolmentRegistry()
     {
         return new HibernateEnrolmentRegistry();
     }
     
     
+    // In-memory repositories, if profile "memory" is active. No database is
+    // used and, unless profile "durable" is active too, nothing survives a 
+    // restart. Rollbacks are undone by the transaction manager. Listings 
+    // are created from the aggregates themselves, so there is neither a read
+    // model nor a catalog cache.
+    
+    @Bean
+    @Profile("memory")
+    InMemoryStudentRepository inMemoryStudentRegistry()
+    {
+        return new InMemoryStudentRepository();
+    }
+    
+    @Bean
+    @Profile("memory")
+    InMemoryReadOnlyStudentRepository inMemoryReadOnlyStudentRegistry()
+    {
+        return new InMemoryReadOnlyStudentRepository();
+    }
+    
+    @Bean
+    @Profile("memory")
+    InMemoryTeacherRepository inMemoryTeacherRegistry()
+    {
+        return new InMemoryTeacherRepository();
+    }
+    
+    @Bean
+    @Profile("memory")
+    InMemoryReadOnlyTeacherRepository inMemoryReadOnlyTeacherRegistry()
+    {
+        return new InMemoryReadOnlyTeacherRepository();
+    }
+    
+    @Bean
+    @Profile("memory")
+    InMemoryCourseCatalog inMemoryCourseCatalog()
+    {
+        return new InMemoryCourseCatalog();
+    }
+    
+    @Bean
+    @Profile("memory")
+    InMemoryReadOnlyCourseCatalog inMemoryReadOnlyCourseCatalog()
+    {
+        return new InMemoryReadOnlyCourseCatalog();
+    }
+    
+    @Bean
+    @Profile("memory")
+    InMemoryCourseRepository inMemoryCourseRegistry()
+    {
+        return new InMemoryCourseRepository();
+    }
+    
+    @Bean
+    @Profile("memory")
+    InMemoryReadOnlyCourseRepository inMemoryReadOnlyCourseRegistry()
+    {
+        return new InMemoryReadOnlyCourseRepository();
+    }
+    
+    @Bean
+    @Profile("memory")
+    InMemoryEnrolmentRepository inMemoryEnrolmentRegistry()
+    {
+        return new InMemoryEnrolmentRepository();
+    }
+    
+    @Bean
+    @Profile("memory")
+    InMemoryReadOnlyEnrolmentRepository inMemoryReadOnlyEnrolmentRegistry()
+    {
+        return new InMemoryReadOnlyEnrolmentRepository();
+    }
+    
+    @Bean
+    @Profile("memory")
+    InMemorySeatInventory inMemorySeatInventory()
+    {
+        return new InMemorySeatInventory();
+    }
+    
+    @Bean
+    @Profile("memory")
+    InMemoryModuleCopier inMemoryModuleCopier()
+    {
+        return new InMemoryModuleCopier();
+    }
+    
+    @Bean
+    @Profile("memory")
+    InMemoryCourseRoster inMemoryCourseRoster()
+    {
+        return new InMemoryCourseRoster(this.inMemoryCourseRegistry());
+    }
+    
+    @Bean
+    @Profile("memory")
+    InMemoryReadModelProjection inMemoryReadModelProjection()
+    {
+        return new InMemoryReadModelProjection();
+    }
+    
+    @Bean( name="transactionManager" )
+    @Profile("memory")
+    PlatformTransactionManager inMemoryTransactionManager()
+    {
+        return new InMemoryTransactionManager();
+    }
+    
+    // With profile "durable" in addition to "memory", in-memory aggregates are
+    // recovered on startup and survive a restart. Names must not change, they 
+    // are stored.
+    
+    @Bean(initMethod = "open", destroyMethod = "close")
+    @Profile("durable")
+    DurableStore durableStore()
+    {
+        DurableStore store = 
+            new DurableStore(storeDirectory_, storeSnapshotInterval_);
+        store.register("students", this.inMemoryStudentRegistry());
+        store.register("teachers", this.inMemoryTeacherRegistry());
+        store.register("catalog", this.inMemoryCourseCatalog());
+        store.register("courses", this.inMemoryCourseRegistry());
+        store.register("enrolments", this.inMemoryEnrolmentRegistry());
+        return store;
+    }
+    
+    
+    // Identifiers and UUID primary keys. The installer makes the generator the 
+    // source of Uuids while the context is open.
+    
+    @Bean
+    UuidGenerator uuidGenerator()
+    {
+        return timeOrderedIds_ ? new TimeOrderedUuidGenerator() : UUID::randomUUID;
+    }
+    
+    @Bean
+    UuidGeneratorInstaller uuidGeneratorInstaller()
+    {
+        return new UuidGeneratorInstaller(this.uuidGenerator());
+    }
+    
+    
     // Facades
     
     @Bean
     CourseCatalogFacade courseCatalogFacade()
     {
-        return new CourseCatalogFacade();
+        return new CourseCatalogFacade(catalogImportBatchSize_);
     }
     
     @Bean
@@ -209,12 +482,24 @@ public class CmConfiguration
         return new EnrolStudentHandler();
     }
     
+    @Bean
+    EnrolStudentsHandler enrolStudentsHandler()
+    {
+        return new EnrolStudentsHandler();
+    }
+    
     @Bean
     CancelEnrolmentHandler cancelEnrolmentHandler()
     {
         return new CancelEnrolmentHandler();
     }
     
+    @Bean
+    ImportCoursesHandler importCoursesHandler()
+    {
+        return new ImportCoursesHandler();
+    }
+    
     @Bean
     PostNewCourseHandler postNewCourseHandler()
     {
@@ -275,6 +560,36 @@ public class CmConfiguration
         return new NewCourseAddedToCatalogHandler();
     }
     
+    @Bean
+    CourseDescriptionUpdatedHandler courseDescriptionUpdatedHandler()
+    {
+        return new CourseDescriptionUpdatedHandler();
+    }
+    
+    @Bean
+    CourseDescriptionRemovedHandler courseDescriptionRemovedHandler()
+    {
+        return new CourseDescriptionRemovedHandler();
+    }
+    
+    @Bean
+    CourseActivatedHandler courseActivatedHandler()
+    {
+        return new CourseActivatedHandler();
+    }
+    
+    @Bean
+    CourseUpdatedHandler courseUpdatedHandler()
+    {
+        return new CourseUpdatedHandler();
+    }
+    
+    @Bean
+    CourseStartedHandler courseStartedHandler()
+    {
+        return new CourseStartedHandler();
+    }
+    
     @Bean
     EnrolmentCreatedHandler enrolmentCreatedHandler()
     {
@@ -299,16 +614,96 @@ public class CmConfiguration
         return new StartCourseHandler();
     }
     
+    @Bean(destroyMethod = "shutdown")
+    OrderedExecutor eventExecutor()
+    {
+        return new OrderedExecutor(eventLanes_, eventQueueCapacity_);
+    }
+    
+    @Bean
+    @Profile("!memory")
+    JdbcSeatInventory jdbcSeatInventory()
+    {
+        return new JdbcSeatInventory();
+    }
+    
+    @Bean
+    @Primary
+    @Profile("!memory")
+    SeatInventory seatInventory()
+    {
+        return new CachingSeatInventory(this.jdbcSeatInventory(), seatsCacheTtl_);
+    }
+    
+    @Bean
+    @Profile("!memory")
+    ModuleCopier moduleCopier()
+    {
+        return new HibernateModuleCopier();
+    }
+    
+    @Bean
+    @Profile("!memory")
+    CourseRoster courseRoster()
+    {
+        return new HibernateCourseRoster();
+    }
+    
+    @Bean
+    @Profile("!memory")
+    ReadModelProjection readModelProjection()
+    {
+        return new HibernateReadModelProjection();
+    }
+    
+    @Bean
+    @Profile("!memory")
+    EventOutbox eventOutbox()
+    {
+        return new JdbcEventOutbox();
+    }
+    
+    @Bean
+    OutboxEventCodec outboxEventCodec()
+    {
+        return new OutboxEventCodec();
+    }
+    
+    @Bean(destroyMethod = "stop")
+    @Lazy
+    OutboxRelay outboxRelay()
+    {
+        return new OutboxRelay(
+            this.eventExecutor(), 
+            outboxBatchSize_, outboxPollInterval_, outboxMaxAttempts_
+        );
+    }
+    
+    @Bean
+    @Profile("!memory")
+    MeterBinder outboxMetrics()
+    {
+        return outbox_ ? this.outboxRelay().metrics() : registry -> {};
+    }
+    
     @Bean 
-    EventBus eventBus()
+    CmEventBus eventBus()
     {
-        return new CmEventBus();
+        if ( outbox_ ) {
+            OutboxRelay relay = this.outboxRelay();
+            CmEventBus eventBus = new CmEventBus(relay);
+            relay.setEventBus(eventBus);
+            return eventBus;
+        }
+        return asyncEvents_ ? new CmEventBus(this.eventExecutor()) : new CmEventBus();
     }
 
     @Bean
-    CommandBus commandBus()
+    CmCommandBus commandBus()
     {
-        return new CmCommandBus();
+        return new CmCommandBus(
+            commandMaxAttempts_, commandBackoff_, commandMaxBackoff_
+        );
     }
     
 }
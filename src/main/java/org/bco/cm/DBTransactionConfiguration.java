@@ -24,30 +24,37 @@
 
 package org.bco.cm;
 
+import com.zaxxer.hikari.HikariDataSource;
 import java.util.Properties;
 import javax.persistence.EntityManagerFactory;
+import org.bco.cm.infrastructure.persistence.hibernate.UuidIdentifierGenerator;
+import org.flywaydb.core.Flyway;
+import org.hibernate.jpa.AvailableSettings;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
 import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
 import org.springframework.boot.autoconfigure.jdbc.DataSourceTransactionManagerAutoConfiguration;
 import org.springframework.boot.autoconfigure.orm.jpa.HibernateJpaAutoConfiguration;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.annotation.PropertySource;
 import org.springframework.dao.annotation.PersistenceExceptionTranslationPostProcessor;
-import org.springframework.jdbc.datasource.DriverManagerDataSource;
 import org.springframework.orm.jpa.JpaTransactionManager;
 import org.springframework.orm.jpa.JpaVendorAdapter;
 import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
 import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
 import org.springframework.transaction.PlatformTransactionManager;
-import org.springframework.transaction.annotation.EnableTransactionManagement;
 
 /**
- * Data base transaction management.
+ * Data base transaction management. Not used with profile "memory".
  * @author Andr&#233; H. Juffer, Biocenter Oulu
  */
 @Configuration
-@EnableTransactionManagement
+@Profile("!memory")
+@PropertySource("classpath:application.properties")
 //@ImportResource("classpath:spring-transactions.cfg.xml")
 @EnableAutoConfiguration(exclude={
     DataSourceAutoConfiguration.class,
@@ -56,17 +63,104 @@ import org.springframework.transaction.annotation.EnableTransactionManagement;
 })
 public class DBTransactionConfiguration {
 
+    @Value("${spring.datasource.driver-class-name:org.postgresql.Driver}")
+    private String driverClassName_;
+    
+    @Value("${spring.datasource.url}")
+    private String url_;
+    
+    @Value("${spring.datasource.username}")
+    private String username_;
+    
+    @Value("${spring.datasource.password:}")
+    private String password_;
+    
+    @Value("${spring.datasource.hikari.pool-name:cm}")
+    private String poolName_;
+    
+    @Value("${spring.datasource.hikari.minimum-idle:2}")
+    private int minimumIdle_;
+    
+    @Value("${spring.datasource.hikari.maximum-pool-size:10}")
+    private int maximumPoolSize_;
+    
+    @Value("${spring.datasource.hikari.connection-timeout:30000}")
+    private long connectionTimeout_;
+    
+    @Value("${spring.datasource.hikari.idle-timeout:600000}")
+    private long idleTimeout_;
+    
+    @Value("${spring.datasource.hikari.max-lifetime:1800000}")
+    private long maxLifetime_;
+    
+    @Value("${spring.datasource.hikari.leak-detection-threshold:0}")
+    private long leakDetectionThreshold_;
+    
+    @Value("${spring.datasource.hikari.validation-timeout:5000}")
+    private long validationTimeout_;
+    
+    @Value("${spring.datasource.hikari.connection-test-query:}")
+    private String connectionTestQuery_;
+    
+    @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}")
+    private int jdbcBatchSize_;
+    
+    @Value("${spring.flyway.enabled:true}")
+    private boolean migrate_;
+
+    /**
+     * Returns connection pool. Settings are taken from application.properties.
+     * Pool gauges (hikaricp.connections.*) are registered with the actuator's 
+     * meter registry.
+     * @return Data source.
+     */
     @Bean( name="dataSource" )
-    public DriverManagerDataSource dataSource() {
-        DriverManagerDataSource dataSource = new DriverManagerDataSource(); 
-        dataSource.setDriverClassName("org.postgresql.Driver");
-        dataSource.setUrl("jdbc:postgresql://localhost:5432/crapp");
-        dataSource.setUsername("crapp");
-        dataSource.setPassword("crapp_pm62mj5p");
+    public HikariDataSource dataSource() {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setDriverClassName(driverClassName_);
+        dataSource.setJdbcUrl(url_);
+        dataSource.setUsername(username_);
+        dataSource.setPassword(password_);
+        dataSource.setPoolName(poolName_);
+        dataSource.setMinimumIdle(minimumIdle_);
+        dataSource.setMaximumPoolSize(maximumPoolSize_);
+        dataSource.setConnectionTimeout(connectionTimeout_);
+        dataSource.setIdleTimeout(idleTimeout_);
+        dataSource.setMaxLifetime(maxLifetime_);
+        dataSource.setLeakDetectionThreshold(leakDetectionThreshold_);
+        dataSource.setValidationTimeout(validationTimeout_);
+        if ( !connectionTestQuery_.isEmpty() ) {
+            // Only needed for drivers without JDBC4 Connection.isValid().
+            dataSource.setConnectionTestQuery(connectionTestQuery_);
+        }
+        // Lets the PostgreSQL driver send a JDBC batch of inserts as 
+        // multi-row inserts, rather than one statement per row.
+        dataSource.addDataSourceProperty("reWriteBatchedInserts", "true");
         return dataSource;
     }
 
+    /**
+     * Returns schema migration. Pending migrations from db/migration are
+     * applied at startup, before the entity manager factory is created. An
+     * existing schema without migration history is baselined at version 1 
+     * (the initial schema).
+     * @return Flyway.
+     */
+    @Bean( name="flyway" )
+    public Flyway flyway() {
+        Flyway flyway = new Flyway();
+        flyway.setDataSource(this.dataSource());
+        flyway.setLocations("classpath:db/migration");
+        flyway.setBaselineOnMigrate(true);
+        flyway.setBaselineVersionAsString("1");
+        if ( migrate_ ) {
+            flyway.migrate();
+        }
+        return flyway;
+    }
+
     @Bean( name="entityManagerFactory" )
+    @DependsOn( "flyway" )
     public LocalContainerEntityManagerFactoryBean entityManagerFactory() {
         LocalContainerEntityManagerFactoryBean emf = 
             new LocalContainerEntityManagerFactoryBean();
@@ -98,6 +192,28 @@ public class DBTransactionConfiguration {
         properties.setProperty("hibernate.temp.use_jdbc_metadata_defaults", "false");
         properties.setProperty("hibernate.current_session_context_class", 
                                "org.springframework.orm.hibernate5.SpringSessionContext");
+        // Second-level cache for aggregates marked @Cacheable. Regions are 
+        // configured in ehcache.xml.
+        properties.setProperty("hibernate.cache.use_second_level_cache", "true");
+        properties.setProperty("hibernate.cache.region.factory_class", 
+                               "org.hibernate.cache.ehcache.SingletonEhCacheRegionFactory");
+        properties.setProperty("net.sf.ehcache.configurationResourceName", "/ehcache.xml");
+        properties.setProperty("javax.persistence.sharedCache.mode", "ENABLE_SELECTIVE");
+        // JDBC batching. Identifiers are generated UUIDs, so inserts need no 
+        // round trip of their own. Ordering groups the inserts (and updates) 
+        // of a cascade such as course description -> modules -> module items 
+        // -> questions -> choices per table, so that each table is written in 
+        // batches instead of alternating statements breaking every batch. 
+        // Versioned entities are batched as well; the driver reports row 
+        // counts for batched statements.
+        properties.setProperty("hibernate.jdbc.batch_size", String.valueOf(jdbcBatchSize_));
+        properties.setProperty("hibernate.order_inserts", "true");
+        properties.setProperty("hibernate.order_updates", "true");
+        properties.setProperty("hibernate.jdbc.batch_versioned_data", "true");
+        // UUID primary keys (@GeneratedValue) are taken from Uuids, so they 
+        // are time-ordered as well.
+        properties.setProperty(AvailableSettings.IDENTIFIER_GENERATOR_STRATEGY_PROVIDER,
+                               UuidIdentifierGenerator.Provider.class.getName());
         return properties;
     }
 }
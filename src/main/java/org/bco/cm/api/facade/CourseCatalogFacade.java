@@ -24,20 +24,29 @@
 
 package org.bco.cm.api.facade;
 
-import com.tribc.cqrs.domain.command.CommandBus;
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
+import java.util.function.Consumer;
 import org.bco.cm.application.command.AddCourseModule;
 import org.bco.cm.application.command.DeleteCourse;
 import org.bco.cm.application.command.DeleteCourseModule;
+import org.bco.cm.application.command.ImportCourses;
 import org.bco.cm.application.command.PostNewCourse;
 import org.bco.cm.application.command.UpdateCourseDescription;
 import org.bco.cm.application.command.UpdateCourseModule;
 import org.bco.cm.application.query.CourseSpecification;
 import org.bco.cm.application.query.ReadOnlyCourseCatalog;
+import org.bco.cm.domain.course.CourseCatalog;
 import org.bco.cm.domain.course.CourseDescriptionId;
 import org.bco.cm.domain.teacher.TeacherId;
+import org.bco.cm.dto.CatalogImportDTO;
 import org.bco.cm.dto.CourseDescriptionDTO;
+import org.bco.cm.dto.CourseDescriptionSummaryDTO;
 import org.bco.cm.dto.ModuleDTO;
+import org.bco.cm.util.Page;
+import org.bco.cm.util.PageRequest;
+import org.bco.cm.application.command.handler.CmCommandBus;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -45,14 +54,36 @@ import org.springframework.transaction.annotation.Transactional;
  * Simplified interface for accessing course catalog.
  * @author Andr&#233; H. Juffer, Biocenter Oulu
  */
-@Transactional( rollbackFor = { Throwable.class } )
 public class CourseCatalogFacade {
     
     @Autowired    
     private ReadOnlyCourseCatalog readOnlyCourseCatalog_;
     
     @Autowired
-    private CommandBus commandBus_;
+    private CourseCatalog courseCatalog_;
+    
+    @Autowired
+    private CmCommandBus commandBus_;
+    
+    private final int importBatchSize_;
+    
+    public CourseCatalogFacade()
+    {
+        this(500);
+    }
+    
+    /**
+     * Constructor.
+     * @param importBatchSize Number of course descriptions imported per 
+     * transaction.
+     */
+    public CourseCatalogFacade(int importBatchSize)
+    {
+        if ( importBatchSize < 1 ) {
+            throw new IllegalArgumentException("Import batch size must be positive.");
+        }
+        importBatchSize_ = importBatchSize;
+    }
     
     /**
      * Generates a new course identifier.
@@ -96,6 +127,75 @@ public class CourseCatalogFacade {
         return readOnlyCourseCatalog_.getSpecifiedCourses(spec);
     }
     
+    /**
+     * Returns a page of summaries of specified courses. Modules are not loaded.
+     * @param spec Specification.
+     * @param page Page request.
+     * @return Page of course summaries.
+     */
+    @Transactional( readOnly = true )
+    public Page<CourseDescriptionSummaryDTO> getSpecified(CourseSpecification spec, 
+                                                          PageRequest page)
+    {
+        return spec.query(readOnlyCourseCatalog_, page);
+    }
+    
+    /**
+     * Visits summaries of specified courses, one at a time. Modules are not 
+     * loaded.
+     * @param spec Specification.
+     * @param consumer Visitor.
+     */
+    @Transactional( readOnly = true )
+    public void forEachSpecified(CourseSpecification spec, 
+                                 Consumer<CourseDescriptionSummaryDTO> consumer)
+    {
+        spec.forEach(readOnlyCourseCatalog_, consumer);
+    }
+    
+    /**
+     * Exports the course catalog, one course description at a time, including
+     * modules. Memory use does not grow with the size of the catalog.
+     * @param consumer Receives course descriptions, in course description 
+     * identifier order.
+     */
+    @Transactional( readOnly = true )
+    public void exportCatalog(Consumer<CourseDescriptionDTO> consumer)
+    {
+        courseCatalog_.forEach(course -> consumer.accept(course.toDTO()));
+    }
+    
+    /**
+     * Imports course descriptions into the course catalog. Course descriptions
+     * are imported in batches, each in its own transaction, so that at most one 
+     * batch is held in memory. A failing batch ends the import, but batches 
+     * imported before remain imported.
+     * @param specs Course description specifications, each including 
+     * responsible teacher and modules, and optionally the course description
+     * identifier.
+     * @return Summary.
+     */
+    public CatalogImportDTO importCatalog(Iterator<CourseDescriptionDTO> specs)
+    {
+        CatalogImportDTO summary = new CatalogImportDTO();
+        List<String> skipped = new ArrayList<>();
+        int imported = 0;
+        List<CourseDescriptionDTO> batch = new ArrayList<>(importBatchSize_);
+        while ( specs.hasNext() ) {
+            batch.add(specs.next());
+            if ( batch.size() == importBatchSize_ || !specs.hasNext() ) {
+                ImportCourses command = new ImportCourses(batch);
+                commandBus_.execute(command);
+                imported += command.getImported();
+                skipped.addAll(command.getSkipped());
+                batch.clear();
+            }
+        }
+        summary.setImported(imported);
+        summary.setSkipped(skipped);
+        return summary;
+    }
+    
     /**
      * Returns all courses the given teacher is responsible for.
      * @param teacherId Teacher identifier.
@@ -120,7 +220,7 @@ public class CourseCatalogFacade {
                               CourseDescriptionDTO spec)
     {
         PostNewCourse command = new PostNewCourse(teacherId, courseId, spec);
-        commandBus_.handle(command);
+        commandBus_.execute(command);
     }
     
     /**
@@ -135,7 +235,7 @@ public class CourseCatalogFacade {
                              CourseDescriptionDTO spec)
     {
         UpdateCourseDescription command = new UpdateCourseDescription(teacherId, courseId, spec);
-        commandBus_.handle(command);
+        commandBus_.execute(command);
     }
     
     /**
@@ -146,7 +246,7 @@ public class CourseCatalogFacade {
     public void deleteCourse(CourseDescriptionId courseId, TeacherId teacherId)
     {
         DeleteCourse command = new DeleteCourse(teacherId, courseId);
-        commandBus_.handle(command);
+        commandBus_.execute(command);
     }
     
     /**
@@ -161,7 +261,7 @@ public class CourseCatalogFacade {
                                 ModuleDTO spec)
     {
         AddCourseModule command = new AddCourseModule(teacherId, courseId, spec);
-        commandBus_.handle(command);
+        commandBus_.execute(command);
     }
     
     /**
@@ -178,7 +278,7 @@ public class CourseCatalogFacade {
     {
         UpdateCourseModule command = 
             new UpdateCourseModule(teacherId, courseId, moduleId, spec);
-        commandBus_.handle(command);
+        commandBus_.execute(command);
     }
     
     /**
@@ -193,7 +293,7 @@ public class CourseCatalogFacade {
     {
         DeleteCourseModule command =
             new DeleteCourseModule(teacherId, courseId, moduleId);
-        commandBus_.handle(command);
+        commandBus_.execute(command);
     }
     
 }
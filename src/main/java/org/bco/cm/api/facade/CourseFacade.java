@@ -24,8 +24,8 @@
 
 package org.bco.cm.api.facade;
 
-import com.tribc.cqrs.domain.command.CommandBus;
 import java.util.List;
+import java.util.function.Consumer;
 import org.bco.cm.application.command.ActivateCourse;
 import org.bco.cm.application.command.UpdateCourse;
 import org.bco.cm.application.query.CourseSpecification;
@@ -35,6 +35,10 @@ import org.bco.cm.domain.course.CourseDescriptionId;
 import org.bco.cm.domain.course.CourseId;
 import org.bco.cm.domain.teacher.TeacherId;
 import org.bco.cm.dto.CourseDTO;
+import org.bco.cm.dto.CourseSummaryDTO;
+import org.bco.cm.util.Page;
+import org.bco.cm.util.PageRequest;
+import org.bco.cm.application.command.handler.CmCommandBus;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -42,7 +46,6 @@ import org.springframework.transaction.annotation.Transactional;
  * Simplified interface for handling active courses.
  * @author Andr&#233; H. Juffer, Biocenter Oulu
  */
-@Transactional( rollbackFor = { Throwable.class } )
 public class CourseFacade {
     
     @Autowired
@@ -52,7 +55,7 @@ public class CourseFacade {
     private ReadOnlyEnrolmentRegistry readOnlyEnrolmentRegistry_;
     
     @Autowired
-    private CommandBus commandBus_;
+    private CmCommandBus commandBus_;
     
     /**
      * Generates new course identifier.
@@ -95,6 +98,33 @@ public class CourseFacade {
     {
         return spec.query(readOnlyCourseRegistry_, readOnlyEnrolmentRegistry_);
     }
+    
+    /**
+     * Returns a page of summaries of specified courses, read from the course 
+     * listing. Rosters are not loaded.
+     * @param spec Specification.
+     * @param page Page request.
+     * @return Page of course summaries.
+     */
+    @Transactional( readOnly = true )
+    public Page<CourseSummaryDTO> getSpecifiedSummaries(CourseSpecification spec,
+                                                        PageRequest page)
+    {
+        return spec.query(readOnlyCourseRegistry_, page);
+    }
+    
+    /**
+     * Visits summaries of specified courses, one at a time. Rosters are not 
+     * loaded.
+     * @param spec Specification.
+     * @param consumer Visitor.
+     */
+    @Transactional( readOnly = true )
+    public void forEachSpecifiedSummary(CourseSpecification spec,
+                                        Consumer<CourseSummaryDTO> consumer)
+    {
+        spec.forEach(readOnlyCourseRegistry_, consumer);
+    }
 
     /**
      * Activates courses.
@@ -111,7 +141,7 @@ public class CourseFacade {
     {
         ActivateCourse command = 
             new ActivateCourse(teacherId, courseDescriptionId, courseId, spec);
-        commandBus_.handle(command);
+        commandBus_.execute(command);
     }
     
     /**
@@ -126,7 +156,7 @@ public class CourseFacade {
                        CourseDTO spec)
     {
         UpdateCourse command = new UpdateCourse(teacherId, courseId, spec);
-        commandBus_.handle(command);
+        commandBus_.execute(command);
     }
 
 }
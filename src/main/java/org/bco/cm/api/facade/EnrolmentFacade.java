@@ -24,31 +24,32 @@
 
 package org.bco.cm.api.facade;
 
-import com.tribc.cqrs.domain.command.CommandBus;
 import java.util.List;
 import org.bco.cm.application.command.CancelEnrolment;
 import org.bco.cm.application.query.ReadOnlyEnrolmentRegistry;
 import org.bco.cm.domain.enrolment.EnrolmentNumber;
+import org.bco.cm.application.command.handler.CmCommandBus;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.transaction.annotation.Transactional;
 import org.bco.cm.dto.EnrolmentDTO;
 import org.bco.cm.domain.course.CourseId;
 import org.bco.cm.domain.student.StudentId;
 import org.bco.cm.application.command.EnrolStudent;
+import org.bco.cm.application.command.EnrolStudents;
+import org.bco.cm.dto.EnrolmentOutcomeDTO;
 import org.bco.cm.application.query.EnrolmentSpecification;
 
 /**
  * Simplified interface for the enrolment registry.
  * @author Andr&#233; H. Juffer, Biocenter Oulu
  */
-@Transactional( rollbackFor = { Throwable.class } )
 public class EnrolmentFacade {
     
     @Autowired
     private ReadOnlyEnrolmentRegistry readOnlyEnrolmentRegistry_;
     
     @Autowired
-    private CommandBus commandBus_;
+    private CmCommandBus commandBus_;
     
     @Transactional( readOnly = true )
     public EnrolmentNumber generateEnrolmentNumber()
@@ -112,7 +113,21 @@ public class EnrolmentFacade {
                          StudentId studentId)
     {
         EnrolStudent command = new EnrolStudent(enrolmentNumber, studentId, courseId);
-        commandBus_.handle(command);
+        commandBus_.execute(command);
+    }
+    
+    /**
+     * Registers many students for a course at once.
+     * @param courseId Course identifier.
+     * @param studentIds Student identifiers.
+     * @return Outcome per distinct student.
+     */
+    public List<EnrolmentOutcomeDTO> registerAll(CourseId courseId, 
+                                                 List<StudentId> studentIds)
+    {
+        EnrolStudents command = new EnrolStudents(courseId, studentIds);
+        commandBus_.execute(command);
+        return command.getOutcomes();
     }
     
     /**
@@ -122,7 +137,7 @@ public class EnrolmentFacade {
     public void cancel(EnrolmentNumber enrolmentNumber)
     {
         CancelEnrolment command = new CancelEnrolment(enrolmentNumber);
-        commandBus_.handle(command);
+        commandBus_.execute(command);
     }
 
 }
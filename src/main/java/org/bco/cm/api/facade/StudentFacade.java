@@ -24,8 +24,8 @@
 
 package org.bco.cm.api.facade;
 
-import com.tribc.cqrs.domain.command.CommandBus;
 import java.util.List;
+import java.util.function.Consumer;
 import org.bco.cm.application.command.EnrolStudent;
 import org.bco.cm.application.command.RegisterNewStudent;
 import org.bco.cm.application.query.ReadOnlyStudentRegistry;
@@ -33,6 +33,9 @@ import org.bco.cm.domain.course.CourseId;
 import org.bco.cm.domain.enrolment.EnrolmentNumber;
 import org.bco.cm.domain.student.StudentId;
 import org.bco.cm.dto.StudentDTO;
+import org.bco.cm.util.Page;
+import org.bco.cm.util.PageRequest;
+import org.bco.cm.application.command.handler.CmCommandBus;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -40,14 +43,13 @@ import org.springframework.transaction.annotation.Transactional;
  * Simple interface for students.
  * @author Andr&#233; H. Juffer, Biocenter Oulu
  */
-@Transactional( rollbackFor = { Throwable.class } )
 public class StudentFacade {
     
     @Autowired
     private ReadOnlyStudentRegistry readOnlyStudentRegistry_;
     
     @Autowired
-    private CommandBus commandBus_;
+    private CmCommandBus commandBus_;
     
     /**
      * Returns new student identifier.
@@ -67,7 +69,7 @@ public class StudentFacade {
     public void register(StudentId studentId, StudentDTO spec)
     {
         RegisterNewStudent command = new RegisterNewStudent(studentId, spec);
-        commandBus_.handle(command);
+        commandBus_.execute(command);
     }
     
     /**
@@ -91,6 +93,27 @@ public class StudentFacade {
         return readOnlyStudentRegistry_.getAll();
     }
     
+    /**
+     * Returns a page of students.
+     * @param page Page request.
+     * @return Page of students.
+     */
+    @Transactional( readOnly=true )
+    public Page<StudentDTO> getStudents(PageRequest page)
+    {
+        return readOnlyStudentRegistry_.getAll(page);
+    }
+    
+    /**
+     * Visits all students, one at a time.
+     * @param consumer Visitor.
+     */
+    @Transactional( readOnly=true )
+    public void forEachStudent(Consumer<StudentDTO> consumer)
+    {
+        readOnlyStudentRegistry_.forEach(consumer);
+    }
+    
     /**
      * Enrols student in course.
      * @param eid Enrolment number.
@@ -102,7 +125,7 @@ public class StudentFacade {
                               CourseId courseId)
     {
         EnrolStudent command = new EnrolStudent(eid, studentId, courseId);
-        commandBus_.handle(command);
+        commandBus_.execute(command);
     }
 
 }
@@ -24,8 +24,8 @@
 
 package org.bco.cm.api.facade;
 
-import com.tribc.cqrs.domain.command.CommandBus;
 import java.util.List;
+import java.util.function.Consumer;
 import org.bco.cm.application.command.ActivateCourse;
 import org.bco.cm.application.command.RegisterNewTeacher;
 import org.bco.cm.application.query.ReadOnlyTeacherRegistry;
@@ -34,6 +34,9 @@ import org.bco.cm.domain.course.CourseId;
 import org.bco.cm.domain.teacher.TeacherId;
 import org.bco.cm.dto.CourseDTO;
 import org.bco.cm.dto.TeacherDTO;
+import org.bco.cm.util.Page;
+import org.bco.cm.util.PageRequest;
+import org.bco.cm.application.command.handler.CmCommandBus;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -41,14 +44,13 @@ import org.springframework.transaction.annotation.Transactional;
  * Simplified interface for teachers.
  * @author Andr&#233; H. Juffer, Biocenter Oulu
  */
-@Transactional( rollbackFor = { Throwable.class } )
 public class TeacherFacade {
     
     @Autowired
     private ReadOnlyTeacherRegistry readOnlyTeacherRepository_;
     
     @Autowired
-    private CommandBus commandBus_;
+    private CmCommandBus commandBus_;
     
     /**
      * Generates a new teacher identifier.
@@ -70,6 +72,27 @@ public class TeacherFacade {
         return readOnlyTeacherRepository_.getAll();
     }
     
+    /**
+     * Returns a page of teachers.
+     * @param page Page request.
+     * @return Page of teachers.
+     */
+    @Transactional( readOnly=true )
+    public Page<TeacherDTO> getTeachers(PageRequest page)
+    {
+        return readOnlyTeacherRepository_.getAll(page);
+    }
+    
+    /**
+     * Visits all teachers, one at a time.
+     * @param consumer Visitor.
+     */
+    @Transactional( readOnly=true )
+    public void forEachTeacher(Consumer<TeacherDTO> consumer)
+    {
+        readOnlyTeacherRepository_.forEach(consumer);
+    }
+    
     /**
      * Returns teacher.
      * @param teacherId Teacher identifier.
@@ -89,7 +112,7 @@ public class TeacherFacade {
     public void register(TeacherId teacherId, TeacherDTO spec)
     {
         RegisterNewTeacher command = new RegisterNewTeacher(teacherId, spec);
-        commandBus_.handle(command);
+        commandBus_.execute(command);
     }
 
 }
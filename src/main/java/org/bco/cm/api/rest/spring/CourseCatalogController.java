@@ -24,13 +24,20 @@
 
 package org.bco.cm.api.rest.spring;
 
-import java.util.List;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.io.InputStream;
 import org.bco.cm.api.facade.CourseCatalogFacade;
 import org.bco.cm.application.query.CourseSpecification;
 import org.bco.cm.domain.course.CourseDescriptionId;
 import org.bco.cm.domain.teacher.TeacherId;
+import org.bco.cm.dto.CatalogImportDTO;
 import org.bco.cm.dto.CourseDescriptionDTO;
+import org.bco.cm.dto.CourseDescriptionSummaryDTO;
 import org.bco.cm.dto.ModuleDTO;
+import org.bco.cm.util.Page;
+import org.bco.cm.util.PageRequest;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -43,6 +50,7 @@ import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 /**
  * REST API implementation using Spring.
@@ -57,6 +65,9 @@ public class CourseCatalogController {
     @Autowired
     private CourseCatalogFacade courseCatalogFacade_;
     
+    @Autowired
+    private ObjectMapper objectMapper_;
+    
     /**
      * Returns a single course description.
      * @param id Course identifier.
@@ -77,16 +88,95 @@ public class CourseCatalogController {
      * is provided, all courses are returned.
      * @param all If provided, include all courses.
      * @param teacherId If provided, include all teacher's courses.
-     * @return Courses. May be empty.
+     * @param limit Maximum number of courses returned.
+     * @param token Continuation token of the previous page. If not provided, the 
+     * first page is returned.
+     * @return Page of course summaries, in course description identifier order.
+     * Summaries hold no modules.
      */
     @GetMapping( 
         produces = "application/json;charset=UTF-8" 
     )
-    public List<CourseDescriptionDTO> getCourses(
+    public Page<CourseDescriptionSummaryDTO> getCourses(
         @RequestParam(name = "all", required = false) String all,
-        @RequestParam(name = "teacherId", required = false) String teacherId
+        @RequestParam(name = "teacherId", required = false) String teacherId,
+        @RequestParam(name = "limit", required = false, defaultValue = "100") int limit,
+        @RequestParam(name = "token", required = false) String token
     )
     {   
+        CourseSpecification spec = this.specify(all, teacherId);
+        PageRequest page = PageRequest.valueOfUuid(limit, token);
+        return courseCatalogFacade_.getSpecified(spec, page);
+    }
+    
+    /**
+     * Streams course description summaries according to specification as 
+     * newline-delimited JSON. If no argument is provided, all courses are written.
+     * @param all If provided, include all courses.
+     * @param teacherId If provided, include all teacher's courses.
+     * @return Course summaries, one per line, in course description identifier 
+     * order.
+     */
+    @GetMapping( 
+        produces = NdjsonWriter.MEDIA_TYPE
+    )
+    public StreamingResponseBody streamCourses(
+        @RequestParam(name = "all", required = false) String all,
+        @RequestParam(name = "teacherId", required = false) String teacherId
+    )
+    {
+        CourseSpecification spec = this.specify(all, teacherId);
+        return out -> {
+            NdjsonWriter<CourseDescriptionSummaryDTO> writer = 
+                new NdjsonWriter<>(objectMapper_, out);
+            courseCatalogFacade_.forEachSpecified(spec, writer);
+            writer.flush();
+        };
+    }
+    
+    /**
+     * Exports the complete course catalog, including modules, as 
+     * newline-delimited JSON. The output may be imported elsewhere.
+     * @return Course descriptions, one per line.
+     * @see #importCatalog(java.io.InputStream) 
+     */
+    @GetMapping(
+        path = "/export",
+        produces = NdjsonWriter.MEDIA_TYPE
+    )
+    public StreamingResponseBody exportCatalog()
+    {
+        return out -> {
+            NdjsonWriter<CourseDescriptionDTO> writer = 
+                new NdjsonWriter<>(objectMapper_, out);
+            courseCatalogFacade_.exportCatalog(writer);
+            writer.flush();
+        };
+    }
+    
+    /**
+     * Imports course descriptions from newline-delimited JSON, as produced by 
+     * the export. Each course description must specify the responsible 
+     * teacher. The input is read while being imported.
+     * @param in Course descriptions, one per line.
+     * @return Summary.
+     * @throws IOException if the input cannot be read.
+     */
+    @PostMapping(
+        path = "/import",
+        consumes = NdjsonWriter.MEDIA_TYPE,
+        produces = "application/json;charset=UTF-8"
+    )
+    public CatalogImportDTO importCatalog(InputStream in) throws IOException
+    {
+        try (MappingIterator<CourseDescriptionDTO> specs = 
+                 objectMapper_.readerFor(CourseDescriptionDTO.class).readValues(in)) {
+            return courseCatalogFacade_.importCatalog(specs);
+        }
+    }
+    
+    private CourseSpecification specify(String all, String teacherId)
+    {
         CourseSpecification spec = new CourseSpecification();
         if ( all != null ) {
             spec.selectAll();
@@ -95,8 +185,7 @@ public class CourseCatalogController {
         } else {
             spec.selectAll();
         }
-        
-        return courseCatalogFacade_.getSpecified(spec);
+        return spec;
     }
     
     /**
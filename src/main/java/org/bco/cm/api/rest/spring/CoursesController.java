@@ -24,7 +24,7 @@
 
 package org.bco.cm.api.rest.spring;
 
-import java.util.List;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.bco.cm.api.facade.CourseFacade;
 import org.bco.cm.api.facade.TeacherFacade;
 import org.bco.cm.application.query.CourseSpecification;
@@ -32,6 +32,9 @@ import org.bco.cm.domain.course.CourseDescriptionId;
 import org.bco.cm.domain.course.CourseId;
 import org.bco.cm.domain.teacher.TeacherId;
 import org.bco.cm.dto.CourseDTO;
+import org.bco.cm.dto.CourseSummaryDTO;
+import org.bco.cm.util.Page;
+import org.bco.cm.util.PageRequest;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -43,6 +46,7 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 /**
  * REST API implementation using Spring.
@@ -58,6 +62,9 @@ public class CoursesController {
     @Autowired 
     TeacherFacade teacherFacade_;
     
+    @Autowired
+    private ObjectMapper objectMapper_;
+    
    /**
      * Queries for courses according to specification. If no argument
      * is provided, all courses with the end date later than today's are returned.
@@ -72,12 +79,50 @@ public class CoursesController {
      * @param courseDescriptionId Course description identifier. If provided, all
      * activated courses associated with course descriptions are returned. Past 
      * courses are excluded.
-     * @return Courses. May be empty. Will be empty if no arguments were provided.
+     * @param limit Maximum number of courses returned.
+     * @param token Continuation token of the previous page. If not provided, the 
+     * first page is returned.
+     * @return Page of course summaries, without rosters, in course identifier 
+     * order. Will be empty if no arguments were provided.
      */
     @GetMapping( 
         produces = "application/json;charset=UTF-8" 
     )    
-    public List<CourseDTO> getCourses(
+    public Page<CourseSummaryDTO> getCourses(
+        @RequestParam(name = "all", required = false ) String all,
+        @RequestParam(name = "past", required = false ) String past,
+        @RequestParam(name = "teacherId", required = false ) String teacherId,
+        @RequestParam(name = "studentId", required = false ) String studentId,
+        @RequestParam(name = "ongoing", required = false ) String ongoing,
+        @RequestParam(name = "active", required = false ) String active,
+        @RequestParam(name = "courseDescriptionId", required = false) String courseDescriptionId,
+        @RequestParam(name = "limit", required = false, defaultValue = "100") int limit,
+        @RequestParam(name = "token", required = false) String token
+    )
+    {
+        CourseSpecification spec = this.specify(
+            all, past, teacherId, studentId, ongoing, active, courseDescriptionId
+        );
+        PageRequest page = PageRequest.valueOfUuid(limit, token);
+        return courseFacade_.getSpecifiedSummaries(spec, page);
+    }
+    
+    /**
+     * Streams courses according to specification as newline-delimited JSON. 
+     * Arguments are as for getCourses(...), but all selected courses are written.
+     * @param all If provided, include courses with end dates later than todays date.
+     * @param past If provided, include -all- courses.
+     * @param teacherId Teacher identifier.
+     * @param studentId Student identifier.
+     * @param ongoing If provided, include ongoing courses.
+     * @param active If provided, include courses that are active now.
+     * @param courseDescriptionId Course description identifier.
+     * @return Course summaries, one per line, in course identifier order.
+     */
+    @GetMapping( 
+        produces = NdjsonWriter.MEDIA_TYPE
+    )    
+    public StreamingResponseBody streamCourses(
         @RequestParam(name = "all", required = false ) String all,
         @RequestParam(name = "past", required = false ) String past,
         @RequestParam(name = "teacherId", required = false ) String teacherId,
@@ -86,6 +131,25 @@ public class CoursesController {
         @RequestParam(name = "active", required = false ) String active,
         @RequestParam(name = "courseDescriptionId", required = false) String courseDescriptionId
     )
+    {
+        CourseSpecification spec = this.specify(
+            all, past, teacherId, studentId, ongoing, active, courseDescriptionId
+        );
+        return out -> {
+            NdjsonWriter<CourseSummaryDTO> writer = 
+                new NdjsonWriter<>(objectMapper_, out);
+            courseFacade_.forEachSpecifiedSummary(spec, writer);
+            writer.flush();
+        };
+    }
+    
+    private CourseSpecification specify(String all,
+                                        String past,
+                                        String teacherId,
+                                        String studentId,
+                                        String ongoing,
+                                        String active,
+                                        String courseDescriptionId)
     {
         CourseSpecification spec = new CourseSpecification();
         if ( all != null ) {
@@ -109,8 +173,7 @@ public class CoursesController {
         if ( active != null ) {
             spec.selectActive();
         }
-                
-        return courseFacade_.getSpecified(spec);
+        return spec;
     }
 
     /**
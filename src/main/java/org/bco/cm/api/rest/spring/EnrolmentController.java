@@ -24,6 +24,7 @@
 
 package org.bco.cm.api.rest.spring;
 
+import java.util.ArrayList;
 import java.util.List;
 import org.bco.cm.api.facade.EnrolmentFacade;
 import org.bco.cm.application.query.EnrolmentSpecification;
@@ -31,12 +32,14 @@ import org.bco.cm.domain.course.CourseId;
 import org.bco.cm.domain.enrolment.EnrolmentNumber;
 import org.bco.cm.domain.student.StudentId;
 import org.bco.cm.dto.EnrolmentDTO;
+import org.bco.cm.dto.EnrolmentOutcomeDTO;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
@@ -113,6 +116,27 @@ public class EnrolmentController {
         return enrolmentFacade_.getEnrolment(eid);
     }
     
+    /**
+     * Registers many students for a course at once. Students for whom no seat 
+     * is left are reported as such, rather than failing the request.
+     * @param cId Course identifier.
+     * @param sIds Student identifiers.
+     * @return Outcome per distinct student.
+     */
+    @PostMapping(
+        path = "/batch",
+        consumes = "application/json;charset=UTF-8",
+        produces = "application/json;charset=UTF-8" 
+    )
+    public List<EnrolmentOutcomeDTO> registerAll(@RequestParam("courseId") String cId,
+                                                 @RequestBody List<String> sIds)
+    {
+        CourseId courseId = new CourseId(cId);
+        List<StudentId> studentIds = new ArrayList<>();
+        sIds.forEach(sId -> studentIds.add(new StudentId(sId)));
+        return enrolmentFacade_.registerAll(courseId, studentIds);
+    }
+    
     /**
      * Cancels an enrolment.
      * @param number Enrolment number.
@@ -0,0 +1,77 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2018 André H. Juffer, Biocenter Oulu
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.bco.cm.api.rest.spring;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.function.Consumer;
+
+/**
+ * Writes values as newline-delimited JSON, one value per line, as they are 
+ * accepted. Nothing is buffered beyond the output stream itself.
+ * @author Andr&#233; H. Juffer, Biocenter Oulu
+ * @param <T> Value type.
+ */
+final class NdjsonWriter<T> implements Consumer<T> {
+    
+    static final String MEDIA_TYPE = "application/x-ndjson";
+    
+    private final ObjectWriter writer_;
+    private final JsonGenerator generator_;
+    
+    NdjsonWriter(ObjectMapper objectMapper, OutputStream out) throws IOException
+    {
+        writer_ = objectMapper.writer()
+                              .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        generator_ = objectMapper.getFactory().createGenerator(out);
+        generator_.setRootValueSeparator(null);
+    }
+
+    @Override
+    public void accept(T value)
+    {
+        try {
+            writer_.writeValue(generator_, value);
+            generator_.writeRaw('\n');
+        } catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+    }
+    
+    /**
+     * Flushes written values to the output stream.
+     * @throws IOException if flushing fails.
+     */
+    void flush() throws IOException
+    {
+        generator_.flush();
+    }
+    
+}
@@ -24,10 +24,12 @@
 
 package org.bco.cm.api.rest.spring;
 
-import java.util.List;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.bco.cm.api.facade.StudentFacade;
 import org.bco.cm.domain.student.StudentId;
 import org.bco.cm.dto.StudentDTO;
+import org.bco.cm.util.Page;
+import org.bco.cm.util.PageRequest;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -35,8 +37,10 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 /**
  * REST interface for students.
@@ -49,6 +53,9 @@ public class StudentsController {
     @Autowired
     private StudentFacade studentFacade_;
     
+    @Autowired
+    private ObjectMapper objectMapper_;
+    
     /**
      * Registers new student.
      * @param spec New student specification. Must hold first name, surname,
@@ -83,15 +90,38 @@ public class StudentsController {
     }
     
     /**
-     * Returns all students.
-     * @return Students.
+     * Returns students.
+     * @param limit Maximum number of students returned.
+     * @param token Continuation token of the previous page. If not provided, the 
+     * first page is returned.
+     * @return Page of students, in student identifier order.
      */
     @GetMapping(
         produces = "application/json;charset=UTF-8"
     )
-    public List<StudentDTO> getStudents()
+    public Page<StudentDTO> getStudents(
+        @RequestParam(name = "limit", required = false, defaultValue = "100") int limit,
+        @RequestParam(name = "token", required = false) String token
+    )
+    {
+        PageRequest page = PageRequest.valueOf(limit, token);
+        return studentFacade_.getStudents(page);
+    }
+    
+    /**
+     * Streams all students as newline-delimited JSON.
+     * @return Students, one per line, in student identifier order.
+     */
+    @GetMapping(
+        produces = NdjsonWriter.MEDIA_TYPE
+    )
+    public StreamingResponseBody streamStudents()
     {
-        return studentFacade_.getAllStudents();
+        return out -> {
+            NdjsonWriter<StudentDTO> writer = new NdjsonWriter<>(objectMapper_, out);
+            studentFacade_.forEachStudent(writer);
+            writer.flush();
+        };
     }
 
 }
@@ -24,10 +24,12 @@
 
 package org.bco.cm.api.rest.spring;
 
-import java.util.List;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.bco.cm.api.facade.TeacherFacade;
 import org.bco.cm.domain.teacher.TeacherId;
 import org.bco.cm.dto.TeacherDTO;
+import org.bco.cm.util.Page;
+import org.bco.cm.util.PageRequest;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -35,8 +37,10 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 /**
  * REST interface for teachers.
@@ -49,6 +53,9 @@ public class TeachersController {
     @Autowired
     private TeacherFacade teacherFacade_;
     
+    @Autowired
+    private ObjectMapper objectMapper_;
+    
     /**
      * Registers new teacher.
      * @param spec New teacher specification. Must hold first name and surname.
@@ -82,15 +89,38 @@ public class TeachersController {
     }
     
     /**
-     * Returns all teachers.
-     * @return Teachers.
+     * Returns teachers.
+     * @param limit Maximum number of teachers returned.
+     * @param token Continuation token of the previous page. If not provided, the 
+     * first page is returned.
+     * @return Page of teachers, in teacher identifier order.
      */
     @GetMapping( 
         produces = "application/json;charset=UTF-8" 
     )
-    public List<TeacherDTO> getTeachers()
+    public Page<TeacherDTO> getTeachers(
+        @RequestParam(name = "limit", required = false, defaultValue = "100") int limit,
+        @RequestParam(name = "token", required = false) String token
+    )
+    {
+        PageRequest page = PageRequest.valueOf(limit, token);
+        return teacherFacade_.getTeachers(page);
+    }
+    
+    /**
+     * Streams all teachers as newline-delimited JSON.
+     * @return Teachers, one per line, in teacher identifier order.
+     */
+    @GetMapping( 
+        produces = NdjsonWriter.MEDIA_TYPE
+    )
+    public StreamingResponseBody streamTeachers()
     {
-        return teacherFacade_.getAllTeachers();
+        return out -> {
+            NdjsonWriter<TeacherDTO> writer = new NdjsonWriter<>(objectMapper_, out);
+            teacherFacade_.forEachTeacher(writer);
+            writer.flush();
+        };
     }
     
 }
@@ -0,0 +1,94 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2018 André H. Juffer, Biocenter Oulu
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.bco.cm.application.command;
+
+import com.tribc.cqrs.domain.command.AbstractCommand;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import org.bco.cm.domain.course.CourseId;
+import org.bco.cm.domain.student.StudentId;
+import org.bco.cm.dto.EnrolmentOutcomeDTO;
+
+/**
+ * Command to enroll many students in a course at once. Once handled, the 
+ * command holds the outcome for each student.
+ * @author Andr&#233; H. Juffer, Biocenter Oulu
+ */
+public class EnrolStudents extends AbstractCommand {
+    
+    private final CourseId courseId_;
+    private final List<StudentId> studentIds_;
+    private List<EnrolmentOutcomeDTO> outcomes_;
+    
+    /**
+     * Constructor.
+     * @param courseId Course identifier.
+     * @param studentIds Student identifiers. Duplicates are ignored.
+     */
+    public EnrolStudents(CourseId courseId, Collection<StudentId> studentIds)
+    {
+        super(EnrolStudents.class);
+        courseId_ = courseId;
+        studentIds_ = new ArrayList<>(studentIds);
+        outcomes_ = new ArrayList<>();
+    }
+    
+    /**
+     * Returns course identifier.
+     * @return Identifier.
+     */
+    public CourseId getCourseId()
+    {
+        return courseId_;
+    }
+    
+    /**
+     * Returns student identifiers.
+     * @return Identifiers.
+     */
+    public List<StudentId> getStudentIds()
+    {
+        return studentIds_;
+    }
+    
+    /**
+     * Sets outcomes. Replaces outcomes of any earlier attempt.
+     * @param outcomes Outcomes, one per distinct student.
+     */
+    public void setOutcomes(List<EnrolmentOutcomeDTO> outcomes)
+    {
+        outcomes_ = outcomes;
+    }
+    
+    /**
+     * Returns outcomes.
+     * @return Outcomes, one per distinct student. Empty if not yet handled.
+     */
+    public List<EnrolmentOutcomeDTO> getOutcomes()
+    {
+        return outcomes_;
+    }
+    
+}
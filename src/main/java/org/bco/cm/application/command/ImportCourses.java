@@ -0,0 +1,94 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2018 André H. Juffer, Biocenter Oulu
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.bco.cm.application.command;
+
+import com.tribc.cqrs.domain.command.AbstractCommand;
+import java.util.ArrayList;
+import java.util.List;
+import org.bco.cm.dto.CourseDescriptionDTO;
+
+/**
+ * Command to import a batch of course descriptions into the course catalog. 
+ * Each course description specifies its responsible teacher, and may specify 
+ * its identifier. Course descriptions with identifiers already in use are 
+ * skipped.
+ * @author Andr&#233; H. Juffer, Biocenter Oulu
+ */
+public class ImportCourses extends AbstractCommand {
+    
+    private final List<CourseDescriptionDTO> specs_;
+    private int imported_;
+    private List<String> skipped_;
+    
+    /**
+     * Constructor.
+     * @param specs Course description specifications, including modules.
+     */
+    public ImportCourses(List<CourseDescriptionDTO> specs)
+    {
+        super(ImportCourses.class);
+        specs_ = new ArrayList<>(specs);
+        imported_ = 0;
+        skipped_ = new ArrayList<>();
+    }
+    
+    /**
+     * Returns course description specifications.
+     * @return Specifications.
+     */
+    public List<CourseDescriptionDTO> getSpecifications()
+    {
+        return specs_;
+    }
+    
+    /**
+     * Sets outcome. Replaces the outcome of any earlier attempt.
+     * @param imported Number of imported course descriptions.
+     * @param skipped Identifiers of skipped course descriptions.
+     */
+    public void setOutcome(int imported, List<String> skipped)
+    {
+        imported_ = imported;
+        skipped_ = skipped;
+    }
+    
+    /**
+     * Returns number of imported course descriptions.
+     * @return Number.
+     */
+    public int getImported()
+    {
+        return imported_;
+    }
+    
+    /**
+     * Returns identifiers of skipped course descriptions.
+     * @return Identifiers. May be empty.
+     */
+    public List<String> getSkipped()
+    {
+        return skipped_;
+    }
+    
+}
@@ -31,6 +31,7 @@ import org.bco.cm.domain.course.CourseDescription;
 import org.bco.cm.domain.course.CourseDescriptionId;
 import org.bco.cm.domain.course.CourseId;
 import org.bco.cm.domain.course.CourseRegistry;
+import org.bco.cm.domain.course.ModuleCopier;
 import org.bco.cm.domain.course.CourseService;
 import org.bco.cm.domain.teacher.Teacher;
 import org.bco.cm.domain.teacher.TeacherId;
@@ -52,6 +53,9 @@ public class ActivateCourseHandler extends CmCommandHandler<ActivateCourse> {
     
     @Autowired
     private CourseRegistry courseRegistry_;
+    
+    @Autowired
+    private ModuleCopier moduleCopier_;
 
     @Override
     public void handle(ActivateCourse command) 
@@ -71,7 +75,8 @@ public class ActivateCourseHandler extends CmCommandHandler<ActivateCourse> {
                                    courseDescription, 
                                    courseId, 
                                    spec, 
-                                   courseRegistry_);
+                                   courseRegistry_,
+                                   moduleCopier_);
         
         // Handle possible domain events.
         this.handleEvents(course);       
@@ -25,6 +25,7 @@
 package org.bco.cm.application.command.handler;
 
 import org.bco.cm.application.command.AddCourseModule;
+import org.bco.cm.application.query.CourseCatalogCache;
 import org.bco.cm.domain.course.CourseCatalog;
 import org.bco.cm.domain.course.CourseCatalogService;
 import org.bco.cm.domain.course.CourseDescription;
@@ -48,6 +49,9 @@ public class AddCourseModuleHandler extends CmCommandHandler<AddCourseModule> {
     @Autowired
     private TeacherRegistry teacherRegistry_;
 
+    @Autowired
+    private CourseCatalogCache courseCatalogCache_;
+    
     @Override
     public void handle(AddCourseModule command) 
     {
@@ -62,6 +66,7 @@ public class AddCourseModuleHandler extends CmCommandHandler<AddCourseModule> {
         // Update course description.
         CourseDescription updated = 
             CourseCatalogService.addModule(teacher, course, spec, courseCatalog_);
+        courseCatalogCache_.invalidate(courseId);
         
         // Handle possible domain events.
         this.handleEvents(updated);
@@ -25,9 +25,15 @@
 package org.bco.cm.application.command.handler;
 
 import org.bco.cm.application.command.CancelEnrolment;
+import org.bco.cm.domain.course.Course;
+import org.bco.cm.domain.course.CourseRegistry;
+import org.bco.cm.domain.course.CourseRoster;
+import org.bco.cm.domain.course.SeatInventory;
 import org.bco.cm.domain.enrolment.Enrolment;
 import org.bco.cm.domain.enrolment.EnrolmentNumber;
 import org.bco.cm.domain.enrolment.EnrolmentRegistry;
+import org.bco.cm.domain.student.Student;
+import org.bco.cm.domain.student.StudentRegistry;
 import org.springframework.beans.factory.annotation.Autowired;
 
 /**
@@ -38,6 +44,18 @@ public class CancelEnrolmentHandler extends CmCommandHandler<CancelEnrolment> {
 
     @Autowired
     private EnrolmentRegistry enrolmentRegistry_;
+    
+    @Autowired
+    private CourseRegistry courseRegistry_;
+    
+    @Autowired
+    private StudentRegistry studentRegistry_;
+    
+    @Autowired
+    private SeatInventory seatInventory_;
+    
+    @Autowired
+    private CourseRoster courseRoster_;
 
     @Override
     public void handle(CancelEnrolment command) 
@@ -45,9 +63,16 @@ public class CancelEnrolmentHandler extends CmCommandHandler<CancelEnrolment> {
         EnrolmentNumber enrolmentNumber = command.getEnrolmentNumber();
         Enrolment enrolment = enrolmentRegistry_.forOne(enrolmentNumber);
         
-        // Cancel.
-        enrolment.cancel();
+        Course course = 
+            CommandHandlerUtil.findCourse(enrolment.getCourseId(), courseRegistry_);
+        Student student = 
+            CommandHandlerUtil.findStudent(enrolment.getStudentId(), 
+                                           studentRegistry_);
+        
+        // Cancel. Removes student from roster as well.
+        enrolment.cancel(course, student, seatInventory_, courseRoster_);
         enrolmentRegistry_.remove(enrolment);
+        courseRegistry_.update(course);
         
         // Handle possible domain events.
         this.handleEvents(enrolment);        
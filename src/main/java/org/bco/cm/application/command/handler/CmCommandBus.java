@@ -24,7 +24,12 @@
 
 package org.bco.cm.application.command.handler;
 
+import com.tribc.cqrs.domain.command.AbstractCommand;
 import com.tribc.cqrs.domain.command.CommandBus;
+import java.util.concurrent.ThreadLocalRandom;
+import javax.persistence.OptimisticLockException;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
 import org.bco.cm.application.command.ActivateCourse;
 import org.bco.cm.application.command.AddCourseModule;
 import org.bco.cm.application.command.DeleteCourse;
@@ -32,21 +37,111 @@ import org.bco.cm.application.command.DeleteCourseModule;
 import org.bco.cm.application.command.RegisterNewStudent;
 import org.bco.cm.application.command.RegisterNewTeacher;
 import org.bco.cm.application.command.EnrolStudent;
+import org.bco.cm.application.command.EnrolStudents;
+import org.bco.cm.application.command.ImportCourses;
 import org.bco.cm.application.command.PostNewCourse;
 import org.bco.cm.application.command.StartCourse;
 import org.bco.cm.application.command.UpdateCourseDescription;
 import org.bco.cm.application.command.UpdateCourseModule;
 import org.bco.cm.application.command.CancelEnrolment;
 import org.bco.cm.application.command.UpdateCourse;
+import org.hibernate.StaleStateException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 
 /**
- * Simple command bus for matching commands to command handlers.
+ * Simple command bus for matching commands to command handlers. Each command 
+ * is executed in its own transaction. If that transaction fails because an 
+ * aggregate was modified concurrently (optimistic locking) or could not be 
+ * locked in time, the command is executed again after a randomized, 
+ * exponentially growing delay.
  * @author Andr&#233; H. Juffer, Biocenter Oulu
  */
 public class CmCommandBus extends CommandBus {    
     
+    static final Logger LOGGER = LogManager.getLogger("com.bco.cm");
+    
+    private final int maxAttempts_;
+    private final long backoff_;
+    private final long maxBackoff_;
+    private TransactionTemplate transactionTemplate_;
+    
+    /**
+     * Creates command bus that executes commands at most once.
+     */
+    public CmCommandBus()
+    {
+        this(1, 0, 0);
+    }
+    
+    /**
+     * Creates command bus.
+     * @param maxAttempts Maximum number of times a command is executed.
+     * @param backoff Delay in milliseconds before the first retry. Doubled for 
+     * every next retry.
+     * @param maxBackoff Maximum delay in milliseconds.
+     * @throws IllegalArgumentException if maxAttempts is less than 1, or a 
+     * delay is negative.
+     */
+    public CmCommandBus(int maxAttempts, long backoff, long maxBackoff)
+    {
+        super();
+        if ( maxAttempts < 1 || backoff < 0 || maxBackoff < 0 ) {
+            throw new IllegalArgumentException(
+                "Attempts must be positive, delays must not be negative."
+            );
+        }
+        maxAttempts_ = maxAttempts;
+        backoff_ = backoff;
+        maxBackoff_ = maxBackoff;
+    }
+    
+    @Autowired
+    public void setTransactionManager(PlatformTransactionManager transactionManager)
+    {
+        transactionTemplate_ = new TransactionTemplate(transactionManager);
+    }
+    
+    /**
+     * Executes command in a new transaction, retrying on optimistic locking 
+     * and lock acquisition failures. If a transaction is already active, the 
+     * command joins it and is not retried, as the active transaction cannot be
+     * recovered.
+     * @param command Command.
+     * @throws ConcurrencyFailureException if the command still conflicted 
+     * after the maximum number of attempts.
+     */
+    public void execute(AbstractCommand command)
+    {
+        if ( TransactionSynchronizationManager.isActualTransactionActive() ) {
+            this.handle(command);
+            return;
+        }
+        long backoff = backoff_;
+        for (int attempt = 1; ; attempt++) {
+            try {
+                transactionTemplate_.execute(status -> {
+                    this.handle(command);
+                    return null;
+                });
+                return;
+            } catch (RuntimeException exception) {
+                if ( attempt >= maxAttempts_ || !isConflict(exception) ) {
+                    throw exception;
+                }
+                LOGGER.debug(command.getClass().getSimpleName() + 
+                             ": Concurrent modification, attempt " + attempt + 
+                             " of " + maxAttempts_ + ".");
+            }
+            sleep(ThreadLocalRandom.current().nextLong(backoff + 1));
+            backoff = Math.min(2 * backoff, maxBackoff_);
+        }
+    }
+    
     @Autowired
     public void setRegisterNewStudentHandler(RegisterNewStudentHandler handler)
     {
@@ -65,6 +160,18 @@ public class CmCommandBus extends CommandBus {
         this.setHandler(EnrolStudent.class, handler);
     }
     
+    @Autowired
+    public void setEnrolStudentsHandler(EnrolStudentsHandler handler)
+    {
+        this.setHandler(EnrolStudents.class, handler);
+    }
+    
+    @Autowired
+    public void setImportCoursesHandler(ImportCoursesHandler handler)
+    {
+        this.setHandler(ImportCourses.class, handler);
+    }
+    
     @Autowired
     public void setPostNewCourseHandler(PostNewCourseHandler handler)
     {
@@ -129,5 +236,27 @@ public class CmCommandBus extends CommandBus {
     {
         this.match(clazz, handler);
     }
+    
+    private static boolean isConflict(Throwable exception)
+    {
+        for (Throwable t = exception; t != null; t = t.getCause()) {
+            if ( t instanceof ConcurrencyFailureException || 
+                 t instanceof OptimisticLockException || 
+                 t instanceof StaleStateException ) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    private static void sleep(long millis)
+    {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while retrying command.");
+        }
+    }
 
 }
@@ -25,9 +25,10 @@
 package org.bco.cm.application.command.handler;
 
 import com.tribc.cqrs.domain.command.AbstractCommand;
-import com.tribc.ddd.domain.event.EventBus;
 import com.tribc.ddd.domain.event.Eventful;
 import com.tribc.ddd.domain.handling.AbstractHandler;
+import java.util.Collection;
+import org.bco.cm.application.event.handler.CmEventBus;
 import org.springframework.beans.factory.annotation.Autowired;
 
 /**
@@ -39,7 +40,7 @@ public abstract class CmCommandHandler<C extends AbstractCommand>
     extends AbstractHandler<C> {
     
     @Autowired
-    private EventBus eventBus_;
+    private CmEventBus eventBus_;
     
     protected CmCommandHandler()
     {
@@ -52,7 +53,7 @@ public abstract class CmCommandHandler<C extends AbstractCommand>
     /**
      * Handle raised domain events asynchronously.
      * @param eventful Object that may have raised domain events.
-     * @deprecated
+     * @deprecated Use handleEvents(), which is asynchronous if so configured.
      */
     @Deprecated
     protected void handleEventsAsync(Eventful eventful)
@@ -61,12 +62,23 @@ public abstract class CmCommandHandler<C extends AbstractCommand>
     }
     
     /**
-     * Handles events in the same thread.
+     * Handles events, either in the same thread or asynchronously after the 
+     * current transaction committed.
      * @param eventful Object that may have raised domain events.
      */
     protected void handleEvents(Eventful eventful)
     {
-        eventBus_.handle(eventful);
+        eventBus_.dispatch(eventful);
+    }
+    
+    /**
+     * Handles events raised by many objects as one batch.
+     * @param eventfuls Objects that may have raised domain events.
+     * @see #handleEvents(com.tribc.ddd.domain.event.Eventful) 
+     */
+    protected void handleEvents(Collection<? extends Eventful> eventfuls)
+    {
+        eventBus_.dispatch(eventfuls);
     }
 
 }
@@ -25,6 +25,7 @@
 package org.bco.cm.application.command.handler;
 
 import org.bco.cm.application.command.DeleteCourse;
+import org.bco.cm.application.query.CourseCatalogCache;
 import org.bco.cm.domain.course.CourseCatalog;
 import org.bco.cm.domain.course.CourseDescription;
 import org.bco.cm.domain.course.CourseDescriptionId;
@@ -46,6 +47,9 @@ public class DeleteCourseHandler extends CmCommandHandler<DeleteCourse> {
     @Autowired
     private CourseCatalog courseCatalog_;
 
+    @Autowired
+    private CourseCatalogCache courseCatalogCache_;
+    
     @Override
     public void handle(DeleteCourse command) 
     {
@@ -56,7 +60,11 @@ public class DeleteCourseHandler extends CmCommandHandler<DeleteCourse> {
         CourseDescription course = 
             CommandHandlerUtil.findCourseDescription(courseId, courseCatalog_);
         
-        CourseCatalogService.remove(teacher, course, courseCatalog_);      
+        CourseCatalogService.remove(teacher, course, courseCatalog_);
+        courseCatalogCache_.invalidate(courseId);
+        
+        // Handle possible domain events.
+        this.handleEvents(course);
     }
     
     
@@ -26,10 +26,11 @@ package org.bco.cm.application.command.handler;
 
 import org.bco.cm.application.command.EnrolStudent;
 import org.bco.cm.domain.course.Course;
-import org.bco.cm.domain.course.CourseCatalog;
 import org.bco.cm.domain.enrolment.Enrolment;
 import org.bco.cm.domain.course.CourseId;
 import org.bco.cm.domain.course.CourseRegistry;
+import org.bco.cm.domain.course.CourseRoster;
+import org.bco.cm.domain.course.SeatInventory;
 import org.bco.cm.domain.enrolment.EnrolmentNumber;
 import org.bco.cm.domain.student.Student;
 import org.bco.cm.domain.student.StudentId;
@@ -52,6 +53,12 @@ public class EnrolStudentHandler extends CmCommandHandler<EnrolStudent> {
     @Autowired
     private EnrolmentRegistry enrolmentRegistry_;
     
+    @Autowired
+    private SeatInventory seatInventory_;
+    
+    @Autowired
+    private CourseRoster courseRoster_;
+    
     /**
      * @param command Command.
      * @throws IllegalStateException if student was already enrolled in course.
@@ -65,9 +72,11 @@ public class EnrolStudentHandler extends CmCommandHandler<EnrolStudent> {
         Course course = CommandHandlerUtil.findCourse(courseId, courseRegistry_);
         Student student = CommandHandlerUtil.findStudent(studentId, studentRegistry_);        
         
-        // Enrol student.
-        Enrolment enrolment = Enrolment.register(eid, course, student);
+        // Enrol student. Adds student to roster as well.
+        Enrolment enrolment = 
+            Enrolment.register(eid, course, student, seatInventory_, courseRoster_);
         enrolmentRegistry_.add(enrolment);
+        courseRegistry_.update(course);
 
         // Handle events.
         this.handleEvents(enrolment);
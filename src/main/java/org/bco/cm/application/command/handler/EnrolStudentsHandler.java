@@ -0,0 +1,265 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2018 André H. Juffer, Biocenter Oulu
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.bco.cm.application.command.handler;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.bco.cm.application.command.EnrolStudents;
+import org.bco.cm.domain.course.Course;
+import org.bco.cm.domain.course.CourseRegistry;
+import org.bco.cm.domain.course.CourseRoster;
+import org.bco.cm.domain.course.SeatInventory;
+import org.bco.cm.domain.course.StudentMonitor;
+import org.bco.cm.domain.enrolment.Enrolment;
+import org.bco.cm.domain.enrolment.EnrolmentNumber;
+import org.bco.cm.domain.enrolment.EnrolmentRegistry;
+import org.bco.cm.domain.student.Student;
+import org.bco.cm.domain.student.StudentId;
+import org.bco.cm.domain.student.StudentRegistry;
+import org.bco.cm.dto.EnrolmentOutcomeDTO;
+import org.bco.cm.dto.EnrolmentOutcomeDTO.Outcome;
+import org.springframework.beans.factory.annotation.Autowired;
+
+/**
+ * Enrols many students in a course at once. Students are loaded in one query, 
+ * and those already enrolled are selected in another. Seats are reserved in a
+ * single step for all eligible students, their monitors are added to the 
+ * roster at once, and the enrolments are inserted in JDBC batches. Students 
+ * for whom no seat is left are not enrolled, but this does not fail the 
+ * command.
+ * @author Andr&#233; H. Juffer, Biocenter Oulu
+ */
+public class EnrolStudentsHandler extends CmCommandHandler<EnrolStudents> {
+    
+    @Autowired
+    private CourseRegistry courseRegistry_;
+    
+    @Autowired
+    private StudentRegistry studentRegistry_;
+    
+    @Autowired
+    private EnrolmentRegistry enrolmentRegistry_;
+    
+    @Autowired
+    private SeatInventory seatInventory_;
+    
+    @Autowired
+    private CourseRoster courseRoster_;
+    
+    /**
+     * @param command Command.
+     * @throws IllegalStateException if registration for course is not open.
+     */
+    @Override
+    public void handle(EnrolStudents command)
+    {
+        Course course = 
+            CommandHandlerUtil.findCourse(command.getCourseId(), courseRegistry_);
+        if ( !course.isActive() ) {
+            throw new IllegalStateException("Registration is not yet open.");
+        }
+        
+        // Load all students at once.
+        Set<StudentId> studentIds = new LinkedHashSet<>(command.getStudentIds());
+        Map<StudentId, Student> students = new HashMap<>();
+        studentRegistry_.forStudents(studentIds).forEach(
+            student -> students.put(student.getStudentId(), student)
+        );
+        
+        // Classify.
+        Set<StudentId> enrolled = 
+            courseRoster_.enrolled(course, students.values());
+        List<EnrolmentOutcomeDTO> outcomes = new ArrayList<>();
+        List<Student> eligible = new ArrayList<>();
+        List<EnrolmentOutcomeDTO> pending = new ArrayList<>();
+        for (StudentId studentId : studentIds) {
+            EnrolmentOutcomeDTO outcome = new EnrolmentOutcomeDTO();
+            outcome.setStudentId(studentId.stringValue());
+            outcomes.add(outcome);
+            Student student = students.get(studentId);
+            if ( student == null ) {
+                outcome.setOutcome(Outcome.NO_SUCH_STUDENT);
+            } else if ( enrolled.contains(studentId) ) {
+                outcome.setOutcome(Outcome.ALREADY_ENROLLED);
+            } else {
+                eligible.add(student);
+                pending.add(outcome);
+            }
+        }
+        
+        // Reserve seats once for all eligible students, first come first served.
+        int granted = 
+            eligible.isEmpty() ? 0 : seatInventory_.reserve(course, eligible.size());
+        SeatInventory reserved = new Reserved(seatInventory_, granted);
+        Additions additions = new Additions(courseRoster_);
+        List<Enrolment> enrolments = new ArrayList<>();
+        for (int i = 0; i != eligible.size(); i++) {
+            EnrolmentOutcomeDTO outcome = pending.get(i);
+            if ( i < granted ) {
+                EnrolmentNumber eid = EnrolmentNumber.generate();
+                Enrolment enrolment = 
+                    Enrolment.register(eid, course, eligible.get(i), reserved, additions);
+                enrolments.add(enrolment);
+                outcome.setEnrolmentNumber(eid.stringValue());
+                outcome.setOutcome(Outcome.ENROLLED);
+            } else {
+                outcome.setOutcome(Outcome.NO_SEATS);
+            }
+        }
+        
+        if ( !enrolments.isEmpty() ) {
+            courseRoster_.addAll(course, additions.monitors());
+            enrolmentRegistry_.addAll(enrolments);
+            courseRegistry_.update(course);
+            this.handleEvents(enrolments);
+        }
+        command.setOutcomes(outcomes);
+    }
+    
+    /**
+     * Hands out seats that were reserved beforehand in the underlying inventory.
+     * The reserved seats are numbered at once, on first request.
+     */
+    private static class Reserved implements SeatInventory {
+        
+        private final SeatInventory inventory_;
+        private final int reserved_;
+        private int remaining_;
+        private int nextNumber_;
+        private int numbered_;
+        
+        Reserved(SeatInventory inventory, int reserved)
+        {
+            inventory_ = inventory;
+            reserved_ = reserved;
+            remaining_ = reserved;
+            nextNumber_ = 0;
+            numbered_ = -1;
+        }
+
+        @Override
+        public boolean reserve(Course course) 
+        {
+            if ( remaining_ == 0 ) {
+                return false;
+            }
+            remaining_--;
+            return true;
+        }
+
+        @Override
+        public int reserve(Course course, int count) 
+        {
+            int granted = Math.min(count, remaining_);
+            remaining_ -= granted;
+            return granted;
+        }
+
+        @Override
+        public int numberSeats(Course course, int count) 
+        {
+            if ( numbered_ < 0 && count <= reserved_ ) {
+                nextNumber_ = inventory_.numberSeats(course, reserved_);
+                numbered_ = reserved_;
+            }
+            if ( count > numbered_ ) {
+                return inventory_.numberSeats(course, count);
+            }
+            int first = nextNumber_;
+            nextNumber_ += count;
+            numbered_ -= count;
+            return first;
+        }
+
+        @Override
+        public void release(Course course) 
+        {
+            inventory_.release(course);
+        }
+
+        @Override
+        public int seatsTaken(Course course) 
+        {
+            return inventory_.seatsTaken(course);
+        }
+        
+    }
+    
+    /**
+     * Collects the monitors of students enrolled one by one, to be added to 
+     * the roster at once. Students were checked beforehand not to be enrolled.
+     */
+    private static class Additions implements CourseRoster {
+        
+        private final CourseRoster roster_;
+        private final List<StudentMonitor> monitors_;
+        
+        Additions(CourseRoster roster)
+        {
+            roster_ = roster;
+            monitors_ = new ArrayList<>();
+        }
+        
+        List<StudentMonitor> monitors()
+        {
+            return monitors_;
+        }
+
+        @Override
+        public boolean isEnrolled(Course course, Student student) 
+        {
+            return false;
+        }
+
+        @Override
+        public Set<StudentId> enrolled(Course course, Collection<Student> students) 
+        {
+            return roster_.enrolled(course, students);
+        }
+
+        @Override
+        public void add(Course course, StudentMonitor monitor) 
+        {
+            monitors_.add(monitor);
+        }
+
+        @Override
+        public void addAll(Course course, Collection<StudentMonitor> monitors) 
+        {
+            monitors_.addAll(monitors);
+        }
+
+        @Override
+        public boolean remove(Course course, Student student) 
+        {
+            return roster_.remove(course, student);
+        }
+        
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2018 André H. Juffer, Biocenter Oulu
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.bco.cm.application.command.handler;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.bco.cm.application.command.ImportCourses;
+import org.bco.cm.application.query.CourseCatalogCache;
+import org.bco.cm.domain.course.CourseCatalog;
+import org.bco.cm.domain.course.CourseCatalogService;
+import org.bco.cm.domain.course.CourseDescription;
+import org.bco.cm.domain.course.CourseDescriptionId;
+import org.bco.cm.domain.teacher.Teacher;
+import org.bco.cm.domain.teacher.TeacherId;
+import org.bco.cm.domain.teacher.TeacherRegistry;
+import org.bco.cm.dto.CourseDescriptionDTO;
+import org.springframework.beans.factory.annotation.Autowired;
+
+/**
+ * Imports a batch of course descriptions. Course descriptions are inserted 
+ * in JDBC batches.
+ * @author Andr&#233; H. Juffer, Biocenter Oulu
+ */
+public class ImportCoursesHandler extends CmCommandHandler<ImportCourses> {
+    
+    @Autowired
+    private TeacherRegistry teacherRegistry_;
+    
+    @Autowired
+    private CourseCatalog courseCatalog_;
+    
+    @Autowired
+    private CourseCatalogCache courseCatalogCache_;
+    
+    /**
+     * @param command Command.
+     * @throws NullPointerException if a responsible teacher does not exist.
+     */
+    @Override
+    public void handle(ImportCourses command)
+    {
+        Map<String, Teacher> teachers = new HashMap<>();
+        Set<CourseDescriptionId> seen = new HashSet<>();
+        List<CourseDescription> courses = new ArrayList<>();
+        List<String> skipped = new ArrayList<>();
+        for (CourseDescriptionDTO spec : command.getSpecifications()) {
+            String id = spec.getCourseDescriptionId();
+            CourseDescriptionId courseId = id == null ? 
+                CourseDescriptionId.generate() : new CourseDescriptionId(id);
+            if ( !seen.add(courseId) || courseCatalog_.contains(courseId) ) {
+                skipped.add(courseId.stringValue());
+                continue;
+            }
+            Teacher teacher = teachers.computeIfAbsent(
+                spec.getTeacherId(), 
+                teacherId -> CommandHandlerUtil.findTeacher(
+                    new TeacherId(teacherId), teacherRegistry_
+                )
+            );
+            courses.add(CourseDescription.valueOf(teacher, courseId, spec));
+        }
+        
+        CourseCatalogService.addAll(courses, courseCatalog_);
+        courses.forEach(
+            course -> courseCatalogCache_.invalidate(course.getCourseDescriptionId())
+        );
+        command.setOutcome(courses.size(), skipped);
+        
+        // Handle possible domain events.
+        this.handleEvents(courses);
+    }
+    
+}
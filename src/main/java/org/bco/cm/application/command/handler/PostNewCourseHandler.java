@@ -25,6 +25,7 @@
 package org.bco.cm.application.command.handler;
 
 import org.bco.cm.application.command.PostNewCourse;
+import org.bco.cm.application.query.CourseCatalogCache;
 import org.bco.cm.domain.course.CourseCatalog;
 import org.bco.cm.domain.course.CourseCatalogService;
 import org.bco.cm.domain.course.CourseDescription;
@@ -47,6 +48,9 @@ public class PostNewCourseHandler extends CmCommandHandler<PostNewCourse> {
     @Autowired
     private CourseCatalog courseCatalog_;
     
+    @Autowired
+    private CourseCatalogCache courseCatalogCache_;
+    
     @Override
     public void handle(PostNewCourse command)
     {
@@ -59,6 +63,7 @@ public class PostNewCourseHandler extends CmCommandHandler<PostNewCourse> {
         // Create course.
         CourseDescription course = 
             CourseCatalogService.add(teacher, courseId, spec, courseCatalog_);
+        courseCatalogCache_.invalidate(courseId);
         
         // Handle possible domain events.
         this.handleEvents(course);
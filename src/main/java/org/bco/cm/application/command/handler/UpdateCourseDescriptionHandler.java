@@ -25,6 +25,7 @@
 package org.bco.cm.application.command.handler;
 
 import org.bco.cm.application.command.UpdateCourseDescription;
+import org.bco.cm.application.query.CourseCatalogCache;
 import org.bco.cm.domain.course.CourseCatalog;
 import org.bco.cm.domain.course.CourseDescription;
 import org.bco.cm.domain.course.CourseDescriptionId;
@@ -48,6 +49,9 @@ public class UpdateCourseDescriptionHandler
     @Autowired
     private CourseCatalog courseCatalog_;
     
+    @Autowired
+    private CourseCatalogCache courseCatalogCache_;
+    
     @Override
     public void handle(UpdateCourseDescription command) 
     {
@@ -62,6 +66,7 @@ public class UpdateCourseDescriptionHandler
         // Update course.
         CourseDescription updated = 
             CourseCatalogService.update(teacher, course, spec, courseCatalog_);
+        courseCatalogCache_.invalidate(courseId);
         
         // Handle possible domain events.
         this.handleEvents(updated);
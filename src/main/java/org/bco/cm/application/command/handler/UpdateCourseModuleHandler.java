@@ -25,6 +25,7 @@
 package org.bco.cm.application.command.handler;
 
 import org.bco.cm.application.command.UpdateCourseModule;
+import org.bco.cm.application.query.CourseCatalogCache;
 import org.bco.cm.domain.course.CourseCatalog;
 import org.bco.cm.domain.course.CourseCatalogService;
 import org.bco.cm.domain.course.CourseDescription;
@@ -47,6 +48,9 @@ public class UpdateCourseModuleHandler extends CmCommandHandler<UpdateCourseModu
     @Autowired
     private CourseCatalog courseCatalog_;
 
+    @Autowired
+    private CourseCatalogCache courseCatalogCache_;
+    
     @Override
     public void handle(UpdateCourseModule command) 
     {
@@ -66,6 +70,7 @@ public class UpdateCourseModuleHandler extends CmCommandHandler<UpdateCourseModu
                                               moduleId, 
                                               spec, 
                                               courseCatalog_);
+        courseCatalogCache_.invalidate(courseId);
         
         // Handle events.
         this.handleEvents(updated);
@@ -24,20 +24,215 @@
 
 package org.bco.cm.application.event.handler;
 
+import com.tribc.ddd.domain.event.Event;
 import com.tribc.ddd.domain.event.EventBus;
 import com.tribc.ddd.domain.event.EventHandler;
+import com.tribc.ddd.domain.event.Eventful;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
 import org.bco.cm.domain.student.event.NewStudentRegistered;
 import org.bco.cm.domain.enrolment.event.EnrolmentCreated;
+import org.bco.cm.domain.course.event.CourseActivated;
+import org.bco.cm.domain.course.event.CourseDescriptionRemoved;
+import org.bco.cm.domain.course.event.CourseDescriptionUpdated;
+import org.bco.cm.domain.course.event.CourseStarted;
+import org.bco.cm.domain.course.event.CourseUpdated;
 import org.bco.cm.domain.course.event.NewCourseAddedToCatalog;
 import org.bco.cm.domain.teacher.event.NewTeacherRegistered;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.SmartLifecycle;
 import org.bco.cm.domain.enrolment.event.EnrolmentCanceled;
+import org.bco.cm.util.SequencedEvent;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 /**
- * Simple event bus for matching events to event handlers.
+ * Simple event bus for matching events to event handlers. Events are either 
+ * handled in the calling thread, written to the event outbox for an outbox 
+ * relay, or, if asynchronous, handed to an ordered executor after the 
+ * surrounding transaction committed. In the latter two cases, events with the 
+ * same sequence key are handled in the order they were raised, each in its own
+ * transaction. Asynchronous events are never dropped: if the executor is 
+ * full, the calling thread waits for room. The outbox relay, if any, is 
+ * started once the application context is refreshed, and stopped when it 
+ * closes.
  * @author Andr&#233; H. Juffer, Biocenter Oulu
  */
-public class CmEventBus extends EventBus {
+public class CmEventBus extends EventBus implements SmartLifecycle {
+    
+    static final Logger LOGGER = LogManager.getLogger("com.bco.cm");
+    
+    private final Map<Class, EventHandler> handlers_;
+    private final OrderedExecutor executor_;
+    private final OutboxRelay relay_;
+    private TransactionTemplate transactionTemplate_;
+    private volatile boolean running_;
+    
+    /**
+     * Creates event bus that handles events in the calling thread.
+     */
+    public CmEventBus()
+    {
+        super();
+        handlers_ = new HashMap<>();
+        executor_ = null;
+        relay_ = null;
+    }
+    
+    /**
+     * Creates event bus that handles events asynchronously after commit.
+     * @param executor Executor for event handling.
+     */
+    public CmEventBus(OrderedExecutor executor)
+    {
+        super();
+        handlers_ = new HashMap<>();
+        executor_ = executor;
+        relay_ = null;
+    }
+    
+    /**
+     * Creates event bus that writes events to the event outbox.
+     * @param relay Relay of outbox entries to event handlers.
+     */
+    public CmEventBus(OutboxRelay relay)
+    {
+        super();
+        handlers_ = new HashMap<>();
+        executor_ = null;
+        relay_ = relay;
+    }
+    
+    @Autowired
+    public void setTransactionManager(PlatformTransactionManager transactionManager)
+    {
+        transactionTemplate_ = new TransactionTemplate(transactionManager);
+    }
+    
+    /**
+     * Handles all unhandled events raised by given object. With an outbox, 
+     * events are written to the outbox in the current transaction. If 
+     * asynchronous, events are handed over only after the current transaction 
+     * (if any) committed and are discarded if it rolls back.
+     * @param eventful Object that may have raised domain events.
+     */
+    public void dispatch(Eventful eventful)
+    {
+        this.dispatch(Collections.singletonList(eventful));
+    }
+    
+    /**
+     * Handles all unhandled events raised by given objects, as one batch. 
+     * With an outbox, this results in a single batched insert.
+     * @param eventfuls Objects that may have raised domain events.
+     * @see #dispatch(com.tribc.ddd.domain.event.Eventful) 
+     */
+    public void dispatch(Collection<? extends Eventful> eventfuls)
+    {
+        if ( executor_ == null && relay_ == null ) {
+            eventfuls.forEach(this::handle);
+            return;
+        }
+        List<Event> events = new ArrayList<>();
+        for (Eventful eventful : eventfuls) {
+            eventful.getEvents().stream()
+                .filter(event -> handlers_.containsKey(event.getEventClass()))
+                .forEach(events::add);
+            eventful.clearEvents();
+        }
+        if ( events.isEmpty() ) {
+            return;
+        }
+        if ( relay_ != null ) {
+            relay_.enqueue(events);
+        } else if ( TransactionSynchronizationManager.isSynchronizationActive() ) {
+            TransactionSynchronizationManager.registerSynchronization(
+                new TransactionSynchronizationAdapter() {
+                    @Override
+                    public void afterCommit()
+                    {
+                        CmEventBus.this.submit(events);
+                    }
+                }
+            );
+        } else {
+            this.submit(events);
+        }
+    }
+    
+    /**
+     * Handles event in the calling thread, within the current transaction.
+     * @param event Event.
+     * @throws IllegalStateException if no handler was registered for event.
+     */
+    @SuppressWarnings("unchecked")
+    public void deliver(Event event)
+    {
+        EventHandler handler = handlers_.get(event.getEventClass());
+        if ( handler == null ) {
+            throw new IllegalStateException(
+                event.getEventClass().getName() + ": No handler registered."
+            );
+        }
+        handler.handle(event);
+        event.handled();
+    }
+    
+    @Override
+    public void start()
+    {
+        if ( relay_ != null ) {
+            relay_.start();
+        }
+        running_ = true;
+    }
+
+    @Override
+    public void stop()
+    {
+        if ( relay_ != null ) {
+            relay_.stop();
+        }
+        running_ = false;
+    }
+
+    @Override
+    public void stop(Runnable callback)
+    {
+        this.stop();
+        callback.run();
+    }
+
+    @Override
+    public boolean isRunning()
+    {
+        return running_;
+    }
+
+    @Override
+    public boolean isAutoStartup()
+    {
+        return true;
+    }
+
+    /**
+     * Started last and stopped first, so events are relayed only while all 
+     * other components are running.
+     * @return Phase.
+     */
+    @Override
+    public int getPhase()
+    {
+        return Integer.MAX_VALUE;
+    }
     
     @Autowired
     public void EnrolmentCreatedHandler(EnrolmentCreatedHandler handler)
@@ -69,9 +264,64 @@ public class CmEventBus extends EventBus {
         this.setHandler(NewCourseAddedToCatalog.class, handler);
     }
     
+    @Autowired
+    public void setCourseDescriptionUpdatedHandler(CourseDescriptionUpdatedHandler handler)
+    {
+        this.setHandler(CourseDescriptionUpdated.class, handler);
+    }
+    
+    @Autowired
+    public void setCourseDescriptionRemovedHandler(CourseDescriptionRemovedHandler handler)
+    {
+        this.setHandler(CourseDescriptionRemoved.class, handler);
+    }
+    
+    @Autowired
+    public void setCourseActivatedHandler(CourseActivatedHandler handler)
+    {
+        this.setHandler(CourseActivated.class, handler);
+    }
+    
+    @Autowired
+    public void setCourseUpdatedHandler(CourseUpdatedHandler handler)
+    {
+        this.setHandler(CourseUpdated.class, handler);
+    }
+    
+    @Autowired
+    public void setCourseStartedHandler(CourseStartedHandler handler)
+    {
+        this.setHandler(CourseStarted.class, handler);
+    }
+    
     private void setHandler(Class clazz, EventHandler handler)
     {
+        handlers_.put(clazz, handler);
         this.match(clazz, handler);
     }
+    
+    private void submit(List<Event> events)
+    {
+        for (Event event : events) {
+            String key = event instanceof SequencedEvent ?
+                ((SequencedEvent)event).getSequenceKey() :
+                event.getEventClass().getName();
+            executor_.execute(key, () -> this.deliverInTransaction(event));
+        }
+    }
+    
+    private void deliverInTransaction(Event event)
+    {
+        try {
+            transactionTemplate_.execute(status -> {
+                this.deliver(event);
+                return null;
+            });
+        } catch (RuntimeException exception) {
+            LOGGER.error("Handling of event " + 
+                         event.getEventClass().getSimpleName() + " failed.", 
+                         exception);
+        }
+    }
 
 }
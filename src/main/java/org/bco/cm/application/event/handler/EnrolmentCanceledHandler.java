@@ -25,38 +25,34 @@
 package org.bco.cm.application.event.handler;
 
 import com.tribc.ddd.domain.event.EventHandler;
-import org.bco.cm.domain.course.Course;
-import org.bco.cm.domain.course.CourseId;
-import org.bco.cm.domain.course.CourseRegistry;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.bco.cm.application.query.ReadModelProjection;
 import org.bco.cm.domain.enrolment.event.EnrolmentCanceled;
-import org.bco.cm.domain.student.Student;
-import org.bco.cm.domain.student.StudentId;
-import org.bco.cm.domain.student.StudentRegistry;
 import org.springframework.beans.factory.annotation.Autowired;
 
 /**
- * Removes student from course roster.
+ * Informs about a canceled enrolment, and removes the course from the 
+ * student's courses in the read model. The student was already removed from 
+ * the course roster when the enrolment was canceled.
  * @author Andr&#233; H. Juffer, Biocenter Oulu
  */
 public class EnrolmentCanceledHandler extends EventHandler<EnrolmentCanceled> {
-
-    @Autowired
-    private CourseRegistry courseRegistry_;
+    
+    static final Logger LOGGER = LogManager.getLogger("com.bco.cm");
     
     @Autowired
-    private StudentRegistry studentRepository_;
+    private ReadModelProjection readModelProjection_;
 
     @Override
     public void handle(EnrolmentCanceled event) 
     {
-        CourseId courseId = event.getCourseId();
-        StudentId studentId = event.getStudentId();
-        
-        Course course = courseRegistry_.forOne(courseId);
-        Student student = studentRepository_.forOne(studentId);        
-        course.enrolmentCanceled(student);
-        
-        courseRegistry_.update(course);
+        readModelProjection_.refreshStudentCourse(
+            event.getStudentId(), event.getCourseId()
+        );
+        LOGGER.info("Student " + event.getStudentId().stringValue() + 
+                    " canceled enrolment in course " + 
+                    event.getCourseId().stringValue());
     }
 
 }
@@ -25,47 +25,33 @@
 package org.bco.cm.application.event.handler;
 
 import com.tribc.ddd.domain.event.EventHandler;
-import org.bco.cm.domain.course.Course;
-import org.bco.cm.domain.course.CourseId;
-import org.bco.cm.domain.course.CourseRegistry;
-import org.bco.cm.domain.enrolment.Enrolment;
-import org.bco.cm.domain.enrolment.EnrolmentNumber;
-import org.bco.cm.domain.enrolment.EnrolmentRegistry;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.bco.cm.application.query.ReadModelProjection;
 import org.bco.cm.domain.enrolment.event.EnrolmentCreated;
-import org.bco.cm.domain.student.Student;
-import org.bco.cm.domain.student.StudentId;
-import org.bco.cm.domain.student.StudentRegistry;
 import org.springframework.beans.factory.annotation.Autowired;
 
 /**
- * Adds student to course roster.
+ * Informs about a new enrolment, and adds the course to the student's courses 
+ * in the read model. The student was already added to the course roster when 
+ * the enrolment was registered.
  * @author Andr&#233; H. Juffer, Biocenter Oulu
  */
 public class EnrolmentCreatedHandler extends EventHandler<EnrolmentCreated> {
     
-    @Autowired
-    private CourseRegistry courseRegistry_;
-    
-    @Autowired
-    private StudentRegistry studentRepository_;
+    static final Logger LOGGER = LogManager.getLogger("com.bco.cm");
     
     @Autowired
-    private EnrolmentRegistry enrolmentRegistry_;
+    private ReadModelProjection readModelProjection_;
 
     @Override
     public void handle(EnrolmentCreated event) 
     {
-        EnrolmentNumber enrolentNumber = event.getEnrolmentNumber();        
-        Enrolment enrolment = enrolmentRegistry_.forOne(enrolentNumber);
-        
-        CourseId courseId = enrolment.getCourseId();
-        StudentId studentId = enrolment.getStudentId();                
-        Course course = courseRegistry_.forOne(courseId);
-        Student student = studentRepository_.forOne(studentId);
-        
-        course.enrolled(student);
-        
-        courseRegistry_.update(course);
+        readModelProjection_.refreshStudentCourse(
+            event.getEnrolmentNumber(), event.getCourseId()
+        );
+        LOGGER.info("Enrolment " + event.getEnrolmentNumber().stringValue() + 
+                    " created for course " + event.getCourseId().stringValue());
     }
 
 }
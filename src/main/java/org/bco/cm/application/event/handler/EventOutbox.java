@@ -0,0 +1,73 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2018 André H. Juffer, Biocenter Oulu
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.bco.cm.application.event.handler;
+
+import java.util.List;
+
+/**
+ * Durable store of domain events awaiting delivery to event handlers.
+ * @author Andr&#233; H. Juffer, Biocenter Oulu
+ */
+public interface EventOutbox {
+    
+    /**
+     * Appends entries. Must be called within the transaction that modified the
+     * aggregate that raised the events.
+     * @param entries Entries.
+     */
+    void append(List<OutboxEntry> entries);
+    
+    /**
+     * Returns entries available for delivery, oldest first. Only the oldest 
+     * entry of each sequence key is returned, and none at all if that entry 
+     * is waiting for a retry. Later entries therefore never overtake an 
+     * earlier entry with the same key, unless it was given up.
+     * @param max Maximum number of entries.
+     * @return Entries. May be empty.
+     */
+    List<OutboxEntry> pending(int max);
+    
+    /**
+     * Removes entry. Must be called within the transaction that handles the
+     * event, so that the entry is restored if handling fails.
+     * @param eventId Event identifier.
+     * @return True if removed, false if the event was already delivered.
+     */
+    boolean remove(String eventId);
+    
+    /**
+     * Records failed delivery attempt. The entry becomes available again 
+     * after a delay that grows with the number of attempts. An entry that 
+     * failed the maximum number of times is given up instead: it is moved to
+     * the dead letters, and no longer holds back the later entries with the 
+     * same sequence key.
+     * @param eventId Event identifier.
+     * @param error Error message.
+     * @param maxAttempts Maximum number of delivery attempts.
+     * @return True if the entry was given up.
+     */
+    boolean failed(String eventId, String error, int maxAttempts);
+    
+}
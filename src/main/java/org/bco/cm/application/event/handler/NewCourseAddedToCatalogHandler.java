@@ -27,8 +27,11 @@ package org.bco.cm.application.event.handler;
 import com.tribc.ddd.domain.event.EventHandler;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.bco.cm.application.query.CourseCatalogCache;
+import org.bco.cm.application.query.ReadModelProjection;
 import org.bco.cm.domain.course.CourseDescription;
 import org.bco.cm.domain.course.event.NewCourseAddedToCatalog;
+import org.springframework.beans.factory.annotation.Autowired;
 /**
  *
  * @author Andr&#233; H. Juffer, Biocenter Oulu
@@ -38,11 +41,19 @@ public class NewCourseAddedToCatalogHandler
 {
     static final Logger LOGGER = LogManager.getLogger("com.bco.cm");
     
+    @Autowired
+    private ReadModelProjection readModelProjection_;
+    
+    @Autowired
+    private CourseCatalogCache courseCatalogCache_;
+    
     @Override
     public void handle(NewCourseAddedToCatalog event)
     {
         CourseDescription course = event.getCourse();
         
+        readModelProjection_.refreshCatalogListing(course.getCourseDescriptionId());
+        courseCatalogCache_.invalidate(course.getCourseDescriptionId());
         LOGGER.info("Course '" + course.getTitle() + "' added to course catalog.");
     }
 }
@@ -0,0 +1,128 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2018 André H. Juffer, Biocenter Oulu
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.bco.cm.application.event.handler;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs tasks asynchronously on a fixed number of lanes. Each lane is a single 
+ * thread with a bounded queue. Tasks with the same key always go to the same 
+ * lane, so they run one at a time and in submission order. The number of lanes
+ * limits how many tasks run concurrently. A full lane blocks the submitter until
+ * there is room again (backpressure). A task always runs in its lane, so it 
+ * never overtakes tasks with the same key. Tasks submitted after shutdown, or 
+ * by a thread interrupted while waiting for room, are rejected.
+ * @author Andr&#233; H. Juffer, Biocenter Oulu
+ */
+public class OrderedExecutor {
+    
+    private static final long SHUTDOWN_TIMEOUT = 30000;
+    
+    private final List<ThreadPoolExecutor> lanes_;
+    
+    /**
+     * Creates executor.
+     * @param lanes Number of lanes, the maximum number of concurrently running 
+     * tasks.
+     * @param capacity Maximum number of waiting tasks per lane.
+     * @throws IllegalArgumentException if lanes or capacity is less than 1.
+     */
+    public OrderedExecutor(int lanes, int capacity)
+    {
+        if ( lanes < 1 || capacity < 1 ) {
+            throw new IllegalArgumentException(
+                "Lanes and capacity must be positive."
+            );
+        }
+        lanes_ = new ArrayList<>();
+        AtomicInteger counter = new AtomicInteger();
+        for (int n = 0; n < lanes; n++) {
+            ThreadPoolExecutor lane = new ThreadPoolExecutor(
+                1, 1, 0L, TimeUnit.MILLISECONDS, 
+                new ArrayBlockingQueue<>(capacity),
+                task -> {
+                    Thread thread = new Thread(task, "cm-events-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                OrderedExecutor::waitForRoom
+            );
+            lanes_.add(lane);
+        }
+    }
+    
+    /**
+     * Submits task. Blocks while the lane is full.
+     * @param key Ordering key. Tasks with equal keys run in submission order.
+     * @param task Task.
+     * @throws RejectedExecutionException if this executor was shut down, or the
+     * calling thread was interrupted while waiting for room.
+     */
+    public void execute(String key, Runnable task)
+    {
+        int lane = Math.floorMod(key.hashCode(), lanes_.size());
+        lanes_.get(lane).execute(task);
+    }
+    
+    /**
+     * Stops accepting tasks and waits for submitted tasks to complete.
+     * @throws InterruptedException if interrupted while waiting.
+     */
+    public void shutdown() throws InterruptedException
+    {
+        lanes_.forEach(ThreadPoolExecutor::shutdown);
+        long deadline = System.currentTimeMillis() + SHUTDOWN_TIMEOUT;
+        for (ThreadPoolExecutor lane : lanes_) {
+            long remaining = Math.max(0, deadline - System.currentTimeMillis());
+            lane.awaitTermination(remaining, TimeUnit.MILLISECONDS);
+        }
+    }
+    
+    private static void waitForRoom(Runnable task, ThreadPoolExecutor executor)
+    {
+        if ( executor.isShutdown() ) {
+            throw new RejectedExecutionException("Executor was shut down.");
+        }
+        try {
+            executor.getQueue().put(task);
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            throw new RejectedExecutionException(
+                "Interrupted while waiting for room.", exception
+            );
+        }
+        // Shut down while waiting, the task may never run.
+        if ( executor.isShutdown() && executor.getQueue().remove(task) ) {
+            throw new RejectedExecutionException("Executor was shut down.");
+        }
+    }
+    
+}
@@ -0,0 +1,93 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2018 André H. Juffer, Biocenter Oulu
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.bco.cm.application.event.handler;
+
+import java.util.Objects;
+
+/**
+ * Domain event as stored in the event outbox.
+ * @author Andr&#233; H. Juffer, Biocenter Oulu
+ */
+public final class OutboxEntry {
+    
+    private final String eventId_;
+    private final String eventType_;
+    private final String sequenceKey_;
+    private final String payload_;
+    private final int attempts_;
+    
+    /**
+     * Creates outbox entry.
+     * @param eventId Event identifier, also idempotency key.
+     * @param eventType Event type.
+     * @param sequenceKey Sequence key.
+     * @param payload Event payload in JSON.
+     * @param attempts Number of failed delivery attempts.
+     */
+    public OutboxEntry(String eventId, 
+                       String eventType, 
+                       String sequenceKey, 
+                       String payload,
+                       int attempts)
+    {
+        eventId_ = Objects.requireNonNull(eventId, "Missing event identifier.");
+        eventType_ = Objects.requireNonNull(eventType, "Missing event type.");
+        sequenceKey_ = Objects.requireNonNull(sequenceKey, "Missing sequence key.");
+        payload_ = Objects.requireNonNull(payload, "Missing payload.");
+        attempts_ = attempts;
+    }
+    
+    public String getEventId()
+    {
+        return eventId_;
+    }
+    
+    public String getEventType()
+    {
+        return eventType_;
+    }
+    
+    public String getSequenceKey()
+    {
+        return sequenceKey_;
+    }
+    
+    public String getPayload()
+    {
+        return payload_;
+    }
+    
+    public int getAttempts()
+    {
+        return attempts_;
+    }
+    
+    @Override
+    public String toString()
+    {
+        return eventType_ + "(" + eventId_ + ")";
+    }
+    
+}
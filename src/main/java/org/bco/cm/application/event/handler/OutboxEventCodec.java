@@ -0,0 +1,228 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2018 André H. Juffer, Biocenter Oulu
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.bco.cm.application.event.handler;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tribc.ddd.domain.event.Event;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.HashMap;
+import java.util.Map;
+import org.bco.cm.domain.course.Course;
+import org.bco.cm.domain.course.CourseCatalog;
+import org.bco.cm.domain.course.CourseDescription;
+import org.bco.cm.domain.course.CourseDescriptionId;
+import org.bco.cm.domain.course.CourseId;
+import org.bco.cm.domain.course.CourseRegistry;
+import org.bco.cm.domain.course.event.CourseActivated;
+import org.bco.cm.domain.course.event.CourseDescriptionRemoved;
+import org.bco.cm.domain.course.event.CourseDescriptionUpdated;
+import org.bco.cm.domain.course.event.CourseStarted;
+import org.bco.cm.domain.course.event.CourseUpdated;
+import org.bco.cm.domain.course.event.NewCourseAddedToCatalog;
+import org.bco.cm.domain.enrolment.EnrolmentNumber;
+import org.bco.cm.domain.enrolment.event.EnrolmentCanceled;
+import org.bco.cm.domain.enrolment.event.EnrolmentCreated;
+import org.bco.cm.domain.student.Student;
+import org.bco.cm.domain.student.StudentId;
+import org.bco.cm.domain.student.StudentRegistry;
+import org.bco.cm.domain.student.event.NewStudentRegistered;
+import org.bco.cm.domain.teacher.Teacher;
+import org.bco.cm.domain.teacher.TeacherId;
+import org.bco.cm.domain.teacher.TeacherRegistry;
+import org.bco.cm.domain.teacher.event.NewTeacherRegistered;
+import org.bco.cm.util.SequencedEvent;
+import org.bco.cm.util.Uuids;
+import org.springframework.beans.factory.annotation.Autowired;
+
+/**
+ * Converts domain events to and from outbox entries. Only identifiers are 
+ * stored, aggregates are loaded again when the event is decoded.
+ * @author Andr&#233; H. Juffer, Biocenter Oulu
+ */
+public class OutboxEventCodec {
+    
+    private static final TypeReference<Map<String,String>> PAYLOAD = 
+        new TypeReference<Map<String,String>>() {};
+    
+    private final ObjectMapper objectMapper_;
+    
+    @Autowired
+    private StudentRegistry studentRegistry_;
+    
+    @Autowired
+    private TeacherRegistry teacherRegistry_;
+    
+    @Autowired
+    private CourseCatalog courseCatalog_;
+    
+    @Autowired
+    private CourseRegistry courseRegistry_;
+    
+    public OutboxEventCodec()
+    {
+        objectMapper_ = new ObjectMapper();
+    }
+    
+    /**
+     * Creates outbox entry with a new event identifier.
+     * @param event Event.
+     * @return Entry.
+     * @throws IllegalArgumentException if event type is not supported.
+     */
+    public OutboxEntry encode(Event event)
+    {
+        Map<String,String> payload = new HashMap<>();
+        if ( event instanceof NewStudentRegistered ) {
+            Student student = ((NewStudentRegistered)event).getStudent();
+            payload.put("studentId", student.getStudentId().stringValue());
+        } else if ( event instanceof NewTeacherRegistered ) {
+            Teacher teacher = ((NewTeacherRegistered)event).getTeacher();
+            payload.put("teacherId", teacher.getTeacherId().stringValue());
+        } else if ( event instanceof NewCourseAddedToCatalog ) {
+            CourseDescription course = ((NewCourseAddedToCatalog)event).getCourse();
+            payload.put("courseDescriptionId", 
+                        course.getCourseDescriptionId().stringValue());
+        } else if ( event instanceof CourseDescriptionUpdated ) {
+            CourseDescription course = ((CourseDescriptionUpdated)event).getCourse();
+            payload.put("courseDescriptionId", 
+                        course.getCourseDescriptionId().stringValue());
+        } else if ( event instanceof CourseDescriptionRemoved ) {
+            CourseDescriptionRemoved removed = (CourseDescriptionRemoved)event;
+            payload.put("courseDescriptionId", 
+                        removed.getCourseDescriptionId().stringValue());
+        } else if ( event instanceof CourseActivated ) {
+            Course course = ((CourseActivated)event).getCourse();
+            payload.put("courseId", course.getCourseId().stringValue());
+        } else if ( event instanceof CourseUpdated ) {
+            Course course = ((CourseUpdated)event).getCourse();
+            payload.put("courseId", course.getCourseId().stringValue());
+        } else if ( event instanceof CourseStarted ) {
+            Course course = ((CourseStarted)event).getCourse();
+            payload.put("courseId", course.getCourseId().stringValue());
+        } else if ( event instanceof EnrolmentCreated ) {
+            EnrolmentCreated created = (EnrolmentCreated)event;
+            payload.put("enrolmentNumber", 
+                        created.getEnrolmentNumber().stringValue());
+            payload.put("courseId", created.getCourseId().stringValue());
+        } else if ( event instanceof EnrolmentCanceled ) {
+            EnrolmentCanceled canceled = (EnrolmentCanceled)event;
+            payload.put("studentId", canceled.getStudentId().stringValue());
+            payload.put("courseId", canceled.getCourseId().stringValue());
+        } else {
+            throw new IllegalArgumentException(
+                event.getEventClass().getName() + ": Not supported by outbox."
+            );
+        }
+        String sequenceKey = ((SequencedEvent)event).getSequenceKey();
+        try {
+            return new OutboxEntry(
+                Uuids.generate().toString(),
+                event.getEventClass().getSimpleName(), 
+                sequenceKey, 
+                objectMapper_.writeValueAsString(payload),
+                0
+            );
+        } catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+    }
+    
+    /**
+     * Restores event. Must be called within a transaction.
+     * @param entry Outbox entry.
+     * @return Event, or null if the aggregate the event refers to no longer 
+     * exists.
+     * @throws IllegalArgumentException if event type is not supported.
+     */
+    public Event decode(OutboxEntry entry)
+    {
+        Map<String,String> payload;
+        try {
+            payload = objectMapper_.readValue(entry.getPayload(), PAYLOAD);
+        } catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+        switch ( entry.getEventType() ) {
+            case "NewStudentRegistered": {
+                StudentId studentId = new StudentId(payload.get("studentId"));
+                Student student = studentRegistry_.forOne(studentId);
+                return student == null ? null : new NewStudentRegistered(student);
+            }
+            case "NewTeacherRegistered": {
+                TeacherId teacherId = new TeacherId(payload.get("teacherId"));
+                Teacher teacher = teacherRegistry_.forOne(teacherId);
+                return teacher == null ? null : new NewTeacherRegistered(teacher);
+            }
+            case "NewCourseAddedToCatalog": {
+                CourseDescriptionId id = 
+                    new CourseDescriptionId(payload.get("courseDescriptionId"));
+                CourseDescription course = courseCatalog_.forOne(id);
+                return course == null ? null : new NewCourseAddedToCatalog(course);
+            }
+            case "CourseDescriptionUpdated": {
+                CourseDescriptionId id = 
+                    new CourseDescriptionId(payload.get("courseDescriptionId"));
+                CourseDescription course = courseCatalog_.forOne(id);
+                return course == null ? null : new CourseDescriptionUpdated(course);
+            }
+            case "CourseDescriptionRemoved":
+                return new CourseDescriptionRemoved(
+                    new CourseDescriptionId(payload.get("courseDescriptionId"))
+                );
+            case "CourseActivated": {
+                CourseId courseId = new CourseId(payload.get("courseId"));
+                Course course = courseRegistry_.forOne(courseId);
+                return course == null ? null : new CourseActivated(course);
+            }
+            case "CourseUpdated": {
+                CourseId courseId = new CourseId(payload.get("courseId"));
+                Course course = courseRegistry_.forOne(courseId);
+                return course == null ? null : new CourseUpdated(course);
+            }
+            case "CourseStarted": {
+                CourseId courseId = new CourseId(payload.get("courseId"));
+                Course course = courseRegistry_.forOne(courseId);
+                return course == null ? null : new CourseStarted(course);
+            }
+            case "EnrolmentCreated":
+                return new EnrolmentCreated(
+                    new EnrolmentNumber(payload.get("enrolmentNumber")),
+                    new CourseId(payload.get("courseId"))
+                );
+            case "EnrolmentCanceled":
+                return new EnrolmentCanceled(
+                    new StudentId(payload.get("studentId")),
+                    new CourseId(payload.get("courseId"))
+                );
+            default:
+                throw new IllegalArgumentException(
+                    entry.getEventType() + ": Not supported by outbox."
+                );
+        }
+    }
+    
+}
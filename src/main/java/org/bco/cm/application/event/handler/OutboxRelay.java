@@ -0,0 +1,276 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2018 André H. Juffer, Biocenter Oulu
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.bco.cm.application.event.handler;
+
+import com.tribc.ddd.domain.event.Event;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Relays events from the event outbox to event handlers. Events are written to
+ * the outbox in the transaction that raised them. A background thread picks up
+ * pending entries in batches, as soon as a writing transaction committed or 
+ * otherwise periodically, and hands them to an ordered executor by sequence 
+ * key. Each event is handled in its own transaction that also removes its 
+ * outbox entry, so an event whose entry was already removed is skipped. A 
+ * failed event is retried later (at-least-once delivery). Only the oldest 
+ * entry of a sequence key is picked up, so a failed event holds back the 
+ * events after it with the same key. An event that failed the maximum number
+ * of times is moved to the dead letters, logged as an error and counted, 
+ * after which the events after it are delivered. Once an event was handled 
+ * or given up, the outbox is polled again for the next one. Started and 
+ * stopped by the event bus.
+ * @author Andr&#233; H. Juffer, Biocenter Oulu
+ */
+public class OutboxRelay {
+    
+    static final Logger LOGGER = LogManager.getLogger("com.bco.cm");
+    
+    private final OrderedExecutor executor_;
+    private final int batchSize_;
+    private final long interval_;
+    private final int maxAttempts_;
+    private final Set<String> inFlight_;
+    private final AtomicBoolean wakeUp_;
+    private final LongAdder deadLetters_;
+    private volatile ScheduledExecutorService poller_;
+    
+    private EventOutbox outbox_;
+    private OutboxEventCodec codec_;
+    private CmEventBus eventBus_;
+    private TransactionTemplate transactionTemplate_;
+    
+    /**
+     * Creates relay.
+     * @param executor Executor handling events.
+     * @param batchSize Maximum number of entries picked up at once.
+     * @param interval Polling interval in milliseconds.
+     * @param maxAttempts Maximum number of delivery attempts per event.
+     * @throws IllegalArgumentException if batch size, interval or maximum 
+     * number of attempts is less than 1.
+     */
+    public OutboxRelay(OrderedExecutor executor, 
+                       int batchSize, 
+                       long interval, 
+                       int maxAttempts)
+    {
+        if ( batchSize < 1 || interval < 1 || maxAttempts < 1 ) {
+            throw new IllegalArgumentException(
+                "Batch size, interval and maximum attempts must be positive."
+            );
+        }
+        executor_ = executor;
+        batchSize_ = batchSize;
+        interval_ = interval;
+        maxAttempts_ = maxAttempts;
+        inFlight_ = ConcurrentHashMap.newKeySet();
+        wakeUp_ = new AtomicBoolean(false);
+        deadLetters_ = new LongAdder();
+        poller_ = null;
+    }
+    
+    @Autowired
+    public void setEventOutbox(EventOutbox outbox)
+    {
+        outbox_ = outbox;
+    }
+    
+    @Autowired
+    public void setOutboxEventCodec(OutboxEventCodec codec)
+    {
+        codec_ = codec;
+    }
+    
+    /**
+     * Sets event bus whose handlers handle the events.
+     * @param eventBus Event bus.
+     */
+    public void setEventBus(CmEventBus eventBus)
+    {
+        eventBus_ = eventBus;
+    }
+    
+    @Autowired
+    public void setTransactionManager(PlatformTransactionManager transactionManager)
+    {
+        transactionTemplate_ = new TransactionTemplate(transactionManager);
+    }
+    
+    /**
+     * Writes events to the outbox. Must be called within the transaction that
+     * modified the aggregate that raised the events.
+     * @param events Events.
+     */
+    public void enqueue(Collection<Event> events)
+    {
+        List<OutboxEntry> entries = new ArrayList<>();
+        events.forEach(event -> entries.add(codec_.encode(event)));
+        outbox_.append(entries);
+        if ( TransactionSynchronizationManager.isSynchronizationActive() ) {
+            TransactionSynchronizationManager.registerSynchronization(
+                new TransactionSynchronizationAdapter() {
+                    @Override
+                    public void afterCommit()
+                    {
+                        OutboxRelay.this.wakeUp();
+                    }
+                }
+            );
+        } else {
+            this.wakeUp();
+        }
+    }
+    
+    /**
+     * Starts polling the outbox.
+     */
+    public void start()
+    {
+        if ( poller_ != null ) {
+            return;
+        }
+        poller_ = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "cm-outbox-relay");
+            thread.setDaemon(true);
+            return thread;
+        });
+        poller_.scheduleWithFixedDelay(
+            this::poll, interval_, interval_, TimeUnit.MILLISECONDS
+        );
+    }
+    
+    /**
+     * Stops polling. Entries not yet handled remain in the outbox.
+     */
+    public void stop()
+    {
+        if ( poller_ != null ) {
+            poller_.shutdownNow();
+            poller_ = null;
+        }
+    }
+    
+    /**
+     * Returns meter counting the events moved to the dead letters.
+     * @return Meter binder.
+     */
+    public MeterBinder metrics()
+    {
+        return registry -> FunctionCounter
+            .builder("cm.outbox.dead.letters", deadLetters_, LongAdder::sum)
+            .description("Events given up after the maximum number of attempts.")
+            .register(registry);
+    }
+    
+    private void wakeUp()
+    {
+        if ( poller_ != null && wakeUp_.compareAndSet(false, true) ) {
+            try {
+                poller_.execute(this::poll);
+            } catch (RejectedExecutionException exception) {
+                wakeUp_.set(false);
+            }
+        }
+    }
+    
+    private void poll()
+    {
+        wakeUp_.set(false);
+        try {
+            for (OutboxEntry entry : outbox_.pending(batchSize_)) {
+                String eventId = entry.getEventId();
+                if ( !inFlight_.add(eventId) ) {
+                    continue;
+                }
+                try {
+                    executor_.execute(
+                        entry.getSequenceKey(), () -> this.deliver(entry)
+                    );
+                } catch (RejectedExecutionException exception) {
+                    // Executor shut down, or relay stopped while waiting for 
+                    // room. The entry stays in the outbox.
+                    inFlight_.remove(eventId);
+                    break;
+                }
+            }
+        } catch (RuntimeException exception) {
+            LOGGER.error("Polling event outbox failed.", exception);
+        }
+    }
+    
+    private void deliver(OutboxEntry entry)
+    {
+        try {
+            transactionTemplate_.execute(status -> {
+                if ( outbox_.remove(entry.getEventId()) ) {
+                    Event event = codec_.decode(entry);
+                    if ( event != null ) {
+                        eventBus_.deliver(event);
+                    }
+                }
+                return null;
+            });
+            // The next entry with the same sequence key is now pending.
+            this.wakeUp();
+        } catch (RuntimeException exception) {
+            LOGGER.error("Handling of event " + entry + " failed.", exception);
+            try {
+                boolean givenUp = outbox_.failed(
+                    entry.getEventId(), exception.toString(), maxAttempts_
+                );
+                if ( givenUp ) {
+                    deadLetters_.increment();
+                    LOGGER.error("Event " + entry + " given up after " + 
+                                 maxAttempts_ + " attempts, moved to dead letters.");
+                    this.wakeUp();
+                }
+            } catch (RuntimeException failure) {
+                LOGGER.error("Recording failure of event " + entry + " failed.", 
+                             failure);
+            }
+        } finally {
+            inFlight_.remove(entry.getEventId());
+        }
+    }
+    
+}
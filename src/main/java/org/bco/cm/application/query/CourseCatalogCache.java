@@ -0,0 +1,47 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2018 André H. Juffer, Biocenter Oulu
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.bco.cm.application.query;
+
+import org.bco.cm.domain.course.CourseDescriptionId;
+
+/**
+ * Cache of the read-only course catalog. Invalidated by the command handlers 
+ * that change the course catalog, so that a read right after the command 
+ * returned sees the change. Event handlers invalidate it again once the 
+ * catalog listing was refreshed, as events may be handled asynchronously.
+ * @author Andr&#233; H. Juffer, Biocenter Oulu
+ */
+public interface CourseCatalogCache {
+    
+    /**
+     * Removes course description, and every cached listing, from the cache. 
+     * If called within a transaction, they are removed again once it 
+     * completed, so that a concurrent read of the previous state is not kept.
+     * @param courseDescriptionId Identifier of added, updated or removed 
+     * course description.
+     */
+    void invalidate(CourseDescriptionId courseDescriptionId);
+    
+}
@@ -27,13 +27,18 @@ package org.bco.cm.application.query;
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Consumer;
 import org.bco.cm.domain.course.CourseDescriptionId;
 import org.bco.cm.domain.course.CourseId;
 import org.bco.cm.domain.student.StudentId;
 import org.bco.cm.domain.teacher.TeacherId;
 import org.bco.cm.dto.CourseDTO;
 import org.bco.cm.dto.CourseDescriptionDTO;
+import org.bco.cm.dto.CourseDescriptionSummaryDTO;
+import org.bco.cm.dto.CourseSummaryDTO;
 import org.bco.cm.dto.EnrolmentDTO;
+import org.bco.cm.util.Page;
+import org.bco.cm.util.PageRequest;
 
 /**
  * Specifies a particular set of courses.
@@ -136,6 +141,71 @@ public class CourseSpecification {
         active_ = true;
     }
     
+    /**
+     * Returns teacher identifier.
+     * @return Identifier, or null if not set.
+     */
+    public TeacherId getTeacherId()
+    {
+        return teacherId_;
+    }
+    
+    /**
+     * Returns student identifier.
+     * @return Identifier, or null if not set.
+     */
+    public StudentId getStudentId()
+    {
+        return studentId_;
+    }
+    
+    /**
+     * Returns course description identifier.
+     * @return Identifier, or null if not set.
+     */
+    public CourseDescriptionId getCourseDescriptionId()
+    {
+        return courseDescriptionId_;
+    }
+    
+    /**
+     * Inquires whether all courses or course descriptions are selected.
+     * @return Result.
+     */
+    public boolean selectsAll()
+    {
+        return all_;
+    }
+    
+    /**
+     * Inquires whether courses with an end date earlier than today's date are
+     * included when all courses are selected.
+     * @return Result.
+     * @see #selectAll(boolean) 
+     */
+    public boolean includesPast()
+    {
+        return excludePast_;
+    }
+    
+    /**
+     * Inquires whether ongoing courses are selected.
+     * @return Result.
+     */
+    public boolean selectsOngoing()
+    {
+        return ongoing_;
+    }
+    
+    /**
+     * Inquires whether courses active right now are selected.
+     * @return Result.
+     */
+    public boolean selectsActive()
+    {
+        return active_;
+    }
+    
     /**
      * Queries for courses in the catalog according to a specification.
      * @param readOnlyCourseCatalog Course catalog.
@@ -153,6 +223,29 @@ public class CourseSpecification {
         return courses;
     }
     
+    /**
+     * Queries for a page of courses in the catalog according to a specification.
+     * @param readOnlyCourseCatalog Course catalog.
+     * @param page Page request.
+     * @return Page of courses.
+     */
+    public Page<CourseDescriptionSummaryDTO> query(ReadOnlyCourseCatalog readOnlyCourseCatalog,
+                                                   PageRequest page)
+    {
+        return readOnlyCourseCatalog.getSpecifiedCourses(this, page);
+    }
+    
+    /**
+     * Visits every course in the catalog according to a specification.
+     * @param readOnlyCourseCatalog Course catalog.
+     * @param consumer Visitor.
+     */
+    public void forEach(ReadOnlyCourseCatalog readOnlyCourseCatalog,
+                        Consumer<CourseDescriptionSummaryDTO> consumer)
+    {
+        readOnlyCourseCatalog.forEachSpecifiedCourse(this, consumer);
+    }
+    
     /**
      * Queries for active courses in the registry according to a specification.
      * @param readOnlyCourseRegistry Course registry.
@@ -186,6 +279,31 @@ public class CourseSpecification {
         return courses;
     }
     
+    /**
+     * Queries for a page of active courses in the registry according to a 
+     * specification. If both active and ongoing courses are selected, a course 
+     * that is both appears once.
+     * @param readOnlyCourseRegistry Course registry.
+     * @param page Page request.
+     * @return Page of courses.
+     */
+    public Page<CourseSummaryDTO> query(ReadOnlyCourseRegistry readOnlyCourseRegistry,
+                                        PageRequest page)
+    {
+        return readOnlyCourseRegistry.getSpecified(this, page);
+    }
+    
+    /**
+     * Visits every active course in the registry according to a specification.
+     * @param readOnlyCourseRegistry Course registry.
+     * @param consumer Visitor.
+     */
+    public void forEach(ReadOnlyCourseRegistry readOnlyCourseRegistry,
+                        Consumer<CourseSummaryDTO> consumer)
+    {
+        readOnlyCourseRegistry.forEachSpecified(this, consumer);
+    }
+    
     private List<CourseDTO> findTeachersCourses(ReadOnlyCourseRegistry readOnlyCourseRegistry)
     {
         return readOnlyCourseRegistry.getTeachersCourses(teacherId_);
@@ -205,12 +323,7 @@ public class CourseSpecification {
     private List<CourseDTO> findStudentsCourses(List<CourseId> courseIds,
                                                 ReadOnlyCourseRegistry readOnlyCourseRegistry)
     {
-        List<CourseDTO> courses = new ArrayList<>();
-        courseIds.forEach(courseId -> {
-            CourseDTO course = readOnlyCourseRegistry.getOne(courseId);
-            courses.add(course);
-        });
-        return courses;
+        return readOnlyCourseRegistry.getMany(courseIds);
     }
     
     private List<CourseDTO> findActivatedCourses(ReadOnlyCourseRegistry readOnlyCourseRegistry)
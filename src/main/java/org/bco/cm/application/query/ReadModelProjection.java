@@ -0,0 +1,73 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2018 André H. Juffer, Biocenter Oulu
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.bco.cm.application.query;
+
+import org.bco.cm.domain.course.CourseDescriptionId;
+import org.bco.cm.domain.course.CourseId;
+import org.bco.cm.domain.enrolment.EnrolmentNumber;
+import org.bco.cm.domain.student.StudentId;
+
+/**
+ * Maintains the read model: denormalised listings of the course catalog, of 
+ * activated courses with their number of enrolled students, and of the courses
+ * students are enrolled in. Rows are refreshed from the current state of the 
+ * write model by identifier, so refreshing twice is harmless and the order of
+ * refreshes of different rows does not matter. Must be called within a 
+ * transaction.
+ * @author Andr&#233; H. Juffer, Biocenter Oulu
+ */
+public interface ReadModelProjection {
+    
+    /**
+     * Refreshes course description in catalog listing. The course description 
+     * is removed from the listing if no longer in the course catalog.
+     * @param courseDescriptionId Course description identifier.
+     */
+    void refreshCatalogListing(CourseDescriptionId courseDescriptionId);
+    
+    /**
+     * Refreshes course in course listing, including the number of enrolled 
+     * students.
+     * @param courseId Course identifier.
+     */
+    void refreshCourseListing(CourseId courseId);
+    
+    /**
+     * Adds the course of a new enrolment to the student's courses, and 
+     * refreshes the number of enrolled students of that course.
+     * @param enrolmentNumber Enrolment number.
+     * @param courseId Identifier of course enrolled in.
+     */
+    void refreshStudentCourse(EnrolmentNumber enrolmentNumber, CourseId courseId);
+    
+    /**
+     * Removes course from student's courses if the student is no longer 
+     * enrolled, and refreshes the number of enrolled students of that course.
+     * @param studentId Student identifier.
+     * @param courseId Course identifier.
+     */
+    void refreshStudentCourse(StudentId studentId, CourseId courseId);
+    
+}
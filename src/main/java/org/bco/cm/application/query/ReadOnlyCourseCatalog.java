@@ -25,9 +25,13 @@
 package org.bco.cm.application.query;
 
 import java.util.List;
+import java.util.function.Consumer;
 import org.bco.cm.domain.course.CourseDescriptionId;
 import org.bco.cm.domain.teacher.TeacherId;
 import org.bco.cm.dto.CourseDescriptionDTO;
+import org.bco.cm.dto.CourseDescriptionSummaryDTO;
+import org.bco.cm.util.Page;
+import org.bco.cm.util.PageRequest;
 import org.bco.cm.util.ReadOnlyRepository;
 
 /**
@@ -52,4 +56,25 @@ public interface ReadOnlyCourseCatalog
      */
     List<CourseDescriptionDTO> getTeachersCourses(TeacherId teacherId);
     
+    /**
+     * Returns a page of course summaries according to a specification, in 
+     * course description identifier order. Summaries are read from the 
+     * catalog listing.
+     * @param spec Specification, either "all" or a teacher's courses.
+     * @param page Page request.
+     * @return Page. Empty if specification selects nothing.
+     */
+    Page<CourseDescriptionSummaryDTO> getSpecifiedCourses(CourseSpecification spec, 
+                                                          PageRequest page);
+    
+    /**
+     * Visits every course summary according to a specification, in course 
+     * description identifier order. Summaries are not retained after being 
+     * visited.
+     * @param spec Specification, either "all" or a teacher's courses.
+     * @param consumer Visitor.
+     */
+    void forEachSpecifiedCourse(CourseSpecification spec, 
+                                Consumer<CourseDescriptionSummaryDTO> consumer);
+    
 }
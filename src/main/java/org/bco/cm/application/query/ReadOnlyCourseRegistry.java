@@ -25,11 +25,16 @@
 
 package org.bco.cm.application.query;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.function.Consumer;
 import org.bco.cm.domain.course.CourseDescriptionId;
 import org.bco.cm.domain.course.CourseId;
 import org.bco.cm.domain.teacher.TeacherId;
 import org.bco.cm.dto.CourseDTO;
+import org.bco.cm.dto.CourseSummaryDTO;
+import org.bco.cm.util.Page;
+import org.bco.cm.util.PageRequest;
 import org.bco.cm.util.ReadOnlyRepository;
 
 /**
@@ -45,6 +50,14 @@ public interface ReadOnlyCourseRegistry extends ReadOnlyRepository<CourseDTO, Co
      */
     List<CourseDTO> getTeachersCourses(TeacherId teacherId);    
     
+    /**
+     * Returns courses in one query.
+     * @param courseIds Course identifiers.
+     * @return Courses, in the order of the given identifiers. May be empty.
+     * @throws NullPointerException if a course is nonexistent.
+     */
+    List<CourseDTO> getMany(Collection<CourseId> courseIds);
+    
     /**
      * Returns currently active courses (these are courses with their end date later
      * than today's date).
@@ -79,4 +92,22 @@ public interface ReadOnlyCourseRegistry extends ReadOnlyRepository<CourseDTO, Co
      * @return Courses. May be empty.
      */
     List<CourseDTO> getAll(boolean includePast);
+    
+    /**
+     * Returns a page of course summaries according to a specification, in 
+     * course identifier order. Summaries are read from the course listing.
+     * @param spec Specification.
+     * @param page Page request.
+     * @return Page. Empty if specification selects nothing.
+     */
+    Page<CourseSummaryDTO> getSpecified(CourseSpecification spec, PageRequest page);
+    
+    /**
+     * Visits every course summary according to a specification, in course 
+     * identifier order. Summaries are not retained after being visited.
+     * @param spec Specification.
+     * @param consumer Visitor.
+     */
+    void forEachSpecified(CourseSpecification spec, 
+                          Consumer<CourseSummaryDTO> consumer);
 }
@@ -25,8 +25,11 @@
 
 package org.bco.cm.application.query;
 
+import java.util.function.Consumer;
 import org.bco.cm.domain.student.StudentId;
 import org.bco.cm.dto.StudentDTO;
+import org.bco.cm.util.Page;
+import org.bco.cm.util.PageRequest;
 import org.bco.cm.util.ReadOnlyRepository;
 
 /**
@@ -36,4 +39,18 @@ import org.bco.cm.util.ReadOnlyRepository;
 public interface ReadOnlyStudentRegistry 
     extends ReadOnlyRepository<StudentDTO, StudentId> {
 
+    /**
+     * Returns a page of students, in student identifier order.
+     * @param page Page request.
+     * @return Page.
+     */
+    Page<StudentDTO> getAll(PageRequest page);
+    
+    /**
+     * Visits every student, in student identifier order. Students are not retained 
+     * after being visited.
+     * @param consumer Visitor.
+     */
+    void forEach(Consumer<StudentDTO> consumer);
+    
 }
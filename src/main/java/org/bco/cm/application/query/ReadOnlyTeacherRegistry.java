@@ -25,8 +25,11 @@
 package org.bco.cm.application.query;
 
 import java.util.List;
+import java.util.function.Consumer;
 import org.bco.cm.dto.TeacherDTO;
 import org.bco.cm.domain.teacher.TeacherId;
+import org.bco.cm.util.Page;
+import org.bco.cm.util.PageRequest;
 import org.bco.cm.util.ReadOnlyRepository;
 
 /**
@@ -35,4 +38,19 @@ import org.bco.cm.util.ReadOnlyRepository;
  */
 public interface ReadOnlyTeacherRegistry 
     extends ReadOnlyRepository<TeacherDTO, TeacherId> {
+
+    /**
+     * Returns a page of teachers, in teacher identifier order.
+     * @param page Page request.
+     * @return Page.
+     */
+    Page<TeacherDTO> getAll(PageRequest page);
+    
+    /**
+     * Visits every teacher, in teacher identifier order. Teachers are not retained 
+     * after being visited.
+     * @param consumer Visitor.
+     */
+    void forEach(Consumer<TeacherDTO> consumer);
+    
 }
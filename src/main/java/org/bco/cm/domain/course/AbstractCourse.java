@@ -26,10 +26,11 @@ package org.bco.cm.domain.course;
 
 import org.bco.cm.domain.teacher.TeacherId;
 import org.bco.cm.domain.teacher.Teacher;
-import java.time.Instant;
+import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
-import java.util.Random;
+import java.util.Map;
 import javax.persistence.Column;
 import javax.persistence.Embedded;
 import javax.persistence.MappedSuperclass;
@@ -37,32 +38,37 @@ import org.bco.cm.dto.AbstractCourseDTO;
 import org.bco.cm.dto.ModuleDTO;
 
 /**
- * Serves as a base class for all course types.
+ * Serves as a base class for all course types. Module identifiers are taken 
+ * from a per-course sequence. Its high-water mark is persisted with the 
+ * course, so identifiers are never handed out twice, not even after a module 
+ * was removed.
  * @author Andr&#233; H. Juffer, Biocenter Oulu
  * @see org.bco.cm.domain.course.Module
  */
 @MappedSuperclass
-public abstract class AbstractCourse 
+public abstract class AbstractCourse implements Serializable
 {    
-    // For generating module identifiers that are unique to a given course.
-    static final Random RANDOM;
     
-    static {
-        RANDOM = new Random();
-        RANDOM.setSeed(Instant.now().toEpochMilli());
-    }
+    private static final long serialVersionUID = 1L;
     
     private String title_;
     private String summary_;
     private List<Module> modules_;
+    private int lastModuleId_;
     private TeacherId teacherId_;
     
+    // Modules by module identifier. Built on first lookup, as modules may be 
+    // loaded lazily.
+    private transient Map<Integer, Module> index_;
+    
     protected AbstractCourse()
     {
         title_ = null;
         summary_ = null;
         modules_ = new ArrayList<>();
+        lastModuleId_ = 0;
         teacherId_ = null;
+        index_ = null;
     }
 
     /**
@@ -128,6 +134,7 @@ public abstract class AbstractCourse
         modules_.forEach(module -> {
             this.setParentCourse(module);
         });
+        index_ = null;
     }
     
     /**
@@ -173,21 +180,64 @@ public abstract class AbstractCourse
     {
         this.setParentCourse(module);
         modules_.add(module);
+        lastModuleId_ = Math.max(lastModuleId_, module.getModuleId());
+        if ( index_ != null ) {
+            index_.put(module.getModuleId(), module);
+        }
+    }
+    
+    /**
+     * Removes a module.
+     * @param module Module.
+     */
+    protected void detachModule(Module module)
+    {
+        module.setCourseDescription(null);
+        module.setCourse(null);
+        modules_.remove(module);
+        if ( index_ != null ) {
+            index_.remove(module.getModuleId());
+        }
     }
         
     /**
      * Returns new module identifier value that is unique in the context of 
      * this course.
      * @return Identifier, always > 0.
+     * @throws IllegalStateException if all identifiers were handed out.
      */
     protected int generateModuleId()
     {
-        int bound = Integer.MAX_VALUE - 100;
-        int id = RANDOM.nextInt(bound);
-        while (this.containsModule(id) && id == 0) {
-            id = RANDOM.nextInt(bound);
+        if ( lastModuleId_ == Integer.MAX_VALUE ) {
+            throw new IllegalStateException("No more module identifiers available.");
         }
-        return id;
+        lastModuleId_++;
+        return lastModuleId_;
+    }
+    
+    private void setLastModuleId(int lastModuleId)
+    {
+        lastModuleId_ = lastModuleId;
+    }
+    
+    /**
+     * Returns the last module identifier handed out.
+     * @return Identifier, 0 if none was handed out.
+     */
+    @Column( name = "last_module_id" )
+    protected int getLastModuleId()
+    {
+        return lastModuleId_;
+    }
+    
+    /**
+     * Continues the module identifier sequence of another course, so modules
+     * copied from that course keep their identifiers.
+     * @param original Original course.
+     */
+    protected void continueModuleIds(AbstractCourse original)
+    {
+        lastModuleId_ = Math.max(lastModuleId_, original.lastModuleId_);
     }
 
     /**
@@ -238,14 +288,17 @@ public abstract class AbstractCourse
      */
     Module findModule(int moduleId)
     {
-        if ( moduleId > 0 && !modules_.isEmpty() ) {
-            for (Module module : modules_) {
-                if (module.getModuleId() == moduleId ) {
-                    return module;
-                }
-            }
+        return moduleId > 0 ? this.index().get(moduleId) : null;
+    }
+    
+    private Map<Integer, Module> index()
+    {
+        if ( index_ == null ) {
+            Map<Integer, Module> index = new HashMap<>();
+            modules_.forEach(module -> index.put(module.getModuleId(), module));
+            index_ = index;
         }
-        return null;
+        return index_;
     }
 
     /**
@@ -256,10 +309,51 @@ public abstract class AbstractCourse
     {
         this.setSummary(spec.getSummary());
         this.setTitle(spec.getTitle());
-        this.clearModules();
-        spec.modules().forEach(module -> {
-            this.addModule(module);
-        });
+        this.updateModules(spec.modules());
+    }
+    
+    /**
+     * Updates modules. Modules are matched to existing modules by module 
+     * identifier. Matched modules are updated in place, others are added, 
+     * and existing modules not in the specification are removed.
+     * @param specs Module specifications.
+     */
+    private void updateModules(List<ModuleDTO> specs)
+    {
+        Map<Integer, Module> existing = new HashMap<>(this.index());
+        List<Module> ordered = new ArrayList<>();
+        List<ModuleDTO> added = new ArrayList<>();
+        for (ModuleDTO spec : specs) {
+            Module module = existing.remove(spec.getModuleId());
+            if ( module != null ) {
+                ordered.add(module);
+            } else {
+                ordered.add(null);
+                added.add(spec);
+            }
+        }
+        for (Module module : existing.values()) {
+            this.detachModule(module);
+        }
+        
+        // Update matched modules, and create new ones. 
+        int next = 0;
+        for (int i = 0; i != ordered.size(); i++) {
+            Module module = ordered.get(i);
+            if ( module != null ) {
+                module.update(specs.get(i));
+            } else {
+                this.addModule(added.get(next++));
+                ordered.set(i, modules_.get(modules_.size() - 1));
+            }
+        }
+        
+        // A changed collection of modules increments the version of the course,
+        // so only reorder if needed.
+        if ( !ordered.equals(modules_) ) {
+            modules_.clear();
+            modules_.addAll(ordered);
+        }
     }
     
     /**
@@ -282,8 +376,7 @@ public abstract class AbstractCourse
      */
     protected boolean containsModule(int moduleId)
     {
-        return modules_.stream()
-                       .anyMatch((module) -> ( module.getModuleId() == moduleId ));
+        return this.index().containsKey(moduleId);
     }
     
     /**
@@ -296,6 +389,7 @@ public abstract class AbstractCourse
             module.setCourse(null);
         }
         modules_.clear();
+        index_ = null;
     }
     
     
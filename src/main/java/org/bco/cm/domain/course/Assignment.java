@@ -40,6 +40,8 @@ import org.bco.cm.dto.AssignmentDTO;
 @DiscriminatorValue( value = "Assignment" )
 public class Assignment extends ModuleItem implements Serializable {
     
+    private static final long serialVersionUID = 1L;
+    
     private String content_;
     private Simulator simulator_;
     
@@ -116,12 +118,22 @@ public class Assignment extends ModuleItem implements Serializable {
     public static Assignment valueOf(AssignmentDTO spec)
     {
         Assignment assignment = new Assignment();
-        assignment.populate(spec);
-        assignment.setContent(spec.getContent());
-        assignment.setSimulatorName(spec.getSimulatorName());
+        assignment.update(spec);
         return assignment;
     }
     
+    /**
+     * Updates this assignment.
+     * @param spec Assignment update specification. Must specify content.
+     */
+    void update(AssignmentDTO spec)
+    {
+        this.populate(spec);
+        this.setContent(spec.getContent());
+        simulator_ = null;
+        this.setSimulatorName(spec.getSimulatorName());
+    }
+    
     @Override
     public AssignmentDTO toDTO() 
     {
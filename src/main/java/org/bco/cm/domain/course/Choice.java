@@ -43,6 +43,8 @@ import org.bco.cm.dto.ChoiceDTO;
 @Entity( name = "Choice" )
 @Table( name = "choices" )
 public class Choice implements Serializable {
+    
+    private static final long serialVersionUID = 1L;
 
     private UUID id_;
     private String phrase_;
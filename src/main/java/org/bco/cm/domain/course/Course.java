@@ -27,6 +27,8 @@ package org.bco.cm.domain.course;
 import com.tribc.cqrs.util.EventUtil;
 import com.tribc.ddd.domain.event.Event;
 import com.tribc.ddd.domain.event.Eventful;
+import java.io.IOException;
+import java.io.ObjectInputStream;
 import java.io.Serializable;
 import java.time.Instant;
 import java.util.ArrayList;
@@ -51,14 +53,23 @@ import javax.persistence.MapKey;
 import javax.persistence.OneToMany;
 import javax.persistence.Table;
 import javax.persistence.Transient;
+import javax.persistence.Version;
+import javax.persistence.NamedQueries;
+import javax.persistence.NamedQuery;
+import javax.persistence.Cacheable;
+import org.bco.cm.domain.course.event.CourseActivated;
 import org.bco.cm.domain.course.event.CourseStarted;
+import org.bco.cm.domain.course.event.CourseUpdated;
 import org.bco.cm.domain.enrolment.Enrolment;
 import org.bco.cm.domain.student.Student;
 import org.bco.cm.domain.student.StudentId;
 import org.bco.cm.dto.CourseDTO;
-import org.bco.cm.dto.ModuleDTO;
 import org.bco.cm.util.Identifiable;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
+import org.hibernate.annotations.OptimisticLock;
 
 /**
  * An unit of teaching that typically lasts one academic term. A course is  
@@ -73,11 +84,28 @@ import org.hibernate.annotations.NaturalId;
  */
 @Entity( name = "Course" )
 @Table( name = "courses" )
+@NamedQueries({
+    @NamedQuery(
+        name = "Course.forAll",
+        query = "select course from Course course"
+    ),
+    @NamedQuery(
+        name = "Course.forCourseDescriptionId",
+        query = "select course from Course course " +
+            "where course.courseDescriptionId.id = :courseDescriptionId"
+    )
+})
+@Cacheable
+@Cache( usage = CacheConcurrencyStrategy.READ_WRITE, region = "courses" )
+@NaturalIdCache( region = "courses-natural-ids" )
 public class Course 
     extends AbstractCourse
-    implements Eventful, Identifiable, Serializable {
+    implements Eventful, Identifiable, Serializable, Cloneable {
+    
+    private static final long serialVersionUID = 1L;
     
     private UUID id_;
+    private long version_;
     private CourseId courseId_;
     private CourseDescriptionId courseDescriptionId_;
     private Instant startDate_;
@@ -85,15 +113,18 @@ public class Course
     private int numberOfSeats_;
     private boolean ongoing_;
     private Map<StudentId,StudentMonitor> roster_;
+    private int lastSeatNumber_;
     
-    private final Collection<Event> events_;
+    private transient Collection<Event> events_;
     
     protected Course()
     {
         id_ = null;
+        version_ = 0;
         courseId_ = null;
         courseDescriptionId_ = null;
         roster_ = new HashMap<>();  // No student registered.
+        lastSeatNumber_ = 0;
         startDate_ = Instant.now();
         endDate_ = Instant.now();
         numberOfSeats_ = 0;
@@ -117,6 +148,22 @@ public class Course
         return id_;
     }
     
+    private void setVersion(long version)
+    {
+        version_ = version;
+    }
+    
+    /**
+     * Returns version, incremented on every update (optimistic locking).
+     * @return Version.
+     */
+    @Version
+    @Column( name = "version" )
+    protected long getVersion()
+    {
+        return version_;
+    }
+    
     private void setIdentifier(CourseId courseId)
     {
         this.setCourseId(courseId);
@@ -288,13 +335,14 @@ public class Course
     }
     
     /**
-     * Returns students.
+     * Returns students. Loaded on first access. Changes do not increment the 
+     * version, seats are guarded by the seat inventory instead.
      * @return Students. May be empty.
      */
     @OneToMany( 
         cascade = CascadeType.ALL, 
         orphanRemoval = true,
-        fetch = FetchType.EAGER
+        fetch = FetchType.LAZY
     )
     @JoinTable(
         name = "rosters",
@@ -302,11 +350,30 @@ public class Course
         inverseJoinColumns = @JoinColumn(name = "monitor_id")
     )
     @MapKey( name = "studentId" )
+    @Cache( usage = CacheConcurrencyStrategy.READ_WRITE, region = "course-rosters" )
+    @OptimisticLock( excluded = true )
     protected Map<StudentId, StudentMonitor> getRoster()
     {
         return roster_;
     }
     
+    private void setLastSeatNumber(int lastSeatNumber)
+    {
+        lastSeatNumber_ = lastSeatNumber;
+    }
+    
+    /**
+     * Returns the last seat number handed out. Seat numbers are handed out by
+     * the seat inventory, which also keeps this column up to date.
+     * @return Number, 0 if none was handed out.
+     * @see SeatInventory#numberSeats(org.bco.cm.domain.course.Course, int) 
+     */
+    @Column( name = "last_seat_number", insertable = false, updatable = false )
+    protected int getLastSeatNumber()
+    {
+        return lastSeatNumber_;
+    }
+    
     /**
      * Returns student monitors.
      * @return Roster. Never null. May be empty.
@@ -341,6 +408,26 @@ public class Course
     public static Course activate(CourseId courseId,
                                   CourseDescription courseDescription,
                                   CourseDTO spec)
+    {
+        Course course = Course.activateWithoutModules(courseId, courseDescription, spec);
+        course.copyModules(courseDescription);
+        return course;
+    }
+    
+    /**
+     * Activates a course, but does not copy modules. The modules must be 
+     * copied by a module copier once the course is in the course registry.
+     * @param courseId New course identifier.
+     * @param courseDescription Course description the activated course is based on. 
+     * Must hold modules.
+     * @param spec New course specification. Must include start date and end date, and
+     * the number of available seats.
+     * @return New course, without modules.
+     * @see ModuleCopier
+     */
+    static Course activateWithoutModules(CourseId courseId,
+                                         CourseDescription courseDescription,
+                                         CourseDTO spec)
     {
         // Validate.
         if ( !courseDescription.hasModules() ) {
@@ -355,11 +442,8 @@ public class Course
         course.setCourseDescriptionId(courseDescription.getCourseDescriptionId());
         course.setTitle(courseDescription.getTitle());
         course.setSummary(courseDescription.getSummary());
-        for (Module original : courseDescription.getModules() ) {
-            ModuleDTO copy = original.toDTO();
-            course.addModule(copy);            
-        }
         course.setTeacherId(courseDescription.getTeacherId());
+        course.continueModuleIds(courseDescription);
         
         // Specification.
         course.setStartDate(spec.getStartDate());
@@ -370,11 +454,49 @@ public class Course
             );
         }
         course.setNumberOfSeats(spec.getNumberOfSeats());
+        course.events_.add(new CourseActivated(course));
         
         // Done.
         return course;
     }
     
+    /**
+     * Copies the modules of the course description this course was activated
+     * from, including their module items. Copies keep their module identifiers.
+     * Used where courses are held in memory; otherwise modules are copied by 
+     * the module copier without being loaded.
+     * @param courseDescription Course description.
+     * @return Number of copied modules.
+     * @throws IllegalArgumentException if this course was not activated from 
+     * the course description.
+     * @see ModuleCopier
+     */
+    public int copyModules(CourseDescription courseDescription)
+    {
+        if ( !courseDescription.getCourseDescriptionId().equals(courseDescriptionId_) ) {
+            throw new IllegalArgumentException(
+                "Course was not activated from course description."
+            );
+        }
+        List<Module> originals = courseDescription.getModules();
+        for (Module original : originals) {
+            Module copy = Module.valueOf(original.getModuleId(), original.toDTO());
+            this.addModule(copy);
+        }
+        return originals.size();
+    }
+    
+    /**
+     * Adds modules copied by a module copier. The copies must already be 
+     * stored as modules of this course.
+     * @param copies Copied modules.
+     * @see ModuleCopier
+     */
+    public void addCopiedModules(List<Module> copies)
+    {
+        copies.forEach(this::addModule);
+    }
+    
     public void update(CourseDTO spec)
     {
         this.setStartDate(spec.getStartDate());
@@ -385,44 +507,100 @@ public class Course
             );
         }
         this.setNumberOfSeats(spec.getNumberOfSeats());
+        events_.add(new CourseUpdated(this));
     }
     
     /**
      * Notification of course enrolment. If the course is 
      * ongoing, the student gains access to the first module.
      * @param student Student.
+     * @param seats Seat inventory. A seat is reserved for the student. Its 
+     * seat number becomes the identifier of the student's monitor.
+     * @param roster Course roster. The student's monitor is added to it.
      * @throws IllegalStateException if registration is not yet open, student 
      * is already enrolled in course, or no more seats are available in the course.
      */
-    public void enrolled(Student student)
+    public void enrolled(Student student, SeatInventory seats, CourseRoster roster)
     {
         if ( !this.isActive() ) {
             throw new IllegalStateException("Registration is not yet open.");
         }
-        if ( this.isEnrolled(student) ) {
+        if ( roster.isEnrolled(this, student) ) {
             throw new IllegalStateException("Student already enrolled in course.");
         }
-        if ( !this.hasSeatsAvailable() ) {
+        if ( !seats.reserve(this) ) {
             throw new IllegalStateException("No more seats available in course.");
         }
-        int monitorId = this.generateMonitorId();
+        int monitorId = seats.numberSeats(this, 1);
+        lastSeatNumber_ = Math.max(lastSeatNumber_, monitorId);
         StudentMonitor monitor = new StudentMonitor(monitorId, student);        
-        roster_.put(student.getStudentId(), monitor);
         
         // Give access to first module if the course is already ongoing.
         if ( this.isOngoing() ) {
             Module first = this.firstModule();
             monitor.toFirstModule(first);
-        }        
+        }
+        roster.add(this, monitor);
     }
     
     /**
      * Notification of canceling of enrolment.
      * @param student Student.
+     * @param seats Seat inventory. The student's seat is released.
+     * @param roster Course roster. The student's monitor is removed from it.
      */
-    public void enrolmentCanceled(Student student)
+    public void enrolmentCanceled(Student student, 
+                                  SeatInventory seats, 
+                                  CourseRoster roster)
     {
-        roster_.remove(student.getStudentId());
+        if ( roster.remove(this, student) ) {
+            seats.release(this);
+        }
+    }
+    
+    /**
+     * Adds a student monitor to the roster. Used where courses are held in 
+     * memory, or their roster is loaded already; otherwise the course roster 
+     * adds the monitor without loading the roster. The monitor's seat number 
+     * counts as handed out.
+     * @param monitor Monitor.
+     * @see CourseRoster
+     */
+    public void addToRoster(StudentMonitor monitor)
+    {
+        roster_.put(monitor.getStudentId(), monitor);
+        lastSeatNumber_ = Math.max(lastSeatNumber_, monitor.getMonitorId());
+    }
+    
+    /**
+     * Removes the monitor of a student from the roster. Used where courses 
+     * are held in memory, or their roster is loaded already.
+     * @param student Student.
+     * @return True if the student was on the roster.
+     * @see CourseRoster
+     */
+    public boolean removeFromRoster(Student student)
+    {
+        return roster_.remove(student.getStudentId()) != null;
+    }
+    
+    /**
+     * Returns a copy of this course with an empty roster. Used where courses 
+     * are held in memory, to record changes of the roster apart from the 
+     * course. The copy shares modules with this course (which still refer to
+     * this course), so only its roster may be modified.
+     * @return Copy.
+     */
+    public Course withoutRoster()
+    {
+        try {
+            Course course = (Course)this.clone();
+            course.roster_ = new HashMap<>();
+            course.events_ = new HashSet<>();
+            return course;
+        } catch (CloneNotSupportedException exception) {
+            throw new IllegalStateException(exception);
+        }
     }
     
     /**
@@ -533,11 +711,36 @@ public class Course
     
     /**
      * Are there still seats available?
+     * @param seats Seat inventory.
+     * @return Result.
+     */
+    public boolean hasSeatsAvailable(SeatInventory seats)
+    {
+        return seats.seatsTaken(this) < numberOfSeats_;
+    }
+    
+    /**
+     * Is student enrolled in this course? Looks up the roster, which is loaded
+     * if need be. Used where courses are held in memory, or their roster is 
+     * loaded already.
+     * @param student Student.
      * @return Result.
+     * @see CourseRoster#isEnrolled(org.bco.cm.domain.course.Course, org.bco.cm.domain.student.Student) 
+     */
+    public boolean isEnrolled(Student student)
+    {
+        return roster_.containsKey(student.getStudentId());
+    }
+    
+    /**
+     * Returns the last seat number handed out in this course. Seat numbers 
+     * serve as student monitor identifiers.
+     * @return Number, 0 if none was handed out.
+     * @see SeatInventory#numberSeats(org.bco.cm.domain.course.Course, int) 
      */
-    public boolean hasSeatsAvailable()
+    public int lastSeatNumber()
     {
-        return roster_.size() < numberOfSeats_;
+        return lastSeatNumber_;
     }
     
     private Module firstModule()
@@ -566,6 +769,14 @@ public class Course
         events_.clear();
     }
     
+    private void readObject(ObjectInputStream in) 
+        throws IOException, ClassNotFoundException
+    {
+        // Raised events are not serialized.
+        in.defaultReadObject();
+        events_ = new HashSet<>();
+    }
+    
     @Override
     public boolean equals(Object other)
     {
@@ -584,12 +795,9 @@ public class Course
 
     @Override
     public int hashCode() {
+        // Consistent with equals. Must not touch the (lazy) roster.
         int hash = 3;
-        hash = 29 * hash + Objects.hashCode(this.startDate_);
-        hash = 29 * hash + Objects.hashCode(this.endDate_);
-        hash = 29 * hash + this.numberOfSeats_;
-        hash = 29 * hash + (this.ongoing_ ? 1 : 0);
-        hash = 29 * hash + Objects.hashCode(this.roster_);
+        hash = 29 * hash + Objects.hashCode(this.courseId_);
         return hash;
     }
     
@@ -598,31 +806,6 @@ public class Course
         events_.add(new CourseStarted(this));
     }
     
-    private boolean isEnrolled(Student student)
-    {
-        return roster_.containsKey(student.getStudentId());
-    }
-    
-    private boolean containsStudentMonitor(int monitorId)
-    {
-        for (StudentMonitor monitor: this.roster() ) {
-            if ( monitor.getMonitorId() == monitorId ) {
-                return true;
-            }
-        }
-        return false;
-    }
-    
-    private int generateMonitorId()
-    {
-        int bound = Integer.MAX_VALUE - 100;
-        int id = RANDOM.nextInt(bound);
-        while (this.containsStudentMonitor(id) && id == 0) {
-            id = RANDOM.nextInt(bound);
-        }
-        return id;
-    }
-    
     @Transient
     private boolean isEndDateAfterStartDate()
     {
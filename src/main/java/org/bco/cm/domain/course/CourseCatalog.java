@@ -24,6 +24,8 @@
 
 package org.bco.cm.domain.course;
 
+import java.util.Collection;
+import java.util.function.Consumer;
 import org.bco.cm.util.Repository;
 
 /**
@@ -33,4 +35,17 @@ import org.bco.cm.util.Repository;
 public interface CourseCatalog extends Repository<CourseDescription, 
                                                   CourseDescriptionId> {
     
+    /**
+     * Adds many course descriptions at once.
+     * @param courses Course descriptions.
+     */
+    void addAll(Collection<CourseDescription> courses);
+    
+    /**
+     * Visits all course descriptions, one at a time, in course description 
+     * identifier order. Course descriptions must not be retained by the visitor.
+     * @param consumer Visitor.
+     */
+    void forEach(Consumer<CourseDescription> consumer);
+    
 }
@@ -24,6 +24,7 @@
 
 package org.bco.cm.domain.course;
 
+import java.util.List;
 import org.bco.cm.domain.teacher.Teacher;
 import org.bco.cm.dto.CourseDescriptionDTO;
 import org.bco.cm.dto.ModuleDTO;
@@ -68,6 +69,20 @@ public class CourseCatalogService {
         return course;
     }
     
+    /**
+     * Adds many new course descriptions at once, e.g. when importing a course 
+     * catalog.
+     * @param courses New course descriptions, with identifiers not yet in use.
+     * @param courseCatalog Course catalog.
+     */
+    public static void addAll(List<CourseDescription> courses, 
+                              CourseCatalog courseCatalog)
+    {
+        courseCatalog.addAll(courses);
+        
+        // Raise events.
+        courses.forEach(CourseDescription::addedToCourseCatalog);
+    }
     
     /**
      * Updates course description.
@@ -109,6 +124,7 @@ public class CourseCatalogService {
                 "Teacher is not responsible for course '" + course.getTitle() + "'."
             );
         }
+        course.removedFromCourseCatalog();
         courseCatalog.remove(course);
     }
     
@@ -132,6 +148,7 @@ public class CourseCatalogService {
             );
         }
         course.addModule(spec);
+        course.updated();
         courseCatalog.update(course);
         return course;
     }
@@ -158,6 +175,7 @@ public class CourseCatalogService {
             );
         }
         course.updateModule(moduleId, spec);
+        course.updated();
         courseCatalog.update(course);
         return course;
     }
@@ -182,6 +200,7 @@ public class CourseCatalogService {
             );
         }
         course.removeModule(moduleId);
+        course.updated();
         courseCatalog.update(course);
         return course;
     }
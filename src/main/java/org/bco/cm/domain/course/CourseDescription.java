@@ -28,6 +28,8 @@ import org.bco.cm.domain.teacher.Teacher;
 import com.tribc.cqrs.util.EventUtil;
 import com.tribc.ddd.domain.event.Event;
 import com.tribc.ddd.domain.event.Eventful;
+import java.io.IOException;
+import java.io.ObjectInputStream;
 import java.io.Serializable;
 import java.util.Collection;
 import java.util.HashSet;
@@ -35,6 +37,7 @@ import java.util.List;
 import java.util.Objects;
 import java.util.UUID;
 import javax.persistence.CascadeType;
+import javax.persistence.Column;
 import javax.persistence.Embedded;
 import javax.persistence.Entity;
 import javax.persistence.GeneratedValue;
@@ -42,11 +45,20 @@ import javax.persistence.Id;
 import javax.persistence.OneToMany;
 import javax.persistence.Table;
 import javax.persistence.Transient;
+import javax.persistence.Version;
+import javax.persistence.NamedQueries;
+import javax.persistence.NamedQuery;
+import javax.persistence.Cacheable;
+import org.bco.cm.domain.course.event.CourseDescriptionRemoved;
+import org.bco.cm.domain.course.event.CourseDescriptionUpdated;
 import org.bco.cm.domain.course.event.NewCourseAddedToCatalog;
 import org.bco.cm.dto.CourseDescriptionDTO;
 import org.bco.cm.dto.ModuleDTO;
 import org.bco.cm.util.Identifiable;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 
 /**
  * Describes a course. Consists of a title, summary, and separate components 
@@ -55,17 +67,35 @@ import org.hibernate.annotations.NaturalId;
  */
 @Entity( name = "CourseDescription" )
 @Table( name = "course_descriptions" )
+@NamedQueries({
+    @NamedQuery(
+        name = "CourseDescription.forAll",
+        query = "select course from CourseDescription course"
+    ),
+    @NamedQuery(
+        name = "CourseDescription.forAllOrdered",
+        query = "select course from CourseDescription course " +
+            "order by course.courseDescriptionId.id"
+    )
+})
+@Cacheable
+@Cache( usage = CacheConcurrencyStrategy.READ_WRITE, region = "course-descriptions" )
+@NaturalIdCache( region = "course-descriptions-natural-ids" )
 public class CourseDescription 
     extends AbstractCourse
     implements Eventful, Identifiable, Serializable {
     
+    private static final long serialVersionUID = 1L;
+    
     private UUID id_;
+    private long version_;
     private CourseDescriptionId courseDescriptionId_;
-    private final Collection<Event> events_;
+    private transient Collection<Event> events_;
     
     protected CourseDescription()
     {
         super();
+        version_ = 0;
         events_ = new HashSet<>();
     }
     
@@ -85,6 +115,22 @@ public class CourseDescription
         return id_;
     }
     
+    private void setVersion(long version)
+    {
+        version_ = version;
+    }
+    
+    /**
+     * Returns version, incremented on every update (optimistic locking).
+     * @return Version.
+     */
+    @Version
+    @Column( name = "version" )
+    protected long getVersion()
+    {
+        return version_;
+    }
+    
     private void setIdentifier(CourseDescriptionId courseId)
     {
         this.setCourseDescriptionId(courseId);
@@ -183,6 +229,7 @@ public class CourseDescription
     public void update(CourseDescriptionDTO spec)
     {
         this.populate(spec);
+        this.updated();
     }
     
     /**
@@ -218,8 +265,7 @@ public class CourseDescription
     public void removeModule(int moduleId)
     {
         Module module = this.findModule(moduleId);
-        module.setCourseDescription(null);
-        super.modules().remove(module);
+        this.detachModule(module);
    }
     
     @Override
@@ -235,6 +281,14 @@ public class CourseDescription
         events_.clear();
     }
     
+    private void readObject(ObjectInputStream in) 
+        throws IOException, ClassNotFoundException
+    {
+        // Raised events are not serialized.
+        in.defaultReadObject();
+        events_ = new HashSet<>();
+    }
+    
     @Override
     public boolean equals(Object other)
     {
@@ -266,4 +320,20 @@ public class CourseDescription
         this.events_.add(new NewCourseAddedToCatalog(this));
     }
     
+    /**
+     * Signals that this course or one of its modules was updated.
+     */
+    void updated()
+    {
+        this.events_.add(new CourseDescriptionUpdated(this));
+    }
+    
+    /**
+     * Signals that this course is about to be removed from the course catalog.
+     */
+    void removedFromCourseCatalog()
+    {
+        this.events_.add(new CourseDescriptionRemoved(courseDescriptionId_));
+    }
+    
 }
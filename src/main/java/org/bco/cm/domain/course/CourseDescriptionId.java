@@ -28,14 +28,17 @@ import java.io.Serializable;
 import java.util.UUID;
 import javax.persistence.Column;
 import javax.persistence.Embeddable;
-import org.bco.cm.util.Id;
+import org.bco.cm.util.UuidId;
+import org.bco.cm.util.Uuids;
 
 /**
  *
  * @author Andr&#233; H. Juffer, Biocenter Oulu
  */
 @Embeddable
-public class CourseDescriptionId extends Id<String> implements Serializable {
+public class CourseDescriptionId extends UuidId implements Serializable {
+    
+    private static final long serialVersionUID = 1L;
     
     protected CourseDescriptionId()
     {
@@ -47,7 +50,12 @@ public class CourseDescriptionId extends Id<String> implements Serializable {
         super(id);
     }
     
-    private void setId(String id)
+    public CourseDescriptionId(UUID id)
+    {
+        super(id);
+    }
+    
+    private void setId(UUID id)
     {
         this.setValue(id);
     }
@@ -57,7 +65,7 @@ public class CourseDescriptionId extends Id<String> implements Serializable {
      * @return Value.
      */
     @Column(name="course_description_id")
-    protected String getId()
+    protected UUID getId()
     {
         return this.getValue();
     }
@@ -68,7 +76,6 @@ public class CourseDescriptionId extends Id<String> implements Serializable {
      */
     public static CourseDescriptionId generate()
     {
-        UUID uuid = UUID.randomUUID();
-        return new CourseDescriptionId(uuid.toString());
+        return new CourseDescriptionId(Uuids.generate());
     }
 }
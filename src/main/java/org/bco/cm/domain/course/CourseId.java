@@ -28,14 +28,17 @@ import java.io.Serializable;
 import java.util.UUID;
 import javax.persistence.Column;
 import javax.persistence.Embeddable;
-import org.bco.cm.util.Id;
+import org.bco.cm.util.UuidId;
+import org.bco.cm.util.Uuids;
 
 /**
  * Identifies course.
  * @author André H. Juffer, Biocenter Oulu
  */
 @Embeddable
-public class CourseId extends Id<String> implements Serializable {
+public class CourseId extends UuidId implements Serializable {
+    
+    private static final long serialVersionUID = 1L;
     
     protected CourseId()
     {
@@ -43,11 +46,16 @@ public class CourseId extends Id<String> implements Serializable {
     }
     
     public CourseId(String id)
+    {
+        super(id);
+    }
+    
+    public CourseId(UUID id)
     {
         super(id);
     }    
     
-    private void setId(String id)
+    private void setId(UUID id)
     {
         this.setValue(id);
     }
@@ -57,7 +65,7 @@ public class CourseId extends Id<String> implements Serializable {
      * @return Value.
      */
     @Column(name="course_id")
-    protected String getId()
+    protected UUID getId()
     {
         return this.getValue();
     }
@@ -68,8 +76,7 @@ public class CourseId extends Id<String> implements Serializable {
      */
     public static CourseId generate()
     {
-        UUID uuid = UUID.randomUUID();
-        return new CourseId(uuid.toString());
+        return new CourseId(Uuids.generate());
     }
         
 }
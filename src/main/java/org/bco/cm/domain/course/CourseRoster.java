@@ -0,0 +1,77 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2018 André H. Juffer, Biocenter Oulu
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.bco.cm.domain.course;
+
+import java.util.Collection;
+import java.util.Set;
+import org.bco.cm.domain.student.Student;
+import org.bco.cm.domain.student.StudentId;
+
+/**
+ * Keeps the student monitors on course rosters. Students are looked up, added
+ * and removed without loading the roster of the course.
+ * @author Andr&#233; H. Juffer, Biocenter Oulu
+ */
+public interface CourseRoster {
+    
+    /**
+     * Is student enrolled in course?
+     * @param course Course.
+     * @param student Student.
+     * @return Result.
+     */
+    boolean isEnrolled(Course course, Student student);
+    
+    /**
+     * Selects students enrolled in course.
+     * @param course Course.
+     * @param students Students.
+     * @return Identifiers of those students that are enrolled. May be empty.
+     */
+    Set<StudentId> enrolled(Course course, Collection<Student> students);
+    
+    /**
+     * Adds a student monitor to the roster of a course.
+     * @param course Course.
+     * @param monitor Monitor of a student not yet on the roster.
+     */
+    void add(Course course, StudentMonitor monitor);
+    
+    /**
+     * Adds student monitors to the roster of a course.
+     * @param course Course.
+     * @param monitors Monitors of students not yet on the roster.
+     */
+    void addAll(Course course, Collection<StudentMonitor> monitors);
+    
+    /**
+     * Removes the monitor of a student from the roster of a course.
+     * @param course Course.
+     * @param student Student.
+     * @return True if the student was on the roster.
+     */
+    boolean remove(Course course, Student student);
+    
+}
@@ -54,6 +54,44 @@ public class CourseService {
                                   CourseId courseId,
                                   CourseDTO spec,
                                   CourseRegistry courseRegistry)
+    {
+        CourseService.checkActivation(teacher, courseDescription, courseRegistry);
+        Course course = Course.activate(courseId, courseDescription, spec);
+        courseRegistry.add(course);
+        return course;
+    }
+    
+    /**
+     * Activates a course. Activated course is added to course registry, after
+     * which the modules of the course description are copied by given module
+     * copier, without loading them.
+     * @param teacher Teacher activating course.
+     * @param courseDescription Course description.
+     * @param courseId Identifier of newly activated course.
+     * @param spec Activation specification. Must hold start and end date plus
+     * the number of seats.
+     * @param courseRegistry Course registry.
+     * @param moduleCopier Module copier.
+     * @return Activated course.
+     */
+    public static Course activate(Teacher teacher, 
+                                  CourseDescription courseDescription,
+                                  CourseId courseId,
+                                  CourseDTO spec,
+                                  CourseRegistry courseRegistry,
+                                  ModuleCopier moduleCopier)
+    {
+        CourseService.checkActivation(teacher, courseDescription, courseRegistry);
+        Course course = 
+            Course.activateWithoutModules(courseId, courseDescription, spec);
+        courseRegistry.add(course);
+        moduleCopier.copyModules(courseDescription, course);
+        return course;
+    }
+    
+    private static void checkActivation(Teacher teacher, 
+                                        CourseDescription courseDescription,
+                                        CourseRegistry courseRegistry)
     {
         if ( !courseDescription.isResponsibleTeacher(teacher) ) {
             throw new IllegalArgumentException(
@@ -69,9 +107,6 @@ public class CourseService {
                 "An activated course is still available."
             );            
         }
-        Course course = Course.activate(courseId, courseDescription, spec);
-        courseRegistry.add(course);
-        return course;
     }
     
     /**
@@ -24,12 +24,11 @@
 
 package org.bco.cm.domain.course;
 
-import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Random;
 import java.util.UUID;
 import javax.persistence.CascadeType;
+import javax.persistence.Column;
 import javax.persistence.Entity;
 import javax.persistence.GeneratedValue;
 import javax.persistence.Id;
@@ -49,17 +48,9 @@ import org.bco.cm.dto.OnlineMaterialDTO;
 @Table( name = "learning_paths" )
 public class LearningPath {
     
-    // For generating online material identifiers that are unique to a given 
-    // learning path.
-    private final static Random RANDOM;
-    
-    static {
-        RANDOM = new Random();
-        RANDOM.setSeed(Instant.now().toEpochMilli());
-    }
-    
     private UUID id_;    
     private List<OnlineMaterial> materials_;
+    private int lastMaterialId_;
     
     private Module module_;
     
@@ -67,6 +58,7 @@ public class LearningPath {
     {
         id_ = null;
         materials_ = new ArrayList<>();
+        lastMaterialId_ = 0;
         module_ = null;
     }
     
@@ -110,6 +102,21 @@ public class LearningPath {
         return materials_;
     }
     
+    private void setLastMaterialId(int lastMaterialId)
+    {
+        lastMaterialId_ = lastMaterialId;
+    }
+    
+    /**
+     * Returns the last online material identifier handed out.
+     * @return Identifier, 0 if none was handed out.
+     */
+    @Column( name = "last_material_id" )
+    protected int getLastMaterialId()
+    {
+        return lastMaterialId_;
+    }
+    
     void setModule(Module module)
     {
         module_ = module;
@@ -203,27 +210,21 @@ public class LearningPath {
     }
     
     /**
-     * Returns identifier only unique in context of this learning path.
+     * Returns identifier only unique in context of this learning path. 
+     * Identifiers are taken from a sequence whose high-water mark is persisted
+     * with the learning path.
      * @return Identifier. Always > 0
+     * @throws IllegalStateException if all identifiers were handed out.
      */
     private int generateMaterialId()
     {
-        int bound = Integer.MAX_VALUE - 1;
-        int id = RANDOM.nextInt(bound);
-        while ( this.containsMaterialId(id) && id == 0) {
-            id = RANDOM.nextInt(bound);
-        }
-        return id;
-    }
-    
-    private boolean containsMaterialId(int materialId)
-    {
-        for (OnlineMaterial material : materials_) {
-            if ( material.getMaterialId() == materialId ) {
-                return true;
-            }
+        if ( lastMaterialId_ == Integer.MAX_VALUE ) {
+            throw new IllegalStateException(
+                "No more online material identifiers available."
+            );
         }
-        return false;
+        lastMaterialId_++;
+        return lastMaterialId_;
     }
     
 }
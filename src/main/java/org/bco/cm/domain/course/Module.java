@@ -51,6 +51,8 @@ import org.hibernate.annotations.NaturalId;
 @Table ( name = "modules")
 public class Module implements Serializable {
     
+    private static final long serialVersionUID = 1L;
+    
     private UUID id_;
     private int moduleId_;
     private String name_;
@@ -229,19 +231,46 @@ public class Module implements Serializable {
     }
     
     /**
-     * Updates this module.
+     * Updates this module. Module items are matched to existing module items
+     * by their identifiers. Matched module items are updated in place, others
+     * are added, and existing module items not in the specification are 
+     * removed. Only changed module items are therefore written.
      * @param spec Module update specification. Must include module name. May 
-     * include module items (e.g. assignments and/or quizzes). Previously 
-     * assigned module items are 
+     * include module items (e.g. assignments and/or quizzes). 
      */
     void update(ModuleDTO spec)
     {
-        this.clearModuleItems();
         this.setName(spec.getName());
+        List<ModuleItem> existing = new ArrayList<>(moduleItems_);
+        List<ModuleItem> kept = new ArrayList<>();
+        List<ModuleItemDTO> added = new ArrayList<>();
         List<ModuleItemDTO> dtos = spec.getModuleItems();
         dtos.forEach(dto -> {
-            ModuleItemFactory.addModuleItem(dto, this);
+            ModuleItem moduleItem = existing.stream()
+                .filter(e -> e.isSpecifiedBy(dto))
+                .findFirst()
+                .orElse(null);
+            if ( moduleItem != null && 
+                 ModuleItemFactory.updateModuleItem(moduleItem, dto) ) {
+                existing.remove(moduleItem);
+                kept.add(moduleItem);
+            } else {
+                kept.add(null);
+                added.add(dto);
+            }
         });
+        
+        // Remove unmatched, then add new module items in specified order.
+        existing.forEach(moduleItem -> moduleItem.setParentModule(null));
+        moduleItems_.clear();
+        int next = 0;
+        for (ModuleItem moduleItem : kept) {
+            if ( moduleItem != null ) {
+                moduleItems_.add(moduleItem);
+            } else {
+                ModuleItemFactory.addModuleItem(added.get(next++), this);
+            }
+        }
     }
     
     /**
@@ -323,11 +352,5 @@ public class Module implements Serializable {
         ModuleDTO dto = original.toDTO();
         return Module.valueOf(moduleId, dto);        
     }
-    
-    private void clearModuleItems()
-    {
-        moduleItems_.forEach(moduleItem -> moduleItem.setParentModule(null));
-        moduleItems_.clear();        
-    }
         
 }
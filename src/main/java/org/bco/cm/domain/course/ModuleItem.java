@@ -56,6 +56,8 @@ import org.bco.cm.dto.ModuleItemDTO;
 @DiscriminatorValue( "null" )
 public abstract class ModuleItem implements Serializable {
     
+    private static final long serialVersionUID = 1L;
+    
     private UUID id_;
     private String title_;
     private Module parent_;
@@ -135,9 +137,22 @@ public abstract class ModuleItem implements Serializable {
      */
     protected void populateDTO(ModuleItemDTO dto)
     {
+        if ( id_ != null ) {
+            dto.setItemId(id_.toString());
+        }
         dto.setTitle(title_);
     }
     
+    /**
+     * Is this the module item specified by given specification?
+     * @param spec Module item specification.
+     * @return Result. False if specification does not carry an identifier.
+     */
+    boolean isSpecifiedBy(ModuleItemDTO spec)
+    {
+        return id_ != null && id_.toString().equals(spec.getItemId());
+    }
+    
     public abstract ModuleItemDTO toDTO();
     
     /**
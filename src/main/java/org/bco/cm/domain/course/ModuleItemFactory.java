@@ -59,6 +59,27 @@ public class ModuleItemFactory {
         }
     }
     
+    /**
+     * Updates module item.
+     * @param moduleItem Existing module item.
+     * @param spec Module item update specification.
+     * @return True if updated, false if specification is for another kind of 
+     * module item.
+     */
+    static boolean updateModuleItem(ModuleItem moduleItem, ModuleItemDTO spec)
+    {
+        if ( moduleItem instanceof Quiz && spec.getClass().equals(QuizDTO.class) ) {
+            ((Quiz)moduleItem).update((QuizDTO)spec);
+            return true;
+        } 
+        if ( moduleItem instanceof Assignment && 
+             spec.getClass().equals(AssignmentDTO.class) ) {
+            ((Assignment)moduleItem).update((AssignmentDTO)spec);
+            return true;
+        }
+        return false;
+    }
+    
     private static Quiz createQuiz(ModuleItemDTO spec)
     {
         QuizDTO dto = (QuizDTO)spec;
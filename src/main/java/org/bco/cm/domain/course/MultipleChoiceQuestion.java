@@ -49,6 +49,8 @@ import org.bco.cm.dto.MultipleChoiceQuestionDTO;
 @Entity( name = "MultipleChoiceQuestion" )
 @Table( name = "multiple_choice_questions" )
 public class MultipleChoiceQuestion implements Serializable {
+    
+    private static final long serialVersionUID = 1L;
 
     private UUID id_;
     private Question question_;
@@ -203,17 +205,59 @@ public class MultipleChoiceQuestion implements Serializable {
     public static MultipleChoiceQuestion valueOf(MultipleChoiceQuestionDTO spec)
     {
         MultipleChoiceQuestion mcq = new MultipleChoiceQuestion();
+        mcq.update(spec);
+        return mcq;
+    }
+    
+    /**
+     * Updates this question. Choices are values: existing choices with a 
+     * phrase in the specification are kept, others are removed, and new 
+     * phrases are added. 
+     * @param spec Update specification. Must provide choices and correct 
+     * answer.
+     */
+    void update(MultipleChoiceQuestionDTO spec)
+    {
         Question question = Question.valueOf(spec.getQuestion());
-        mcq.setQuestion(question);
+        List<Choice> existing = new ArrayList<>(choices_);
         List<Choice> choices = new ArrayList<>();
         for (ChoiceDTO c : spec.getChoices()) {
             Choice choice = Choice.valueOf(c);
+            int index = existing.indexOf(choice);
+            if ( index >= 0 ) {
+                choice = existing.remove(index);
+            }
             choices.add(choice);
         }
-        mcq.setChoices(choices);
+        if ( choices.isEmpty() ) {
+            throw new IllegalArgumentException("Choices must be provided.");
+        }
         Choice answer = Choice.valueOf(spec.getAnswer());
-        mcq.setAnswer(answer);
-        return mcq;
+        if ( !choices.contains(answer) ) {
+            throw new IllegalArgumentException(
+                answer.stringValue() + ": This answer is not among possible choices."
+            );
+        }
+        if ( !question.equals(question_) ) {
+            this.setQuestion(question);
+        }
+        existing.forEach(choice -> choice.setParentMultipleChoiceQuestion(null));
+        choices_.clear();
+        choices.forEach(choice -> {
+            choice.setParentMultipleChoiceQuestion(this);
+            choices_.add(choice);
+        });
+        answer_ = answer;
+    }
+    
+    /**
+     * Is this the question specified by given specification?
+     * @param spec Question specification.
+     * @return Result. False if specification does not carry an identifier.
+     */
+    boolean isSpecifiedBy(MultipleChoiceQuestionDTO spec)
+    {
+        return id_ != null && id_.toString().equals(spec.getQuestionId());
     }
     
     /**
@@ -223,6 +267,9 @@ public class MultipleChoiceQuestion implements Serializable {
     public MultipleChoiceQuestionDTO toDTO()
     {
         MultipleChoiceQuestionDTO dto = new MultipleChoiceQuestionDTO();
+        if ( id_ != null ) {
+            dto.setQuestionId(id_.toString());
+        }
         List<ChoiceDTO> choices = new ArrayList<>();
         dto.setAnswer(answer_.toDTO());
         choices_.forEach((c) -> {
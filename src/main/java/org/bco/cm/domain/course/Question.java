@@ -24,6 +24,7 @@
 
 package org.bco.cm.domain.course;
 
+import java.io.Serializable;
 import java.util.Objects;
 import javax.persistence.Column;
 import javax.persistence.Embeddable;
@@ -33,7 +34,9 @@ import javax.persistence.Embeddable;
  * @author Andr&#233; H. Juffer, Biocenter Oulu
  */
 @Embeddable
-public class Question {
+public class Question implements Serializable {
+    
+    private static final long serialVersionUID = 1L;
     
     private String phrase_;
     
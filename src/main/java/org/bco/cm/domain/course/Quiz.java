@@ -43,6 +43,8 @@ import org.bco.cm.dto.QuizDTO;
 @DiscriminatorValue( value = "Quiz" )
 public class Quiz extends ModuleItem implements Serializable {
     
+    private static final long serialVersionUID = 1L;
+    
     private List<MultipleChoiceQuestion> questions_;
     
     protected Quiz()
@@ -88,14 +90,45 @@ public class Quiz extends ModuleItem implements Serializable {
     public static Quiz valueOf(QuizDTO spec)
     {
         Quiz quiz = new Quiz();
-        quiz.populate(spec);
+        quiz.update(spec);
+        return quiz;
+    }
+    
+    /**
+     * Updates this quiz. Questions are matched to existing questions by 
+     * their identifiers. Matched questions are updated in place, others are 
+     * added, and existing questions not in the specification are removed. 
+     * @param spec Quiz update specification. Must provide questions.
+     */
+    void update(QuizDTO spec)
+    {
+        this.populate(spec);
+        List<MultipleChoiceQuestion> existing = new ArrayList<>(questions_);
         List<MultipleChoiceQuestion> questions = new ArrayList<>();
-        spec.getQuestions().forEach(q -> {
-            MultipleChoiceQuestion question = MultipleChoiceQuestion.valueOf(q);
+        for (MultipleChoiceQuestionDTO q : spec.getQuestions()) {
+            MultipleChoiceQuestion question = existing.stream()
+                .filter(e -> e.isSpecifiedBy(q))
+                .findFirst()
+                .orElse(null);
+            if ( question != null ) {
+                existing.remove(question);
+                question.update(q);
+            } else {
+                question = MultipleChoiceQuestion.valueOf(q);
+            }
             questions.add(question);
+        }
+        if ( questions.isEmpty() ) {
+            throw new IllegalArgumentException(
+                "Quiz: List of questions must not be empty."
+            );
+        }
+        existing.forEach(question -> question.setParentQuiz(null));
+        questions_.clear();
+        questions.forEach(question -> {
+            question.setParentQuiz(this);
+            questions_.add(question);
         });
-        quiz.setQuestions(questions);
-        return quiz;
     }
     
     /**
@@ -0,0 +1,77 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2018 André H. Juffer, Biocenter Oulu
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.bco.cm.domain.course;
+
+/**
+ * Keeps count of seats taken per course. Seats are reserved and released 
+ * atomically, without reading the course roster. Reserved seats are numbered 
+ * from a per-course sequence, so concurrent enrolments in a course never get 
+ * the same number.
+ * @author Andr&#233; H. Juffer, Biocenter Oulu
+ */
+public interface SeatInventory {
+    
+    /**
+     * Takes a seat. If called within a transaction, the seat is given back if 
+     * the transaction rolls back.
+     * @param course Course.
+     * @return True if a seat was taken, false if no more seats are available.
+     */
+    boolean reserve(Course course);
+    
+    /**
+     * Takes as many seats as requested, or as are still available if less. If 
+     * called within a transaction, the seats are given back if the transaction
+     * rolls back.
+     * @param course Course.
+     * @param count Number of seats requested.
+     * @return Number of seats taken, between 0 and count.
+     */
+    int reserve(Course course, int count);
+    
+    /**
+     * Hands out consecutive seat numbers. Numbers start at 1 and are not 
+     * reused while the student holding them is enrolled. Numbers handed out 
+     * in a transaction that rolls back may be handed out again.
+     * @param course Course.
+     * @param count Number of seat numbers, > 0.
+     * @return First seat number. The others follow it.
+     */
+    int numberSeats(Course course, int count);
+    
+    /**
+     * Gives back a seat.
+     * @param course Course.
+     */
+    void release(Course course);
+    
+    /**
+     * Returns number of seats taken.
+     * @param course Course.
+     * @return Number.
+     */
+    int seatsTaken(Course course);
+    
+}
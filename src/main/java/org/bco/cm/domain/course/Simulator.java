@@ -24,6 +24,7 @@
 
 package org.bco.cm.domain.course;
 
+import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -31,7 +32,9 @@ import java.util.List;
  *
  * @author Andr&#233; H. Juffer, Biocenter Oulu
  */
-public class Simulator {
+public class Simulator implements Serializable {
+    
+    private static final long serialVersionUID = 1L;
     
     private static final Simulator MD;
     private static final List<Simulator> SIMULATORS;
@@ -53,6 +56,11 @@ public class Simulator {
     {
         return name_;
     }
+    
+    private Object readResolve()
+    {
+        return Simulator.valueOf(name_);
+    }
 
     /**
      * Returns simulator.
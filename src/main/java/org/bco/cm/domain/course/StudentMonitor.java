@@ -36,10 +36,13 @@ import javax.persistence.Entity;
 import javax.persistence.GeneratedValue;
 import javax.persistence.Id;
 import javax.persistence.Table;
+import javax.persistence.Cacheable;
 import org.bco.cm.domain.enrolment.EnrolmentNumber;
 import org.bco.cm.domain.student.Student;
 import org.bco.cm.domain.student.StudentId;
 import org.bco.cm.dto.StudentMonitorDTO;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 /**
  * Observes, supervises (controls) the activities of a student while going 
@@ -48,8 +51,13 @@ import org.bco.cm.dto.StudentMonitorDTO;
  */
 @Entity( name = "StudentMonitor" )
 @Table( name = "student_monitors" )
+@Cacheable
+@Cache( usage = CacheConcurrencyStrategy.READ_WRITE, region = "student-monitors" )
 public class StudentMonitor implements Serializable 
 {    
+    
+    private static final long serialVersionUID = 1L;
+    
     private UUID id_;
     private int monitorId_;
     private StudentId studentId_;
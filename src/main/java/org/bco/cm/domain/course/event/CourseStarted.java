@@ -25,13 +25,15 @@
 package org.bco.cm.domain.course.event;
 
 import com.tribc.ddd.domain.event.AbstractEvent;
+import org.bco.cm.util.SequencedEvent;
 import org.bco.cm.domain.course.Course;
 
 /**
  * A course was started by a teacher.
  * @author Andr&#233; H. Juffer, Biocenter Oulu
  */
-public class CourseStarted extends AbstractEvent {
+public class CourseStarted extends AbstractEvent 
+    implements SequencedEvent {
     
     private Course course_;
     
@@ -46,5 +48,11 @@ public class CourseStarted extends AbstractEvent {
     {
         return course_;
     }
+    
+    @Override
+    public String getSequenceKey()
+    {
+        return course_.getCourseId().stringValue();
+    }
 
 }
@@ -25,13 +25,15 @@
 package org.bco.cm.domain.course.event;
 
 import com.tribc.ddd.domain.event.AbstractEvent;
+import org.bco.cm.util.SequencedEvent;
 import org.bco.cm.domain.course.CourseDescription;
 
 /**
  * A new course was added to the course catalog.
  * @author Andr&#233; H. Juffer, Biocenter Oulu
  */
-public class NewCourseAddedToCatalog extends AbstractEvent {
+public class NewCourseAddedToCatalog extends AbstractEvent 
+    implements SequencedEvent {
     
     private final CourseDescription course_;
     
@@ -49,5 +51,11 @@ public class NewCourseAddedToCatalog extends AbstractEvent {
     {
         return course_;
     }
+    
+    @Override
+    public String getSequenceKey()
+    {
+        return course_.getCourseDescriptionId().stringValue();
+    }
 
 }
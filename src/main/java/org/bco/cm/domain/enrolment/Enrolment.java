@@ -26,6 +26,8 @@ package org.bco.cm.domain.enrolment;
 
 import com.tribc.ddd.domain.event.Event;
 import com.tribc.ddd.domain.event.Eventful;
+import java.io.IOException;
+import java.io.ObjectInputStream;
 import java.io.Serializable;
 import java.time.Instant;
 import java.util.Collection;
@@ -39,15 +41,23 @@ import javax.persistence.GeneratedValue;
 import javax.persistence.Id;
 import javax.persistence.Table;
 import javax.persistence.Transient;
+import javax.persistence.Version;
+import javax.persistence.NamedQuery;
+import javax.persistence.Cacheable;
 import org.bco.cm.domain.course.Course;
 import org.bco.cm.domain.course.CourseId;
+import org.bco.cm.domain.course.CourseRoster;
+import org.bco.cm.domain.course.SeatInventory;
 import org.bco.cm.domain.enrolment.event.EnrolmentCanceled;
 import org.bco.cm.domain.enrolment.event.EnrolmentCreated;
 import org.bco.cm.domain.student.Student;
 import org.bco.cm.domain.student.StudentId;
 import org.bco.cm.dto.EnrolmentDTO;
 import org.bco.cm.util.Identifiable;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 
 /**
  * A record of registration of student for a course.
@@ -55,18 +65,32 @@ import org.hibernate.annotations.NaturalId;
  */
 @Entity( name = "Enrolment" )
 @Table( name = "enrolments" )
+@NamedQuery(
+    name = "Enrolment.forCourseAndStudent",
+    query = "select enrolment from Enrolment enrolment " +
+        "where enrolment.courseId.id = :courseId " +
+        "and enrolment.studentId.id = :studentId"
+)
+@Cacheable
+@Cache( usage = CacheConcurrencyStrategy.READ_WRITE, region = "enrolments" )
+@NaturalIdCache( region = "enrolments-natural-ids" )
 public class Enrolment implements Identifiable, Eventful, Serializable 
 {    
+    
+    private static final long serialVersionUID = 1L;
+    
     private UUID id_;
+    private long version_;
     private EnrolmentNumber eid_;
     private CourseId courseId_;
     private StudentId studentId_;
     private Instant dateOfRegistration_;
     
-    private final Collection<Event> events_;
+    private transient Collection<Event> events_;
 
     protected Enrolment()
     {
+        version_ = 0;
         eid_ = null;
         courseId_ = null;
         studentId_ = null;
@@ -90,6 +114,22 @@ public class Enrolment implements Identifiable, Eventful, Serializable
         return id_;
     }
     
+    private void setVersion(long version)
+    {
+        version_ = version;
+    }
+    
+    /**
+     * Returns version, incremented on every update (optimistic locking).
+     * @return Version.
+     */
+    @Version
+    @Column( name = "version" )
+    protected long getVersion()
+    {
+        return version_;
+    }
+    
     private void setEnrolmentNumber(EnrolmentNumber eid)
     {
         if ( eid == null ) {
@@ -179,13 +219,22 @@ public class Enrolment implements Identifiable, Eventful, Serializable
     }
     
     /**
-     * Returns new course enrolment. Raises an EnrolmentCreated event.
+     * Returns new course enrolment. The student is added to the course roster. 
+     * Raises an EnrolmentCreated event.
      * @param eid Enrolment number.
      * @param course Course.
      * @param student Student.
+     * @param seats Seat inventory of courses.
+     * @param roster Course roster.
      * @return New enrolment.
+     * @throws IllegalStateException if registration is not open, the student 
+     * is already enrolled, or no more seats are available.
      */
-    public static Enrolment register(EnrolmentNumber eid, Course course, Student student)
+    public static Enrolment register(EnrolmentNumber eid, 
+                                     Course course, 
+                                     Student student,
+                                     SeatInventory seats,
+                                     CourseRoster roster)
     {
         if ( course == null ) {
             throw new NullPointerException(
@@ -197,6 +246,8 @@ public class Enrolment implements Identifiable, Eventful, Serializable
                 "Missing student."
             );            
         }
+        course.enrolled(student, seats, roster);
+        
         Enrolment enrolment = new Enrolment();
         enrolment.setEnrolmentNumber(eid);
         enrolment.setCourseId(course.getIdentifier());
@@ -209,10 +260,27 @@ public class Enrolment implements Identifiable, Eventful, Serializable
     }
     
     /**
-     * Cancels this enrolment. Raises an EnrolmentCanceled event.
+     * Cancels this enrolment. The student is removed from the course roster. 
+     * Raises an EnrolmentCanceled event.
+     * @param course Course enrolled in.
+     * @param student Enrolled student.
+     * @param seats Seat inventory of courses.
+     * @param roster Course roster.
+     * @throws IllegalArgumentException if this enrolment is not for given course
+     * and student.
      */
-    public void cancel()
+    public void cancel(Course course, 
+                       Student student, 
+                       SeatInventory seats, 
+                       CourseRoster roster)
     {
+        if ( !courseId_.equals(course.getCourseId()) || 
+             !studentId_.equals(student.getStudentId()) ) {
+            throw new IllegalArgumentException(
+                "Enrolment is not for this course and student."
+            );
+        }
+        course.enrolmentCanceled(student, seats, roster);
         this.raiseCanceledEvent();
     }
     
@@ -250,12 +318,20 @@ public class Enrolment implements Identifiable, Eventful, Serializable
         events_.clear();
     }
     
+    private void readObject(ObjectInputStream in) 
+        throws IOException, ClassNotFoundException
+    {
+        // Raised events are not serialized.
+        in.defaultReadObject();
+        events_ = new HashSet<>();
+    }
+    
     /**
      * Raises event to inform that a student enrolled in a course.
      */
     private void raiseStudentEnrolledInCourseEvent()
     {
-        events_.add(new EnrolmentCreated(eid_));
+        events_.add(new EnrolmentCreated(eid_, courseId_));
     }
     
     private void raiseCanceledEvent()
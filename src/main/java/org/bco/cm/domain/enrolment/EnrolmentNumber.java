@@ -27,14 +27,17 @@ package org.bco.cm.domain.enrolment;
 import java.util.UUID;
 import javax.persistence.Column;
 import javax.persistence.Embeddable;
-import org.bco.cm.util.Id;
+import org.bco.cm.util.UuidId;
+import org.bco.cm.util.Uuids;
 
 /**
  * Identifies enrolment.
  * @author Andr&#233; H. Juffer, Biocenter Oulu
  */
 @Embeddable
-public class EnrolmentNumber extends Id<String> {
+public class EnrolmentNumber extends UuidId {
+    
+    private static final long serialVersionUID = 1L;
     
     protected EnrolmentNumber()
     {
@@ -46,7 +49,12 @@ public class EnrolmentNumber extends Id<String> {
         super(value);
     }
     
-    private void setId(String value)
+    public EnrolmentNumber(UUID value)
+    {
+        super(value);
+    }
+    
+    private void setId(UUID value)
     {
         this.setValue(value);
     }
@@ -56,7 +64,7 @@ public class EnrolmentNumber extends Id<String> {
      * @return Value.
      */
     @Column( name = "enrolment_number" )
-    protected String getId()
+    protected UUID getId()
     {
         return this.getValue();
     }
@@ -67,7 +75,6 @@ public class EnrolmentNumber extends Id<String> {
      */
     public static EnrolmentNumber generate()
     {
-        UUID uuid = UUID.randomUUID();
-        return new EnrolmentNumber(uuid.toString());
+        return new EnrolmentNumber(Uuids.generate());
     }
 }
@@ -25,6 +25,7 @@
 
 package org.bco.cm.domain.enrolment;
 
+import java.util.Collection;
 import org.bco.cm.domain.course.Course;
 import org.bco.cm.domain.student.Student;
 import org.bco.cm.util.Repository;
@@ -43,4 +44,10 @@ public interface EnrolmentRegistry extends Repository<Enrolment,EnrolmentNumber>
      */
     Enrolment forCourse(Course course, Student student);
     
+    /**
+     * Adds many enrolments at once.
+     * @param enrolments Enrolments.
+     */
+    void addAll(Collection<Enrolment> enrolments);
+    
 }
@@ -25,6 +25,7 @@
 package org.bco.cm.domain.enrolment.event;
 
 import com.tribc.ddd.domain.event.AbstractEvent;
+import org.bco.cm.util.SequencedEvent;
 import org.bco.cm.domain.course.CourseId;
 import org.bco.cm.domain.student.StudentId;
 
@@ -32,7 +33,8 @@ import org.bco.cm.domain.student.StudentId;
  *
  * @author Andr&#233; H. Juffer, Biocenter Oulu
  */
-public class EnrolmentCanceled extends AbstractEvent {
+public class EnrolmentCanceled extends AbstractEvent 
+    implements SequencedEvent {
 
     private final StudentId studentId_;
     private final CourseId courseId_;
@@ -62,4 +64,10 @@ public class EnrolmentCanceled extends AbstractEvent {
         return courseId_;
     }
     
+    @Override
+    public String getSequenceKey()
+    {
+        return courseId_.stringValue();
+    }
+    
 }
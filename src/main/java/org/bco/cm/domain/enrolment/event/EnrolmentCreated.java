@@ -25,22 +25,25 @@
 package org.bco.cm.domain.enrolment.event;
 
 import com.tribc.ddd.domain.event.AbstractEvent;
+import org.bco.cm.util.SequencedEvent;
 import org.bco.cm.domain.course.CourseId;
 import org.bco.cm.domain.enrolment.EnrolmentNumber;
-import org.bco.cm.domain.student.StudentId;
 
 /**
  * Raised when a student enrolled in a course.
  * @author Andr&#233; H. Juffer, Biocenter Oulu
  */
-public class EnrolmentCreated extends AbstractEvent {
+public class EnrolmentCreated extends AbstractEvent 
+    implements SequencedEvent {
 
     private final EnrolmentNumber enrolmentNumber_;
+    private final CourseId courseId_;
     
-    public EnrolmentCreated(EnrolmentNumber enrolmentNumber)
+    public EnrolmentCreated(EnrolmentNumber enrolmentNumber, CourseId courseId)
     {
         super(EnrolmentCreated.class);
         enrolmentNumber_ = enrolmentNumber;
+        courseId_ = courseId;
     }
     
     /**
@@ -52,4 +55,19 @@ public class EnrolmentCreated extends AbstractEvent {
         return enrolmentNumber_;
     }
     
+    /**
+     * Returns identifier of course enrolled in.
+     * @return Identifier.
+     */
+    public CourseId getCourseId()
+    {
+        return courseId_;
+    }
+    
+    @Override
+    public String getSequenceKey()
+    {
+        return courseId_.stringValue();
+    }
+    
 }
@@ -27,6 +27,8 @@ package org.bco.cm.domain.student;
 import com.tribc.cqrs.util.EventUtil;
 import com.tribc.ddd.domain.event.Event;
 import com.tribc.ddd.domain.event.Eventful;
+import java.io.IOException;
+import java.io.ObjectInputStream;
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.Collection;
@@ -39,10 +41,16 @@ import javax.persistence.GeneratedValue;
 import javax.persistence.Id;
 import javax.persistence.Table;
 import javax.persistence.Transient;
+import javax.persistence.NamedQueries;
+import javax.persistence.NamedQuery;
+import javax.persistence.Cacheable;
 import org.bco.cm.domain.student.event.NewStudentRegistered;
 import org.bco.cm.dto.StudentDTO;
 import org.bco.cm.util.Person;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 
 /**
  * Course participant.
@@ -50,11 +58,27 @@ import org.hibernate.annotations.NaturalId;
  */
 @Entity(name = "Student")
 @Table(name = "students")
+@NamedQueries({
+    @NamedQuery(
+        name = "Student.forAll",
+        query = "select student from Student student"
+    ),
+    @NamedQuery(
+        name = "Student.forStudentIds",
+        query = "select student from Student student " +
+            "where student.studentId.id in (:studentIds)"
+    )
+})
+@Cacheable
+@Cache( usage = CacheConcurrencyStrategy.READ_WRITE, region = "students" )
+@NaturalIdCache( region = "students-natural-ids" )
 public class Student extends Person<StudentId> implements Eventful, Serializable {
     
+    private static final long serialVersionUID = 1L;
+    
     private UUID id_;
     
-    private final Collection<Event> events_;
+    private transient Collection<Event> events_;
     
     protected Student()
     {
@@ -153,6 +177,14 @@ public class Student extends Person<StudentId> implements Eventful, Serializable
         events_.clear();
     }
     
+    private void readObject(ObjectInputStream in) 
+        throws IOException, ClassNotFoundException
+    {
+        // Raised events are not serialized.
+        in.defaultReadObject();
+        events_ = new HashSet<>();
+    }
+    
     /**
      * Signals that this student is newly registered.
      */
@@ -28,7 +28,7 @@ import java.io.Serializable;
 import javax.persistence.Column;
 import javax.persistence.Embeddable;
 import org.bco.cm.util.Id;
-import java.util.UUID;
+import org.bco.cm.util.Uuids;
 
 /**
  * Identifies student.
@@ -37,6 +37,8 @@ import java.util.UUID;
 @Embeddable
 public class StudentId extends Id<String> implements Serializable {
     
+    private static final long serialVersionUID = 1L;
+    
     protected StudentId()
     {
         super();
@@ -68,8 +70,7 @@ public class StudentId extends Id<String> implements Serializable {
      */
     public static StudentId generate()
     {
-        UUID uuid = UUID.randomUUID();
-        return new StudentId(uuid.toString());
+        return new StudentId(Uuids.generate().toString());
     }
     
 }
@@ -24,6 +24,8 @@
 
 package org.bco.cm.domain.student;
 
+import java.util.Collection;
+import java.util.List;
 import org.bco.cm.util.Repository;
 
 /**
@@ -32,4 +34,12 @@ import org.bco.cm.util.Repository;
  */
 public interface StudentRegistry extends Repository<Student, StudentId> {
     
+    /**
+     * Returns students with given identifiers, in one round trip per 
+     * thousand identifiers.
+     * @param studentIds Student identifiers.
+     * @return Students. Nonexistent students are omitted. May be empty.
+     */
+    List<Student> forStudents(Collection<StudentId> studentIds);
+    
 }
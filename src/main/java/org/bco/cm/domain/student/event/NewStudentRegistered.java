@@ -25,13 +25,15 @@
 package org.bco.cm.domain.student.event;
 
 import com.tribc.ddd.domain.event.AbstractEvent;
+import org.bco.cm.util.SequencedEvent;
 import org.bco.cm.domain.student.Student;
 
 /**
  * Student registered with application.
  * @author Andr&#233; H. Juffer, Biocenter Oulu
  */
-public class NewStudentRegistered extends AbstractEvent {
+public class NewStudentRegistered extends AbstractEvent 
+    implements SequencedEvent {
     
     private final Student student_;
     
@@ -49,5 +51,11 @@ public class NewStudentRegistered extends AbstractEvent {
     {
         return student_;
     }
+    
+    @Override
+    public String getSequenceKey()
+    {
+        return student_.getStudentId().stringValue();
+    }
 
 }
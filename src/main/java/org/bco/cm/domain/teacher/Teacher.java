@@ -27,6 +27,8 @@ package org.bco.cm.domain.teacher;
 import com.tribc.cqrs.util.EventUtil;
 import com.tribc.ddd.domain.event.Event;
 import com.tribc.ddd.domain.event.Eventful;
+import java.io.IOException;
+import java.io.ObjectInputStream;
 import java.io.Serializable;
 import java.util.Collection;
 import java.util.HashSet;
@@ -37,11 +39,16 @@ import javax.persistence.GeneratedValue;
 import javax.persistence.Id;
 import javax.persistence.Table;
 import javax.persistence.Transient;
+import javax.persistence.NamedQuery;
+import javax.persistence.Cacheable;
 import org.bco.cm.domain.course.Course;
 import org.bco.cm.domain.teacher.event.NewTeacherRegistered;
 import org.bco.cm.dto.TeacherDTO;
 import org.bco.cm.util.Person;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 
 /**
  * Course instructor.
@@ -49,11 +56,20 @@ import org.hibernate.annotations.NaturalId;
  */
 @Entity(name = "Teacher")
 @Table(name = "teachers")
+@NamedQuery(
+    name = "Teacher.forAll",
+    query = "select teacher from Teacher teacher"
+)
+@Cacheable
+@Cache( usage = CacheConcurrencyStrategy.READ_WRITE, region = "teachers" )
+@NaturalIdCache( region = "teachers-natural-ids" )
 public class Teacher extends Person<TeacherId> implements Eventful, Serializable {
     
+    private static final long serialVersionUID = 1L;
+    
     private UUID id_;
     
-    private final Collection<Event> events_;
+    private transient Collection<Event> events_;
     
     protected Teacher()
     {
@@ -134,6 +150,14 @@ public class Teacher extends Person<TeacherId> implements Eventful, Serializable
         events_.clear();
     }
     
+    private void readObject(ObjectInputStream in) 
+        throws IOException, ClassNotFoundException
+    {
+        // Raised events are not serialized.
+        in.defaultReadObject();
+        events_ = new HashSet<>();
+    }
+    
     /**
      * Signals this teacher is newly registered.
      */
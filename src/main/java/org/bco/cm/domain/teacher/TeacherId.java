@@ -25,10 +25,10 @@
 package org.bco.cm.domain.teacher;
 
 import java.io.Serializable;
-import java.util.UUID;
 import javax.persistence.Column;
 import javax.persistence.Embeddable;
 import org.bco.cm.util.Id;
+import org.bco.cm.util.Uuids;
 
 /**
  * Identifies teacher.
@@ -37,6 +37,8 @@ import org.bco.cm.util.Id;
 @Embeddable
 public class TeacherId extends Id<String> implements Serializable {
     
+    private static final long serialVersionUID = 1L;
+    
     protected TeacherId()
     {
         super();
@@ -68,7 +70,6 @@ public class TeacherId extends Id<String> implements Serializable {
      */
     public static TeacherId generateId()
     {
-        UUID uuid = UUID.randomUUID();
-        return new TeacherId(uuid.toString());
+        return new TeacherId(Uuids.generate().toString());
     }
 }
@@ -25,12 +25,14 @@
 package org.bco.cm.domain.teacher.event;
 
 import com.tribc.ddd.domain.event.AbstractEvent;
+import org.bco.cm.util.SequencedEvent;
 import org.bco.cm.domain.teacher.Teacher;
 /**
  *
  * @author Andr&#233; H. Juffer, Biocenter Oulu
  */
-public class NewTeacherRegistered extends AbstractEvent {
+public class NewTeacherRegistered extends AbstractEvent 
+    implements SequencedEvent {
     
     private final Teacher teacher_;
     
@@ -48,5 +50,11 @@ public class NewTeacherRegistered extends AbstractEvent {
     {
         return teacher_;
     }
+    
+    @Override
+    public String getSequenceKey()
+    {
+        return teacher_.getTeacherId().stringValue();
+    }
 
 }
@@ -98,6 +98,20 @@ public abstract class AbstractCourseDTO {
     }
     
     public abstract void setParent(ModuleDTO module);
+    
+    /**
+     * Copies the state of this DTO, including copies of modules, to another.
+     * @param copy Copy.
+     */
+    protected void copyTo(AbstractCourseDTO copy)
+    {
+        copy.setTitle(title_);
+        copy.setSummary(summary_);
+        copy.setTeacherId(teacherId_);
+        List<ModuleDTO> modules = new ArrayList<>(modules_.size());
+        modules_.forEach(module -> modules.add(module.copy()));
+        copy.setModules(modules);
+    }
         
     @Override
     public String toString()
@@ -92,5 +92,15 @@ public class AssignmentDTO extends ModuleItemDTO implements Serializable {
     {
         return "assignment";
     }
+    
+    @Override
+    public AssignmentDTO copy()
+    {
+        AssignmentDTO copy = new AssignmentDTO();
+        this.copyTo(copy);
+        copy.setContent(content_);
+        copy.setSimulatorName(simulatorName_);
+        return copy;
+    }
 
 }
@@ -0,0 +1,84 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2018 André H. Juffer, Biocenter Oulu
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.bco.cm.dto;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Summary of a course catalog import.
+ * @author Andr&#233; H. Juffer, Biocenter Oulu
+ */
+public class CatalogImportDTO implements Serializable
+{
+    private int imported_;
+    private List<String> skipped_;
+    
+    public CatalogImportDTO()
+    {
+        imported_ = 0;
+        skipped_ = new ArrayList<>();
+    }
+    
+    public void setImported(int imported)
+    {
+        imported_ = imported;
+    }
+    
+    /**
+     * Returns number of imported course descriptions.
+     * @return Number.
+     */
+    public int getImported()
+    {
+        return imported_;
+    }
+    
+    public void setSkipped(List<String> skipped)
+    {
+        skipped_ = skipped;
+    }
+    
+    /**
+     * Returns identifiers of course descriptions that were not imported, 
+     * because their identifiers were already in use.
+     * @return Identifiers. May be empty.
+     */
+    public List<String> getSkipped()
+    {
+        return skipped_;
+    }
+    
+    @Override
+    public String toString()
+    {
+        String newline = System.getProperty("line.separator");
+        StringBuilder s = new StringBuilder("CatalogImportDTO : {").append(newline);
+        s.append("imported - ").append(imported_).append(newline);
+        s.append("skipped - ").append(skipped_).append(newline);
+        s.append("}");
+        return s.toString();
+    }
+}
@@ -99,6 +99,18 @@ public class ChoiceDTO implements Serializable {
         return parent_;
     }
     
+    /**
+     * Returns a copy. The copy has no parent question until it is added to 
+     * one.
+     * @return Copy.
+     */
+    public ChoiceDTO copy()
+    {
+        ChoiceDTO copy = new ChoiceDTO(phrase_);
+        copy.setId(id_);
+        return copy;
+    }
+    
     @Override
     public String toString()
     {
@@ -43,10 +43,15 @@ import javax.persistence.Id;
 import javax.persistence.OneToMany;
 import javax.persistence.Table;
 import javax.persistence.Transient;
+import org.hibernate.Hibernate;
 import org.hibernate.annotations.NaturalId;
 import javax.persistence.JoinColumn;
 import javax.persistence.JoinTable;
 import javax.persistence.MapKey;
+import javax.persistence.NamedQueries;
+import javax.persistence.NamedQuery;
+import org.bco.cm.util.UuidStringType;
+import org.hibernate.annotations.Type;
 
 /**
  * DTO for Course.
@@ -54,6 +59,49 @@ import javax.persistence.MapKey;
  */
 @Entity( name = "CourseDTO" )
 @Table( name = "courses" )
+@NamedQueries({
+    @NamedQuery(
+        name = "CourseDTO.getAll",
+        query = "select course from CourseDTO course"
+    ),
+    @NamedQuery(
+        name = "CourseDTO.getOne",
+        query = "select course from CourseDTO course " +
+            "left join fetch course.roster " +
+            "where course.courseId = :courseId"
+    ),
+    @NamedQuery(
+        name = "CourseDTO.getMany",
+        query = "select course from CourseDTO course " +
+            "where course.courseId in (:courseIds)"
+    ),
+    @NamedQuery(
+        name = "CourseDTO.getNotEnded",
+        query = "select course from CourseDTO course " +
+            "where course.endDateTimestamp >= :timestamp"
+    ),
+    @NamedQuery(
+        name = "CourseDTO.getTeachersCourses",
+        query = "select course from CourseDTO course " +
+            "where course.teacherId = :teacherId"
+    ),
+    @NamedQuery(
+        name = "CourseDTO.getActive",
+        query = "select course from CourseDTO course " +
+            "where course.startDateTimestamp <= :timestamp " +
+            "and course.endDateTimestamp >= :timestamp"
+    ),
+    @NamedQuery(
+        name = "CourseDTO.getOngoing",
+        query = "select course from CourseDTO course " +
+            "where course.ongoing = true"
+    ),
+    @NamedQuery(
+        name = "CourseDTO.getActivatedCourses",
+        query = "select course from CourseDTO course " +
+            "where course.courseDescriptionId = :courseDescriptionId"
+    )
+})
 public class CourseDTO extends AbstractCourseDTO implements Serializable 
 {
     private UUID id_;
@@ -100,6 +148,7 @@ public class CourseDTO extends AbstractCourseDTO implements Serializable
     }
     
     @Column( name = "course_id" )
+    @Type( type = UuidStringType.NAME )
     @NaturalId
     public String getCourseId()
     {
@@ -112,6 +161,7 @@ public class CourseDTO extends AbstractCourseDTO implements Serializable
     }
     
     @Column( name = "course_description_id" )
+    @Type( type = UuidStringType.NAME )
     public String getCourseDescriptionId()
     {
         return courseDescriptionId_;
@@ -188,11 +238,16 @@ public class CourseDTO extends AbstractCourseDTO implements Serializable
         roster_ = roster;
     }
     
+    /**
+     * Returns roster. Loaded on first access, except by getOne of the course 
+     * registry which fetches it along with the course.
+     * @return Roster.
+     */
     @JsonIgnore
     @OneToMany( 
         cascade = CascadeType.ALL, 
         orphanRemoval = true,
-        fetch = FetchType.EAGER
+        fetch = FetchType.LAZY
     )
     @JoinTable(
         name = "rosters",
@@ -247,7 +302,9 @@ public class CourseDTO extends AbstractCourseDTO implements Serializable
         s.append("endDate - ").append(endDate_).append(newline);
         s.append("startDate - ").append(startDate_).append(newline);
         s.append("numberOfSeats - ").append(numberOfSeats_).append(newline);
-        s.append("roster - ").append(roster_).append(newline);
+        if ( Hibernate.isInitialized(roster_) ) {
+            s.append("roster - ").append(roster_).append(newline);
+        }
         s.append("}");
         return s.toString();
     }
@@ -270,12 +327,9 @@ public class CourseDTO extends AbstractCourseDTO implements Serializable
 
     @Override
     public int hashCode() {
+        // Consistent with equals. Must not touch the (lazy) roster.
         int hash = 5;
-        hash = 37 * hash + Objects.hashCode(this.startDate_);
-        hash = 37 * hash + Objects.hashCode(this.endDate_);
-        hash = 37 * hash + this.numberOfSeats_;
-        hash = 37 * hash + (this.ongoing_ ? 1 : 0);
-        hash = 37 * hash + Objects.hashCode(this.roster_);
+        hash = 37 * hash + Objects.hashCode(this.courseId_);
         return hash;
     }
 
@@ -35,6 +35,10 @@ import javax.persistence.GeneratedValue;
 import javax.persistence.Id;
 import javax.persistence.OneToMany;
 import javax.persistence.Table;
+import javax.persistence.NamedQueries;
+import javax.persistence.NamedQuery;
+import org.bco.cm.util.UuidStringType;
+import org.hibernate.annotations.Type;
 
 /**
  * DTO for CourseDescription.
@@ -42,6 +46,22 @@ import javax.persistence.Table;
  */
 @Entity( name = "CourseDescriptionDTO" )
 @Table( name = "course_descriptions" )
+@NamedQueries({
+    @NamedQuery(
+        name = "CourseDescriptionDTO.getAll",
+        query = "select course from CourseDescriptionDTO course"
+    ),
+    @NamedQuery(
+        name = "CourseDescriptionDTO.getOne",
+        query = "select course from CourseDescriptionDTO course " +
+            "where course.courseDescriptionId = :courseDescriptionId"
+    ),
+    @NamedQuery(
+        name = "CourseDescriptionDTO.getTeachersCourses",
+        query = "select course from CourseDescriptionDTO course " +
+            "where course.teacherId = :teacherId"
+    )
+})
 public class CourseDescriptionDTO extends AbstractCourseDTO implements Serializable 
 {    
     private UUID id_;
@@ -76,6 +96,7 @@ public class CourseDescriptionDTO extends AbstractCourseDTO implements Serializa
     }
     
     @Column( name = "course_description_id" )
+    @Type( type = UuidStringType.NAME )
     public String getCourseDescriptionId()
     {
         return courseDescriptionId_;
@@ -97,6 +118,19 @@ public class CourseDescriptionDTO extends AbstractCourseDTO implements Serializa
         module.setCourseDescription(this);
     }
     
+    /**
+     * Returns a deep copy, sharing no state with this DTO.
+     * @return Copy.
+     */
+    public CourseDescriptionDTO copy()
+    {
+        CourseDescriptionDTO copy = new CourseDescriptionDTO();
+        copy.setId(id_);
+        copy.setCourseDescriptionId(courseDescriptionId_);
+        this.copyTo(copy);
+        return copy;
+    }
+    
     @Override
     public String toString()
     {
@@ -0,0 +1,131 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2018 André H. Juffer, Biocenter Oulu
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.bco.cm.dto;
+import java.io.Serializable;
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.NamedQueries;
+import javax.persistence.NamedQuery;
+import javax.persistence.Table;
+import org.bco.cm.util.UuidStringType;
+import org.hibernate.annotations.Type;
+
+/**
+ * Lightweight view of a course description for listings. Holds no modules. 
+ * Read from the catalog listing of the read model, never written.
+ * @author Andr&#233; H. Juffer, Biocenter Oulu
+ */
+@Entity( name = "CourseDescriptionSummaryDTO" )
+@Table( name = "catalog_listing" )
+@NamedQueries({
+    @NamedQuery(
+        name = "CourseDescriptionSummaryDTO.getPage",
+        query = "select course from CourseDescriptionSummaryDTO course " +
+            "where course.courseDescriptionId > :after " +
+            "order by course.courseDescriptionId"
+    ),
+    @NamedQuery(
+        name = "CourseDescriptionSummaryDTO.getTeachersCoursesPage",
+        query = "select course from CourseDescriptionSummaryDTO course " +
+            "where course.teacherId = :teacherId " +
+            "and course.courseDescriptionId > :after " +
+            "order by course.courseDescriptionId"
+    )
+})
+public class CourseDescriptionSummaryDTO implements Serializable 
+{
+    private String courseDescriptionId_;
+    private String title_;
+    private String summary_;
+    private String teacherId_;
+    
+    public CourseDescriptionSummaryDTO()
+    {
+        courseDescriptionId_ = null;
+        title_ = null;
+        summary_ = null;
+        teacherId_ = null;
+    }
+    
+    public void setCourseDescriptionId(String courseDescriptionId)
+    {
+        courseDescriptionId_ = courseDescriptionId;
+    }
+    
+    @Id
+    @Column( name = "course_description_id" )
+    @Type( type = UuidStringType.NAME )
+    public String getCourseDescriptionId()
+    {
+        return courseDescriptionId_;
+    }
+    
+    public void setTitle(String title)
+    {
+        title_ = title;
+    }
+    
+    @Column( name = "title" )
+    public String getTitle()
+    {
+        return title_;
+    }
+    
+    public void setSummary(String summary)
+    {
+        summary_ = summary;
+    }
+    
+    @Column( name = "summary" )
+    public String getSummary()
+    {
+        return summary_;
+    }
+    
+    public void setTeacherId(String teacherId)
+    {
+        teacherId_ = teacherId;
+    }
+    
+    @Column( name = "teacher_id" )
+    public String getTeacherId()
+    {
+        return teacherId_;
+    }
+    
+    @Override
+    public String toString()
+    {
+        String newline = System.getProperty("line.separator");
+        StringBuilder s = 
+            new StringBuilder("CourseDescriptionSummaryDTO : {").append(newline);
+        s.append("courseDescriptionId - ").append(courseDescriptionId_).append(newline);
+        s.append("title - ").append(title_).append(newline);
+        s.append("teacherId - ").append(teacherId_).append(newline);
+        s.append("}");
+        return s.toString();
+    }
+}
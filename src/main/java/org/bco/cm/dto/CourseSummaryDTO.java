@@ -0,0 +1,319 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2018 André H. Juffer, Biocenter Oulu
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.bco.cm.dto;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import java.io.Serializable;
+import java.time.Instant;
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.NamedQueries;
+import javax.persistence.NamedQuery;
+import javax.persistence.Table;
+import javax.persistence.Transient;
+import org.bco.cm.util.UuidStringType;
+import org.hibernate.annotations.Type;
+
+/**
+ * Lightweight view of a course for listings. Holds no roster and no modules. 
+ * Read from the course listing of the read model, never written.
+ * @author Andr&#233; H. Juffer, Biocenter Oulu
+ */
+@Entity( name = "CourseSummaryDTO" )
+@Table( name = "course_listing" )
+@NamedQueries({
+    @NamedQuery(
+        name = "CourseSummaryDTO.getPage",
+        query = "select course from CourseSummaryDTO course " +
+            "where course.courseId > :after " +
+            "order by course.courseId"
+    ),
+    @NamedQuery(
+        name = "CourseSummaryDTO.getNotEndedPage",
+        query = "select course from CourseSummaryDTO course " +
+            "where course.endDateTimestamp >= :timestamp " +
+            "and course.courseId > :after " +
+            "order by course.courseId"
+    ),
+    @NamedQuery(
+        name = "CourseSummaryDTO.getTeachersCoursesPage",
+        query = "select course from CourseSummaryDTO course " +
+            "where course.teacherId = :teacherId " +
+            "and course.courseId > :after " +
+            "order by course.courseId"
+    ),
+    @NamedQuery(
+        name = "CourseSummaryDTO.getStudentsCoursesPage",
+        query = "select course from CourseSummaryDTO course " +
+            "where course.courseId in (" +
+                "select studentCourse.courseId from StudentCourseDTO studentCourse " +
+                "where studentCourse.studentId = :studentId " +
+                "and studentCourse.courseId > :after" +
+            ") " +
+            "order by course.courseId"
+    ),
+    @NamedQuery(
+        name = "CourseSummaryDTO.getActivatedCoursesPage",
+        query = "select course from CourseSummaryDTO course " +
+            "where course.courseDescriptionId = :courseDescriptionId " +
+            "and course.endDateTimestamp > :timestamp " +
+            "and course.courseId > :after " +
+            "order by course.courseId"
+    ),
+    @NamedQuery(
+        name = "CourseSummaryDTO.getActivePage",
+        query = "select course from CourseSummaryDTO course " +
+            "where course.startDateTimestamp <= :timestamp " +
+            "and course.endDateTimestamp >= :timestamp " +
+            "and course.courseId > :after " +
+            "order by course.courseId"
+    ),
+    @NamedQuery(
+        name = "CourseSummaryDTO.getOngoingPage",
+        query = "select course from CourseSummaryDTO course " +
+            "where course.ongoing = true " +
+            "and course.courseId > :after " +
+            "order by course.courseId"
+    ),
+    @NamedQuery(
+        name = "CourseSummaryDTO.getActiveOrOngoingPage",
+        query = "select course from CourseSummaryDTO course " +
+            "where (" +
+                "(course.startDateTimestamp <= :timestamp " +
+                "and course.endDateTimestamp >= :timestamp) " +
+                "or course.ongoing = true" +
+            ") " +
+            "and course.courseId > :after " +
+            "order by course.courseId"
+    )
+})
+public class CourseSummaryDTO implements Serializable 
+{
+    private String courseId_;
+    private String courseDescriptionId_;
+    private String title_;
+    private String summary_;
+    private String teacherId_;
+    private Instant startDate_;
+    private Instant endDate_;
+    private int numberOfSeats_;
+    private int numberOfEnrolled_;
+    private boolean ongoing_;
+    
+    public CourseSummaryDTO()
+    {
+        courseId_ = null;
+        courseDescriptionId_ = null;
+        title_ = null;
+        summary_ = null;
+        teacherId_ = null;
+        startDate_ = null;
+        endDate_ = null;
+        numberOfSeats_ = 0;
+        numberOfEnrolled_ = 0;
+        ongoing_ = false;
+    }
+    
+    /**
+     * Creates summary from course. Only reads scalar properties, so neither 
+     * the roster nor the modules of the course are loaded. The number of 
+     * enrolled students is not set.
+     * @param course Course.
+     * @return Summary.
+     */
+    public static CourseSummaryDTO valueOf(CourseDTO course)
+    {
+        CourseSummaryDTO summary = new CourseSummaryDTO();
+        summary.setCourseId(course.getCourseId());
+        summary.setCourseDescriptionId(course.getCourseDescriptionId());
+        summary.setTitle(course.getTitle());
+        summary.setSummary(course.getSummary());
+        summary.setTeacherId(course.getTeacherId());
+        summary.setStartDate(course.getStartDate());
+        summary.setEndDate(course.getEndDate());
+        summary.setNumberOfSeats(course.getNumberOfSeats());
+        summary.setOngoing(course.getOngoing());
+        return summary;
+    }
+    
+    public void setCourseId(String courseId)
+    {
+        courseId_ = courseId;
+    }
+    
+    @Id
+    @Column( name = "course_id" )
+    @Type( type = UuidStringType.NAME )
+    public String getCourseId()
+    {
+        return courseId_;
+    }
+    
+    public void setCourseDescriptionId(String courseDescriptionId)
+    {
+        courseDescriptionId_ = courseDescriptionId;
+    }
+    
+    @Column( name = "course_description_id" )
+    @Type( type = UuidStringType.NAME )
+    public String getCourseDescriptionId()
+    {
+        return courseDescriptionId_;
+    }
+    
+    public void setTitle(String title)
+    {
+        title_ = title;
+    }
+    
+    @Column( name = "title" )
+    public String getTitle()
+    {
+        return title_;
+    }
+    
+    public void setSummary(String summary)
+    {
+        summary_ = summary;
+    }
+    
+    @Column( name = "summary" )
+    public String getSummary()
+    {
+        return summary_;
+    }
+    
+    public void setTeacherId(String teacherId)
+    {
+        teacherId_ = teacherId;
+    }
+    
+    @Column( name = "teacher_id" )
+    public String getTeacherId()
+    {
+        return teacherId_;
+    }
+    
+    public void setStartDate(Instant startDate)
+    {
+        startDate_ = startDate;
+    }
+    
+    @Transient
+    public Instant getStartDate()
+    {
+        return startDate_;
+    }
+    
+    public void setStartDateTimestamp(Long timestamp)
+    {
+        startDate_ = timestamp == null ? null : Instant.ofEpochMilli(timestamp);
+    }
+    
+    @JsonIgnore
+    @Column( name = "start_date" )
+    public Long getStartDateTimestamp()
+    {
+        return startDate_ == null ? null : startDate_.toEpochMilli();
+    }
+    
+    public void setEndDate(Instant endDate)
+    {
+        endDate_ = endDate;
+    }
+    
+    @Transient
+    public Instant getEndDate()
+    {
+        return endDate_;
+    }
+    
+    public void setEndDateTimestamp(Long timestamp)
+    {
+        endDate_ = timestamp == null ? null : Instant.ofEpochMilli(timestamp);
+    }
+    
+    @JsonIgnore
+    @Column( name = "end_date" )
+    public Long getEndDateTimestamp()
+    {
+        return endDate_ == null ? null : endDate_.toEpochMilli();
+    }
+    
+    public void setNumberOfSeats(int numberOfSeats)
+    {
+        numberOfSeats_ = numberOfSeats;
+    }
+    
+    @Column( name = "number_of_seats" )
+    public int getNumberOfSeats()
+    {
+        return numberOfSeats_;
+    }
+    
+    public void setNumberOfEnrolled(int numberOfEnrolled)
+    {
+        numberOfEnrolled_ = numberOfEnrolled;
+    }
+    
+    /**
+     * Returns the number of students enrolled in the course.
+     * @return Number.
+     */
+    @Column( name = "number_of_enrolled" )
+    public int getNumberOfEnrolled()
+    {
+        return numberOfEnrolled_;
+    }
+    
+    public void setOngoing(boolean ongoing)
+    {
+        ongoing_ = ongoing;
+    }
+    
+    @Column( name = "ongoing" )
+    public boolean getOngoing()
+    {
+        return ongoing_;
+    }
+    
+    @Override
+    public String toString()
+    {
+        String newline = System.getProperty("line.separator");
+        StringBuilder s = new StringBuilder("CourseSummaryDTO : {").append(newline);
+        s.append("courseId - ").append(courseId_).append(newline);
+        s.append("courseDescriptionId - ").append(courseDescriptionId_).append(newline);
+        s.append("title - ").append(title_).append(newline);
+        s.append("teacherId - ").append(teacherId_).append(newline);
+        s.append("startDate - ").append(startDate_).append(newline);
+        s.append("endDate - ").append(endDate_).append(newline);
+        s.append("numberOfSeats - ").append(numberOfSeats_).append(newline);
+        s.append("numberOfEnrolled - ").append(numberOfEnrolled_).append(newline);
+        s.append("ongoing - ").append(ongoing_).append(newline);
+        s.append("}");
+        return s.toString();
+    }
+}
@@ -32,8 +32,12 @@ import javax.persistence.GeneratedValue;
 import javax.persistence.Id;
 import javax.persistence.Table;
 import javax.persistence.Transient;
+import javax.persistence.NamedQueries;
+import javax.persistence.NamedQuery;
 import org.hibernate.annotations.NaturalId;
 import java.io.Serializable;
+import org.bco.cm.util.UuidStringType;
+import org.hibernate.annotations.Type;
 
 /**
  * DTO for Enrolment.
@@ -41,6 +45,29 @@ import java.io.Serializable;
  */
 @Entity( name = "EnrolmentDTO" )
 @Table( name = "enrolments" )
+@NamedQueries({
+    @NamedQuery(
+        name = "EnrolmentDTO.getOne",
+        query = "select enrolment from EnrolmentDTO enrolment " +
+            "where enrolment.enrolmentNumber = :enrolmentNumber"
+    ),
+    @NamedQuery(
+        name = "EnrolmentDTO.getCourseEnrolments",
+        query = "select enrolment from EnrolmentDTO enrolment " +
+            "where enrolment.courseId = :courseId"
+    ),
+    @NamedQuery(
+        name = "EnrolmentDTO.getCourseEnrolment",
+        query = "select enrolment from EnrolmentDTO enrolment " +
+            "where enrolment.courseId = :courseId " +
+            "and enrolment.studentId = :studentId"
+    ),
+    @NamedQuery(
+        name = "EnrolmentDTO.getStudentEnrolments",
+        query = "select enrolment from EnrolmentDTO enrolment " +
+            "where enrolment.studentId = :studentId"
+    )
+})
 public class EnrolmentDTO implements Serializable
 {
     private UUID id_;
@@ -79,6 +106,7 @@ public class EnrolmentDTO implements Serializable
     }
     
     @Column( name = "enrolment_number" )
+    @Type( type = UuidStringType.NAME )
     @NaturalId
     public String getEnrolmentNumber()
     {
@@ -91,6 +119,7 @@ public class EnrolmentDTO implements Serializable
     }
     
     @Column( name = "course_id" )
+    @Type( type = UuidStringType.NAME )
     public String getCourseId()
     {
         return courseId_;
@@ -0,0 +1,104 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2018 André H. Juffer, Biocenter Oulu
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.bco.cm.dto;
+
+import java.io.Serializable;
+
+/**
+ * Outcome of enrolling a single student as part of a bulk enrolment.
+ * @author Andr&#233; H. Juffer, Biocenter Oulu
+ */
+public class EnrolmentOutcomeDTO implements Serializable
+{
+    /**
+     * Possible outcomes.
+     */
+    public enum Outcome {
+        /** Student was enrolled. */
+        ENROLLED,
+        /** Student was enrolled in course before. */
+        ALREADY_ENROLLED,
+        /** Student is not registered. */
+        NO_SUCH_STUDENT,
+        /** No seat was left for student. */
+        NO_SEATS
+    }
+    
+    private String studentId_;
+    private String enrolmentNumber_;
+    private Outcome outcome_;
+    
+    public EnrolmentOutcomeDTO()
+    {
+        studentId_ = null;
+        enrolmentNumber_ = null;
+        outcome_ = null;
+    }
+    
+    public void setStudentId(String studentId)
+    {
+        studentId_ = studentId;
+    }
+    
+    public String getStudentId()
+    {
+        return studentId_;
+    }
+    
+    public void setEnrolmentNumber(String eid)
+    {
+        enrolmentNumber_ = eid;
+    }
+    
+    /**
+     * Returns enrolment number.
+     * @return Enrolment number, or null if the student was not enrolled.
+     */
+    public String getEnrolmentNumber()
+    {
+        return enrolmentNumber_;
+    }
+    
+    public void setOutcome(Outcome outcome)
+    {
+        outcome_ = outcome;
+    }
+    
+    public Outcome getOutcome()
+    {
+        return outcome_;
+    }
+    
+    @Override
+    public String toString()
+    {
+        String newline = System.getProperty("line.separator");
+        StringBuilder s = new StringBuilder("EnrolmentOutcomeDTO : {").append(newline);
+        s.append("studentId - ").append(studentId_).append(newline);
+        s.append("enrolmentNumber - ").append(enrolmentNumber_).append(newline);
+        s.append("outcome - ").append(outcome_).append(newline);
+        s.append("}");
+        return s.toString();
+    }
+}
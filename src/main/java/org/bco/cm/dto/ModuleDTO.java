@@ -196,6 +196,25 @@ public class ModuleDTO implements Serializable {
         return course_;
     }
     
+    /**
+     * Returns a deep copy, sharing no state with this DTO. The copy has no 
+     * parent course (description) until it is added to one.
+     * @return Copy.
+     */
+    public ModuleDTO copy()
+    {
+        ModuleDTO copy = new ModuleDTO();
+        copy.setId(id_);
+        copy.setModuleId(moduleId_);
+        copy.setName(name_);
+        List<ModuleItemDTO> items = new ArrayList<>(moduleItems_.size());
+        moduleItems_.forEach(item -> items.add(item.copy()));
+        copy.setModuleItems(items);
+        copy.setCourseDescriptionId(this.getCourseDescriptionId());
+        copy.setCourseId(this.getCourseId());
+        return copy;
+    }
+    
     @Override
     public String toString()
     {
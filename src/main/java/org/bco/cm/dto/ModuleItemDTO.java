@@ -90,6 +90,26 @@ public abstract class ModuleItemDTO implements Serializable {
         return id_;
     }
     
+    /**
+     * Sets the stable identifier of an existing module item.
+     * @param itemId Identifier. May be null for a new module item.
+     */
+    public void setItemId(String itemId)
+    {
+        id_ = itemId == null ? null : UUID.fromString(itemId);
+    }
+    
+    /**
+     * Returns stable identifier of module item. Module items in an update 
+     * specification are matched to existing module items by this identifier.
+     * @return Identifier. Null if not (yet) specified.
+     */
+    @Transient
+    public String getItemId()
+    {
+        return id_ == null ? null : id_.toString();
+    }
+    
     public void setTitle(String title)
     {
         title_ = title;
@@ -140,5 +160,22 @@ public abstract class ModuleItemDTO implements Serializable {
      */
     @Transient
     public abstract String getName();
+    
+    /**
+     * Returns a deep copy, sharing no state with this DTO. The copy has no 
+     * parent module until it is added to one.
+     * @return Copy.
+     */
+    public abstract ModuleItemDTO copy();
+    
+    /**
+     * Copies the state of this DTO to another.
+     * @param copy Copy.
+     */
+    protected void copyTo(ModuleItemDTO copy)
+    {
+        copy.setId(id_);
+        copy.setTitle(title_);
+    }
 
 }
@@ -81,6 +81,26 @@ public class MultipleChoiceQuestionDTO implements Serializable {
         return id_;
     }
     
+    /**
+     * Sets the stable identifier of an existing question.
+     * @param questionId Identifier. May be null for a new question.
+     */
+    public void setQuestionId(String questionId)
+    {
+        id_ = questionId == null ? null : UUID.fromString(questionId);
+    }
+    
+    /**
+     * Returns stable identifier of question. Questions in an update 
+     * specification are matched to existing questions by this identifier.
+     * @return Identifier. Null if not (yet) specified.
+     */
+    @Transient
+    public String getQuestionId()
+    {
+        return id_ == null ? null : id_.toString();
+    }
+    
     public void setQuestion(String question)
     {
         question_ = question;
@@ -143,6 +163,23 @@ public class MultipleChoiceQuestionDTO implements Serializable {
         return parent_;
     }
 
+    /**
+     * Returns a deep copy, sharing no state with this DTO. The copy has no 
+     * parent quiz until it is added to one.
+     * @return Copy.
+     */
+    public MultipleChoiceQuestionDTO copy()
+    {
+        MultipleChoiceQuestionDTO copy = new MultipleChoiceQuestionDTO();
+        copy.setId(id_);
+        copy.setQuestion(question_);
+        List<ChoiceDTO> choices = new ArrayList<>(choices_.size());
+        choices_.forEach(choice -> choices.add(choice.copy()));
+        copy.setChoices(choices);
+        copy.setAnswer(answer_ == null ? null : answer_.copy());
+        return copy;
+    }
+    
     @Override
     public String toString()
     {
@@ -88,4 +88,19 @@ public class QuizDTO extends ModuleItemDTO implements Serializable {
     {
         return "quiz";
     }
+    
+    @Override
+    public QuizDTO copy()
+    {
+        QuizDTO copy = new QuizDTO();
+        this.copyTo(copy);
+        List<MultipleChoiceQuestionDTO> questions = new ArrayList<>(questions_.size());
+        questions_.forEach(question -> {
+            MultipleChoiceQuestionDTO q = question.copy();
+            q.setParentQuiz(copy);
+            questions.add(q);
+        });
+        copy.setQuestions(questions);
+        return copy;
+    }
 }
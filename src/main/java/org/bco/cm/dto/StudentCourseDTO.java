@@ -0,0 +1,101 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2018 André H. Juffer, Biocenter Oulu
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.bco.cm.dto;
+import java.io.Serializable;
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Table;
+import org.bco.cm.util.UuidStringType;
+import org.hibernate.annotations.Type;
+
+/**
+ * A course a student is enrolled in, as held by the read model. Only used to 
+ * select a student's courses from the course listing.
+ * @author Andr&#233; H. Juffer, Biocenter Oulu
+ */
+@Entity( name = "StudentCourseDTO" )
+@Table( name = "student_courses" )
+public class StudentCourseDTO implements Serializable 
+{
+    private String enrolmentNumber_;
+    private String studentId_;
+    private String courseId_;
+    
+    public StudentCourseDTO()
+    {
+        enrolmentNumber_ = null;
+        studentId_ = null;
+        courseId_ = null;
+    }
+    
+    public void setEnrolmentNumber(String enrolmentNumber)
+    {
+        enrolmentNumber_ = enrolmentNumber;
+    }
+    
+    @Id
+    @Column( name = "enrolment_number" )
+    @Type( type = UuidStringType.NAME )
+    public String getEnrolmentNumber()
+    {
+        return enrolmentNumber_;
+    }
+    
+    public void setStudentId(String studentId)
+    {
+        studentId_ = studentId;
+    }
+    
+    @Column( name = "student_id" )
+    public String getStudentId()
+    {
+        return studentId_;
+    }
+    
+    public void setCourseId(String courseId)
+    {
+        courseId_ = courseId;
+    }
+    
+    @Column( name = "course_id" )
+    @Type( type = UuidStringType.NAME )
+    public String getCourseId()
+    {
+        return courseId_;
+    }
+    
+    @Override
+    public String toString()
+    {
+        String newline = System.getProperty("line.separator");
+        StringBuilder s = new StringBuilder("StudentCourseDTO : {").append(newline);
+        s.append("enrolmentNumber - ").append(enrolmentNumber_).append(newline);
+        s.append("studentId - ").append(studentId_).append(newline);
+        s.append("courseId - ").append(courseId_).append(newline);
+        s.append("}");
+        return s.toString();
+    }
+}
@@ -31,6 +31,8 @@ import javax.persistence.Entity;
 import javax.persistence.GeneratedValue;
 import javax.persistence.Id;
 import javax.persistence.Table;
+import javax.persistence.NamedQueries;
+import javax.persistence.NamedQuery;
 import org.hibernate.annotations.NaturalId;
 
 /**
@@ -39,6 +41,23 @@ import org.hibernate.annotations.NaturalId;
  */
 @Entity(name = "StudentDTO")
 @Table(name = "students")
+@NamedQueries({
+    @NamedQuery(
+        name = "StudentDTO.getAll",
+        query = "select student from StudentDTO student"
+    ),
+    @NamedQuery(
+        name = "StudentDTO.getOne",
+        query = "select student from StudentDTO student " +
+            "where student.studentId = :studentId"
+    ),
+    @NamedQuery(
+        name = "StudentDTO.getPage",
+        query = "select student from StudentDTO student " +
+            "where student.studentId > :after " +
+            "order by student.studentId"
+    )
+})
 public class StudentDTO extends PersonDTO implements Serializable 
 {    
     private UUID id_;
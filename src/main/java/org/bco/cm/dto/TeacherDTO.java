@@ -31,6 +31,8 @@ import javax.persistence.Entity;
 import javax.persistence.GeneratedValue;
 import javax.persistence.Id;
 import javax.persistence.Table;
+import javax.persistence.NamedQueries;
+import javax.persistence.NamedQuery;
 import org.hibernate.annotations.NaturalId;
 
 
@@ -40,6 +42,23 @@ import org.hibernate.annotations.NaturalId;
  */
 @Entity( name = "TeacherDTO" )
 @Table(name = "teachers")
+@NamedQueries({
+    @NamedQuery(
+        name = "TeacherDTO.getAll",
+        query = "select teacher from TeacherDTO teacher"
+    ),
+    @NamedQuery(
+        name = "TeacherDTO.getOne",
+        query = "select teacher from TeacherDTO teacher " +
+            "where teacher.teacherId = :teacherId"
+    ),
+    @NamedQuery(
+        name = "TeacherDTO.getPage",
+        query = "select teacher from TeacherDTO teacher " +
+            "where teacher.teacherId > :after " +
+            "order by teacher.teacherId"
+    )
+})
 public class TeacherDTO extends PersonDTO implements Serializable {
     
     private UUID id_;
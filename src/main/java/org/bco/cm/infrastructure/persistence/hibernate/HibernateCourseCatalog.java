@@ -25,10 +25,13 @@
 package org.bco.cm.infrastructure.persistence.hibernate;
 
 import java.util.List;
+import java.util.function.Consumer;
 import org.bco.cm.domain.course.CourseCatalog;
 import org.bco.cm.domain.course.CourseDescription;
 import org.bco.cm.domain.course.CourseDescriptionId;
 import org.bco.cm.util.HibernateRepository;
+import org.bco.cm.util.QueryParameters;
+import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Repository;
 
 /**
@@ -36,12 +39,13 @@ import org.springframework.stereotype.Repository;
  * @author Andr&#233; H. Juffer, Biocenter Oulu
  */
 @Repository
+@Profile("!memory")
 public class HibernateCourseCatalog 
     extends HibernateRepository<CourseDescription, CourseDescriptionId>
     implements CourseCatalog
 {
-    private static final String FROM = 
-        "select course from " + CourseDescription.class.getName() + " course ";
+    private static final String FOR_ALL = "CourseDescription.forAll";
+    private static final String FOR_ALL_ORDERED = "CourseDescription.forAllOrdered";
     
     public HibernateCourseCatalog()
     {
@@ -51,17 +55,19 @@ public class HibernateCourseCatalog
     @Override
     public List<CourseDescription> forAll() 
     {
-        return this.forMany(FROM);
+        return this.forMany(FOR_ALL);
     }
 
     @Override
     public CourseDescription forOne(CourseDescriptionId courseId) 
     {
-        String id = courseId.stringValue();
-        String hql =
-            FROM +
-            "where course.courseDescriptionId.id = '" + id + "'";
-        return this.forSingle(hql);
+        return this.forNaturalId(CourseDescription.class, courseId);
+    }
+
+    @Override
+    public void forEach(Consumer<CourseDescription> consumer) 
+    {
+        this.forEach(FOR_ALL_ORDERED, QueryParameters.none(), consumer);
     }
     
 }
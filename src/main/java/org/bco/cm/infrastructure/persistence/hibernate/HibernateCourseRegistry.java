@@ -30,6 +30,7 @@ import org.bco.cm.domain.course.CourseDescriptionId;
 import org.bco.cm.domain.course.CourseId;
 import org.bco.cm.domain.course.CourseRegistry;
 import org.bco.cm.util.HibernateRepository;
+import org.bco.cm.util.QueryParameters;
 
 /**
  *
@@ -39,33 +40,28 @@ public class HibernateCourseRegistry
     extends HibernateRepository<Course, CourseId>
     implements CourseRegistry
 {
-    private static final String FROM = 
-        "select course from " + Course.class.getName() + " course ";
+    private static final String FOR_ALL = "Course.forAll";
+    private static final String FOR_COURSE_DESCRIPTION = 
+        "Course.forCourseDescriptionId";
 
     @Override
     public Course forOne(CourseId courseId) 
     {
-        String id = courseId.stringValue();
-        String hql =
-            FROM +
-            "where course.courseId.id = '" + id + "'";
-        return this.forSingle(hql);
+        return this.forNaturalId(Course.class, courseId);
     }
 
     @Override
     public List<Course> forAll() 
     {
-        return this.forMany(FROM);
+        return this.forMany(FOR_ALL);
     }
     
     @Override
     public List<Course> getCourses(CourseDescriptionId courseId)
     {
-        String id = courseId.stringValue();
-        String hql = 
-            FROM +
-            "where course.courseDescriptionId.id = '" + id + "'";
-        return this.forMany(hql);
+        QueryParameters parameters = 
+            QueryParameters.with("courseDescriptionId", courseId.uuidValue());
+        return this.forMany(FOR_COURSE_DESCRIPTION, parameters);
     }
 
 }
@@ -0,0 +1,234 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2018 André H. Juffer, Biocenter Oulu
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.bco.cm.infrastructure.persistence.hibernate;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.StringJoiner;
+import java.util.UUID;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import org.bco.cm.domain.course.Course;
+import org.bco.cm.domain.course.CourseRoster;
+import org.bco.cm.domain.course.StudentMonitor;
+import org.bco.cm.domain.student.Student;
+import org.bco.cm.domain.student.StudentId;
+import org.hibernate.Cache;
+import org.hibernate.Session;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Keeps course rosters with single statements. Enrolment is looked up in the 
+ * enrolments, by their unique index on course and student. A monitor is 
+ * persisted and linked to the course with a row in rosters, and a removed 
+ * monitor is deleted together with its row in rosters. Many monitors are 
+ * inserted in JDBC batches, and linked to the course with one statement. 
+ * Monitors are inserted when the session is flushed ahead of the linking 
+ * statement, not by an explicit flush. If the roster of a course is already 
+ * loaded in the session, it is changed instead. Otherwise the cached roster 
+ * of the course is evicted from the second-level cache, at once and again at
+ * the end of the transaction.
+ * @author Andr&#233; H. Juffer, Biocenter Oulu
+ */
+public class HibernateCourseRoster implements CourseRoster {
+    
+    private static final String ROSTER = Course.class.getName() + ".roster";
+    
+    private static final String IS_ENROLLED = 
+        "select count(*) from enrolments " +
+        "where course_id = cast(:courseId as uuid) and student_id = :studentId";
+    private static final String ENROLLED = 
+        "select student_id from enrolments " +
+        "where course_id = cast(:courseId as uuid) and student_id in (:studentIds)";
+    private static final String ADD = 
+        "insert into rosters (course_id, monitor_id) " +
+        "values (cast(:course as uuid), cast(:monitor as uuid))";
+    private static final String ADD_ALL = 
+        "insert into rosters (course_id, monitor_id) " +
+        "select cast(:course as uuid), unnest(cast(:monitors as uuid[]))";
+    // Foreign keys are checked at the end of the statement.
+    private static final String REMOVE = 
+        "with removed as (" +
+        "delete from rosters r using student_monitors m " +
+        "where r.monitor_id = m.id and r.course_id = cast(:course as uuid) " +
+        "and m.student_id = :studentId " +
+        "returning m.id" +
+        "), deleted as (" +
+        "delete from student_monitors where id in (select id from removed)" +
+        ") " +
+        "select cast(id as varchar) from removed";
+    
+    private EntityManager entityManager_;
+    
+    @PersistenceContext
+    public void setEntityManager(EntityManager entityManager)
+    {
+        entityManager_ = entityManager;
+    }
+
+    @Override
+    public boolean isEnrolled(Course course, Student student) 
+    {
+        if ( this.isLoaded(course) ) {
+            return course.isEnrolled(student);
+        }
+        Number count = (Number)this.getSession().createNativeQuery(IS_ENROLLED)
+            .setParameter("courseId", course.getIdentifierAsString())
+            .setParameter("studentId", student.getStudentId().stringValue())
+            .getSingleResult();
+        return count.intValue() > 0;
+    }
+
+    @Override
+    public Set<StudentId> enrolled(Course course, Collection<Student> students) 
+    {
+        Set<StudentId> enrolled = new HashSet<>();
+        if ( students.isEmpty() ) {
+            return enrolled;
+        }
+        if ( this.isLoaded(course) ) {
+            students.stream()
+                    .filter(course::isEnrolled)
+                    .forEach(student -> enrolled.add(student.getStudentId()));
+            return enrolled;
+        }
+        List<String> studentIds = new ArrayList<>();
+        students.forEach(student -> studentIds.add(student.getStudentId().stringValue()));
+        List<?> rows = this.getSession().createNativeQuery(ENROLLED)
+            .setParameter("courseId", course.getIdentifierAsString())
+            .setParameterList("studentIds", studentIds)
+            .getResultList();
+        rows.forEach(studentId -> enrolled.add(new StudentId((String)studentId)));
+        return enrolled;
+    }
+
+    @Override
+    public void add(Course course, StudentMonitor monitor) 
+    {
+        if ( this.isLoaded(course) ) {
+            course.addToRoster(monitor);
+            return;
+        }
+        Session session = this.getSession();
+        
+        // The row in rosters references the monitor row, which is inserted 
+        // when the session is flushed ahead of the statement, as it 
+        // synchronizes on its table.
+        session.persist(monitor);
+        UUID courseKey = (UUID)session.getIdentifier(course);
+        UUID monitorKey = (UUID)session.getIdentifier(monitor);
+        session.createNativeQuery(ADD)
+            .addSynchronizedQuerySpace("rosters")
+            .addSynchronizedQuerySpace("student_monitors")
+            .setParameter("course", courseKey.toString())
+            .setParameter("monitor", monitorKey.toString())
+            .executeUpdate();
+        this.evict(courseKey);
+    }
+
+    @Override
+    public void addAll(Course course, Collection<StudentMonitor> monitors) 
+    {
+        if ( monitors.isEmpty() ) {
+            return;
+        }
+        if ( this.isLoaded(course) ) {
+            monitors.forEach(course::addToRoster);
+            return;
+        }
+        Session session = this.getSession();
+        
+        // The monitors are inserted in JDBC batches when the session is 
+        // flushed ahead of the statement, as it synchronizes on their table.
+        monitors.forEach(session::persist);
+        UUID courseKey = (UUID)session.getIdentifier(course);
+        StringJoiner monitorKeys = new StringJoiner(",", "{", "}");
+        monitors.forEach(
+            monitor -> monitorKeys.add(session.getIdentifier(monitor).toString())
+        );
+        session.createNativeQuery(ADD_ALL)
+            .addSynchronizedQuerySpace("rosters")
+            .addSynchronizedQuerySpace("student_monitors")
+            .setParameter("course", courseKey.toString())
+            .setParameter("monitors", monitorKeys.toString())
+            .executeUpdate();
+        this.evict(courseKey);
+    }
+
+    @Override
+    public boolean remove(Course course, Student student) 
+    {
+        if ( this.isLoaded(course) ) {
+            return course.removeFromRoster(student);
+        }
+        Session session = this.getSession();
+        UUID courseKey = (UUID)session.getIdentifier(course);
+        List<?> removed = session.createNativeQuery(REMOVE)
+            .setParameter("course", courseKey.toString())
+            .setParameter("studentId", student.getStudentId().stringValue())
+            .getResultList();
+        Cache cache = session.getSessionFactory().getCache();
+        removed.forEach(id -> 
+            cache.evictEntity(StudentMonitor.class, UUID.fromString((String)id))
+        );
+        this.evict(courseKey);
+        return !removed.isEmpty();
+    }
+    
+    private Session getSession()
+    {
+        return entityManager_.unwrap(Session.class);
+    }
+    
+    private boolean isLoaded(Course course)
+    {
+        return entityManager_.getEntityManagerFactory()
+                             .getPersistenceUnitUtil()
+                             .isLoaded(course, "roster");
+    }
+    
+    private void evict(Serializable courseKey)
+    {
+        Cache cache = this.getSession().getSessionFactory().getCache();
+        cache.evictCollection(ROSTER, courseKey);
+        if ( TransactionSynchronizationManager.isSynchronizationActive() ) {
+            TransactionSynchronizationManager.registerSynchronization(
+                new TransactionSynchronizationAdapter() {
+                    @Override
+                    public void afterCompletion(int status)
+                    {
+                        cache.evictCollection(ROSTER, courseKey);
+                    }
+                }
+            );
+        }
+    }
+    
+}
@@ -31,6 +31,7 @@ import org.bco.cm.domain.enrolment.EnrolmentNumber;
 import org.bco.cm.domain.enrolment.EnrolmentRegistry;
 import org.bco.cm.domain.student.Student;
 import org.bco.cm.util.HibernateRepository;
+import org.bco.cm.util.QueryParameters;
 
 /**
  *
@@ -40,17 +41,12 @@ public class HibernateEnrolmentRegistry
     extends HibernateRepository<Enrolment,EnrolmentNumber>
     implements EnrolmentRegistry
 {
-    private static final String FROM = 
-        "select enrolment from " + Enrolment.class.getName() + " enrolment ";
+    private static final String FOR_COURSE = "Enrolment.forCourseAndStudent";
 
     @Override
     public Enrolment forOne(EnrolmentNumber enrolmentNumber) 
     {
-        String number = enrolmentNumber.stringValue();
-        String hql = 
-            FROM +
-            "where enrolment.enrolmentNumber.id = '" + number + "'";
-        return this.forSingle(hql);
+        return this.forNaturalId(Enrolment.class, enrolmentNumber);
     }
 
     @Override
@@ -62,13 +58,10 @@ public class HibernateEnrolmentRegistry
     @Override
     public Enrolment forCourse(Course course, Student student) 
     {
-        String courseId = course.getIdentifierAsString();
-        String studentId = student.getIdentifierAsString();
-        String hql =
-            FROM + "where " +
-            "enrolment.courseId.id = '" + courseId + "' and " +
-            "enrolment.studentId.id = '" + studentId + "'";
-        return this.forSingle(hql);
+        QueryParameters parameters = 
+            QueryParameters.with("courseId", course.getCourseId().uuidValue())
+                           .and("studentId", student.getIdentifierAsString());
+        return this.forSingle(FOR_COURSE, parameters);
     }
 
 }
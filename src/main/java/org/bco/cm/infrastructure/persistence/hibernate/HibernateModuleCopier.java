@@ -0,0 +1,127 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2018 André H. Juffer, Biocenter Oulu
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.bco.cm.infrastructure.persistence.hibernate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import org.bco.cm.domain.course.Course;
+import org.bco.cm.domain.course.CourseDescription;
+import org.bco.cm.domain.course.Module;
+import org.bco.cm.domain.course.ModuleCopier;
+import org.hibernate.Session;
+
+/**
+ * Copies module, module item, question and choice rows with a single 
+ * statement of INSERT ... SELECT's, in one round trip. The identifier of each 
+ * copied row is derived from the identifier of the original row and the 
+ * course, so that the copied rows reference their copied parents without a 
+ * mapping table. None of the copied entities are in the second-level cache,
+ * and neither is a course's collection of modules, so no cache region needs 
+ * evicting. The statement returns the identifiers of the copied modules, 
+ * which are then loaded by identifier and added to the course. Their module 
+ * items are loaded lazily, if at all.
+ * @author Andr&#233; H. Juffer, Biocenter Oulu
+ */
+public class HibernateModuleCopier implements ModuleCopier {
+    
+    // Identifier of a copy: md5(course || original) as UUID. Data-modifying 
+    // subqueries are always executed, and foreign keys are checked at the end 
+    // of the statement.
+    private static final String COPY = 
+        "with source_modules as (" +
+        "select id, module_id, name from modules " +
+        "where course_description_id = cast(:courseDescription as uuid)" +
+        "), new_modules as (" +
+        "insert into modules (id, module_id, name, course_id) " +
+        "select cast(md5(:course || id) as uuid), module_id, name, " +
+        "cast(:course as uuid) " +
+        "from source_modules " +
+        "returning id, module_id" +
+        "), source_items as (" +
+        "select i.* from module_items i " +
+        "join source_modules m on i.module_id = m.id" +
+        "), new_items as (" +
+        "insert into module_items " +
+        "(id, discriminator, module_id, title, content, simulator) " +
+        "select cast(md5(:course || id) as uuid), discriminator, " +
+        "cast(md5(:course || module_id) as uuid), title, content, simulator " +
+        "from source_items" +
+        "), source_questions as (" +
+        "select q.* from multiple_choice_questions q " +
+        "join source_items i on q.quiz_id = i.id" +
+        "), new_questions as (" +
+        "insert into multiple_choice_questions (id, quiz_id, answer, question) " +
+        "select cast(md5(:course || id) as uuid), " +
+        "cast(md5(:course || quiz_id) as uuid), answer, question " +
+        "from source_questions" +
+        "), new_choices as (" +
+        "insert into choices (id, phrase, multiple_choice_question_id) " +
+        "select cast(md5(:course || c.id) as uuid), c.phrase, " +
+        "cast(md5(:course || c.multiple_choice_question_id) as uuid) " +
+        "from choices c " +
+        "join source_questions q on c.multiple_choice_question_id = q.id" +
+        ") " +
+        "select cast(id as varchar) from new_modules order by module_id";
+    
+    private EntityManager entityManager_;
+    
+    @PersistenceContext
+    public void setEntityManager(EntityManager entityManager)
+    {
+        entityManager_ = entityManager;
+    }
+
+    @Override
+    public int copyModules(CourseDescription courseDescription, Course course) 
+    {
+        Session session = entityManager_.unwrap(Session.class);
+        
+        // Copied modules reference the course row, which is inserted when the 
+        // session is flushed ahead of the statement, as it synchronizes on its 
+        // table.
+        UUID courseDescriptionKey = (UUID)session.getIdentifier(courseDescription);
+        UUID courseKey = (UUID)session.getIdentifier(course);
+        List<?> rows = session.createNativeQuery(COPY)
+            .addSynchronizedQuerySpace("courses")
+            .addSynchronizedQuerySpace("modules")
+            .addSynchronizedQuerySpace("module_items")
+            .addSynchronizedQuerySpace("multiple_choice_questions")
+            .addSynchronizedQuerySpace("choices")
+            .setParameter("courseDescription", courseDescriptionKey.toString())
+            .setParameter("course", courseKey.toString())
+            .getResultList();
+        
+        // Load copied modules.
+        List<UUID> moduleKeys = new ArrayList<>(rows.size());
+        rows.forEach(row -> moduleKeys.add(UUID.fromString((String)row)));
+        List<Module> copies = 
+            session.byMultipleIds(Module.class).multiLoad(moduleKeys);
+        course.addCopiedModules(copies);
+        return copies.size();
+    }
+    
+}
@@ -0,0 +1,186 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2018 André H. Juffer, Biocenter Oulu
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.bco.cm.infrastructure.persistence.hibernate;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import org.bco.cm.application.query.ReadModelProjection;
+import org.bco.cm.domain.course.CourseDescriptionId;
+import org.bco.cm.domain.course.CourseId;
+import org.bco.cm.domain.enrolment.EnrolmentNumber;
+import org.bco.cm.domain.student.StudentId;
+import org.hibernate.Session;
+
+/**
+ * Refreshes read model rows with INSERT ... SELECT ... ON CONFLICT statements 
+ * from the write model tables, so no aggregate is loaded. Pending changes in 
+ * the session are flushed first, in case events are handled in the 
+ * transaction that raised them. Each statement declares the read model table 
+ * it modifies, so that Hibernate does not evict the entire second-level 
+ * cache.
+ * @author Andr&#233; H. Juffer, Biocenter Oulu
+ */
+public class HibernateReadModelProjection implements ReadModelProjection {
+    
+    private static final String UPSERT_CATALOG_LISTING = 
+        "insert into catalog_listing " +
+        "(course_description_id, title, summary, teacher_id) " +
+        "select course_description_id, title, summary, teacher_id " +
+        "from course_descriptions " +
+        "where course_description_id = cast(:courseDescriptionId as uuid) " +
+        "on conflict (course_description_id) do update set " +
+        "title = excluded.title, summary = excluded.summary, " +
+        "teacher_id = excluded.teacher_id";
+    
+    private static final String DELETE_CATALOG_LISTING = 
+        "delete from catalog_listing " +
+        "where course_description_id = cast(:courseDescriptionId as uuid) " +
+        "and not exists (" +
+        "select 1 from course_descriptions " +
+        "where course_description_id = cast(:courseDescriptionId as uuid))";
+    
+    private static final String UPSERT_COURSE_LISTING = 
+        "insert into course_listing " +
+        "(course_id, course_description_id, title, summary, teacher_id, " +
+        "start_date, end_date, number_of_seats, number_of_enrolled, ongoing) " +
+        "select course_id, course_description_id, title, summary, teacher_id, " +
+        "start_date, end_date, number_of_seats, " +
+        "(select count(*) from student_courses " +
+        "where course_id = cast(:courseId as uuid)), " +
+        "coalesce(ongoing, false) " +
+        "from courses where course_id = cast(:courseId as uuid) " +
+        "on conflict (course_id) do update set " +
+        "course_description_id = excluded.course_description_id, " +
+        "title = excluded.title, summary = excluded.summary, " +
+        "teacher_id = excluded.teacher_id, " +
+        "start_date = excluded.start_date, end_date = excluded.end_date, " +
+        "number_of_seats = excluded.number_of_seats, " +
+        "number_of_enrolled = excluded.number_of_enrolled, " +
+        "ongoing = excluded.ongoing";
+    
+    private static final String DELETE_COURSE_LISTING = 
+        "delete from course_listing where course_id = cast(:courseId as uuid) " +
+        "and not exists (" +
+        "select 1 from courses where course_id = cast(:courseId as uuid))";
+    
+    private static final String COUNT_ENROLLED = 
+        "update course_listing set number_of_enrolled = (" +
+        "select count(*) from student_courses " +
+        "where course_id = cast(:courseId as uuid)) " +
+        "where course_id = cast(:courseId as uuid)";
+    
+    private static final String INSERT_STUDENT_COURSE = 
+        "insert into student_courses (enrolment_number, student_id, course_id) " +
+        "select enrolment_number, student_id, course_id from enrolments " +
+        "where enrolment_number = cast(:enrolmentNumber as uuid) " +
+        "on conflict do nothing";
+    
+    private static final String DELETE_STUDENT_COURSE = 
+        "delete from student_courses " +
+        "where student_id = :studentId " +
+        "and course_id = cast(:courseId as uuid) " +
+        "and not exists (" +
+        "select 1 from enrolments " +
+        "where student_id = :studentId " +
+        "and course_id = cast(:courseId as uuid))";
+    
+    private EntityManager entityManager_;
+    
+    @PersistenceContext
+    public void setEntityManager(EntityManager entityManager)
+    {
+        entityManager_ = entityManager;
+    }
+
+    @Override
+    public void refreshCatalogListing(CourseDescriptionId courseDescriptionId) 
+    {
+        Session session = this.flushedSession();
+        String id = courseDescriptionId.stringValue();
+        session.createNativeQuery(UPSERT_CATALOG_LISTING)
+            .addSynchronizedQuerySpace("catalog_listing")
+            .setParameter("courseDescriptionId", id)
+            .executeUpdate();
+        session.createNativeQuery(DELETE_CATALOG_LISTING)
+            .addSynchronizedQuerySpace("catalog_listing")
+            .setParameter("courseDescriptionId", id)
+            .executeUpdate();
+    }
+
+    @Override
+    public void refreshCourseListing(CourseId courseId) 
+    {
+        Session session = this.flushedSession();
+        String id = courseId.stringValue();
+        session.createNativeQuery(UPSERT_COURSE_LISTING)
+            .addSynchronizedQuerySpace("course_listing")
+            .setParameter("courseId", id)
+            .executeUpdate();
+        session.createNativeQuery(DELETE_COURSE_LISTING)
+            .addSynchronizedQuerySpace("course_listing")
+            .setParameter("courseId", id)
+            .executeUpdate();
+    }
+
+    @Override
+    public void refreshStudentCourse(EnrolmentNumber enrolmentNumber, 
+                                     CourseId courseId) 
+    {
+        Session session = this.flushedSession();
+        session.createNativeQuery(INSERT_STUDENT_COURSE)
+            .addSynchronizedQuerySpace("student_courses")
+            .setParameter("enrolmentNumber", enrolmentNumber.stringValue())
+            .executeUpdate();
+        this.countEnrolled(session, courseId);
+    }
+
+    @Override
+    public void refreshStudentCourse(StudentId studentId, CourseId courseId) 
+    {
+        Session session = this.flushedSession();
+        session.createNativeQuery(DELETE_STUDENT_COURSE)
+            .addSynchronizedQuerySpace("student_courses")
+            .setParameter("studentId", studentId.stringValue())
+            .setParameter("courseId", courseId.stringValue())
+            .executeUpdate();
+        this.countEnrolled(session, courseId);
+    }
+    
+    private void countEnrolled(Session session, CourseId courseId)
+    {
+        session.createNativeQuery(COUNT_ENROLLED)
+            .addSynchronizedQuerySpace("course_listing")
+            .setParameter("courseId", courseId.stringValue())
+            .executeUpdate();
+    }
+    
+    private Session flushedSession()
+    {
+        Session session = entityManager_.unwrap(Session.class);
+        session.flush();
+        return session;
+    }
+    
+}
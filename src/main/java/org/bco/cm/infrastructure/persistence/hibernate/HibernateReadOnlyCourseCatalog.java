@@ -25,12 +25,18 @@
 package org.bco.cm.infrastructure.persistence.hibernate;
 
 import java.util.List;
+import java.util.function.Consumer;
 import org.bco.cm.application.query.CourseSpecification;
 import org.bco.cm.application.query.ReadOnlyCourseCatalog;
 import org.bco.cm.domain.course.CourseDescriptionId;
 import org.bco.cm.domain.teacher.TeacherId;
 import org.bco.cm.dto.CourseDescriptionDTO;
+import org.bco.cm.dto.CourseDescriptionSummaryDTO;
+import org.bco.cm.util.Page;
+import org.bco.cm.util.PageRequest;
+import org.bco.cm.util.QueryParameters;
 import org.bco.cm.util.ReadOnlyHibernateRepository;
+import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Repository;
 
 /**
@@ -38,12 +44,18 @@ import org.springframework.stereotype.Repository;
  * @author Andr&#233; H. Juffer, Biocenter Oulu
  */
 @Repository
+@Profile("!memory")
 public class HibernateReadOnlyCourseCatalog 
     extends ReadOnlyHibernateRepository<CourseDescriptionDTO, CourseDescriptionId> 
     implements ReadOnlyCourseCatalog
 {
-    private static final String FROM = 
-        "select course from " + CourseDescriptionDTO.class.getName() + " course ";
+    private static final String GET_ALL = "CourseDescriptionDTO.getAll";
+    private static final String GET_ONE = "CourseDescriptionDTO.getOne";
+    private static final String GET_TEACHERS_COURSES = 
+        "CourseDescriptionDTO.getTeachersCourses";
+    private static final String GET_PAGE = "CourseDescriptionSummaryDTO.getPage";
+    private static final String GET_TEACHERS_COURSES_PAGE = 
+        "CourseDescriptionSummaryDTO.getTeachersCoursesPage";
     
     public HibernateReadOnlyCourseCatalog()
     {
@@ -54,10 +66,9 @@ public class HibernateReadOnlyCourseCatalog
     public CourseDescriptionDTO getOne(CourseDescriptionId courseId) 
     {
         String id = courseId.stringValue();
-        String hql = 
-            FROM +
-            "where course.courseDescriptionId = '" + id + "'";
-        CourseDescriptionDTO course = this.forSingle(hql);
+        QueryParameters parameters = 
+            QueryParameters.with("courseDescriptionId", id);
+        CourseDescriptionDTO course = this.forSingle(GET_ONE, parameters);
         if (course == null ) {
             throw new NullPointerException(id + ": No such course.");
         }
@@ -73,17 +84,49 @@ public class HibernateReadOnlyCourseCatalog
     @Override
     public List<CourseDescriptionDTO> getAll() 
     {
-        return this.forMany(FROM);
+        return this.forMany(GET_ALL);
     }
     
     @Override
     public List<CourseDescriptionDTO> getTeachersCourses(TeacherId teacherId)
     {
-        String id = teacherId.stringValue();
-        String hql =
-            FROM + 
-            "where course.teacherId = '" + id + "'";
-        return this.forMany(hql);
+        QueryParameters parameters = 
+            QueryParameters.with("teacherId", teacherId.stringValue());
+        return this.forMany(GET_TEACHERS_COURSES, parameters);
+    }
+    
+    @Override
+    public Page<CourseDescriptionSummaryDTO> getSpecifiedCourses(CourseSpecification spec,
+                                                                 PageRequest page)
+    {
+        if ( spec.getTeacherId() != null ) {
+            QueryParameters parameters = 
+                QueryParameters.with("teacherId", spec.getTeacherId().stringValue());
+            return this.forPage(
+                GET_TEACHERS_COURSES_PAGE, parameters, page, 
+                CourseDescriptionSummaryDTO::getCourseDescriptionId
+            );
+        }
+        if ( spec.selectsAll() ) {
+            return this.forPage(
+                GET_PAGE, QueryParameters.none(), page, 
+                CourseDescriptionSummaryDTO::getCourseDescriptionId
+            );
+        }
+        return Page.empty();
+    }
+    
+    @Override
+    public void forEachSpecifiedCourse(CourseSpecification spec, 
+                                       Consumer<CourseDescriptionSummaryDTO> consumer)
+    {
+        if ( spec.getTeacherId() != null ) {
+            QueryParameters parameters = 
+                QueryParameters.with("teacherId", spec.getTeacherId().stringValue());
+            this.forEach(GET_TEACHERS_COURSES_PAGE, parameters, consumer);
+        } else if ( spec.selectsAll() ) {
+            this.forEach(GET_PAGE, QueryParameters.none(), consumer);
+        }
     }
 
 }
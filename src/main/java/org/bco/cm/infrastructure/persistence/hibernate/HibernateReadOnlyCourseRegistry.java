@@ -25,12 +25,23 @@
 package org.bco.cm.infrastructure.persistence.hibernate;
 
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import org.bco.cm.application.query.CourseSpecification;
 import org.bco.cm.application.query.ReadOnlyCourseRegistry;
 import org.bco.cm.domain.course.CourseDescriptionId;
 import org.bco.cm.domain.course.CourseId;
 import org.bco.cm.domain.teacher.TeacherId;
 import org.bco.cm.dto.CourseDTO;
+import org.bco.cm.dto.CourseSummaryDTO;
+import org.bco.cm.util.Page;
+import org.bco.cm.util.PageRequest;
+import org.bco.cm.util.QueryParameters;
 import org.bco.cm.util.ReadOnlyHibernateRepository;
 
 /**
@@ -41,27 +52,69 @@ public class HibernateReadOnlyCourseRegistry
     extends ReadOnlyHibernateRepository<CourseDTO, CourseId> 
     implements ReadOnlyCourseRegistry
 {
-    private static final String FROM = 
-        "select course from " + CourseDTO.class.getName() + " course ";        
+    private static final String GET_ALL = "CourseDTO.getAll";
+    private static final String GET_ONE = "CourseDTO.getOne";
+    private static final String GET_MANY = "CourseDTO.getMany";
+    private static final String GET_NOT_ENDED = "CourseDTO.getNotEnded";
+    private static final String GET_TEACHERS_COURSES = 
+        "CourseDTO.getTeachersCourses";
+    private static final String GET_ACTIVE = "CourseDTO.getActive";
+    private static final String GET_ONGOING = "CourseDTO.getOngoing";
+    private static final String GET_ACTIVATED_COURSES = 
+        "CourseDTO.getActivatedCourses";
+    private static final String GET_PAGE = "CourseSummaryDTO.getPage";
+    private static final String GET_NOT_ENDED_PAGE = "CourseSummaryDTO.getNotEndedPage";
+    private static final String GET_TEACHERS_COURSES_PAGE = 
+        "CourseSummaryDTO.getTeachersCoursesPage";
+    private static final String GET_STUDENTS_COURSES_PAGE = 
+        "CourseSummaryDTO.getStudentsCoursesPage";
+    private static final String GET_ACTIVATED_COURSES_PAGE = 
+        "CourseSummaryDTO.getActivatedCoursesPage";
+    private static final String GET_ACTIVE_PAGE = "CourseSummaryDTO.getActivePage";
+    private static final String GET_ONGOING_PAGE = "CourseSummaryDTO.getOngoingPage";
+    private static final String GET_ACTIVE_OR_ONGOING_PAGE = 
+        "CourseSummaryDTO.getActiveOrOngoingPage";
 
     @Override
     public CourseDTO getOne(CourseId courseId) 
     {
         String id = courseId.stringValue();
-        String hql = 
-            FROM +
-            "where course.courseId = '" + id + "'";
-        CourseDTO course = this.forSingle(hql);
+        QueryParameters parameters = QueryParameters.with("courseId", id);
+        CourseDTO course = this.forSingle(GET_ONE, parameters);
         if (course == null ) {
             throw new NullPointerException(id + ": No such course.");
         }
         return course;
      }
 
+    @Override
+    public List<CourseDTO> getMany(Collection<CourseId> courseIds)
+    {
+        if ( courseIds.isEmpty() ) {
+            return new ArrayList<>();
+        }
+        List<String> ids = 
+            courseIds.stream().map(CourseId::stringValue).collect(Collectors.toList());
+        QueryParameters parameters = QueryParameters.with("courseIds", ids);
+        Map<String, CourseDTO> found = new HashMap<>();
+        this.forMany(GET_MANY, parameters).forEach(course -> {
+            found.put(course.getCourseId(), course);
+        });
+        List<CourseDTO> courses = new ArrayList<>();
+        ids.forEach(id -> {
+            CourseDTO course = found.get(id);
+            if ( course == null ) {
+                throw new NullPointerException(id + ": No such course.");
+            }
+            courses.add(course);
+        });
+        return courses;
+    }
+
     @Override
     public List<CourseDTO> getAll() 
     {
-        return this.forMany(FROM);
+        return this.forMany(GET_ALL);
     }
     
     @Override
@@ -72,21 +125,18 @@ public class HibernateReadOnlyCourseRegistry
         } else {
             Instant now = Instant.now();
             long timestamp = now.toEpochMilli();
-            String hql = 
-                FROM +
-                "where course.endDateTimestamp >= " + timestamp;
-            return this.forMany(hql);            
+            QueryParameters parameters = 
+                QueryParameters.with("timestamp", timestamp);
+            return this.forMany(GET_NOT_ENDED, parameters);
         }
     }
 
     @Override
     public List<CourseDTO> getTeachersCourses(TeacherId teacherId) 
     {
-        String id = teacherId.stringValue();
-        String hql =
-            FROM + 
-            "where course.teacherId = '" + id + "'";
-        return this.forMany(hql);
+        QueryParameters parameters = 
+            QueryParameters.with("teacherId", teacherId.stringValue());
+        return this.forMany(GET_TEACHERS_COURSES, parameters);
     }
 
     @Override
@@ -94,20 +144,15 @@ public class HibernateReadOnlyCourseRegistry
     {
         Instant now = Instant.now();
         long timestamp = now.toEpochMilli();
-        String hql = 
-            FROM +
-            "where course.startDataTimestamp <= " + timestamp + " and " +
-            "course.endDateTimestamp >= " + timestamp;
-        return this.forMany(hql);
+        QueryParameters parameters = 
+            QueryParameters.with("timestamp", timestamp);
+        return this.forMany(GET_ACTIVE, parameters);
     }
 
     @Override
     public List<CourseDTO> getOngoing() 
     {
-        String hql =
-            FROM + 
-            "where course.ongoing = true";
-        return this.forMany(hql);
+        return this.forMany(GET_ONGOING);
     }
     
     @Override
@@ -119,11 +164,100 @@ public class HibernateReadOnlyCourseRegistry
     @Override
     public List<CourseDTO> getActivatedCourses(CourseDescriptionId courseDescriptionId)
     {
-        String id = courseDescriptionId.stringValue();
-        String hql = 
-            FROM + 
-            "where course.courseDescriptionId = '" + id + "'";
-        return this.forMany(hql);
+        QueryParameters parameters = 
+            QueryParameters.with("courseDescriptionId", courseDescriptionId.stringValue());
+        return this.forMany(GET_ACTIVATED_COURSES, parameters);
+    }
+    
+    @Override
+    public Page<CourseSummaryDTO> getSpecified(CourseSpecification spec, 
+                                               PageRequest page)
+    {
+        Selection selection = this.select(spec);
+        if ( selection == null ) {
+            return Page.empty();
+        }
+        return this.forPage(
+            selection.queryName_, selection.parameters_, page, 
+            CourseSummaryDTO::getCourseId
+        );
+    }
+    
+    @Override
+    public void forEachSpecified(CourseSpecification spec, 
+                                 Consumer<CourseSummaryDTO> consumer)
+    {
+        Selection selection = this.select(spec);
+        if ( selection != null ) {
+            this.forEach(selection.queryName_, selection.parameters_, consumer);
+        }
+    }
+    
+    /**
+     * Selects keyset query on the course listing for specification. Precedence
+     * is as in CourseSpecification.query(...).
+     * @param spec Specification.
+     * @return Selection, or null if specification selects nothing.
+     */
+    private Selection select(CourseSpecification spec)
+    {
+        long timestamp = Instant.now().toEpochMilli();
+        if ( spec.getTeacherId() != null ) {
+            String teacherId = spec.getTeacherId().stringValue();
+            return new Selection(
+                GET_TEACHERS_COURSES_PAGE, QueryParameters.with("teacherId", teacherId)
+            );
+        }
+        if ( spec.getStudentId() != null ) {
+            String studentId = spec.getStudentId().stringValue();
+            return new Selection(
+                GET_STUDENTS_COURSES_PAGE, QueryParameters.with("studentId", studentId)
+            );
+        }
+        if ( spec.getCourseDescriptionId() != null ) {
+            String courseDescriptionId = spec.getCourseDescriptionId().stringValue();
+            QueryParameters parameters = 
+                QueryParameters.with("courseDescriptionId", courseDescriptionId)
+                               .and("timestamp", timestamp);
+            return new Selection(GET_ACTIVATED_COURSES_PAGE, parameters);
+        }
+        if ( spec.selectsAll() ) {
+            if ( spec.includesPast() ) {
+                return new Selection(GET_PAGE, QueryParameters.none());
+            }
+            return new Selection(
+                GET_NOT_ENDED_PAGE, QueryParameters.with("timestamp", timestamp)
+            );
+        }
+        if ( spec.selectsActive() && spec.selectsOngoing() ) {
+            return new Selection(
+                GET_ACTIVE_OR_ONGOING_PAGE, QueryParameters.with("timestamp", timestamp)
+            );
+        }
+        if ( spec.selectsActive() ) {
+            return new Selection(
+                GET_ACTIVE_PAGE, QueryParameters.with("timestamp", timestamp)
+            );
+        }
+        if ( spec.selectsOngoing() ) {
+            return new Selection(GET_ONGOING_PAGE, QueryParameters.none());
+        }
+        return null;
+    }
+    
+    /**
+     * Named keyset query plus parameter values.
+     */
+    private static final class Selection {
+        
+        private final String queryName_;
+        private final QueryParameters parameters_;
+        
+        private Selection(String queryName, QueryParameters parameters)
+        {
+            queryName_ = queryName;
+            parameters_ = parameters;
+        }
     }
 
 }
@@ -30,6 +30,7 @@ import org.bco.cm.domain.course.CourseId;
 import org.bco.cm.domain.enrolment.EnrolmentNumber;
 import org.bco.cm.domain.student.StudentId;
 import org.bco.cm.dto.EnrolmentDTO;
+import org.bco.cm.util.QueryParameters;
 import org.bco.cm.util.ReadOnlyHibernateRepository;
 
 /**
@@ -40,17 +41,20 @@ public class HibernateReadOnlyEnrolmentRegistry
     extends ReadOnlyHibernateRepository<EnrolmentDTO, EnrolmentNumber> 
     implements ReadOnlyEnrolmentRegistry
 {
-    private static final String FROM = 
-        "select enrolment from " + EnrolmentDTO.class.getName() + " enrolment ";  
+    private static final String GET_ONE = "EnrolmentDTO.getOne";
+    private static final String GET_COURSE_ENROLMENTS = 
+        "EnrolmentDTO.getCourseEnrolments";
+    private static final String GET_COURSE_ENROLMENT = 
+        "EnrolmentDTO.getCourseEnrolment";
+    private static final String GET_STUDENT_ENROLMENTS = 
+        "EnrolmentDTO.getStudentEnrolments";
     
     @Override
     public EnrolmentDTO getOne(EnrolmentNumber enrolmentNumber) 
     {
-        String en = enrolmentNumber.stringValue();
-        String hql = 
-            FROM + 
-            "where enrolment.enrolmentNumber = '" + en + "'";
-        return this.forSingle(hql);
+        QueryParameters parameters = 
+            QueryParameters.with("enrolmentNumber", enrolmentNumber.stringValue());
+        return this.forSingle(GET_ONE, parameters);
     }
 
     @Override
@@ -62,33 +66,26 @@ public class HibernateReadOnlyEnrolmentRegistry
     @Override
     public List<EnrolmentDTO> getCourseEnrolments(CourseId courseId) 
     {
-        String id = courseId.stringValue();
-        String hql =
-            FROM +
-            "where enrolment.courseId = '" + id + "'";
-        return this.forMany(hql);
+        QueryParameters parameters = 
+            QueryParameters.with("courseId", courseId.stringValue());
+        return this.forMany(GET_COURSE_ENROLMENTS, parameters);
     }
 
     @Override
     public EnrolmentDTO getCourseEnrolment(CourseId courseId, StudentId studentId) 
     {
-        String cid = courseId.stringValue();
-        String sid = studentId.stringValue();
-        String hql = 
-            FROM + "where " +
-            "enrolment.courseId = '" + cid + "' and " +
-            "enrolment.studentId = '" + sid + "'";
-        return this.forSingle(hql);
+        QueryParameters parameters = 
+            QueryParameters.with("courseId", courseId.stringValue())
+                           .and("studentId", studentId.stringValue());
+        return this.forSingle(GET_COURSE_ENROLMENT, parameters);
     }
 
     @Override
     public List<EnrolmentDTO> getStudentEnrolments(StudentId studentId) 
     {
-        String sid = studentId.stringValue();
-        String hql =
-            FROM + "where " +
-            "enrolment.studentId = '" + sid + "'";
-        return this.forMany(hql);
+        QueryParameters parameters = 
+            QueryParameters.with("studentId", studentId.stringValue());
+        return this.forMany(GET_STUDENT_ENROLMENTS, parameters);
     }
 
 }
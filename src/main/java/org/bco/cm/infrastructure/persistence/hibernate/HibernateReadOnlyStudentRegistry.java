@@ -25,10 +25,15 @@
 package org.bco.cm.infrastructure.persistence.hibernate;
 
 import java.util.List;
+import java.util.function.Consumer;
 import org.bco.cm.application.query.ReadOnlyStudentRegistry;
 import org.bco.cm.domain.student.StudentId;
 import org.bco.cm.dto.StudentDTO;
+import org.bco.cm.util.Page;
+import org.bco.cm.util.PageRequest;
+import org.bco.cm.util.QueryParameters;
 import org.bco.cm.util.ReadOnlyHibernateRepository;
+import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Repository;
 
 /**
@@ -36,12 +41,14 @@ import org.springframework.stereotype.Repository;
  * @author Andr&#233; H. Juffer, Biocenter Oulu
  */
 @Repository
+@Profile("!memory")
 public class HibernateReadOnlyStudentRegistry 
     extends ReadOnlyHibernateRepository<StudentDTO, StudentId> 
     implements ReadOnlyStudentRegistry 
 {
-    private static final String FROM = 
-        "select student from " + StudentDTO.class.getName() + " student ";
+    private static final String GET_ALL = "StudentDTO.getAll";
+    private static final String GET_ONE = "StudentDTO.getOne";
+    private static final String GET_PAGE = "StudentDTO.getPage";
     
     public HibernateReadOnlyStudentRegistry()
     {
@@ -51,20 +58,31 @@ public class HibernateReadOnlyStudentRegistry
     @Override
     public List<StudentDTO> getAll() 
     {
-        return this.forMany(FROM);
+        return this.forMany(GET_ALL);
     }
 
     @Override
     public StudentDTO getOne(StudentId studentId) 
     {
         String id = studentId.stringValue();
-        String hql = FROM +
-            "where student.studentId = '" + id + "'";
-        StudentDTO student = this.forSingle(hql);
+        QueryParameters parameters = QueryParameters.with("studentId", id);
+        StudentDTO student = this.forSingle(GET_ONE, parameters);
         if ( student == null ) {
             throw new NullPointerException(id + ": No such student.");
         }
         return student;
     }
+    
+    @Override
+    public Page<StudentDTO> getAll(PageRequest page)
+    {
+        return this.forPage(GET_PAGE, QueryParameters.none(), page, StudentDTO::getStudentId);
+    }
+    
+    @Override
+    public void forEach(Consumer<StudentDTO> consumer)
+    {
+        this.forEach(GET_PAGE, QueryParameters.none(), consumer);
+    }
 
 }
@@ -25,9 +25,14 @@
 package org.bco.cm.infrastructure.persistence.hibernate;
 
 import java.util.List;
+import java.util.function.Consumer;
 import org.bco.cm.domain.teacher.TeacherId;
 import org.bco.cm.dto.TeacherDTO;
+import org.bco.cm.util.Page;
+import org.bco.cm.util.PageRequest;
+import org.bco.cm.util.QueryParameters;
 import org.bco.cm.util.ReadOnlyHibernateRepository;
+import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Repository;
 import org.bco.cm.application.query.ReadOnlyTeacherRegistry;
 
@@ -36,12 +41,14 @@ import org.bco.cm.application.query.ReadOnlyTeacherRegistry;
  * @author Andr&#233; H. Juffer, Biocenter Oulu
  */
 @Repository
+@Profile("!memory")
 public class HibernateReadOnlyTeacherRegistry 
     extends ReadOnlyHibernateRepository<TeacherDTO, TeacherId>
     implements ReadOnlyTeacherRegistry 
 {
-    private static final String FROM = 
-        "select teacher from " + TeacherDTO.class.getName() + " teacher ";
+    private static final String GET_ALL = "TeacherDTO.getAll";
+    private static final String GET_ONE = "TeacherDTO.getOne";
+    private static final String GET_PAGE = "TeacherDTO.getPage";
     
     public HibernateReadOnlyTeacherRegistry()
     {
@@ -52,9 +59,8 @@ public class HibernateReadOnlyTeacherRegistry
     public TeacherDTO getOne(TeacherId teacherId) 
     {
         String id = teacherId.stringValue();
-        String hql = FROM +
-            "where teacher.teacherId = '" + id + "'";
-        TeacherDTO teacher  = this.forSingle(hql);
+        QueryParameters parameters = QueryParameters.with("teacherId", id);
+        TeacherDTO teacher  = this.forSingle(GET_ONE, parameters);
         if ( teacher == null ) {
             throw new NullPointerException(id + ": No such teacher.");
         }
@@ -64,7 +70,19 @@ public class HibernateReadOnlyTeacherRegistry
     @Override
     public List<TeacherDTO> getAll() 
     {
-        return this.forMany(FROM);
+        return this.forMany(GET_ALL);
     }
     
+    @Override
+    public Page<TeacherDTO> getAll(PageRequest page)
+    {
+        return this.forPage(GET_PAGE, QueryParameters.none(), page, TeacherDTO::getTeacherId);
+    }
+    
+    @Override
+    public void forEach(Consumer<TeacherDTO> consumer)
+    {
+        this.forEach(GET_PAGE, QueryParameters.none(), consumer);
+    }
+
 }
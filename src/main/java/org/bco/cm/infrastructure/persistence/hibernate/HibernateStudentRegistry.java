@@ -24,11 +24,14 @@
 
 package org.bco.cm.infrastructure.persistence.hibernate;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import org.bco.cm.domain.student.Student;
 import org.bco.cm.domain.student.StudentId;
 import org.bco.cm.domain.student.StudentRegistry;
 import org.bco.cm.util.HibernateRepository;
+import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Repository;
 
 /**
@@ -36,27 +39,32 @@ import org.springframework.stereotype.Repository;
  * @author Andr&#233; H. Juffer, Biocenter Oulu
  */
 @Repository
+@Profile("!memory")
 public class HibernateStudentRegistry 
     extends HibernateRepository<Student,StudentId>
     implements StudentRegistry 
 {    
-    private static final String FROM = 
-        "select student from " + Student.class.getName() + " student ";
+    private static final String FOR_ALL = "Student.forAll";
+    private static final String FOR_STUDENT_IDS = "Student.forStudentIds";
 
     @Override
     public Student forOne(StudentId studentId) 
     {
-        String id = studentId.stringValue();
-        String hql = 
-            FROM + 
-            "where student.studentId.id = '" + id + "'";
-        return this.forSingle(hql);
+        return this.forNaturalId(Student.class, studentId);
     }
 
     @Override
     public List<Student> forAll() 
     {
-        return this.forMany(FROM);
+        return this.forMany(FOR_ALL);
+    }
+
+    @Override
+    public List<Student> forStudents(Collection<StudentId> studentIds) 
+    {
+        List<String> ids = new ArrayList<>();
+        studentIds.forEach(studentId -> ids.add(studentId.stringValue()));
+        return this.forMany(FOR_STUDENT_IDS, "studentIds", ids);
     }
     
 }
@@ -29,6 +29,7 @@ import org.bco.cm.domain.teacher.Teacher;
 import org.bco.cm.domain.teacher.TeacherId;
 import org.bco.cm.domain.teacher.TeacherRegistry;
 import org.bco.cm.util.HibernateRepository;
+import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Repository;
 
 /**
@@ -36,27 +37,23 @@ import org.springframework.stereotype.Repository;
  * @author Andr&#233; H. Juffer, Biocenter Oulu
  */
 @Repository
+@Profile("!memory")
 public class HibernateTeacherRegistry 
     extends HibernateRepository<Teacher, TeacherId>
     implements TeacherRegistry 
 {
-    private static final String FROM = 
-        "select teacher from " + Teacher.class.getName() + " teacher ";
+    private static final String FOR_ALL = "Teacher.forAll";
 
     @Override
     public List<Teacher> forAll() 
     {
-        return this.forMany(FROM);
+        return this.forMany(FOR_ALL);
     }
 
     @Override
     public Teacher forOne(TeacherId teacherId) 
     {
-        String id = teacherId.stringValue();
-        String hql = 
-            FROM + 
-            "where teacher.teacherId.id = '" + id + "'";
-        return this.forSingle(hql);
+        return this.forNaturalId(Teacher.class, teacherId);
     }
     
 }
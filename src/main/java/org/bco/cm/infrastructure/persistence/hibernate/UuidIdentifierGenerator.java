@@ -0,0 +1,70 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2018 André H. Juffer, Biocenter Oulu
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.bco.cm.infrastructure.persistence.hibernate;
+
+import java.io.Serializable;
+import java.util.HashMap;
+import java.util.Map;
+import org.bco.cm.util.Uuids;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.IdentifierGenerator;
+import org.hibernate.id.UUIDGenerator;
+import org.hibernate.jpa.spi.IdentifierGeneratorStrategyProvider;
+
+/**
+ * Generates UUID primary keys (@GeneratedValue) from Uuids instead of 
+ * Hibernate's random UUIDs. Installed by DBTransactionConfiguration, which 
+ * sets the JPA property hibernate.ejb.identifier_generator_strategy_provider 
+ * to Provider.
+ * @author Andr&#233; H. Juffer, Biocenter Oulu
+ * @see org.bco.cm.util.Uuids
+ */
+public class UuidIdentifierGenerator implements IdentifierGenerator {
+    
+    @Override
+    public Serializable generate(SharedSessionContractImplementor session, 
+                                 Object object) 
+    {
+        return Uuids.generate();
+    }
+    
+    /**
+     * Replaces Hibernate's UUID generator with this generator, both as the 
+     * generator selected for @GeneratedValue of type UUID and as strategy 
+     * "uuid2".
+     */
+    public static class Provider implements IdentifierGeneratorStrategyProvider {
+        
+        @Override
+        public Map<String, Class<?>> getStrategies() 
+        {
+            Map<String, Class<?>> strategies = new HashMap<>();
+            strategies.put(UUIDGenerator.class.getName(), UuidIdentifierGenerator.class);
+            strategies.put("uuid2", UuidIdentifierGenerator.class);
+            return strategies;
+        }
+    }
+    
+}
@@ -0,0 +1,125 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2018 André H. Juffer, Biocenter Oulu
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.bco.cm.infrastructure.persistence.jdbc;
+
+import java.util.List;
+import java.util.UUID;
+import javax.sql.DataSource;
+import org.bco.cm.application.event.handler.EventOutbox;
+import org.bco.cm.application.event.handler.OutboxEntry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Event outbox in table event_outbox. Statements take part in the current 
+ * transaction, if any. Only the oldest entry of each sequence key is pending, 
+ * so an entry that waits for a retry holds back the later entries with the 
+ * same sequence key. An entry given up is moved to event_outbox_dead_letters.
+ * @author Andr&#233; H. Juffer, Biocenter Oulu
+ */
+public class JdbcEventOutbox implements EventOutbox {
+    
+    private static final String INSERT = 
+        "insert into event_outbox " +
+        "(event_id, event_type, sequence_key, payload) values (?, ?, ?, ?)";
+    // Available entries first, then those without an older entry of the same
+    // sequence key, by index on (available_at, id) and (sequence_key, id).
+    private static final String PENDING = 
+        "select event_id, event_type, sequence_key, payload, attempts " +
+        "from event_outbox o " +
+        "where available_at <= now() and not exists (" +
+        "select 1 from event_outbox p " +
+        "where p.sequence_key = o.sequence_key and p.id < o.id" +
+        ") " +
+        "order by id limit ?";
+    private static final String DELETE = 
+        "delete from event_outbox where event_id = ?";
+    private static final String FAILED = 
+        "update event_outbox set attempts = attempts + 1, last_error = ?, " +
+        "available_at = now() + interval '1 second' * power(2, least(attempts, 10)) " +
+        "where event_id = ?";
+    private static final String DEAD_LETTER = 
+        "with dead as (" +
+        "delete from event_outbox where event_id = ? and attempts >= ? " +
+        "returning id, event_id, event_type, sequence_key, payload, " +
+        "created_at, attempts, last_error" +
+        ") " +
+        "insert into event_outbox_dead_letters " +
+        "(id, event_id, event_type, sequence_key, payload, " +
+        "created_at, attempts, last_error) " +
+        "select id, event_id, event_type, sequence_key, payload, " +
+        "created_at, attempts, last_error from dead";
+    private static final int MAX_ERROR_LENGTH = 1000;
+    
+    private JdbcTemplate jdbcTemplate_;
+    
+    @Autowired
+    public void setDataSource(DataSource dataSource)
+    {
+        jdbcTemplate_ = new JdbcTemplate(dataSource);
+    }
+
+    @Override
+    public void append(List<OutboxEntry> entries) 
+    {
+        jdbcTemplate_.batchUpdate(INSERT, entries, entries.size(), (ps, entry) -> {
+            ps.setObject(1, UUID.fromString(entry.getEventId()));
+            ps.setString(2, entry.getEventType());
+            ps.setString(3, entry.getSequenceKey());
+            ps.setString(4, entry.getPayload());
+        });
+    }
+
+    @Override
+    public List<OutboxEntry> pending(int max) 
+    {
+        return jdbcTemplate_.query(PENDING, (rs, row) -> new OutboxEntry(
+            rs.getString("event_id"),
+            rs.getString("event_type"),
+            rs.getString("sequence_key"),
+            rs.getString("payload"),
+            rs.getInt("attempts")
+        ), max);
+    }
+
+    @Override
+    public boolean remove(String eventId) 
+    {
+        return jdbcTemplate_.update(DELETE, UUID.fromString(eventId)) == 1;
+    }
+
+    @Override
+    public boolean failed(String eventId, String error, int maxAttempts) 
+    {
+        String message = error == null ? "" : error;
+        if ( message.length() > MAX_ERROR_LENGTH ) {
+            message = message.substring(0, MAX_ERROR_LENGTH);
+        }
+        UUID id = UUID.fromString(eventId);
+        jdbcTemplate_.update(FAILED, message, id);
+        return jdbcTemplate_.update(DEAD_LETTER, id, maxAttempts) == 1;
+    }
+    
+}
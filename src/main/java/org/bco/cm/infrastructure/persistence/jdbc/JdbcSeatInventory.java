@@ -0,0 +1,121 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2018 André H. Juffer, Biocenter Oulu
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.bco.cm.infrastructure.persistence.jdbc;
+
+import java.util.List;
+import javax.sql.DataSource;
+import org.bco.cm.domain.course.Course;
+import org.bco.cm.domain.course.SeatInventory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Seat inventory in column courses.seats_taken. A seat is taken by a 
+ * conditional increment, so courses cannot be overbooked. The course row stays
+ * locked until the end of the transaction, but only for reservations in the 
+ * same course. Seat numbers are handed out by incrementing 
+ * courses.last_seat_number, on the row that reserving the seat already locked.
+ * @author Andr&#233; H. Juffer, Biocenter Oulu
+ */
+public class JdbcSeatInventory implements SeatInventory {
+    
+    private static final String RESERVE = 
+        "update courses set seats_taken = seats_taken + 1 " +
+        "where course_id = cast(? as uuid) and seats_taken < number_of_seats";
+    private static final String RESERVE_MANY = 
+        "with available as (" +
+        "select id, least(?, number_of_seats - seats_taken) as granted " +
+        "from courses where course_id = cast(? as uuid) for update) " +
+        "update courses set seats_taken = seats_taken + available.granted " +
+        "from available " +
+        "where courses.id = available.id and available.granted > 0 " +
+        "returning available.granted";
+    private static final String RELEASE = 
+        "update courses set seats_taken = seats_taken - 1 " +
+        "where course_id = cast(? as uuid) and seats_taken > 0";
+    private static final String NUMBER_SEATS = 
+        "update courses set last_seat_number = last_seat_number + ? " +
+        "where course_id = cast(? as uuid) returning last_seat_number";
+    private static final String SEATS_TAKEN = 
+        "select seats_taken from courses where course_id = cast(? as uuid)";
+    
+    private JdbcTemplate jdbcTemplate_;
+    
+    @Autowired
+    public void setDataSource(DataSource dataSource)
+    {
+        jdbcTemplate_ = new JdbcTemplate(dataSource);
+    }
+
+    @Override
+    public boolean reserve(Course course) 
+    {
+        return jdbcTemplate_.update(RESERVE, course.getIdentifierAsString()) == 1;
+    }
+
+    @Override
+    public int reserve(Course course, int count) 
+    {
+        List<Integer> granted = jdbcTemplate_.queryForList(
+            RESERVE_MANY, Integer.class, count, course.getIdentifierAsString()
+        );
+        return granted.isEmpty() ? 0 : granted.get(0);
+    }
+
+    @Override
+    public int numberSeats(Course course, int count) 
+    {
+        if ( count <= 0 ) {
+            throw new IllegalArgumentException(
+                count + ": Number of seat numbers must be positive."
+            );
+        }
+        List<Integer> last = jdbcTemplate_.queryForList(
+            NUMBER_SEATS, Integer.class, count, course.getIdentifierAsString()
+        );
+        if ( last.isEmpty() ) {
+            throw new IllegalArgumentException(
+                course.getIdentifierAsString() + ": No such course."
+            );
+        }
+        return last.get(0) - count + 1;
+    }
+
+    @Override
+    public void release(Course course) 
+    {
+        jdbcTemplate_.update(RELEASE, course.getIdentifierAsString());
+    }
+
+    @Override
+    public int seatsTaken(Course course) 
+    {
+        List<Integer> taken = jdbcTemplate_.queryForList(
+            SEATS_TAKEN, Integer.class, course.getIdentifierAsString()
+        );
+        return taken.isEmpty() ? 0 : taken.get(0);
+    }
+    
+}
@@ -1,4 +1,4 @@
-/* 
+/*
  * The MIT License
  *
  * Copyright 2018 André H. Juffer, Biocenter Oulu
@@ -21,17 +21,8 @@
  * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
  * THE SOFTWARE.
  */
+
 /**
- * Author:  ajuffer
- * Created: Mar 27, 2018
+ * JDBC-based stores.
  */
-
-create table teachers
-(
-    id              UUID not null primary key,
-    teacher_id      varchar(200),
-    first_name      varchar(200),
-    surname         varchar(200)
-);
-
-
+package org.bco.cm.infrastructure.persistence.jdbc;
@@ -0,0 +1,168 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2018 André H. Juffer, Biocenter Oulu
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.bco.cm.infrastructure.persistence.memory;
+
+import io.micrometer.core.instrument.binder.MeterBinder;
+import java.util.List;
+import java.util.function.Consumer;
+import org.bco.cm.application.query.CourseCatalogCache;
+import org.bco.cm.application.query.CourseSpecification;
+import org.bco.cm.application.query.ReadOnlyCourseCatalog;
+import org.bco.cm.domain.course.CourseDescriptionId;
+import org.bco.cm.domain.teacher.TeacherId;
+import org.bco.cm.dto.CourseDescriptionDTO;
+import org.bco.cm.dto.CourseDescriptionSummaryDTO;
+import org.bco.cm.util.Page;
+import org.bco.cm.util.PageRequest;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Read-only course catalog with an in-memory cache in front of another 
+ * read-only course catalog. Single course descriptions and pages of the 
+ * catalog listing are cached, both bounded in size and with an expiry time. 
+ * A cached course description is a deep copy of the loaded one, including 
+ * modules, so it holds no lazily loaded collections and callers share no 
+ * state with the persistence context. Lists and streamed listings are not 
+ * cached. Any change to the course catalog invalidates the changed course 
+ * description and all cached pages.
+ * @author Andr&#233; H. Juffer, Biocenter Oulu
+ */
+public class CachingReadOnlyCourseCatalog 
+    implements ReadOnlyCourseCatalog, CourseCatalogCache {
+    
+    private final ReadOnlyCourseCatalog catalog_;
+    private final ExpiringLruCache<String, CourseDescriptionDTO> courses_;
+    private final ExpiringLruCache<String, Page<CourseDescriptionSummaryDTO>> pages_;
+    
+    /**
+     * Creates cache.
+     * @param catalog Catalog holding the actual course descriptions.
+     * @param maxSize Maximum number of cached course descriptions, and of 
+     * cached pages.
+     * @param ttl Expiry time of cached course descriptions and pages in 
+     * milliseconds.
+     */
+    public CachingReadOnlyCourseCatalog(ReadOnlyCourseCatalog catalog, 
+                                        int maxSize, 
+                                        long ttl)
+    {
+        if ( catalog == null ) {
+            throw new NullPointerException("Missing read-only course catalog.");
+        }
+        catalog_ = catalog;
+        courses_ = new ExpiringLruCache<>(maxSize, ttl);
+        pages_ = new ExpiringLruCache<>(maxSize, ttl);
+    }
+
+    @Override
+    public CourseDescriptionDTO getOne(CourseDescriptionId courseId) 
+    {
+        return courses_.get(
+            courseId.stringValue(), id -> copy(catalog_.getOne(courseId))
+        );
+    }
+
+    @Override
+    public List<CourseDescriptionDTO> getAll() 
+    {
+        return catalog_.getAll();
+    }
+
+    @Override
+    public List<CourseDescriptionDTO> getSpecifiedCourses(CourseSpecification spec) 
+    {
+        return catalog_.getSpecifiedCourses(spec);
+    }
+
+    @Override
+    public List<CourseDescriptionDTO> getTeachersCourses(TeacherId teacherId) 
+    {
+        return catalog_.getTeachersCourses(teacherId);
+    }
+
+    @Override
+    public Page<CourseDescriptionSummaryDTO> getSpecifiedCourses(CourseSpecification spec, 
+                                                                 PageRequest page) 
+    {
+        String selection;
+        if ( spec.getTeacherId() != null ) {
+            selection = "teacher:" + spec.getTeacherId().stringValue();
+        } else if ( spec.selectsAll() ) {
+            selection = "all";
+        } else {
+            return catalog_.getSpecifiedCourses(spec, page);
+        }
+        String key = selection + ":" + page.getLimit() + ":" + page.getAfter();
+        return pages_.get(key, k -> catalog_.getSpecifiedCourses(spec, page));
+    }
+
+    @Override
+    public void forEachSpecifiedCourse(CourseSpecification spec, 
+                                       Consumer<CourseDescriptionSummaryDTO> consumer) 
+    {
+        catalog_.forEachSpecifiedCourse(spec, consumer);
+    }
+
+    @Override
+    public void invalidate(CourseDescriptionId courseDescriptionId) 
+    {
+        String id = courseDescriptionId.stringValue();
+        courses_.invalidate(id);
+        pages_.invalidateAll();
+        if ( TransactionSynchronizationManager.isSynchronizationActive() ) {
+            TransactionSynchronizationManager.registerSynchronization(
+                new TransactionSynchronizationAdapter() {
+                    @Override
+                    public void afterCompletion(int status)
+                    {
+                        courses_.invalidate(id);
+                        pages_.invalidateAll();
+                    }
+                }
+            );
+        }
+    }
+    
+    /**
+     * Returns meters of both the course description and the page cache.
+     * @return Meter binder.
+     */
+    public MeterBinder metrics()
+    {
+        MeterBinder courses = courses_.metrics("catalog.courses");
+        MeterBinder pages = pages_.metrics("catalog.pages");
+        return registry -> {
+            courses.bindTo(registry);
+            pages.bindTo(registry);
+        };
+    }
+    
+    private static CourseDescriptionDTO copy(CourseDescriptionDTO course)
+    {
+        return course == null ? null : course.copy();
+    }
+    
+}
@@ -0,0 +1,188 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2018 André H. Juffer, Biocenter Oulu
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.bco.cm.infrastructure.persistence.memory;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import org.bco.cm.domain.course.Course;
+import org.bco.cm.domain.course.SeatInventory;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Seat inventory with an in-memory cache of seats taken in front of another 
+ * seat inventory. Counts are kept per course in a concurrent map, so courses 
+ * do not contend with each other. The count of a course is striped 
+ * (LongAdder), so concurrent reservations in the same course do not contend 
+ * on the cached count either. Once a course is known to be full, 
+ * reservations are refused without consulting the other inventory until the 
+ * cached count expires. Reservations are always made in the other inventory, 
+ * so the cache never causes overbooking; at worst it refuses a seat that was 
+ * given back elsewhere within the expiry time.
+ * @author Andr&#233; H. Juffer, Biocenter Oulu
+ */
+public class CachingSeatInventory implements SeatInventory {
+    
+    private final SeatInventory inventory_;
+    private final long ttl_;
+    private final Map<String, Count> counts_;
+    
+    /**
+     * Creates cache.
+     * @param inventory Inventory holding the actual counts.
+     * @param ttl Expiry time of cached counts in milliseconds.
+     */
+    public CachingSeatInventory(SeatInventory inventory, long ttl)
+    {
+        if ( inventory == null ) {
+            throw new NullPointerException("Missing seat inventory.");
+        }
+        inventory_ = inventory;
+        ttl_ = ttl;
+        counts_ = new ConcurrentHashMap<>();
+    }
+
+    @Override
+    public boolean reserve(Course course) 
+    {
+        String courseId = course.getIdentifierAsString();
+        int seats = course.getNumberOfSeats();
+        Count count = this.fresh(courseId);
+        if ( count != null && count.taken() >= seats ) {
+            return false;
+        }
+        if ( !inventory_.reserve(course) ) {
+            counts_.put(courseId, new Count(seats, this.expires()));
+            return false;
+        }
+        if ( count != null ) {
+            count.taken_.increment();
+        }
+        this.evictOnRollback(courseId);
+        return true;
+    }
+
+    @Override
+    public int reserve(Course course, int count) 
+    {
+        String courseId = course.getIdentifierAsString();
+        int seats = course.getNumberOfSeats();
+        Count cached = this.fresh(courseId);
+        if ( cached != null && cached.taken() >= seats ) {
+            return 0;
+        }
+        int granted = inventory_.reserve(course, count);
+        if ( granted < count ) {
+            counts_.put(courseId, new Count(seats, this.expires()));
+        } else if ( cached != null ) {
+            cached.taken_.add(granted);
+        }
+        if ( granted > 0 ) {
+            this.evictOnRollback(courseId);
+        }
+        return granted;
+    }
+
+    @Override
+    public int numberSeats(Course course, int count) 
+    {
+        return inventory_.numberSeats(course, count);
+    }
+
+    @Override
+    public void release(Course course) 
+    {
+        String courseId = course.getIdentifierAsString();
+        inventory_.release(course);
+        counts_.remove(courseId);
+        this.evictOnRollback(courseId);
+    }
+
+    @Override
+    public int seatsTaken(Course course) 
+    {
+        String courseId = course.getIdentifierAsString();
+        Count count = this.fresh(courseId);
+        if ( count == null ) {
+            count = new Count(inventory_.seatsTaken(course), this.expires());
+            counts_.put(courseId, count);
+        }
+        return Math.min(count.taken(), course.getNumberOfSeats());
+    }
+    
+    private Count fresh(String courseId)
+    {
+        Count count = counts_.get(courseId);
+        if ( count != null && count.expires_ < System.currentTimeMillis() ) {
+            counts_.remove(courseId, count);
+            return null;
+        }
+        return count;
+    }
+    
+    private long expires()
+    {
+        return System.currentTimeMillis() + ttl_;
+    }
+    
+    private void evictOnRollback(String courseId)
+    {
+        if ( TransactionSynchronizationManager.isSynchronizationActive() ) {
+            TransactionSynchronizationManager.registerSynchronization(
+                new TransactionSynchronizationAdapter() {
+                    @Override
+                    public void afterCompletion(int status)
+                    {
+                        if ( status != TransactionSynchronization.STATUS_COMMITTED ) {
+                            counts_.remove(courseId);
+                        }
+                    }
+                }
+            );
+        }
+    }
+    
+    private static final class Count {
+        
+        private final LongAdder taken_;
+        private final long expires_;
+        
+        private Count(int taken, long expires)
+        {
+            taken_ = new LongAdder();
+            taken_.add(taken);
+            expires_ = expires;
+        }
+        
+        private int taken()
+        {
+            return (int)Math.min(taken_.sum(), Integer.MAX_VALUE);
+        }
+        
+    }
+    
+}
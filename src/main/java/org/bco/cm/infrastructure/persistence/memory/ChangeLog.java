@@ -0,0 +1,54 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2018 André H. Juffer, Biocenter Oulu
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.bco.cm.infrastructure.persistence.memory;
+
+import java.io.Serializable;
+import org.bco.cm.util.Identifiable;
+
+/**
+ * Records which entities of in-memory repositories were added, updated or 
+ * removed.
+ * @author Andr&#233; H. Juffer, Biocenter Oulu
+ */
+interface ChangeLog {
+    
+    /**
+     * Entity was added, updated or removed. 
+     * @param repository Repository holding (or that held) the entity.
+     * @param id Entity identifier.
+     * @param before Entity as stored before the change, null if added.
+     */
+    void changed(InMemoryMapRepository<?> repository, String id, Identifiable before);
+    
+    /**
+     * Part of a change to an entity, reported before the entity is updated.
+     * @param repository Repository holding the entity.
+     * @param id Entity identifier.
+     * @param part Part of change.
+     * @see InMemoryMapRepository#coveredByParts(Identifiable, Identifiable, java.util.List) 
+     */
+    void changedPart(InMemoryMapRepository<?> repository, String id, Serializable part);
+    
+}
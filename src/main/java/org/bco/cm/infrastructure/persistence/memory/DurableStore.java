@@ -0,0 +1,445 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2018 André H. Juffer, Biocenter Oulu
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.bco.cm.infrastructure.persistence.memory;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.bco.cm.util.Identifiable;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Makes in-memory repositories durable. Every added, updated or removed 
+ * entity is recorded in a write-ahead log when the surrounding transaction 
+ * commits, or immediately if there is none. Concurrent commits share a single
+ * sync of the log to disk (group commit). Periodically, and on close, all 
+ * entities are written to a memory-mapped snapshot and the log is emptied. 
+ * On open, the snapshot is loaded and the log is replayed.
+ * <p>
+ * The log holds the state of changed entities (Java serialization), not 
+ * domain events. If a repository reports parts of a change that account for 
+ * all of it (e.g. a student added to a course roster), only the parts are 
+ * logged. Entities are logged and snapshot as stored, and stored entities are
+ * never modified within transactions. Changes must go through the 
+ * repositories: an entity modified without calling update() is lost within a
+ * transaction, and otherwise only saved by the next snapshot. Changes of a 
+ * transaction that rolls back are never written.
+ * @author Andr&#233; H. Juffer, Biocenter Oulu
+ */
+public class DurableStore implements ChangeLog, Closeable {
+    
+    static final Logger LOGGER = LogManager.getLogger("com.bco.cm");
+    
+    static final byte PUT = 1;
+    static final byte REMOVE = 2;
+    static final byte PART = 3;
+    
+    private final Path directory_;
+    private final long snapshotInterval_;
+    private final Map<String, InMemoryMapRepository<?>> repositories_;
+    private final Map<InMemoryMapRepository<?>, String> names_;
+    private final ReadWriteLock lock_;
+    private MappedSnapshot snapshot_;
+    private WriteAheadLog log_;
+    private ScheduledExecutorService scheduler_;
+    
+    /**
+     * @param directory Directory holding log and snapshot. Created if 
+     * nonexistent.
+     * @param snapshotInterval Interval in milliseconds between snapshots. No 
+     * periodic snapshots if 0.
+     */
+    public DurableStore(String directory, long snapshotInterval)
+    {
+        if ( snapshotInterval < 0 ) {
+            throw new IllegalArgumentException(
+                "Snapshot interval must not be negative."
+            );
+        }
+        directory_ = Paths.get(directory);
+        snapshotInterval_ = snapshotInterval;
+        repositories_ = new LinkedHashMap<>();
+        names_ = new LinkedHashMap<>();
+        lock_ = new ReentrantReadWriteLock();
+        snapshot_ = null;
+        log_ = null;
+        scheduler_ = null;
+    }
+    
+    /**
+     * Registers repository. Must be called before open().
+     * @param name Unique name of repository in log and snapshot. Must not 
+     * change between restarts.
+     * @param repository Repository.
+     */
+    public void register(String name, InMemoryMapRepository<?> repository)
+    {
+        if ( log_ != null ) {
+            throw new IllegalStateException(
+                name + ": Repository must be registered before opening store."
+            );
+        }
+        if ( repositories_.putIfAbsent(name, repository) != null ) {
+            throw new IllegalArgumentException(
+                name + ": Repository already registered."
+            );
+        }
+        names_.put(repository, name);
+    }
+    
+    /**
+     * Recovers all registered repositories from snapshot and log, and starts
+     * recording changes.
+     * @throws IOException if snapshot or log cannot be read.
+     */
+    public void open() throws IOException
+    {
+        Files.createDirectories(directory_);
+        snapshot_ = new MappedSnapshot(directory_.resolve("cm.snapshot"));
+        int loaded = snapshot_.read(this::restore);
+        log_ = new WriteAheadLog(directory_.resolve("cm.log"));
+        int replayed = log_.replay(this::restore);
+        LOGGER.info("Store " + directory_ + ": " + loaded + 
+                    " entities loaded from snapshot, " + replayed + 
+                    " changes replayed from log.");
+        repositories_.values().forEach(repository -> repository.setChangeLog(this));
+        if ( snapshotInterval_ > 0 ) {
+            scheduler_ = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "cm-snapshot");
+                thread.setDaemon(true);
+                return thread;
+            });
+            scheduler_.scheduleWithFixedDelay(
+                this::periodicSnapshot, 
+                snapshotInterval_, snapshotInterval_, TimeUnit.MILLISECONDS
+            );
+        }
+    }
+    
+    @Override
+    public void changed(InMemoryMapRepository<?> repository, 
+                        String id, 
+                        Identifiable before) 
+    {
+        if ( TransactionSynchronizationManager.isSynchronizationActive() ) {
+            this.pending().change(repository, id).changed(before);
+        } else {
+            Change change = new Change(repository, id);
+            change.changed(before);
+            this.write(Collections.singleton(change));
+        }
+    }
+    
+    @Override
+    public void changedPart(InMemoryMapRepository<?> repository, 
+                            String id, 
+                            Serializable part)
+    {
+        // Outside a transaction, the subsequent update records the whole 
+        // entity.
+        if ( TransactionSynchronizationManager.isSynchronizationActive() ) {
+            this.pending().change(repository, id).parts_.add(part);
+        }
+    }
+    
+    /**
+     * Writes all entities to a new snapshot and empties the log. Commits wait 
+     * until the snapshot is written.
+     * @throws IOException if snapshot cannot be written.
+     */
+    public void snapshot() throws IOException
+    {
+        lock_.writeLock().lock();
+        try {
+            List<ByteBuffer> records = new ArrayList<>();
+            for (InMemoryMapRepository<?> repository : repositories_.values()) {
+                for (Identifiable entity : repository.forAll()) {
+                    records.add(WriteAheadLog.frame(this.encode(
+                        PUT, repository, entity.getIdentifierAsString(), entity
+                    )));
+                }
+            }
+            snapshot_.write(records);
+            // A crash before the log is emptied only causes changes already 
+            // in the snapshot to be replayed again.
+            log_.reset();
+        } finally {
+            lock_.writeLock().unlock();
+        }
+    }
+    
+    /**
+     * Stops periodic snapshots, writes a final snapshot and closes the log.
+     * @throws IOException if snapshot cannot be written.
+     */
+    @Override
+    public void close() throws IOException
+    {
+        if ( log_ == null ) {
+            return;
+        }
+        if ( scheduler_ != null ) {
+            scheduler_.shutdown();
+        }
+        repositories_.values().forEach(repository -> repository.setChangeLog(null));
+        try {
+            this.snapshot();
+        } finally {
+            log_.close();
+            log_ = null;
+        }
+    }
+    
+    private void periodicSnapshot()
+    {
+        try {
+            if ( log_.size() > 0 ) {
+                this.snapshot();
+            }
+        } catch (IOException | RuntimeException exception) {
+            LOGGER.error("Store " + directory_ + ": Snapshot failed.", exception);
+        }
+    }
+    
+    // Changes made in the current transaction, written just before it commits.
+    private PendingChanges pending()
+    {
+        for (TransactionSynchronization synchronization : 
+                TransactionSynchronizationManager.getSynchronizations()) {
+            if ( synchronization instanceof PendingChanges &&
+                 ((PendingChanges)synchronization).store() == this ) {
+                return (PendingChanges)synchronization;
+            }
+        }
+        PendingChanges pending = new PendingChanges();
+        TransactionSynchronizationManager.registerSynchronization(pending);
+        return pending;
+    }
+    
+    private void write(Collection<Change> changes)
+    {
+        lock_.readLock().lock();
+        try {
+            // Entities are encoded under the lock, so that a concurrent 
+            // snapshot never holds a state that is newer than in the log.
+            List<ByteBuffer> records = new ArrayList<>(changes.size());
+            for (Change change : changes) {
+                if ( !change.changed_ ) {
+                    // Parts reported, but the entity was never updated.
+                    continue;
+                }
+                InMemoryMapRepository<?> repository = change.repository_;
+                Identifiable entity = repository.stored(change.id_);
+                if ( entity == null ) {
+                    records.add(WriteAheadLog.frame(
+                        this.encode(REMOVE, repository, change.id_, null)
+                    ));
+                } else if ( change.coveredByParts(entity) ) {
+                    for (Serializable part : change.parts_) {
+                        records.add(WriteAheadLog.frame(
+                            this.encode(PART, repository, change.id_, part)
+                        ));
+                    }
+                } else {
+                    records.add(WriteAheadLog.frame(
+                        this.encode(PUT, repository, change.id_, entity)
+                    ));
+                }
+            }
+            log_.sync(log_.append(records));
+        } catch (IOException exception) {
+            throw new UncheckedIOException(
+                "Store " + directory_ + ": Writing changes failed.", exception
+            );
+        } finally {
+            lock_.readLock().unlock();
+        }
+    }
+    
+    // Record: type, repository name, identifier and, unless removed, serialized
+    // entity or part of change.
+    private byte[] encode(byte type, 
+                          InMemoryMapRepository<?> repository, 
+                          String id, 
+                          Object object)
+    {
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeByte(type);
+            out.writeUTF(names_.get(repository));
+            out.writeUTF(id);
+            if ( type != REMOVE ) {
+                ObjectOutputStream objects = new ObjectOutputStream(out);
+                objects.writeObject(object);
+                objects.flush();
+            }
+            return bytes.toByteArray();
+        } catch (IOException exception) {
+            throw new UncheckedIOException(
+                id + ": Entity cannot be serialized.", exception
+            );
+        }
+    }
+    
+    @SuppressWarnings("unchecked")
+    private void restore(byte[] record)
+    {
+        try {
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(record));
+            byte type = in.readByte();
+            String name = in.readUTF();
+            String id = in.readUTF();
+            InMemoryMapRepository<Identifiable> repository = 
+                (InMemoryMapRepository<Identifiable>)repositories_.get(name);
+            if ( repository == null ) {
+                throw new IllegalStateException(name + ": No such repository.");
+            }
+            if ( type == REMOVE ) {
+                repository.restoreRemoved(id);
+            } else {
+                ObjectInputStream objects = new ObjectInputStream(in);
+                Object object = objects.readObject();
+                if ( type == PUT ) {
+                    repository.restore((Identifiable)object);
+                } else {
+                    repository.restorePart(id, (Serializable)object);
+                }
+            }
+        } catch (IOException | ClassNotFoundException exception) {
+            throw new IllegalStateException(
+                "Store " + directory_ + ": Entity cannot be restored.", exception
+            );
+        }
+    }
+    
+    /**
+     * Entity that was changed, with the reported parts of its change.
+     */
+    private static final class Change {
+        
+        private final InMemoryMapRepository<?> repository_;
+        private final String id_;
+        private final List<Serializable> parts_;
+        private boolean changed_;
+        private Identifiable before_;
+        
+        private Change(InMemoryMapRepository<?> repository, String id)
+        {
+            repository_ = repository;
+            id_ = id;
+            parts_ = new ArrayList<>();
+            changed_ = false;
+            before_ = null;
+        }
+        
+        // Keeps the entity as stored before the first change.
+        private void changed(Identifiable before)
+        {
+            if ( !changed_ ) {
+                changed_ = true;
+                before_ = before;
+            }
+        }
+        
+        private boolean coveredByParts(Identifiable after)
+        {
+            return before_ != null && before_ != after && !parts_.isEmpty() &&
+                   repository_.covered(before_, after, parts_);
+        }
+        
+        @Override
+        public boolean equals(Object other)
+        {
+            if ( !(other instanceof Change) ) {
+                return false;
+            }
+            Change change = (Change)other;
+            return repository_ == change.repository_ && id_.equals(change.id_);
+        }
+        
+        @Override
+        public int hashCode()
+        {
+            return 31 * System.identityHashCode(repository_) + id_.hashCode();
+        }
+    }
+    
+    /**
+     * Changes made in a transaction.
+     */
+    private final class PendingChanges extends TransactionSynchronizationAdapter {
+        
+        private final Map<Change, Change> changes_ = new LinkedHashMap<>();
+        
+        private DurableStore store()
+        {
+            return DurableStore.this;
+        }
+        
+        private Change change(InMemoryMapRepository<?> repository, String id)
+        {
+            return changes_.computeIfAbsent(
+                new Change(repository, id), Function.identity()
+            );
+        }
+        
+        @Override
+        public void beforeCommit(boolean readOnly)
+        {
+            if ( !changes_.isEmpty() ) {
+                DurableStore.this.write(changes_.values());
+            }
+        }
+    }
+    
+}
@@ -0,0 +1,257 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2018 André H. Juffer, Biocenter Oulu
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.bco.cm.infrastructure.persistence.memory;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CacheMeterBinder;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Bounded cache of values that expire a fixed time after being loaded. Reads 
+ * take no lock. If full, the least recently used value is evicted; the cache 
+ * finds it by a scan when a value is added, so only misses pay for it. While 
+ * a value is loaded, its key holds a marker. Invalidating the key removes the 
+ * marker and a value loaded meanwhile is then not cached, so an invalidation 
+ * is never undone by a load that read the old state. Other keys are not 
+ * affected. Values are loaded without holding any lock.
+ * @param <K> Key type.
+ * @param <V> Value type.
+ * @author Andr&#233; H. Juffer, Biocenter Oulu
+ */
+final class ExpiringLruCache<K,V> {
+    
+    private final int maxSize_;
+    private final long ttl_;
+    private final ConcurrentMap<K, Entry<V>> entries_;
+    private final LongAdder hits_;
+    private final LongAdder misses_;
+    private final LongAdder puts_;
+    private final LongAdder evictions_;
+    
+    /**
+     * Creates cache.
+     * @param maxSize Maximum number of values.
+     * @param ttl Expiry time of values in milliseconds.
+     * @throws IllegalArgumentException if maxSize is not positive.
+     */
+    ExpiringLruCache(int maxSize, long ttl)
+    {
+        if ( maxSize < 1 ) {
+            throw new IllegalArgumentException("Cache size must be positive.");
+        }
+        maxSize_ = maxSize;
+        ttl_ = ttl;
+        hits_ = new LongAdder();
+        misses_ = new LongAdder();
+        puts_ = new LongAdder();
+        evictions_ = new LongAdder();
+        entries_ = new ConcurrentHashMap<>();
+    }
+    
+    /**
+     * Returns cached value, or loads and caches it.
+     * @param key Key.
+     * @param loader Loads value for key. Exceptions are passed on, nothing is
+     * cached then.
+     * @return Value.
+     */
+    V get(K key, Function<K,V> loader)
+    {
+        Entry<V> entry = entries_.get(key);
+        if ( entry == null ) {
+            entry = new Entry<>();
+            Entry<V> current = entries_.putIfAbsent(key, entry);
+            if ( current != null ) {
+                entry = current;
+            }
+        }
+        if ( entry.loaded_ ) {
+            if ( entry.expires_ >= System.currentTimeMillis() ) {
+                entry.accessed_ = System.nanoTime();
+                hits_.increment();
+                return entry.value_;
+            }
+            // Expired. Load under a fresh marker, unless invalidated meanwhile.
+            Entry<V> marker = new Entry<>();
+            if ( entries_.replace(key, entry, marker) ) {
+                evictions_.increment();
+            }
+            entry = marker;
+        }
+        misses_.increment();
+        V value;
+        try {
+            value = loader.apply(key);
+        } catch (RuntimeException exception) {
+            entries_.remove(key, entry);
+            throw exception;
+        }
+        long expires = System.currentTimeMillis() + ttl_;
+        if ( entries_.replace(key, entry, new Entry<>(value, expires)) ) {
+            puts_.increment();
+            this.evictIfFull();
+        }
+        return value;
+    }
+    
+    /**
+     * Removes value. A value of this key being loaded is not cached.
+     * @param key Key.
+     */
+    void invalidate(K key)
+    {
+        entries_.remove(key);
+    }
+    
+    /**
+     * Removes all values. Values being loaded are not cached.
+     */
+    void invalidateAll()
+    {
+        entries_.clear();
+    }
+    
+    /**
+     * Returns number of cached values, including expired ones not yet removed
+     * and ones being loaded.
+     * @return Size.
+     */
+    int size()
+    {
+        return entries_.size();
+    }
+    
+    /**
+     * Returns meters for hits, misses, puts, evictions and size.
+     * @param name Cache name, used as tag.
+     * @return Meter binder.
+     */
+    MeterBinder metrics(String name)
+    {
+        return new Metrics(this, name);
+    }
+    
+    private void evictIfFull()
+    {
+        while ( entries_.size() > maxSize_ ) {
+            Map.Entry<K, Entry<V>> eldest = null;
+            for (Map.Entry<K, Entry<V>> candidate : entries_.entrySet()) {
+                Entry<V> entry = candidate.getValue();
+                if ( entry.loaded_ && 
+                     (eldest == null || entry.accessed_ < eldest.getValue().accessed_) ) {
+                    eldest = candidate;
+                }
+            }
+            if ( eldest == null ) {
+                return;
+            }
+            if ( entries_.remove(eldest.getKey(), eldest.getValue()) ) {
+                evictions_.increment();
+            }
+        }
+    }
+    
+    private static final class Entry<V> {
+        
+        private final V value_;
+        private final long expires_;
+        private final boolean loaded_;
+        private volatile long accessed_;
+        
+        /**
+         * Marks a value being loaded.
+         */
+        private Entry()
+        {
+            value_ = null;
+            expires_ = 0;
+            loaded_ = false;
+        }
+        
+        private Entry(V value, long expires)
+        {
+            value_ = value;
+            expires_ = expires;
+            loaded_ = true;
+            accessed_ = System.nanoTime();
+        }
+        
+    }
+    
+    private static final class Metrics extends CacheMeterBinder {
+        
+        private final ExpiringLruCache<?,?> cache_;
+        
+        private Metrics(ExpiringLruCache<?,?> cache, String name)
+        {
+            super(cache, name, Collections.<Tag>emptyList());
+            cache_ = cache;
+        }
+
+        @Override
+        protected Long size() 
+        {
+            return (long)cache_.size();
+        }
+
+        @Override
+        protected long hitCount() 
+        {
+            return cache_.hits_.sum();
+        }
+
+        @Override
+        protected Long missCount() 
+        {
+            return cache_.misses_.sum();
+        }
+
+        @Override
+        protected Long evictionCount() 
+        {
+            return cache_.evictions_.sum();
+        }
+
+        @Override
+        protected long putCount() 
+        {
+            return cache_.puts_.sum();
+        }
+
+        @Override
+        protected void bindImplementationSpecificMetrics(MeterRegistry registry) 
+        {
+        }
+        
+    }
+    
+}
@@ -0,0 +1,90 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2018 André H. Juffer, Biocenter Oulu
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.bco.cm.infrastructure.persistence.memory;
+
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import org.bco.cm.domain.course.CourseCatalog;
+import org.bco.cm.domain.course.CourseDescription;
+import org.bco.cm.domain.course.CourseDescriptionId;
+import org.bco.cm.domain.teacher.TeacherId;
+
+/**
+ * Course descriptions held in memory, indexed by teacher.
+ * @author Andr&#233; H. Juffer, Biocenter Oulu
+ */
+public class InMemoryCourseCatalog 
+    extends InMemoryMapRepository<CourseDescription>
+    implements CourseCatalog
+{
+    private static final String BY_TEACHER = "teacher";
+    
+    public InMemoryCourseCatalog()
+    {
+        super();
+        this.addIndex(BY_TEACHER, course -> course.getTeacherId().stringValue());
+    }
+
+    @Override
+    public CourseDescription forOne(CourseDescriptionId courseDescriptionId) 
+    {
+        return this.forIdentifierAsString(courseDescriptionId.stringValue());
+    }
+
+    @Override
+    public boolean contains(CourseDescriptionId courseDescriptionId) 
+    {
+        return this.forOne(courseDescriptionId) != null;
+    }
+    
+    @Override
+    public void forEach(Consumer<CourseDescription> consumer)
+    {
+        this.forAllAfter("").forEach(consumer);
+    }
+    
+    /**
+     * Returns course descriptions after given course description identifier.
+     * @param after Course description identifier. Empty for the first one.
+     * @return Course descriptions, in course description identifier order.
+     */
+    Stream<CourseDescription> forAll(String after)
+    {
+        return this.forAllAfter(after);
+    }
+    
+    /**
+     * Returns teacher's course descriptions after given course description 
+     * identifier.
+     * @param teacherId Teacher identifier.
+     * @param after Course description identifier. Empty for the first one.
+     * @return Course descriptions, in course description identifier order.
+     */
+    Stream<CourseDescription> forTeacher(TeacherId teacherId, String after)
+    {
+        return this.forIndexAfter(BY_TEACHER, teacherId.stringValue(), after);
+    }
+
+}
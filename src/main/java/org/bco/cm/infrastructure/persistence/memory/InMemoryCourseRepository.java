@@ -0,0 +1,201 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2018 André H. Juffer, Biocenter Oulu
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.bco.cm.infrastructure.persistence.memory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Stream;
+import org.bco.cm.domain.course.Course;
+import org.bco.cm.domain.course.CourseDescriptionId;
+import org.bco.cm.domain.course.CourseId;
+import org.bco.cm.domain.course.CourseRegistry;
+import org.bco.cm.domain.course.StudentMonitor;
+import org.bco.cm.domain.student.Student;
+import org.bco.cm.domain.teacher.TeacherId;
+
+/**
+ * Courses held in memory, indexed by teacher and by course description. 
+ * Changes of the roster are reported as parts of changes (the added monitor 
+ * or the removed student), so that a durable store records an enrolment 
+ * without the rest of the roster.
+ * @author Andr&#233; H. Juffer, Biocenter Oulu
+ */
+public class InMemoryCourseRepository 
+    extends InMemoryMapRepository<Course>
+    implements CourseRegistry
+{
+    private static final String BY_TEACHER = "teacher";
+    private static final String BY_COURSE_DESCRIPTION = "courseDescription";
+    
+    public InMemoryCourseRepository()
+    {
+        super();
+        this.addIndex(BY_TEACHER, course -> course.getTeacherId().stringValue());
+        this.addIndex(
+            BY_COURSE_DESCRIPTION, course -> course.getCourseDescriptionId().stringValue()
+        );
+    }
+
+    @Override
+    public Course forOne(CourseId courseId) 
+    {
+        return this.forIdentifierAsString(courseId.stringValue());
+    }
+
+    @Override
+    public boolean contains(CourseId courseId) 
+    {
+        return this.forOne(courseId) != null;
+    }
+    
+    @Override
+    public List<Course> getCourses(CourseDescriptionId courseId)
+    {
+        return this.forIndex(BY_COURSE_DESCRIPTION, courseId.stringValue());
+    }
+    
+    /**
+     * Reports that a monitor was added to the roster.
+     * @param course Course.
+     * @param monitor Monitor.
+     */
+    void addedToRoster(Course course, StudentMonitor monitor)
+    {
+        this.changedPart(course, monitor);
+    }
+    
+    /**
+     * Reports that a student was removed from the roster.
+     * @param course Course.
+     * @param student Student.
+     */
+    void removedFromRoster(Course course, Student student)
+    {
+        this.changedPart(course, student);
+    }
+    
+    @Override
+    protected boolean coveredByParts(Course before, Course after, 
+                                     List<Serializable> parts)
+    {
+        // The roster changes through the course roster only, so the parts 
+        // cover all changes if the rest of the course (including the last seat
+        // number) is the same after the added monitors are applied. Monitors 
+        // already on the roster only change when the course starts, which 
+        // changes the course itself. A difference in serialized form that is 
+        // not a difference in state only causes the whole course to be 
+        // recorded.
+        Course replayed = before.withoutRoster();
+        for (Serializable part : parts) {
+            if ( part instanceof StudentMonitor ) {
+                replayed.addToRoster((StudentMonitor)part);
+            }
+        }
+        return Arrays.equals(
+            serialize(before, replayed.withoutRoster()), 
+            serialize(after, after.withoutRoster())
+        );
+    }
+    
+    @Override
+    protected void applyPart(Course course, Serializable part)
+    {
+        if ( part instanceof StudentMonitor ) {
+            course.addToRoster((StudentMonitor)part);
+        } else {
+            course.removeFromRoster((Student)part);
+        }
+    }
+    
+    /**
+     * Returns courses after given course identifier.
+     * @param after Course identifier. Empty for the first course.
+     * @return Courses, in course identifier order.
+     */
+    Stream<Course> forAll(String after)
+    {
+        return this.forAllAfter(after);
+    }
+    
+    /**
+     * Returns teacher's courses after given course identifier.
+     * @param teacherId Teacher identifier.
+     * @param after Course identifier. Empty for the first course.
+     * @return Courses, in course identifier order.
+     */
+    Stream<Course> forTeacher(TeacherId teacherId, String after)
+    {
+        return this.forIndexAfter(BY_TEACHER, teacherId.stringValue(), after);
+    }
+    
+    /**
+     * Returns courses activated from course description after given course 
+     * identifier.
+     * @param courseDescriptionId Course description identifier.
+     * @param after Course identifier. Empty for the first course.
+     * @return Courses, in course identifier order.
+     */
+    Stream<Course> forCourseDescription(CourseDescriptionId courseDescriptionId, 
+                                        String after)
+    {
+        return this.forIndexAfter(
+            BY_COURSE_DESCRIPTION, courseDescriptionId.stringValue(), after
+        );
+    }
+    
+    // Serializes course as its replacement. Modules refer to the course, so 
+    // these refer to the replacement as well.
+    private static byte[] serialize(Course course, Course replacement)
+    {
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            try (ObjectOutputStream out = new ObjectOutputStream(bytes) {
+                    {
+                        this.enableReplaceObject(true);
+                    }
+                    
+                    @Override
+                    protected Object replaceObject(Object object)
+                    {
+                        return object == course ? replacement : object;
+                    }
+                }) {
+                out.writeObject(course);
+            }
+            return bytes.toByteArray();
+        } catch (IOException exception) {
+            throw new UncheckedIOException(
+                course.getIdentifierAsString() + ": Course cannot be serialized.", 
+                exception
+            );
+        }
+    }
+
+}
@@ -0,0 +1,92 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2018 André H. Juffer, Biocenter Oulu
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.bco.cm.infrastructure.persistence.memory;
+
+import java.util.Collection;
+import java.util.Set;
+import java.util.stream.Collectors;
+import org.bco.cm.domain.course.Course;
+import org.bco.cm.domain.course.CourseRoster;
+import org.bco.cm.domain.course.StudentMonitor;
+import org.bco.cm.domain.student.Student;
+import org.bco.cm.domain.student.StudentId;
+
+/**
+ * Keeps the rosters of courses held in memory. Within a command, the course is
+ * the transaction's own copy, so that two concurrent enrolments of the same 
+ * student are detected when the course is updated.
+ * @author Andr&#233; H. Juffer, Biocenter Oulu
+ */
+public class InMemoryCourseRoster implements CourseRoster {
+    
+    private final InMemoryCourseRepository courses_;
+    
+    /**
+     * @param courses Courses. Roster changes are reported to it.
+     */
+    public InMemoryCourseRoster(InMemoryCourseRepository courses)
+    {
+        courses_ = courses;
+    }
+
+    @Override
+    public boolean isEnrolled(Course course, Student student) 
+    {
+        return course.isEnrolled(student);
+    }
+
+    @Override
+    public Set<StudentId> enrolled(Course course, Collection<Student> students) 
+    {
+        return students.stream()
+                       .filter(course::isEnrolled)
+                       .map(Student::getStudentId)
+                       .collect(Collectors.toSet());
+    }
+
+    @Override
+    public void add(Course course, StudentMonitor monitor) 
+    {
+        course.addToRoster(monitor);
+        courses_.addedToRoster(course, monitor);
+    }
+
+    @Override
+    public void addAll(Course course, Collection<StudentMonitor> monitors) 
+    {
+        monitors.forEach(monitor -> this.add(course, monitor));
+    }
+
+    @Override
+    public boolean remove(Course course, Student student) 
+    {
+        if ( !course.removeFromRoster(student) ) {
+            return false;
+        }
+        courses_.removedFromRoster(course, student);
+        return true;
+    }
+    
+}
@@ -24,29 +24,39 @@
 
 package org.bco.cm.infrastructure.persistence.memory;
 
-import java.util.Collection;
-import java.util.UUID;
+import java.util.List;
 import org.bco.cm.domain.course.Course;
+import org.bco.cm.domain.course.CourseId;
 import org.bco.cm.domain.enrolment.Enrolment;
 import org.bco.cm.domain.enrolment.EnrolmentNumber;
 import org.bco.cm.domain.student.Student;
 import org.bco.cm.domain.enrolment.EnrolmentRegistry;
+import org.bco.cm.domain.student.StudentId;
 
 /**
- *
+ * Enrolments held in memory, indexed by course and by student.
  * @author Andr&#233; H. Juffer, Biocenter Oulu
  */
 public class InMemoryEnrolmentRepository 
     extends InMemoryMapRepository<Enrolment> 
     implements EnrolmentRegistry {
+    
+    private static final String BY_COURSE = "course";
+    private static final String BY_STUDENT = "student";
+    
+    public InMemoryEnrolmentRepository()
+    {
+        super();
+        this.addIndex(BY_COURSE, enrolment -> enrolment.getCourseId().stringValue());
+        this.addIndex(BY_STUDENT, enrolment -> enrolment.getStudentId().stringValue());
+    }
 
     @Override
     public Enrolment forCourse(Course course, Student student) 
     {
-        Collection<Enrolment> enrolments = this.forAll();
-        for (Enrolment enrolment : enrolments) {
-            if ( enrolment.getCourseId().equals(course.getIdentifier()) &&
-                 enrolment.getStudentId().equals(student.getIdentifier()) ) {
+        String studentId = student.getIdentifierAsString();
+        for (Enrolment enrolment : this.forIndex(BY_STUDENT, studentId)) {
+            if ( enrolment.getCourseId().equals(course.getIdentifier()) ) {
                 return enrolment;
             }
         }
@@ -64,5 +74,35 @@ public class InMemoryEnrolmentRepository
     {
         return this.forIdentifierAsString(identifier.stringValue());
     }
+    
+    /**
+     * Returns all enrolments in course.
+     * @param courseId Course identifier.
+     * @return Enrolments, in enrolment number order. May be empty.
+     */
+    List<Enrolment> forCourse(CourseId courseId)
+    {
+        return this.forIndex(BY_COURSE, courseId.stringValue());
+    }
+    
+    /**
+     * Returns number of enrolments in course.
+     * @param courseId Course identifier.
+     * @return Number.
+     */
+    int countCourse(CourseId courseId)
+    {
+        return this.countIndex(BY_COURSE, courseId.stringValue());
+    }
+    
+    /**
+     * Returns all enrolments of student.
+     * @param studentId Student identifier.
+     * @return Enrolments, in enrolment number order. May be empty.
+     */
+    List<Enrolment> forStudent(StudentId studentId)
+    {
+        return this.forIndex(BY_STUDENT, studentId.stringValue());
+    }
 
 }
@@ -24,25 +24,95 @@
 
 package org.bco.cm.infrastructure.persistence.memory;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.io.UncheckedIOException;
 import java.util.ArrayList;
-import java.util.List;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import org.bco.cm.util.Identifiable;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 /**
- * Stores entities in a map using the entities' identifiers as keys. This repository
- * may be used as a stub.
+ * Stores entities in a concurrent map using the entities' identifiers as keys,
+ * in identifier order. Subclasses may declare secondary indexes, mapping an 
+ * index key (e.g. a teacher identifier) to the identifiers of all entities 
+ * with that key. Index keys must not change while an entity is held. 
+ * <p>
+ * Within a transaction that is not read-only, entities are handed out as 
+ * copies (Java serialization), one per entity and transaction, and stored as 
+ * copies. Adding, updating or removing an entity locks its identifier until 
+ * the transaction completes. An update or removal fails with an optimistic 
+ * locking failure if another transaction stored the entity after it was 
+ * handed out, so that the command is retried. Changes are visible to others 
+ * as soon as they are made, and are undone if the transaction rolls back. 
+ * Stored entities are never modified, so readers may use them without copying
+ * but must not modify them. Outside such a transaction, entities are held by 
+ * reference, not copied. Reads are weakly consistent: an entity added or 
+ * removed concurrently may or may not be seen, and may briefly be seen through
+ * the map but not yet through an index.
  * @author Andr&#233; H. Juffer, Biocenter Oulu
  * @param <T> Domain entity type.
  */
 public class InMemoryMapRepository<T extends Identifiable> {
     
-    private final Map<String, T> map_;
+    private static final int LOCKS = 64;
+    private static final long LOCK_TIMEOUT = 1000;
+    
+    private final ConcurrentNavigableMap<String, T> map_;
+    private final Map<String, Index<T>> indexes_;
+    private final ReentrantLock[] locks_;
+    private volatile ChangeLog changeLog_;
     
     protected InMemoryMapRepository()
     {
-        map_ = new HashMap<>();
+        map_ = new ConcurrentSkipListMap<>();
+        indexes_ = new ConcurrentHashMap<>();
+        locks_ = new ReentrantLock[LOCKS];
+        for (int n = 0; n < LOCKS; n++) {
+            locks_[n] = new ReentrantLock();
+        }
+        changeLog_ = null;
+    }
+    
+    /**
+     * Declares secondary index. Must be called before entities are added.
+     * @param name Index name.
+     * @param key Returns index key of an entity. Entities without key (null) 
+     * are not indexed.
+     */
+    protected final void addIndex(String name, Function<T, String> key)
+    {
+        if ( !map_.isEmpty() ) {
+            throw new IllegalStateException(
+                name + ": Index must be declared before entities are added."
+            );
+        }
+        indexes_.put(name, new Index<>(key));
     }
     
     /**
@@ -52,63 +122,512 @@ public class InMemoryMapRepository<T extends Identifiable> {
     public void add(T t)
     {
         String key = this.key(t);
-        if ( map_.containsKey(key) ) {
+        Work<T> work = this.work();
+        T stored = t;
+        if ( work != null ) {
+            work.lock(key);
+            stored = copy(t);
+        }
+        if ( map_.putIfAbsent(key, stored) != null ) {
             throw new IllegalArgumentException(
                 key + ": Entity with identifier is already repository."
             );
         }
-        map_.put(key, t);
+        indexes_.values().forEach(index -> index.add(key, t));
+        if ( work != null ) {
+            work.loaded(key, t, stored);
+            InMemoryTransactionManager.onRollback(() -> this.restoreRemoved(key));
+        }
+        this.changed(key, null);
+    }
+    
+    /**
+     * Adds many entities.
+     * @param many Entities.
+     */
+    public void addAll(Collection<T> many)
+    {
+        many.forEach(this::add);
     }
     
     /**
      * Updates entity.
      * @param t Entity.
+     * @throws OptimisticLockingFailureException if the entity was stored by 
+     * another transaction after it was handed out.
      */
     public void update(T t) 
     {
-        // Entity should already be in map_, so any update made to the entity 
-        // should already be accounted for.
         String key = this.key(t);
-        if ( !map_.containsKey(key) ) {
+        Work<T> work = this.work();
+        if ( work != null ) {
+            work.lock(key);
+        }
+        T current = map_.get(key);
+        if ( current == null ) {
             throw new IllegalStateException(
                 "Trying to update an entity that is not in the repository."
             );
         }
+        if ( work != null ) {
+            this.checkUnchanged(work, key, t, current);
+            T stored = copy(t);
+            map_.put(key, stored);
+            work.loaded(key, t, stored);
+            InMemoryTransactionManager.onRollback(() -> this.restore(current));
+        }
+        // Outside a transaction, the entity is held by reference, so any 
+        // update made to the entity is already accounted for.
+        this.changed(key, current);
     }
     
     /**
      * Removes entity.
      * @param t Entity.
+     * @throws OptimisticLockingFailureException if the entity was stored by 
+     * another transaction after it was handed out.
      */
     public void remove(T t) 
     {
         String key = this.key(t);
-        map_.remove(key);
+        Work<T> work = this.work();
+        if ( work != null ) {
+            work.lock(key);
+            T current = map_.get(key);
+            if ( current == null ) {
+                return;
+            }
+            this.checkUnchanged(work, key, t, current);
+            work.removed(key);
+            InMemoryTransactionManager.onRollback(() -> this.restore(current));
+        }
+        T removed = map_.remove(key);
+        if ( removed != null ) {
+            indexes_.values().forEach(index -> index.remove(key, removed));
+            this.changed(key, removed);
+        }
     }
     
+    /**
+     * Removes all entities.
+     */
     public void deleteAll()
     {
-        
+        map_.values().forEach(this::remove);
     }
     
     /**
-     * Returns object using an identifier as key.
+     * Returns number of entities.
+     * @return Number.
+     */
+    public int size()
+    {
+        return map_.size();
+    }
+    
+    /**
+     * Returns object using an identifier as key. Within a transaction that is
+     * not read-only, returns this transaction's copy.
      * @param id Identifier.
      * @return Object, or null if nonexistent.
      */
     protected T forIdentifierAsString(String id)
     {
-        return map_.get(id);
+        Work<T> work = this.work();
+        return work != null ? work.load(id, map_::get) : map_.get(id);
     }
     
+    /**
+     * Returns all entities as stored. These must not be modified.
+     * @return Entities, in identifier order. May be empty.
+     */
     public List<T> forAll()
     {
         return new ArrayList<>(map_.values());
     }
+    
+    /**
+     * Returns entities with identifiers after given identifier, as stored. 
+     * These must not be modified.
+     * @param after Identifier. Empty string for the first entity.
+     * @return Entities, in identifier order. Not a copy.
+     */
+    protected Stream<T> forAllAfter(String after)
+    {
+        return map_.tailMap(after, false).values().stream();
+    }
+    
+    /**
+     * Returns all entities with given index key. Within a transaction that is
+     * not read-only, returns this transaction's copies.
+     * @param name Index name.
+     * @param key Index key.
+     * @return Entities, in identifier order. May be empty.
+     */
+    protected List<T> forIndex(String name, String key)
+    {
+        Work<T> work = this.work();
+        if ( work == null ) {
+            return this.forIndexAfter(name, key, "").collect(Collectors.toList());
+        }
+        return this.index(name).ids(key).stream()
+                   .map(id -> work.load(id, map_::get))
+                   .filter(Objects::nonNull)
+                   .collect(Collectors.toList());
+    }
+    
+    /**
+     * Returns entities with given index key and with identifiers after given 
+     * identifier, as stored. These must not be modified.
+     * @param name Index name.
+     * @param key Index key.
+     * @param after Identifier. Empty string for the first entity.
+     * @return Entities, in identifier order.
+     */
+    protected Stream<T> forIndexAfter(String name, String key, String after)
+    {
+        return this.index(name).ids(key).tailSet(after, false).stream()
+                   .map(map_::get)
+                   .filter(Objects::nonNull);
+    }
+    
+    /**
+     * Returns number of entities with given index key.
+     * @param name Index name.
+     * @param key Index key.
+     * @return Number.
+     */
+    protected int countIndex(String name, String key)
+    {
+        return this.index(name).ids(key).size();
+    }
+
+    /**
+     * Reports part of a change to an entity to the change log, e.g. a member
+     * added to a collection held by the entity. Must be reported before the 
+     * entity is updated. If the parts reported in a transaction account for 
+     * all changes to the entity, only the parts are recorded.
+     * @param t Entity.
+     * @param part Part of change.
+     * @see #coveredByParts(Identifiable, Identifiable, List) 
+     */
+    protected final void changedPart(T t, Serializable part)
+    {
+        ChangeLog changeLog = changeLog_;
+        if ( changeLog != null ) {
+            changeLog.changedPart(this, this.key(t), part);
+        }
+    }
+    
+    /**
+     * Returns whether parts of changes, applied in order to an entity as 
+     * stored before a transaction, result in the entity as stored after it.
+     * Never, by default.
+     * @param before Entity as stored before. Must not be modified.
+     * @param after Entity as stored after. Must not be modified.
+     * @param parts Parts of changes reported in the transaction.
+     * @return True if the parts cover all changes.
+     */
+    protected boolean coveredByParts(T before, T after, List<Serializable> parts)
+    {
+        return false;
+    }
+    
+    /**
+     * Applies recovered part of a change.
+     * @param t Entity. May be modified.
+     * @param part Part of change.
+     */
+    protected void applyPart(T t, Serializable part)
+    {
+        throw new IllegalStateException(
+            this.key(t) + ": Entity does not change in parts."
+        );
+    }
+    
+    /**
+     * Records all subsequent changes in change log. 
+     * @param changeLog Change log.
+     */
+    void setChangeLog(ChangeLog changeLog)
+    {
+        changeLog_ = changeLog;
+    }
+    
+    /**
+     * Returns entity as stored, also within a transaction. It must not be 
+     * modified.
+     * @param id Identifier.
+     * @return Entity, or null if nonexistent.
+     */
+    T stored(String id)
+    {
+        return map_.get(id);
+    }
+    
+    /**
+     * Puts recovered entity, replacing the current entity with the same 
+     * identifier (if any). Not recorded in the change log.
+     * @param t Entity.
+     */
+    void restore(T t)
+    {
+        String key = this.key(t);
+        T replaced = map_.put(key, t);
+        if ( replaced != null ) {
+            indexes_.values().forEach(index -> index.remove(key, replaced));
+        }
+        indexes_.values().forEach(index -> index.add(key, t));
+    }
+    
+    /**
+     * Applies recovered part of a change to entity. Not recorded in the 
+     * change log.
+     * @param id Identifier.
+     * @param part Part of change.
+     */
+    void restorePart(String id, Serializable part)
+    {
+        T t = map_.get(id);
+        if ( t == null ) {
+            throw new IllegalStateException(id + ": No such entity.");
+        }
+        this.applyPart(t, part);
+    }
+    
+    /**
+     * Returns whether parts of changes turn one stored entity into another.
+     * @param before Entity as stored before.
+     * @param after Entity as stored after.
+     * @param parts Parts of changes.
+     * @return True if the parts cover all changes.
+     */
+    @SuppressWarnings("unchecked")
+    boolean covered(Identifiable before, Identifiable after, List<Serializable> parts)
+    {
+        return this.coveredByParts((T)before, (T)after, parts);
+    }
+    
+    /**
+     * Removes recovered entity. Not recorded in the change log.
+     * @param id Identifier.
+     */
+    void restoreRemoved(String id)
+    {
+        T removed = map_.remove(id);
+        if ( removed != null ) {
+            indexes_.values().forEach(index -> index.remove(id, removed));
+        }
+    }
 
     private String key(T t)
     {
         return t.getIdentifierAsString();
     }
     
+    private void changed(String key, T before)
+    {
+        ChangeLog changeLog = changeLog_;
+        if ( changeLog != null ) {
+            changeLog.changed(this, key, before);
+        }
+    }
+    
+    private Index<T> index(String name)
+    {
+        Index<T> index = indexes_.get(name);
+        if ( index == null ) {
+            throw new IllegalArgumentException(name + ": No such index.");
+        }
+        return index;
+    }
+    
+    // Entity must still be stored as it was when handed out.
+    private void checkUnchanged(Work<T> work, String key, T t, T current)
+    {
+        if ( work.storedAsLoaded(key, t) != current ) {
+            throw new OptimisticLockingFailureException(
+                key + ": Entity was modified concurrently."
+            );
+        }
+    }
+    
+    // Entities loaded and locks taken in the current transaction, or null if 
+    // no transaction or a read-only one is active.
+    @SuppressWarnings("unchecked")
+    private Work<T> work()
+    {
+        if ( !TransactionSynchronizationManager.isSynchronizationActive() ||
+             TransactionSynchronizationManager.isCurrentTransactionReadOnly() ) {
+            return null;
+        }
+        for (TransactionSynchronization synchronization : 
+                TransactionSynchronizationManager.getSynchronizations()) {
+            if ( synchronization instanceof Work &&
+                 ((Work)synchronization).repository() == this ) {
+                return (Work<T>)synchronization;
+            }
+        }
+        Work<T> work = new Work<>(this);
+        TransactionSynchronizationManager.registerSynchronization(work);
+        return work;
+    }
+    
+    @SuppressWarnings("unchecked")
+    private static <T> T copy(T t)
+    {
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+                out.writeObject(t);
+            }
+            try (ObjectInputStream in = new ObjectInputStream(
+                    new ByteArrayInputStream(bytes.toByteArray()))) {
+                return (T)in.readObject();
+            }
+        } catch (IOException exception) {
+            throw new UncheckedIOException(
+                "Entity cannot be copied.", exception
+            );
+        } catch (ClassNotFoundException exception) {
+            throw new IllegalStateException(
+                "Entity cannot be copied.", exception
+            );
+        }
+    }
+    
+    /**
+     * Entities handed out and locks taken in a transaction. Locks are released 
+     * when the transaction completes, after changes were undone on rollback.
+     * @param <T> Domain entity type.
+     */
+    private static final class Work<T extends Identifiable> 
+        extends TransactionSynchronizationAdapter 
+    {
+        private final InMemoryMapRepository<T> repository_;
+        private final Map<String, T> copies_;
+        private final Map<String, T> stored_;
+        private final Set<ReentrantLock> locks_;
+        
+        private Work(InMemoryMapRepository<T> repository)
+        {
+            repository_ = repository;
+            copies_ = new HashMap<>();
+            stored_ = new HashMap<>();
+            locks_ = new HashSet<>();
+        }
+        
+        private InMemoryMapRepository<T> repository()
+        {
+            return repository_;
+        }
+        
+        private T load(String id, Function<String, T> stored)
+        {
+            T copy = copies_.get(id);
+            if ( copy == null ) {
+                T t = stored.apply(id);
+                if ( t != null ) {
+                    copy = copy(t);
+                    this.loaded(id, copy, t);
+                }
+            }
+            return copy;
+        }
+        
+        private void loaded(String id, T copy, T stored)
+        {
+            copies_.put(id, copy);
+            stored_.put(id, stored);
+        }
+        
+        private void removed(String id)
+        {
+            copies_.remove(id);
+            stored_.remove(id);
+        }
+        
+        // Entity as stored when t was handed out. An entity not handed out by
+        // this transaction is taken to be the stored one itself.
+        private T storedAsLoaded(String id, T t)
+        {
+            return copies_.get(id) == t ? stored_.get(id) : t;
+        }
+        
+        private void lock(String id)
+        {
+            ReentrantLock lock = 
+                repository_.locks_[Math.floorMod(id.hashCode(), LOCKS)];
+            if ( locks_.contains(lock) ) {
+                return;
+            }
+            try {
+                if ( !lock.tryLock(LOCK_TIMEOUT, TimeUnit.MILLISECONDS) ) {
+                    throw new CannotAcquireLockException(
+                        id + ": Entity is locked by another transaction."
+                    );
+                }
+            } catch (InterruptedException exception) {
+                Thread.currentThread().interrupt();
+                throw new CannotAcquireLockException(
+                    id + ": Interrupted while waiting for lock.", exception
+                );
+            }
+            locks_.add(lock);
+        }
+        
+        @Override
+        public void afterCompletion(int status)
+        {
+            locks_.forEach(ReentrantLock::unlock);
+            locks_.clear();
+        }
+    }
+    
+    /**
+     * Secondary index. Maps index key to the sorted identifiers of entities.
+     * @param <T> Domain entity type.
+     */
+    private static final class Index<T> {
+        
+        private final Function<T, String> key_;
+        private final Map<String, NavigableSet<String>> ids_;
+        
+        private Index(Function<T, String> key)
+        {
+            key_ = key;
+            ids_ = new ConcurrentHashMap<>();
+        }
+        
+        private void add(String id, T t)
+        {
+            String key = key_.apply(t);
+            if ( key != null ) {
+                ids_.compute(key, (k, ids) -> {
+                    NavigableSet<String> added = 
+                        ids != null ? ids : new ConcurrentSkipListSet<>();
+                    added.add(id);
+                    return added;
+                });
+            }
+        }
+        
+        private void remove(String id, T t)
+        {
+            String key = key_.apply(t);
+            if ( key != null ) {
+                ids_.computeIfPresent(key, (k, ids) -> {
+                    ids.remove(id);
+                    return ids.isEmpty() ? null : ids;
+                });
+            }
+        }
+        
+        private NavigableSet<String> ids(String key)
+        {
+            NavigableSet<String> ids = ids_.get(key);
+            return ids != null ? ids : Collections.emptyNavigableSet();
+        }
+    }
+    
 }
@@ -0,0 +1,68 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2018 André H. Juffer, Biocenter Oulu
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.bco.cm.infrastructure.persistence.memory;
+
+import org.bco.cm.application.query.CourseCatalogCache;
+import org.bco.cm.application.query.ReadModelProjection;
+import org.bco.cm.domain.course.CourseDescriptionId;
+import org.bco.cm.domain.course.CourseId;
+import org.bco.cm.domain.enrolment.EnrolmentNumber;
+import org.bco.cm.domain.student.StudentId;
+
+/**
+ * Read model for aggregates held in memory. In-memory read-only registries 
+ * create listings from the aggregates on every query and cache nothing, so 
+ * there is neither a read model to refresh nor a cache to invalidate.
+ * @author Andr&#233; H. Juffer, Biocenter Oulu
+ */
+public class InMemoryReadModelProjection 
+    implements ReadModelProjection, CourseCatalogCache {
+
+    @Override
+    public void refreshCatalogListing(CourseDescriptionId courseDescriptionId) 
+    {
+    }
+
+    @Override
+    public void refreshCourseListing(CourseId courseId) 
+    {
+    }
+
+    @Override
+    public void refreshStudentCourse(EnrolmentNumber enrolmentNumber, CourseId courseId) 
+    {
+    }
+
+    @Override
+    public void refreshStudentCourse(StudentId studentId, CourseId courseId) 
+    {
+    }
+
+    @Override
+    public void invalidate(CourseDescriptionId courseDescriptionId) 
+    {
+    }
+    
+}
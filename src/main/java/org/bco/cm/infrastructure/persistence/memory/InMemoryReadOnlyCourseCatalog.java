@@ -0,0 +1,144 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2018 André H. Juffer, Biocenter Oulu
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.bco.cm.infrastructure.persistence.memory;
+
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.bco.cm.application.query.CourseSpecification;
+import org.bco.cm.application.query.ReadOnlyCourseCatalog;
+import org.bco.cm.domain.course.CourseDescription;
+import org.bco.cm.domain.course.CourseDescriptionId;
+import org.bco.cm.domain.teacher.TeacherId;
+import org.bco.cm.dto.CourseDescriptionDTO;
+import org.bco.cm.dto.CourseDescriptionSummaryDTO;
+import org.bco.cm.util.Page;
+import org.bco.cm.util.PageRequest;
+import org.springframework.beans.factory.annotation.Autowired;
+
+/**
+ * Reads course descriptions held in memory. Summaries are created from the 
+ * course descriptions themselves, so there is no catalog listing to keep up 
+ * to date.
+ * @author Andr&#233; H. Juffer, Biocenter Oulu
+ */
+public class InMemoryReadOnlyCourseCatalog implements ReadOnlyCourseCatalog {
+    
+    private InMemoryCourseCatalog courseCatalog_;
+    
+    @Autowired
+    public void setCourseCatalog(InMemoryCourseCatalog courseCatalog)
+    {
+        courseCatalog_ = courseCatalog;
+    }
+
+    @Override
+    public CourseDescriptionDTO getOne(CourseDescriptionId courseId) 
+    {
+        CourseDescription course = courseCatalog_.forOne(courseId);
+        if ( course == null ) {
+            throw new NullPointerException(courseId.stringValue() + ": No such course.");
+        }
+        return course.toDTO();
+    }
+
+    @Override
+    public List<CourseDescriptionDTO> getSpecifiedCourses(CourseSpecification spec) 
+    {
+        return spec.query(this);
+    }
+
+    @Override
+    public List<CourseDescriptionDTO> getAll() 
+    {
+        return toDTOs(courseCatalog_.forAll(""));
+    }
+    
+    @Override
+    public List<CourseDescriptionDTO> getTeachersCourses(TeacherId teacherId)
+    {
+        return toDTOs(courseCatalog_.forTeacher(teacherId, ""));
+    }
+    
+    @Override
+    public Page<CourseDescriptionSummaryDTO> getSpecifiedCourses(CourseSpecification spec,
+                                                                 PageRequest page)
+    {
+        List<CourseDescriptionSummaryDTO> rows = this.select(spec, page.getAfter())
+            .limit(page.getLimit() + 1)
+            .map(InMemoryReadOnlyCourseCatalog::summarize)
+            .collect(Collectors.toList());
+        return Page.valueOf(rows, page, CourseDescriptionSummaryDTO::getCourseDescriptionId);
+    }
+    
+    @Override
+    public void forEachSpecifiedCourse(CourseSpecification spec, 
+                                       Consumer<CourseDescriptionSummaryDTO> consumer)
+    {
+        this.select(spec, "")
+            .map(InMemoryReadOnlyCourseCatalog::summarize)
+            .forEach(consumer);
+    }
+    
+    /**
+     * Selects course descriptions for specification.
+     * @param spec Specification, either "all" or a teacher's courses.
+     * @param after Course description identifier. Empty for the first one.
+     * @return Course descriptions, in course description identifier order. 
+     * Empty if specification selects nothing.
+     */
+    private Stream<CourseDescription> select(CourseSpecification spec, String after)
+    {
+        if ( spec.getTeacherId() != null ) {
+            return courseCatalog_.forTeacher(spec.getTeacherId(), after);
+        }
+        if ( spec.selectsAll() ) {
+            return courseCatalog_.forAll(after);
+        }
+        return Stream.empty();
+    }
+    
+    /**
+     * Creates summary from course description, without converting modules.
+     * @param course Course description.
+     * @return Summary.
+     */
+    private static CourseDescriptionSummaryDTO summarize(CourseDescription course)
+    {
+        CourseDescriptionSummaryDTO summary = new CourseDescriptionSummaryDTO();
+        summary.setCourseDescriptionId(course.getIdentifierAsString());
+        summary.setTitle(course.getTitle());
+        summary.setSummary(course.getSummary());
+        summary.setTeacherId(course.getTeacherId().stringValue());
+        return summary;
+    }
+    
+    private static List<CourseDescriptionDTO> toDTOs(Stream<CourseDescription> courses)
+    {
+        return courses.map(CourseDescription::toDTO).collect(Collectors.toList());
+    }
+
+}
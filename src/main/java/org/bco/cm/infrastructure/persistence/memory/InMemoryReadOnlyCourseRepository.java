@@ -0,0 +1,231 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2018 André H. Juffer, Biocenter Oulu
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.bco.cm.infrastructure.persistence.memory;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.bco.cm.application.query.CourseSpecification;
+import org.bco.cm.application.query.ReadOnlyCourseRegistry;
+import org.bco.cm.domain.course.Course;
+import org.bco.cm.domain.course.CourseDescriptionId;
+import org.bco.cm.domain.course.CourseId;
+import org.bco.cm.domain.teacher.TeacherId;
+import org.bco.cm.dto.CourseDTO;
+import org.bco.cm.dto.CourseSummaryDTO;
+import org.bco.cm.util.Page;
+import org.bco.cm.util.PageRequest;
+import org.springframework.beans.factory.annotation.Autowired;
+
+/**
+ * Reads courses held in memory. Course summaries are created from the courses
+ * themselves, using the indexes of the course and enrolment repositories, so 
+ * there is no course listing to keep up to date.
+ * @author Andr&#233; H. Juffer, Biocenter Oulu
+ */
+public class InMemoryReadOnlyCourseRepository implements ReadOnlyCourseRegistry {
+    
+    private InMemoryCourseRepository courseRepository_;
+    private InMemoryEnrolmentRepository enrolmentRepository_;
+    
+    @Autowired
+    public void setCourseRepository(InMemoryCourseRepository courseRepository)
+    {
+        courseRepository_ = courseRepository;
+    }
+    
+    @Autowired
+    public void setEnrolmentRepository(InMemoryEnrolmentRepository enrolmentRepository)
+    {
+        enrolmentRepository_ = enrolmentRepository;
+    }
+
+    @Override
+    public CourseDTO getOne(CourseId courseId) 
+    {
+        Course course = courseRepository_.forOne(courseId);
+        if ( course == null ) {
+            throw new NullPointerException(courseId.stringValue() + ": No such course.");
+        }
+        return course.toDTO();
+    }
+
+    @Override
+    public List<CourseDTO> getMany(Collection<CourseId> courseIds)
+    {
+        List<CourseDTO> courses = new ArrayList<>();
+        courseIds.forEach(courseId -> courses.add(this.getOne(courseId)));
+        return courses;
+    }
+
+    @Override
+    public List<CourseDTO> getAll() 
+    {
+        return toDTOs(courseRepository_.forAll(""));
+    }
+    
+    @Override
+    public List<CourseDTO> getAll(boolean includePast)
+    {
+        if ( includePast ) {
+            return this.getAll();
+        }
+        Instant now = Instant.now();
+        return toDTOs(courseRepository_.forAll("").filter(notEnded(now)));
+    }
+
+    @Override
+    public List<CourseDTO> getTeachersCourses(TeacherId teacherId) 
+    {
+        return toDTOs(courseRepository_.forTeacher(teacherId, ""));
+    }
+
+    @Override
+    public List<CourseDTO> getActive() 
+    {
+        return toDTOs(courseRepository_.forAll("").filter(Course::isActive));
+    }
+
+    @Override
+    public List<CourseDTO> getOngoing() 
+    {
+        return toDTOs(courseRepository_.forAll("").filter(Course::isOngoing));
+    }
+    
+    @Override
+    public boolean exists(CourseDescriptionId courseDescriptionId)
+    {
+        return courseRepository_.forCourseDescription(courseDescriptionId, "")
+                                .findAny()
+                                .isPresent();
+    }
+    
+    @Override
+    public List<CourseDTO> getActivatedCourses(CourseDescriptionId courseDescriptionId)
+    {
+        return toDTOs(courseRepository_.forCourseDescription(courseDescriptionId, ""));
+    }
+    
+    @Override
+    public Page<CourseSummaryDTO> getSpecified(CourseSpecification spec, 
+                                               PageRequest page)
+    {
+        List<CourseSummaryDTO> rows = this.select(spec, page.getAfter())
+            .limit(page.getLimit() + 1)
+            .map(this::summarize)
+            .collect(Collectors.toList());
+        return Page.valueOf(rows, page, CourseSummaryDTO::getCourseId);
+    }
+    
+    @Override
+    public void forEachSpecified(CourseSpecification spec, 
+                                 Consumer<CourseSummaryDTO> consumer)
+    {
+        this.select(spec, "").map(this::summarize).forEach(consumer);
+    }
+    
+    /**
+     * Selects courses for specification. Precedence is as in 
+     * CourseSpecification.query(...).
+     * @param spec Specification.
+     * @param after Course identifier. Empty for the first course.
+     * @return Courses, in course identifier order. Empty if specification 
+     * selects nothing.
+     */
+    private Stream<Course> select(CourseSpecification spec, String after)
+    {
+        Instant now = Instant.now();
+        if ( spec.getTeacherId() != null ) {
+            return courseRepository_.forTeacher(spec.getTeacherId(), after);
+        }
+        if ( spec.getStudentId() != null ) {
+            return enrolmentRepository_.forStudent(spec.getStudentId()).stream()
+                .map(enrolment -> enrolment.getCourseId().stringValue())
+                .filter(courseId -> courseId.compareTo(after) > 0)
+                .sorted()
+                .distinct()
+                .map(courseId -> courseRepository_.forOne(new CourseId(courseId)))
+                .filter(Objects::nonNull);
+        }
+        if ( spec.getCourseDescriptionId() != null ) {
+            return courseRepository_
+                .forCourseDescription(spec.getCourseDescriptionId(), after)
+                .filter(course -> course.getEndDate().isAfter(now));
+        }
+        if ( spec.selectsAll() ) {
+            Stream<Course> courses = courseRepository_.forAll(after);
+            return spec.includesPast() ? courses : courses.filter(notEnded(now));
+        }
+        if ( spec.selectsActive() && spec.selectsOngoing() ) {
+            return courseRepository_.forAll(after)
+                .filter(course -> course.isActive() || course.isOngoing());
+        }
+        if ( spec.selectsActive() ) {
+            return courseRepository_.forAll(after).filter(Course::isActive);
+        }
+        if ( spec.selectsOngoing() ) {
+            return courseRepository_.forAll(after).filter(Course::isOngoing);
+        }
+        return Stream.empty();
+    }
+    
+    /**
+     * Creates summary from course, without converting the roster or modules.
+     * @param course Course.
+     * @return Summary, including the number of enrolled students.
+     */
+    private CourseSummaryDTO summarize(Course course)
+    {
+        CourseSummaryDTO summary = new CourseSummaryDTO();
+        summary.setCourseId(course.getIdentifierAsString());
+        summary.setCourseDescriptionId(course.getCourseDescriptionId().stringValue());
+        summary.setTitle(course.getTitle());
+        summary.setSummary(course.getSummary());
+        summary.setTeacherId(course.getTeacherId().stringValue());
+        summary.setStartDate(course.getStartDate());
+        summary.setEndDate(course.getEndDate());
+        summary.setNumberOfSeats(course.getNumberOfSeats());
+        summary.setNumberOfEnrolled(enrolmentRepository_.countCourse(course.getCourseId()));
+        summary.setOngoing(course.isOngoing());
+        return summary;
+    }
+    
+    private static Predicate<Course> notEnded(Instant now)
+    {
+        return course -> !course.getEndDate().isBefore(now);
+    }
+    
+    private static List<CourseDTO> toDTOs(Stream<Course> courses)
+    {
+        return courses.map(Course::toDTO).collect(Collectors.toList());
+    }
+
+}
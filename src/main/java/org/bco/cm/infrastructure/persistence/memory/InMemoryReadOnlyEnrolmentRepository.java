@@ -0,0 +1,95 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2018 André H. Juffer, Biocenter Oulu
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.bco.cm.infrastructure.persistence.memory;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import org.bco.cm.application.query.ReadOnlyEnrolmentRegistry;
+import org.bco.cm.domain.course.CourseId;
+import org.bco.cm.domain.enrolment.Enrolment;
+import org.bco.cm.domain.enrolment.EnrolmentNumber;
+import org.bco.cm.domain.student.StudentId;
+import org.bco.cm.dto.EnrolmentDTO;
+import org.springframework.beans.factory.annotation.Autowired;
+
+/**
+ * Reads enrolments held in memory. As with the Hibernate registry, a 
+ * nonexistent enrolment is returned as null.
+ * @author Andr&#233; H. Juffer, Biocenter Oulu
+ */
+public class InMemoryReadOnlyEnrolmentRepository implements ReadOnlyEnrolmentRegistry {
+    
+    private InMemoryEnrolmentRepository enrolmentRepository_;
+    
+    @Autowired
+    public void setEnrolmentRepository(InMemoryEnrolmentRepository enrolmentRepository)
+    {
+        enrolmentRepository_ = enrolmentRepository;
+    }
+
+    @Override
+    public EnrolmentDTO getOne(EnrolmentNumber enrolmentNumber) 
+    {
+        Enrolment enrolment = enrolmentRepository_.forOne(enrolmentNumber);
+        return enrolment != null ? enrolment.toDTO() : null;
+    }
+
+    @Override
+    public List<EnrolmentDTO> getAll() 
+    {
+        return toDTOs(enrolmentRepository_.forAll());
+    }
+
+    @Override
+    public List<EnrolmentDTO> getCourseEnrolments(CourseId courseId) 
+    {
+        return toDTOs(enrolmentRepository_.forCourse(courseId));
+    }
+
+    @Override
+    public EnrolmentDTO getCourseEnrolment(CourseId courseId, StudentId studentId) 
+    {
+        for (Enrolment enrolment : enrolmentRepository_.forStudent(studentId)) {
+            if ( enrolment.getCourseId().equals(courseId) ) {
+                return enrolment.toDTO();
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public List<EnrolmentDTO> getStudentEnrolments(StudentId studentId) 
+    {
+        return toDTOs(enrolmentRepository_.forStudent(studentId));
+    }
+    
+    private static List<EnrolmentDTO> toDTOs(List<Enrolment> enrolments)
+    {
+        return enrolments.stream()
+                         .map(Enrolment::toDTO)
+                         .collect(Collectors.toList());
+    }
+
+}
@@ -24,13 +24,14 @@
 
 package org.bco.cm.infrastructure.persistence.memory;
 
-import java.util.Collection;
 import java.util.List;
+import java.util.function.Consumer;
 import org.bco.cm.application.query.ReadOnlyStudentRegistry;
 import org.bco.cm.domain.student.Student;
 import org.bco.cm.domain.student.StudentId;
-import org.bco.cm.domain.student.StudentRegistry;
 import org.bco.cm.dto.StudentDTO;
+import org.bco.cm.util.Page;
+import org.bco.cm.util.PageRequest;
 import org.springframework.beans.factory.annotation.Autowired;
 
 /**
@@ -39,10 +40,10 @@ import org.springframework.beans.factory.annotation.Autowired;
  */
 public class InMemoryReadOnlyStudentRepository implements ReadOnlyStudentRegistry {
     
-    private StudentRegistry studentRepository_;
+    private InMemoryStudentRepository studentRepository_;
     
     @Autowired
-    public void setStudentRepository(StudentRegistry studentRepository)
+    public void setStudentRepository(InMemoryStudentRepository studentRepository)
     {
         studentRepository_ = studentRepository;
     }
@@ -50,19 +51,33 @@ public class InMemoryReadOnlyStudentRepository implements ReadOnlyStudentRegistr
     @Override
     public List<StudentDTO> getAll() 
     {
-        Collection<Student> students = studentRepository_.forAll();
-        return Student.toDTOs(students);
+        return Student.toDTOs(studentRepository_.forAll());
     }
 
     @Override
     public StudentDTO getOne(StudentId studentId) 
     {
-        for (Student student : studentRepository_.forAll()) {
-            if ( student.getIdentifier().equals(studentId) ) {
-                return student.toDTO();
-            }
+        Student student = studentRepository_.forOne(studentId);
+        if ( student == null ) {
+            throw new NullPointerException(studentId.stringValue() + ": No such student.");
         }
-        throw new NullPointerException(studentId.stringValue() + ": No such student.");
+        return student.toDTO();
+    }
+    
+    @Override
+    public Page<StudentDTO> getAll(PageRequest page)
+    {
+        List<StudentDTO> rows = 
+            Student.toDTOs(studentRepository_.forPage(page.getAfter(), page.getLimit() + 1));
+        return Page.valueOf(rows, page, StudentDTO::getStudentId);
+    }
+    
+    @Override
+    public void forEach(Consumer<StudentDTO> consumer)
+    {
+        studentRepository_.forAllAfter("")
+                          .map(Student::toDTO)
+                          .forEach(consumer);
     }
 
 }
@@ -24,15 +24,16 @@
 
 package org.bco.cm.infrastructure.persistence.memory;
 
-import java.util.ArrayList;
-import java.util.Collection;
 import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import org.bco.cm.application.query.ReadOnlyTeacherRegistry;
 import org.bco.cm.domain.teacher.Teacher;
+import org.bco.cm.domain.teacher.TeacherId;
 import org.bco.cm.dto.TeacherDTO;
+import org.bco.cm.util.Page;
+import org.bco.cm.util.PageRequest;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.bco.cm.domain.teacher.TeacherRegistry;
-import org.bco.cm.application.query.ReadOnlyTeacherRegistry;
-import org.bco.cm.domain.teacher.TeacherId;
 
 /**
  *
@@ -40,10 +41,10 @@ import org.bco.cm.domain.teacher.TeacherId;
  */
 public class InMemoryReadOnlyTeacherRepository implements ReadOnlyTeacherRegistry {
     
-    private TeacherRegistry teacherRepository_;
+    private InMemoryTeacherRepository teacherRepository_;
     
     @Autowired
-    public void setTeacherRepository(TeacherRegistry teacherRepository)
+    public void setTeacherRepository(InMemoryTeacherRepository teacherRepository)
     {
         teacherRepository_ = teacherRepository;
     }
@@ -51,19 +52,37 @@ public class InMemoryReadOnlyTeacherRepository implements ReadOnlyTeacherRegistr
     @Override
     public List<TeacherDTO> getAll() 
     {
-        Collection<Teacher> teachers = teacherRepository_.forAll();
-        List<TeacherDTO> dtos = new ArrayList<>();
-        teachers.forEach(((teacher) -> {
-            TeacherDTO dto = teacher.toDTO();
-            dtos.add(dto);
-        }));
-        return dtos;
+        return teacherRepository_.forAll().stream()
+                                 .map(Teacher::toDTO)
+                                 .collect(Collectors.toList());
     }
 
     @Override
     public TeacherDTO getOne(TeacherId teacherId) 
     {
-        return teacherRepository_.forOne(teacherId).toDTO();
+        Teacher teacher = teacherRepository_.forOne(teacherId);
+        if ( teacher == null ) {
+            throw new NullPointerException(teacherId.stringValue() + ": No such teacher.");
+        }
+        return teacher.toDTO();
+    }
+    
+    @Override
+    public Page<TeacherDTO> getAll(PageRequest page)
+    {
+        List<TeacherDTO> rows = 
+            teacherRepository_.forPage(page.getAfter(), page.getLimit() + 1).stream()
+                              .map(Teacher::toDTO)
+                              .collect(Collectors.toList());
+        return Page.valueOf(rows, page, TeacherDTO::getTeacherId);
+    }
+    
+    @Override
+    public void forEach(Consumer<TeacherDTO> consumer)
+    {
+        teacherRepository_.forAllAfter("")
+                          .map(Teacher::toDTO)
+                          .forEach(consumer);
     }
 
 }
@@ -0,0 +1,145 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2018 André H. Juffer, Biocenter Oulu
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.bco.cm.infrastructure.persistence.memory;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.bco.cm.domain.course.Course;
+import org.bco.cm.domain.course.SeatInventory;
+import org.springframework.beans.factory.annotation.Autowired;
+
+/**
+ * Seat inventory held in memory. Seats reserved or released are given back 
+ * or taken again if the transaction rolls back. Seat numbers are not reused.
+ * The number of seats taken of a course starts at the number of enrolments held 
+ * (e.g. recovered after a restart), if an enrolment repository is set. Seat 
+ * numbers continue after the last seat number kept with the course.
+ * @author Andr&#233; H. Juffer, Biocenter Oulu
+ */
+public class InMemorySeatInventory implements SeatInventory {
+    
+    private final Map<String, AtomicInteger> taken_;
+    private final Map<String, AtomicInteger> numbers_;
+    private InMemoryEnrolmentRepository enrolmentRepository_;
+    
+    public InMemorySeatInventory()
+    {
+        taken_ = new ConcurrentHashMap<>();
+        numbers_ = new ConcurrentHashMap<>();
+    }
+    
+    @Autowired
+    public void setEnrolmentRepository(InMemoryEnrolmentRepository enrolmentRepository)
+    {
+        enrolmentRepository_ = enrolmentRepository;
+    }
+
+    @Override
+    public boolean reserve(Course course) 
+    {
+        AtomicInteger taken = this.taken(course);
+        int seats = course.getNumberOfSeats();
+        int current;
+        do {
+            current = taken.get();
+            if ( current >= seats ) {
+                return false;
+            }
+        } while ( !taken.compareAndSet(current, current + 1) );
+        InMemoryTransactionManager.onRollback(() -> this.giveBack(taken, 1));
+        return true;
+    }
+
+    @Override
+    public int reserve(Course course, int count) 
+    {
+        AtomicInteger taken = this.taken(course);
+        int seats = course.getNumberOfSeats();
+        int current;
+        int granted;
+        do {
+            current = taken.get();
+            granted = Math.max(0, Math.min(count, seats - current));
+            if ( granted == 0 ) {
+                return 0;
+            }
+        } while ( !taken.compareAndSet(current, current + granted) );
+        int reserved = granted;
+        InMemoryTransactionManager.onRollback(() -> this.giveBack(taken, reserved));
+        return granted;
+    }
+
+    @Override
+    public int numberSeats(Course course, int count) 
+    {
+        if ( count <= 0 ) {
+            throw new IllegalArgumentException(
+                count + ": Number of seat numbers must be positive."
+            );
+        }
+        AtomicInteger last = numbers_.computeIfAbsent(
+            course.getIdentifierAsString(), 
+            id -> new AtomicInteger(course.lastSeatNumber())
+        );
+        return last.addAndGet(count) - count + 1;
+    }
+
+    @Override
+    public void release(Course course) 
+    {
+        AtomicInteger taken = this.taken(course);
+        int previous = taken.getAndUpdate(current -> Math.max(0, current - 1));
+        if ( previous > 0 ) {
+            InMemoryTransactionManager.onRollback(taken::incrementAndGet);
+        }
+    }
+
+    @Override
+    public int seatsTaken(Course course) 
+    {
+        return this.taken(course).get();
+    }
+    
+    private AtomicInteger taken(Course course)
+    {
+        return taken_.computeIfAbsent(
+            course.getIdentifierAsString(), 
+            id -> new AtomicInteger(this.enrolled(course))
+        );
+    }
+    
+    private void giveBack(AtomicInteger taken, int count)
+    {
+        taken.updateAndGet(current -> Math.max(0, current - count));
+    }
+    
+    private int enrolled(Course course)
+    {
+        return enrolmentRepository_ != null ? 
+            enrolmentRepository_.countCourse(course.getCourseId()) : 0;
+    }
+    
+}
@@ -24,9 +24,10 @@
 
 package org.bco.cm.infrastructure.persistence.memory;
 
-import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
-import java.util.UUID;
+import java.util.Objects;
+import java.util.stream.Collectors;
 import org.bco.cm.domain.student.Student;
 import org.bco.cm.domain.student.StudentId;
 import org.bco.cm.domain.student.StudentRegistry;
@@ -36,27 +37,40 @@ import org.bco.cm.domain.student.StudentRegistry;
  * @author Andr&#233; H. Juffer, Biocenter Oulu
  */
 public class InMemoryStudentRepository 
-//    extends InMemoryMapRepository<Student>
-//    implements StudentRegistry
+    extends InMemoryMapRepository<Student>
+    implements StudentRegistry
 {
 
-    //@Override
-    public Student forStudentId(StudentId studentId) 
+    @Override
+    public Student forOne(StudentId studentId) 
     {
-        return null;
-        //return this.forIdentifierAsString(studentId.stringValue());
+        return this.forIdentifierAsString(studentId.stringValue());
     }
 
-    //@Override
-    public Student forEntityId(StudentId identifier) 
+    @Override
+    public boolean contains(StudentId identifier) 
     {
-        return this.forStudentId(identifier);
+        return this.forOne(identifier) != null;
     }
-
-    //@Override
-    public boolean contains(StudentId identifier) 
+    
+    @Override
+    public List<Student> forStudents(Collection<StudentId> studentIds)
+    {
+        return studentIds.stream()
+                         .map(this::forOne)
+                         .filter(Objects::nonNull)
+                         .collect(Collectors.toList());
+    }
+    
+    /**
+     * Returns students after given student identifier.
+     * @param after Student identifier. Empty for the first student.
+     * @param limit Maximum number of students.
+     * @return Students, in student identifier order.
+     */
+    List<Student> forPage(String after, int limit)
     {
-        return this.forEntityId(identifier) != null;
+        return this.forAllAfter(after).limit(limit).collect(Collectors.toList());
     }
 
 }
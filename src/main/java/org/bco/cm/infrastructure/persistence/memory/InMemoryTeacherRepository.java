@@ -24,16 +24,16 @@
 
 package org.bco.cm.infrastructure.persistence.memory;
 
+import java.util.List;
+import java.util.stream.Collectors;
 import org.bco.cm.domain.teacher.Teacher;
 import org.bco.cm.domain.teacher.TeacherId;
 import org.bco.cm.domain.teacher.TeacherRegistry;
-import org.springframework.stereotype.Repository;
 
 /**
  *
  * @author Andr&#233; H. Juffer, Biocenter Oulu
  */
-@Repository
 public class InMemoryTeacherRepository 
     extends InMemoryMapRepository<Teacher> 
     implements TeacherRegistry {
@@ -50,4 +50,15 @@ public class InMemoryTeacherRepository
         return this.forOne(identifier) != null;
     }
     
+    /**
+     * Returns teachers after given teacher identifier.
+     * @param after Teacher identifier. Empty for the first teacher.
+     * @param limit Maximum number of teachers.
+     * @return Teachers, in teacher identifier order.
+     */
+    List<Teacher> forPage(String after, int limit)
+    {
+        return this.forAllAfter(after).limit(limit).collect(Collectors.toList());
+    }
+    
 }
@@ -0,0 +1,131 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2018 André H. Juffer, Biocenter Oulu
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.bco.cm.infrastructure.persistence.memory;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Transaction manager for aggregates held in memory. Changes are visible as 
+ * soon as they are made. In-memory repositories and the seat inventory 
+ * register undo actions for their changes, which are run in reverse order if
+ * the transaction rolls back. Transactions also demarcate units of work, so that transaction 
+ * synchronizations (e.g. handing over domain events after commit) behave as 
+ * with a database. Inner transactions join the outer one.
+ * @author Andr&#233; H. Juffer, Biocenter Oulu
+ */
+public class InMemoryTransactionManager extends AbstractPlatformTransactionManager {
+    
+    private static final Object UNDO = new Object();
+    
+    public InMemoryTransactionManager()
+    {
+        super();
+        this.setTransactionSynchronization(SYNCHRONIZATION_ALWAYS);
+    }
+
+    @Override
+    protected Object doGetTransaction() 
+    {
+        return new Object();
+    }
+    
+    @Override
+    protected boolean isExistingTransaction(Object transaction)
+    {
+        return TransactionSynchronizationManager.isActualTransactionActive();
+    }
+
+    @Override
+    protected void doBegin(Object transaction, TransactionDefinition definition) 
+    {
+        TransactionSynchronizationManager.bindResource(UNDO, new ArrayDeque<Runnable>());
+    }
+    
+    @Override
+    protected Object doSuspend(Object transaction)
+    {
+        return TransactionSynchronizationManager.unbindResourceIfPossible(UNDO);
+    }
+    
+    @Override
+    protected void doResume(Object transaction, Object suspendedResources)
+    {
+        if ( suspendedResources != null ) {
+            TransactionSynchronizationManager.bindResource(UNDO, suspendedResources);
+        }
+    }
+
+    @Override
+    protected void doCommit(DefaultTransactionStatus status) 
+    {
+    }
+
+    @Override
+    protected void doRollback(DefaultTransactionStatus status) 
+    {
+        Deque<Runnable> undo = undo();
+        while ( undo != null && !undo.isEmpty() ) {
+            undo.pop().run();
+        }
+    }
+    
+    @Override
+    protected void doSetRollbackOnly(DefaultTransactionStatus status)
+    {
+        // An inner transaction failed. Nothing to mark, the failure is 
+        // propagated to the outer transaction as an exception.
+    }
+    
+    @Override
+    protected void doCleanupAfterCompletion(Object transaction)
+    {
+        TransactionSynchronizationManager.unbindResourceIfPossible(UNDO);
+    }
+    
+    /**
+     * Registers action that undoes a change if the current transaction rolls 
+     * back. Ignored outside a transaction.
+     * @param action Undo action.
+     */
+    static void onRollback(Runnable action)
+    {
+        Deque<Runnable> undo = undo();
+        if ( undo != null ) {
+            undo.push(action);
+        }
+    }
+    
+    @SuppressWarnings("unchecked")
+    private static Deque<Runnable> undo()
+    {
+        return (Deque<Runnable>)TransactionSynchronizationManager.getResource(UNDO);
+    }
+    
+}
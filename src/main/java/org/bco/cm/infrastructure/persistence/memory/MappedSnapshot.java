@@ -0,0 +1,143 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2018 André H. Juffer, Biocenter Oulu
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.bco.cm.infrastructure.persistence.memory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+/**
+ * Snapshot of records in a memory-mapped file. A snapshot is written to a 
+ * temporary file, forced to disk and then renamed, so that a snapshot file 
+ * is always complete. Records are framed as in the write-ahead log.
+ * @author Andr&#233; H. Juffer, Biocenter Oulu
+ * @see WriteAheadLog
+ */
+class MappedSnapshot {
+    
+    private static final int MAGIC = 0x434D5331; // "CMS1"
+    private static final int HEADER_SIZE = 8;
+    
+    private final Path path_;
+    
+    /**
+     * @param path Snapshot file.
+     */
+    MappedSnapshot(Path path)
+    {
+        path_ = path;
+    }
+    
+    /**
+     * Replaces snapshot.
+     * @param records Framed records.
+     * @throws IOException if snapshot cannot be written.
+     */
+    void write(List<ByteBuffer> records) throws IOException
+    {
+        long size = HEADER_SIZE;
+        for (ByteBuffer record : records) {
+            size += record.remaining();
+        }
+        if ( size > Integer.MAX_VALUE ) {
+            throw new IOException(size + ": Snapshot exceeds 2 GB.");
+        }
+        Path temporary = path_.resolveSibling(path_.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(
+                temporary,
+                StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.READ,
+                StandardOpenOption.WRITE)) {
+            MappedByteBuffer buffer = 
+                channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            buffer.putInt(MAGIC);
+            buffer.putInt(records.size());
+            for (ByteBuffer record : records) {
+                buffer.put(record.duplicate());
+            }
+            buffer.force();
+        }
+        Files.move(
+            temporary, path_, 
+            StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE
+        );
+    }
+    
+    /**
+     * Visits all records in snapshot.
+     * @param consumer Visitor of record bodies.
+     * @return Number of records visited. Zero if there is no snapshot.
+     * @throws IOException if snapshot cannot be read.
+     * @throws IllegalStateException if snapshot is corrupt.
+     */
+    int read(Consumer<byte[]> consumer) throws IOException
+    {
+        if ( !Files.exists(path_) ) {
+            return 0;
+        }
+        try (FileChannel channel = FileChannel.open(path_, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = 
+                channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if ( buffer.remaining() < HEADER_SIZE || buffer.getInt() != MAGIC ) {
+                throw new IllegalStateException(path_ + ": Not a snapshot.");
+            }
+            int count = buffer.getInt();
+            for (int i = 0; i < count; i++) {
+                consumer.accept(this.next(buffer));
+            }
+            return count;
+        }
+    }
+    
+    private byte[] next(ByteBuffer buffer)
+    {
+        if ( buffer.remaining() < WriteAheadLog.HEADER_SIZE ) {
+            throw new IllegalStateException(path_ + ": Snapshot is truncated.");
+        }
+        int length = buffer.getInt();
+        int expected = buffer.getInt();
+        if ( length < 0 || length > buffer.remaining() ) {
+            throw new IllegalStateException(path_ + ": Snapshot is truncated.");
+        }
+        byte[] body = new byte[length];
+        buffer.get(body);
+        CRC32 crc = new CRC32();
+        crc.update(body);
+        if ( (int)crc.getValue() != expected ) {
+            throw new IllegalStateException(path_ + ": Snapshot is corrupt.");
+        }
+        return body;
+    }
+    
+}
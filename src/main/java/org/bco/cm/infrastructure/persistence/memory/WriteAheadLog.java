@@ -0,0 +1,253 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2018 André H. Juffer, Biocenter Oulu
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.bco.cm.infrastructure.persistence.memory;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only log of records in a single file. Each record is framed as 
+ * length, CRC-32 and body, so that a record torn by a crash is detected and 
+ * discarded on replay. Appending only writes to the file. Records become 
+ * durable with sync(...), which forces the file to disk once for all records 
+ * appended so far by any thread (group commit): a thread that finds a force 
+ * in progress waits for it and forces once more only if its records were 
+ * not covered.
+ * @author Andr&#233; H. Juffer, Biocenter Oulu
+ */
+class WriteAheadLog implements Closeable {
+    
+    static final int HEADER_SIZE = 8;
+    
+    private final FileChannel channel_;
+    private final Object sync_;
+    private long written_;
+    private long synced_;
+    private boolean syncing_;
+    
+    /**
+     * Opens log, creating the file if nonexistent. 
+     * @param path Log file.
+     * @throws IOException if log cannot be opened.
+     */
+    WriteAheadLog(Path path) throws IOException
+    {
+        channel_ = FileChannel.open(
+            path, 
+            StandardOpenOption.CREATE, 
+            StandardOpenOption.READ, 
+            StandardOpenOption.WRITE
+        );
+        sync_ = new Object();
+        written_ = channel_.size();
+        synced_ = written_;
+        syncing_ = false;
+    }
+    
+    /**
+     * Frames record body.
+     * @param body Record body.
+     * @return Record, ready for appending.
+     */
+    static ByteBuffer frame(byte[] body)
+    {
+        CRC32 crc = new CRC32();
+        crc.update(body);
+        ByteBuffer record = ByteBuffer.allocate(HEADER_SIZE + body.length);
+        record.putInt(body.length);
+        record.putInt((int)crc.getValue());
+        record.put(body);
+        record.flip();
+        return record;
+    }
+    
+    /**
+     * Reads record body. 
+     * @param in Input, positioned at the start of a record.
+     * @param remaining Number of bytes left in input.
+     * @return Body, or null if the record is incomplete or corrupt.
+     * @throws IOException if input cannot be read.
+     */
+    static byte[] unframe(DataInputStream in, long remaining) throws IOException
+    {
+        if ( remaining < HEADER_SIZE ) {
+            return null;
+        }
+        int length = in.readInt();
+        int expected = in.readInt();
+        if ( length < 0 || length > remaining - HEADER_SIZE ) {
+            return null;
+        }
+        byte[] body = new byte[length];
+        in.readFully(body);
+        CRC32 crc = new CRC32();
+        crc.update(body);
+        return (int)crc.getValue() == expected ? body : null;
+    }
+    
+    /**
+     * Appends records at the end of the log. 
+     * @param records Framed records.
+     * @return Log position after the last record, to be passed to 
+     * sync(...).
+     * @throws IOException if records cannot be written.
+     */
+    synchronized long append(List<ByteBuffer> records) throws IOException
+    {
+        ByteBuffer[] buffers = records.toArray(new ByteBuffer[records.size()]);
+        long size = 0;
+        for (ByteBuffer buffer : buffers) {
+            size += buffer.remaining();
+        }
+        long done = 0;
+        channel_.position(written_);
+        while ( done < size ) {
+            done += channel_.write(buffers);
+        }
+        written_ += size;
+        return written_;
+    }
+    
+    /**
+     * Makes all records up to given position durable.
+     * @param position Log position returned by append(...).
+     * @throws IOException if file cannot be forced to disk.
+     */
+    void sync(long position) throws IOException
+    {
+        synchronized (sync_) {
+            while ( synced_ < position && syncing_ ) {
+                try {
+                    sync_.wait();
+                } catch (InterruptedException exception) {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException("Interrupted while syncing log.");
+                }
+            }
+            if ( synced_ >= position ) {
+                return;
+            }
+            syncing_ = true;
+        }
+        long target = this.size();
+        boolean forced = false;
+        try {
+            channel_.force(false);
+            forced = true;
+        } finally {
+            synchronized (sync_) {
+                if ( forced ) {
+                    synced_ = Math.max(synced_, target);
+                }
+                syncing_ = false;
+                sync_.notifyAll();
+            }
+        }
+    }
+    
+    /**
+     * Returns log size.
+     * @return Number of bytes appended, including any records read at opening.
+     */
+    synchronized long size()
+    {
+        return written_;
+    }
+    
+    /**
+     * Visits all complete records from the start of the log. The log is 
+     * truncated after the last complete record, discarding a record torn by 
+     * a crash. Must be called before appending.
+     * @param consumer Visitor of record bodies.
+     * @return Number of records visited.
+     * @throws IOException if log cannot be read.
+     */
+    synchronized int replay(Consumer<byte[]> consumer) throws IOException
+    {
+        long size = channel_.size();
+        long valid = 0;
+        int count = 0;
+        channel_.position(0);
+        DataInputStream in = new DataInputStream(
+            new BufferedInputStream(Channels.newInputStream(channel_))
+        );
+        try {
+            while ( valid < size ) {
+                byte[] body = unframe(in, size - valid);
+                if ( body == null ) {
+                    break;
+                }
+                consumer.accept(body);
+                valid += HEADER_SIZE + body.length;
+                count++;
+            }
+        } catch (EOFException exception) {
+            // Torn record.
+        }
+        if ( valid < size ) {
+            channel_.truncate(valid);
+            channel_.force(true);
+        }
+        written_ = valid;
+        synchronized (sync_) {
+            synced_ = valid;
+        }
+        return count;
+    }
+    
+    /**
+     * Discards all records, after these were saved elsewhere (e.g. in a 
+     * snapshot). No records may be appended concurrently.
+     * @throws IOException if log cannot be truncated.
+     */
+    synchronized void reset() throws IOException
+    {
+        channel_.truncate(0);
+        channel_.force(true);
+        written_ = 0;
+        synchronized (sync_) {
+            synced_ = 0;
+        }
+    }
+
+    @Override
+    public void close() throws IOException 
+    {
+        channel_.close();
+    }
+    
+}
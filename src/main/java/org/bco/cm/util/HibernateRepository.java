@@ -25,10 +25,15 @@
 package org.bco.cm.util;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.function.Consumer;
 import javax.persistence.EntityManager;
 import javax.persistence.PersistenceContext;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
 import org.hibernate.Session;
+import org.hibernate.query.Query;
 
 /**
  * Repository using Hibernate for mapping between persistence storage and entities.
@@ -38,6 +43,12 @@ import org.hibernate.Session;
  */
 public abstract class HibernateRepository<T,ID> implements Repository<T,ID> {
     
+    /**
+     * Number of statements sent to the database in one JDBC batch by 
+     * addAll(), and number of identifiers bound to a single IN list.
+     */
+    protected static final int BATCH_SIZE = 500;
+    
     //private SessionFactory sessionFactory_;
     private EntityManager entityManager_;
     
@@ -77,6 +88,25 @@ public abstract class HibernateRepository<T,ID> implements Repository<T,ID> {
         this.getSession().save(t);
     }
 
+    /**
+     * Adds many entities. The session is flushed, so the inserts, including 
+     * those of associated entities, are sent to the database in JDBC batches 
+     * of BATCH_SIZE. The session's previous batch size is restored afterwards.
+     * @param many Entities.
+     */
+    public void addAll(Collection<T> many)
+    {
+        Session session = this.getSession();
+        Integer batchSize = session.getJdbcBatchSize();
+        session.setJdbcBatchSize(BATCH_SIZE);
+        try {
+            many.forEach(session::save);
+            session.flush();
+        } finally {
+            session.setJdbcBatchSize(batchSize);
+        }
+    }
+
     @Override
     public void update(T t) 
     {
@@ -91,12 +121,23 @@ public abstract class HibernateRepository<T,ID> implements Repository<T,ID> {
     
     /**
      * Returns many entities.
-     * @param hql HQL query string.
+     * @param queryName Name of named query.
      * @return Entities. May be empty,
      */
-    public List<T> forMany(String hql)
+    public List<T> forMany(String queryName)
     {
-        List many = this.getSession().createQuery(hql).list();
+        return this.forMany(queryName, QueryParameters.none());
+    }
+    
+    /**
+     * Returns many entities.
+     * @param queryName Name of named query.
+     * @param parameters Values for named parameters of query.
+     * @return Entities. May be empty,
+     */
+    public List<T> forMany(String queryName, QueryParameters parameters)
+    {
+        List many = this.createQuery(queryName, parameters).list();
         List<T> list = new ArrayList<>();
         many.forEach(e -> {
             T t = (T)e;
@@ -105,15 +146,72 @@ public abstract class HibernateRepository<T,ID> implements Repository<T,ID> {
         return list;
     }
     
+    /**
+     * Returns many entities, where the named query binds a (potentially 
+     * large) collection of values to a single IN list parameter. The 
+     * collection is split into chunks so as to keep the number of bind 
+     * parameters per statement bounded.
+     * @param queryName Name of named query.
+     * @param name Name of collection parameter.
+     * @param values Values for collection parameter.
+     * @return Entities. May be empty.
+     */
+    public List<T> forMany(String queryName, String name, Collection<?> values)
+    {
+        List<T> list = new ArrayList<>();
+        List<Object> chunk = new ArrayList<>(BATCH_SIZE);
+        for (Object value : values) {
+            chunk.add(value);
+            if ( chunk.size() == BATCH_SIZE ) {
+                list.addAll(this.forMany(queryName, QueryParameters.with(name, chunk)));
+                chunk = new ArrayList<>(BATCH_SIZE);
+            }
+        }
+        if ( !chunk.isEmpty() ) {
+            list.addAll(this.forMany(queryName, QueryParameters.with(name, chunk)));
+        }
+        return list;
+    }
+    
+    /**
+     * Visits every entity selected by a named query while scrolling through 
+     * the result. The session is cleared after every BATCH_SIZE entities, so 
+     * memory use does not grow with the number of entities. Entities must 
+     * therefore not be used beyond the visit.
+     * @param queryName Name of named query.
+     * @param parameters Values for named parameters of query.
+     * @param consumer Visitor.
+     */
+    public void forEach(String queryName, 
+                        QueryParameters parameters, 
+                        Consumer<T> consumer)
+    {
+        Session session = this.getSession();
+        Query query = this.createQuery(queryName, parameters)
+                          .setReadOnly(true)
+                          .setFetchSize(BATCH_SIZE);
+        try (ScrollableResults results = query.scroll(ScrollMode.FORWARD_ONLY)) {
+            int count = 0;
+            while ( results.next() ) {
+                consumer.accept((T)results.get(0));
+                if ( ++count % BATCH_SIZE == 0 ) {
+                    session.clear();
+                }
+            }
+        }
+    }
+    
     /**
      * Returns a single entity.
-     * @param hql HQL query string.
+     * @param queryName Name of named query.
+     * @param parameters Values for named parameters of query.
      * @return Entity, or null if nonexistent.
      * @throws IllegalArgumentException if more than one entity was found.
      */
-    public T forSingle(String hql)
+    public T forSingle(String queryName, QueryParameters parameters)
     {
-        List many = this.getSession().createQuery(hql).list();
+        // Two rows suffice to detect a non-unique result.
+        List many = this.createQuery(queryName, parameters).setMaxResults(2).list();
         if ( many.size() > 1 ) {
             throw new IllegalArgumentException(
                 "Many entities in repository found, where one was expected."
@@ -122,8 +220,32 @@ public abstract class HibernateRepository<T,ID> implements Repository<T,ID> {
         if ( many.isEmpty() ) {
             return null;
         }
-        T t = (T) many.get(0);
-        return t;
+        return (T) many.get(0);
+    }
+    
+    /**
+     * Returns entity by its natural identifier. The natural identifier is 
+     * first resolved from the second-level cache, if the entity is cacheable.
+     * @param clazz Entity class.
+     * @param naturalId Natural identifier (the property annotated @NaturalId).
+     * @return Entity, or null if nonexistent.
+     */
+    public T forNaturalId(Class<T> clazz, Object naturalId)
+    {
+        return this.getSession().bySimpleNaturalId(clazz).load(naturalId);
+    }
+    
+    private Query createQuery(String queryName, QueryParameters parameters)
+    {
+        Query query = this.getSession().getNamedQuery(queryName);
+        parameters.asMap().forEach((name, value) -> {
+            if ( value instanceof Collection ) {
+                query.setParameterList(name, (Collection)value);
+            } else {
+                query.setParameter(name, value);
+            }
+        });
+        return query;
     }
     
     private Session getSession()
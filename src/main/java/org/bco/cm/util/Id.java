@@ -24,6 +24,7 @@
 
 package org.bco.cm.util;
 
+import java.io.Serializable;
 import java.util.Objects;
 
 /**
@@ -31,7 +32,9 @@ import java.util.Objects;
  * @author Andr&#233; H. Juffer, Biocenter Oulu
  * @param <T> Identifier value type.
  */
-public class Id<T> {
+public class Id<T> implements Serializable {
+    
+    private static final long serialVersionUID = 1L;
     
     private T value_;
     
@@ -118,7 +121,7 @@ public class Id<T> {
             return false;
         }
         final Id id = (Id)other;
-        return this.stringValue().equals(id.stringValue());
+        return Objects.equals(this.value_, id.value_);
     }
 
     @Override
@@ -0,0 +1,112 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2018 André H. Juffer, Biocenter Oulu
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.bco.cm.util;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * One page of entities in keyset order, plus the continuation token for the 
+ * next page.
+ * @author Andr&#233; H. Juffer, Biocenter Oulu
+ * @param <T> Entity type.
+ */
+public final class Page<T> {
+    
+    private final List<T> items_;
+    private final String next_;
+    
+    private Page(List<T> items, String next)
+    {
+        items_ = Collections.unmodifiableList(items);
+        next_ = next;
+    }
+    
+    /**
+     * Returns empty last page.
+     * @param <T> Entity type.
+     * @return Page.
+     */
+    public static <T> Page<T> empty()
+    {
+        return new Page<>(new ArrayList<>(), null);
+    }
+    
+    /**
+     * Creates page from rows in key order.
+     * @param <T> Entity type.
+     * @param rows Rows starting after the requested key. Holds at most one row 
+     * more than the requested limit; that row only signals a next page.
+     * @param request Page request.
+     * @param key Returns key of an entity.
+     * @return Page.
+     */
+    public static <T> Page<T> valueOf(List<T> rows, 
+                                      PageRequest request, 
+                                      Function<T,String> key)
+    {
+        int limit = request.getLimit();
+        if ( rows.size() <= limit ) {
+            return new Page<>(new ArrayList<>(rows), null);
+        }
+        List<T> items = new ArrayList<>(rows.subList(0, limit));
+        String next = PageRequest.encode(key.apply(items.get(limit - 1)));
+        return new Page<>(items, next);
+    }
+    
+    /**
+     * Returns entities on this page.
+     * @return Entities. May be empty.
+     */
+    public List<T> getItems()
+    {
+        return items_;
+    }
+    
+    /**
+     * Returns continuation token for the next page.
+     * @return Token, or null if this is the last page.
+     */
+    public String getNext()
+    {
+        return next_;
+    }
+    
+    /**
+     * Maps entities on this page. The continuation token is retained.
+     * @param <R> Result type.
+     * @param mapper Mapper.
+     * @return Page.
+     */
+    public <R> Page<R> map(Function<T,R> mapper)
+    {
+        List<R> items = new ArrayList<>();
+        items_.forEach(item -> items.add(mapper.apply(item)));
+        return new Page<>(items, next_);
+    }
+    
+}
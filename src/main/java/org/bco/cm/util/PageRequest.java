@@ -0,0 +1,151 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2018 André H. Juffer, Biocenter Oulu
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.bco.cm.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Requests one page of entities in keyset order. A page starts after the key of 
+ * the last entity of the previous page, which is handed out to clients as an 
+ * opaque continuation token.
+ * @author Andr&#233; H. Juffer, Biocenter Oulu
+ */
+public final class PageRequest {
+    
+    /**
+     * Largest number of entities on a page.
+     */
+    public static final int MAX_LIMIT = 1000;
+    
+    // Key before any other key.
+    static final String FIRST = "";
+    
+    private final int limit_;
+    private final String after_;
+    
+    private PageRequest(int limit, String after)
+    {
+        if ( limit < 1 || limit > MAX_LIMIT ) {
+            throw new IllegalArgumentException(
+                limit + ": Limit must be between 1 and " + MAX_LIMIT + "."
+            );
+        }
+        limit_ = limit;
+        after_ = after;
+    }
+    
+    /**
+     * Requests first page.
+     * @param limit Maximum number of entities on page.
+     * @return Page request.
+     * @throws IllegalArgumentException if limit is not between 1 and MAX_LIMIT.
+     */
+    public static PageRequest first(int limit)
+    {
+        return new PageRequest(limit, FIRST);
+    }
+    
+    /**
+     * Requests page following the one that returned the given token.
+     * @param limit Maximum number of entities on page.
+     * @param token Continuation token. If null, the first page is requested.
+     * @return Page request.
+     * @throws IllegalArgumentException if limit is not between 1 and MAX_LIMIT, 
+     * or if token is malformed.
+     */
+    public static PageRequest valueOf(int limit, String token)
+    {
+        if ( token == null ) {
+            return PageRequest.first(limit);
+        }
+        return new PageRequest(limit, PageRequest.decode(token));
+    }
+    
+    /**
+     * Requests page following the one that returned the given token, of 
+     * entities keyed by UUID.
+     * @param limit Maximum number of entities on page.
+     * @param token Continuation token. If null, the first page is requested.
+     * @return Page request.
+     * @throws IllegalArgumentException if limit is not between 1 and MAX_LIMIT, 
+     * or if token is malformed or does not hold a UUID.
+     */
+    public static PageRequest valueOfUuid(int limit, String token)
+    {
+        PageRequest page = PageRequest.valueOf(limit, token);
+        if ( !page.after_.equals(FIRST) ) {
+            try {
+                UUID.fromString(page.after_);
+            } catch (IllegalArgumentException exception) {
+                throw new IllegalArgumentException(
+                    token + ": Malformed continuation token."
+                );
+            }
+        }
+        return page;
+    }
+    
+    /**
+     * Returns maximum number of entities on page.
+     * @return Limit.
+     */
+    public int getLimit()
+    {
+        return limit_;
+    }
+    
+    /**
+     * Returns key after which page starts. Keys are compared as strings.
+     * @return Key. Empty for the first page.
+     */
+    public String getAfter()
+    {
+        return after_;
+    }
+    
+    /**
+     * Returns continuation token for page starting after given key.
+     * @param key Key of last entity on current page.
+     * @return Token.
+     */
+    static String encode(String key)
+    {
+        byte[] bytes = key.getBytes(StandardCharsets.UTF_8);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+    
+    private static String decode(String token)
+    {
+        try {
+            byte[] bytes = Base64.getUrlDecoder().decode(token);
+            return new String(bytes, StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException exception) {
+            throw new IllegalArgumentException(token + ": Malformed continuation token.");
+        }
+    }
+    
+}
@@ -24,6 +24,7 @@
 
 package org.bco.cm.util;
 
+import java.io.Serializable;
 import java.util.Objects;
 import javax.persistence.Column;
 import javax.persistence.MappedSuperclass;
@@ -36,7 +37,9 @@ import org.bco.cm.dto.PersonDTO;
  * @param <ID> Person identifier type.
  */
 @MappedSuperclass
-public class Person<ID extends Id<String>> implements Identifiable {
+public class Person<ID extends Id<String>> implements Identifiable, Serializable {
+    
+    private static final long serialVersionUID = 1L;
     
     private ID identifier_;
     private String firstName_;
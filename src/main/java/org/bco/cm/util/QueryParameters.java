@@ -0,0 +1,100 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2018 André H. Juffer, Biocenter Oulu
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.bco.cm.util;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Named parameters bound to a named query.
+ * @author Andr&#233; H. Juffer, Biocenter Oulu
+ */
+public final class QueryParameters {
+    
+    private static final QueryParameters NONE = new QueryParameters();
+    
+    private final Map<String,Object> parameters_;
+    
+    private QueryParameters()
+    {
+        parameters_ = new LinkedHashMap<>();
+    }
+    
+    /**
+     * Returns empty parameter set.
+     * @return Parameters.
+     */
+    public static QueryParameters none()
+    {
+        return NONE;
+    }
+    
+    /**
+     * Returns new parameter set holding given parameter.
+     * @param name Parameter name, as in the query (without the colon).
+     * @param value Parameter value. Must not be null. A collection is bound as a
+     * parameter list (e.g. for "in (:ids)").
+     * @return Parameters.
+     */
+    public static QueryParameters with(String name, Object value)
+    {
+        return new QueryParameters().and(name, value);
+    }
+    
+    /**
+     * Adds parameter.
+     * @param name Parameter name, as in the query (without the colon).
+     * @param value Parameter value. Must not be null. A collection is bound as a
+     * parameter list (e.g. for "in (:ids)").
+     * @return This parameter set.
+     * @throws NullPointerException if name or value is null.
+     * @throws IllegalStateException if this is the empty parameter set.
+     */
+    public QueryParameters and(String name, Object value)
+    {
+        if ( this == NONE ) {
+            throw new IllegalStateException("Cannot add parameters to none.");
+        }
+        if ( name == null ) {
+            throw new NullPointerException("Query parameter name must be provided.");
+        }
+        if ( value == null ) {
+            throw new NullPointerException(name + ": Query parameter value must be provided.");
+        }
+        parameters_.put(name, value);
+        return this;
+    }
+    
+    /**
+     * Returns parameters.
+     * @return Parameter values per parameter name. May be empty.
+     */
+    public Map<String,Object> asMap()
+    {
+        return Collections.unmodifiableMap(parameters_);
+    }
+    
+}
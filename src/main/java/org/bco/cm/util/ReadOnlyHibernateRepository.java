@@ -25,10 +25,16 @@
 package org.bco.cm.util;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import javax.persistence.EntityManager;
 import javax.persistence.PersistenceContext;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
 import org.hibernate.Session;
+import org.hibernate.query.Query;
 
 /**
  * Read-only repository using Hibernate for mapping between persistence storage 
@@ -40,6 +46,9 @@ import org.hibernate.Session;
 public abstract class ReadOnlyHibernateRepository<T,ID> 
     implements ReadOnlyRepository<T,ID> {
 
+    // Rows fetched per round trip while scrolling.
+    private static final int FETCH_SIZE = 256;
+    
     private EntityManager entityManager_;
     
     protected ReadOnlyHibernateRepository()
@@ -63,12 +72,23 @@ public abstract class ReadOnlyHibernateRepository<T,ID>
     
     /**
      * Returns many entities.
-     * @param hql HQL query string.
+     * @param queryName Name of named query.
      * @return Entities. May be empty,
      */
-    public List<T> forMany(String hql)
+    public List<T> forMany(String queryName)
     {
-        List many = this.getSession().createQuery(hql).list();
+        return this.forMany(queryName, QueryParameters.none());
+    }
+    
+    /**
+     * Returns many entities.
+     * @param queryName Name of named query.
+     * @param parameters Values for named parameters of query.
+     * @return Entities. May be empty,
+     */
+    public List<T> forMany(String queryName, QueryParameters parameters)
+    {
+        List many = this.createQuery(queryName, parameters).list();
         List<T> list = new ArrayList<>();
         many.forEach(e -> {
             T t = (T)e;
@@ -79,13 +99,15 @@ public abstract class ReadOnlyHibernateRepository<T,ID>
     
     /**
      * Returns a single entity.
-     * @param hql HQL query string.
+     * @param queryName Name of named query.
+     * @param parameters Values for named parameters of query.
      * @return Entity, or null if nonexistent.
      * @throws IllegalArgumentException if more than one entity was found.
      */
-    public T forSingle(String hql)
+    public T forSingle(String queryName, QueryParameters parameters)
     {
-        List<T> many = this.getSession().createQuery(hql).list();
+        // Two rows suffice to detect a non-unique result.
+        List many = this.createQuery(queryName, parameters).setMaxResults(2).list();
         if ( many.size() > 1 ) {
             throw new IllegalArgumentException(
                 "Many entities in read-only repository found, where one was expected."
@@ -94,7 +116,77 @@ public abstract class ReadOnlyHibernateRepository<T,ID>
         if ( many.isEmpty() ) {
             return null;
         }
-        return (T) many.get(0);       
+        return (T) many.get(0);
+    }
+    
+    /**
+     * Returns a page of entities. The named query must select entities with a 
+     * key greater than named parameter "after", ordered by that key. The 
+     * query may select entities of another type than T, e.g. rows of a 
+     * read-model table.
+     * @param <S> Type of selected entities.
+     * @param queryName Name of named query.
+     * @param parameters Values for other named parameters of query.
+     * @param page Page request.
+     * @param key Returns key of an entity.
+     * @return Page.
+     */
+    public <S> Page<S> forPage(String queryName, 
+                               QueryParameters parameters, 
+                               PageRequest page,
+                               Function<S,String> key)
+    {
+        // One row more than the limit tells whether a next page exists.
+        List many = this.createQuery(queryName, parameters)
+                        .setParameter("after", page.getAfter())
+                        .setMaxResults(page.getLimit() + 1)
+                        .list();
+        List<S> rows = new ArrayList<>();
+        many.forEach(e -> {
+            S s = (S)e;
+            rows.add(s);
+        });
+        return Page.valueOf(rows, page, key);
+    }
+    
+    /**
+     * Visits every entity selected by a keyset query (see forPage) while 
+     * scrolling through the result. Each entity is evicted from the session
+     * once visited, so memory use does not grow with the number of entities.
+     * @param <S> Type of selected entities.
+     * @param queryName Name of named query.
+     * @param parameters Values for other named parameters of query.
+     * @param consumer Visitor.
+     */
+    public <S> void forEach(String queryName, 
+                            QueryParameters parameters,
+                            Consumer<S> consumer)
+    {
+        Session session = this.getSession();
+        Query query = this.createQuery(queryName, parameters)
+                          .setParameter("after", PageRequest.FIRST)
+                          .setReadOnly(true)
+                          .setFetchSize(FETCH_SIZE);
+        try (ScrollableResults results = query.scroll(ScrollMode.FORWARD_ONLY)) {
+            while ( results.next() ) {
+                S s = (S)results.get(0);
+                consumer.accept(s);
+                session.evict(s);
+            }
+        }
+    }
+    
+    private Query createQuery(String queryName, QueryParameters parameters)
+    {
+        Query query = this.getSession().getNamedQuery(queryName);
+        parameters.asMap().forEach((name, value) -> {
+            if ( value instanceof Collection ) {
+                query.setParameterList(name, (Collection)value);
+            } else {
+                query.setParameter(name, value);
+            }
+        });
+        return query;
     }
     
     private Session getSession()
@@ -0,0 +1,66 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2018 André H. Juffer, Biocenter Oulu
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.bco.cm.util;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+/**
+ * Installs a UUID generator as the source of Uuids once the application 
+ * context has created it, and restores the default generator when the 
+ * context closes, so that contexts (e.g. of tests) do not leak their 
+ * generator into each other.
+ * @author Andr&#233; H. Juffer, Biocenter Oulu
+ * @see org.bco.cm.util.Uuids
+ */
+public class UuidGeneratorInstaller {
+    
+    private final UuidGenerator generator_;
+    
+    /**
+     * Creates installer.
+     * @param generator Generator. Must not be null.
+     */
+    public UuidGeneratorInstaller(UuidGenerator generator)
+    {
+        if ( generator == null ) {
+            throw new NullPointerException("Missing UUID generator.");
+        }
+        generator_ = generator;
+    }
+    
+    @PostConstruct
+    public void install()
+    {
+        Uuids.setGenerator(generator_);
+    }
+    
+    @PreDestroy
+    public void uninstall()
+    {
+        Uuids.reset();
+    }
+    
+}
@@ -0,0 +1,82 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2018 André H. Juffer, Biocenter Oulu
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.bco.cm.util;
+
+import java.io.Serializable;
+import java.util.UUID;
+
+/**
+ * Identifier holding a 128-bit UUID. Its string representation is the 
+ * canonical (lower case) form of the UUID. In the database, the identifier is
+ * stored as a native uuid.
+ * @author Andr&#233; H. Juffer, Biocenter Oulu
+ */
+public class UuidId extends Id<UUID> implements Serializable {
+    
+    private static final long serialVersionUID = 1L;
+    
+    protected UuidId()
+    {
+        super();
+    }
+    
+    /**
+     * @param value Identifier value.
+     * @throws NullPointerException if value is null.
+     */
+    protected UuidId(UUID value)
+    {
+        super(value);
+    }
+    
+    /**
+     * @param value String representation of identifier value.
+     * @throws NullPointerException if value is null.
+     * @throws IllegalArgumentException if value is not a UUID.
+     */
+    protected UuidId(String value)
+    {
+        this(value != null ? UuidId.parse(value) : null);
+    }
+    
+    /**
+     * Returns identifier value.
+     * @return Value.
+     */
+    public UUID uuidValue()
+    {
+        return this.value();
+    }
+    
+    private static UUID parse(String value)
+    {
+        try {
+            return UUID.fromString(value);
+        } catch (IllegalArgumentException exception) {
+            throw new IllegalArgumentException(value + ": Not a UUID.");
+        }
+    }
+    
+}
@@ -0,0 +1,131 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2018 André H. Juffer, Biocenter Oulu
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.bco.cm.util;
+
+import java.util.UUID;
+import org.hibernate.type.AbstractSingleColumnStandardBasicType;
+import org.hibernate.type.PostgresUUIDType;
+import org.hibernate.type.descriptor.WrapperOptions;
+import org.hibernate.type.descriptor.java.AbstractTypeDescriptor;
+
+/**
+ * Maps a string property onto a native uuid column, for DTOs that hold 
+ * identifiers as strings. An empty string, the key before any other key in
+ * page requests, is bound as the nil UUID.
+ * @author Andr&#233; H. Juffer, Biocenter Oulu
+ * @see PageRequest
+ */
+public class UuidStringType extends AbstractSingleColumnStandardBasicType<String> {
+    
+    public static final String NAME = "org.bco.cm.util.UuidStringType";
+    
+    public UuidStringType()
+    {
+        super(
+            PostgresUUIDType.PostgresUUIDSqlTypeDescriptor.INSTANCE, 
+            UuidStringTypeDescriptor.INSTANCE
+        );
+    }
+
+    @Override
+    public String getName() 
+    {
+        return "uuid-string";
+    }
+    
+    /**
+     * Parses a string bound to a uuid column. Values should be validated 
+     * before they are bound, e.g. by the identifier classes or by 
+     * PageRequest.valueOfUuid(...).
+     * @param value Value.
+     * @return UUID.
+     * @throws IllegalArgumentException if value is not a UUID.
+     */
+    private static UUID parse(String value)
+    {
+        try {
+            return UUID.fromString(value);
+        } catch (IllegalArgumentException exception) {
+            throw new IllegalArgumentException(value + ": Not a UUID.");
+        }
+    }
+    
+    /**
+     * Converts between string and UUID.
+     */
+    private static final class UuidStringTypeDescriptor 
+        extends AbstractTypeDescriptor<String> 
+    {
+        private static final UuidStringTypeDescriptor INSTANCE = 
+            new UuidStringTypeDescriptor();
+        private static final UUID NIL = new UUID(0L, 0L);
+        
+        private UuidStringTypeDescriptor()
+        {
+            super(String.class);
+        }
+
+        @Override
+        public String toString(String value) 
+        {
+            return value;
+        }
+
+        @Override
+        public String fromString(String string) 
+        {
+            return string;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <X> X unwrap(String value, Class<X> type, WrapperOptions options) 
+        {
+            if ( value == null ) {
+                return null;
+            }
+            if ( UUID.class.isAssignableFrom(type) ) {
+                return (X)(value.isEmpty() ? NIL : UuidStringType.parse(value));
+            }
+            if ( String.class.isAssignableFrom(type) ) {
+                return (X)value;
+            }
+            throw this.unknownUnwrap(type);
+        }
+
+        @Override
+        public <X> String wrap(X value, WrapperOptions options) 
+        {
+            if ( value == null ) {
+                return null;
+            }
+            if ( value instanceof UUID || value instanceof String ) {
+                return value.toString();
+            }
+            throw this.unknownWrap(value.getClass());
+        }
+    }
+    
+}
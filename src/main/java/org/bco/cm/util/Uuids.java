@@ -0,0 +1,73 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2018 André H. Juffer, Biocenter Oulu
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.bco.cm.util;
+
+import java.util.UUID;
+
+/**
+ * Source of UUIDs for all identifiers and primary keys. By default, UUIDs are
+ * time-ordered.
+ * @author Andr&#233; H. Juffer, Biocenter Oulu
+ */
+public final class Uuids {
+    
+    private static final UuidGenerator DEFAULT = new TimeOrderedUuidGenerator();
+    
+    private static volatile UuidGenerator generator_ = DEFAULT;
+    
+    private Uuids()
+    {
+    }
+    
+    /**
+     * Returns new UUID.
+     * @return UUID.
+     */
+    public static UUID generate()
+    {
+        return generator_.generate();
+    }
+    
+    /**
+     * Replaces generator of UUIDs.
+     * @param generator Generator, e.g. UUID::randomUUID for random UUIDs.
+     */
+    public static void setGenerator(UuidGenerator generator)
+    {
+        if ( generator == null ) {
+            throw new NullPointerException("Missing UUID generator.");
+        }
+        generator_ = generator;
+    }
+    
+    /**
+     * Restores the default generator of time-ordered UUIDs.
+     */
+    public static void reset()
+    {
+        generator_ = DEFAULT;
+    }
+    
+}
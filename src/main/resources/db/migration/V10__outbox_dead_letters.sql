@@ -0,0 +1,43 @@
+/* 
+ * The MIT License
+ *
+ * Copyright 2018 André H. Juffer, Biocenter Oulu
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+/**
+ * Outbox entries that failed the maximum number of times. They are moved out 
+ * of event_outbox, so that they no longer hold back the later entries with 
+ * the same sequence key, and are kept for inspection and manual replay.
+ */
+create table event_outbox_dead_letters
+(
+    id              bigint not null primary key,
+    event_id        UUID not null,
+    event_type      varchar(200) not null,
+    sequence_key    varchar(200) not null,
+    payload         text not null,
+    created_at      timestamp not null,
+    attempts        integer not null,
+    last_error      varchar(1000),
+    failed_at       timestamp not null default now()
+);
+
+create unique index event_outbox_dead_letters_event_id_idx 
+    on event_outbox_dead_letters (event_id);
@@ -22,10 +22,30 @@
  * THE SOFTWARE.
  */
 /**
+ * Initial schema, as created by the former scripts in sql/. Existing databases
+ * are baselined at this version.
  * Author:  ajuffer
- * Created: Mar 27, 2018
  */
 
+/* Students. */
+create table students
+(
+    id              UUID not null primary key,
+    student_id      varchar(200),
+    first_name      varchar(200),
+    surname         varchar(200)
+);
+
+/* Teachers. */
+create table teachers
+(
+    id              UUID not null primary key,
+    teacher_id      varchar(200),
+    first_name      varchar(200),
+    surname         varchar(200)
+);
+
+/* Course catalog, courses, and modules. */
 create table choices (
     id                              UUID not null primary key,
     phrase                          varchar(200),
@@ -150,3 +170,13 @@ references student_monitors(id);
 alter table rosters
 add foreign key (course_id)
 references courses (id);
+
+/* Enrolments. */
+create table enrolments
+(
+    id                      UUID not null primary key,
+    enrolment_number        varchar(200),
+    course_id               varchar(200),
+    student_id              varchar(200),
+    date_of_registration    bigint
+);
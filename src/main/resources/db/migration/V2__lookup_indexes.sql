@@ -0,0 +1,55 @@
+/* 
+ * The MIT License
+ *
+ * Copyright 2018 André H. Juffer, Biocenter Oulu
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+/**
+ * Indexes and unique constraints for lookup columns.
+ */
+
+/* Natural identifiers. */
+create unique index students_student_id_idx on students (student_id);
+create unique index teachers_teacher_id_idx on teachers (teacher_id);
+create unique index course_descriptions_course_description_id_idx 
+    on course_descriptions (course_description_id);
+create unique index courses_course_id_idx on courses (course_id);
+create unique index enrolments_enrolment_number_idx on enrolments (enrolment_number);
+
+/* A student enrols at most once for a course. Also serves lookups by course. */
+create unique index enrolments_course_id_student_id_idx 
+    on enrolments (course_id, student_id);
+create index enrolments_student_id_idx on enrolments (student_id);
+
+/* Course and course catalog queries. */
+create index courses_course_description_id_idx on courses (course_description_id);
+create index courses_teacher_id_idx on courses (teacher_id);
+create index courses_end_date_idx on courses (end_date);
+create index course_descriptions_teacher_id_idx on course_descriptions (teacher_id);
+
+/* Foreign keys used for loading collections. */
+create index rosters_course_id_idx on rosters (course_id);
+create index modules_course_id_idx on modules (course_id);
+create index modules_course_description_id_idx on modules (course_description_id);
+create index module_items_module_id_idx on module_items (module_id);
+create index multiple_choice_questions_quiz_id_idx 
+    on multiple_choice_questions (quiz_id);
+create index choices_multiple_choice_question_id_idx 
+    on choices (multiple_choice_question_id);
@@ -22,15 +22,9 @@
  * THE SOFTWARE.
  */
 /**
- * Author:  ajuffer
- * Created: Jun 18, 2018
+ * Version columns for optimistic locking of courses, course descriptions and 
+ * enrolments.
  */
-
-create table enrolments
-(
-    id                      UUID not null primary key,
-    enrolment_number        varchar(200),
-    course_id               varchar(200),
-    student_id              varchar(200),
-    date_of_registration    bigint
-);
+alter table courses add column version bigint not null default 0;
+alter table course_descriptions add column version bigint not null default 0;
+alter table enrolments add column version bigint not null default 0;
@@ -0,0 +1,94 @@
+/* 
+ * The MIT License
+ *
+ * Copyright 2018 André H. Juffer, Biocenter Oulu
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+/**
+ * Read model. Denormalised listings of the course catalog, of activated 
+ * courses and of the courses students are enrolled in. Rows are maintained by
+ * event handlers, which refresh a row from the write model by identifier, so 
+ * handling an event twice is harmless. Initialized from the current write 
+ * model.
+ */
+create table catalog_listing
+(
+    course_description_id   varchar(200) not null primary key,
+    title                   varchar(200),
+    summary                 varchar(2000),
+    teacher_id              varchar(200)
+);
+
+create index catalog_listing_teacher_id_idx 
+    on catalog_listing (teacher_id, course_description_id);
+
+/**
+ * Number of enrolled students is kept with the course, so that a listing 
+ * includes it without counting enrolments.
+ */
+create table course_listing
+(
+    course_id               varchar(200) not null primary key,
+    course_description_id   varchar(200),
+    title                   varchar(200),
+    summary                 varchar(2000),
+    teacher_id              varchar(200),
+    start_date              bigint,
+    end_date                bigint,
+    number_of_seats         integer,
+    number_of_enrolled      integer not null default 0,
+    ongoing                 boolean not null default false
+);
+
+create index course_listing_teacher_id_idx 
+    on course_listing (teacher_id, course_id);
+create index course_listing_course_description_id_idx 
+    on course_listing (course_description_id, course_id);
+create index course_listing_end_date_idx on course_listing (end_date);
+create index course_listing_ongoing_idx 
+    on course_listing (course_id) where ongoing;
+
+create table student_courses
+(
+    enrolment_number        varchar(200) not null primary key,
+    student_id              varchar(200) not null,
+    course_id               varchar(200) not null
+);
+
+create unique index student_courses_student_id_idx 
+    on student_courses (student_id, course_id);
+create index student_courses_course_id_idx on student_courses (course_id);
+
+insert into catalog_listing (course_description_id, title, summary, teacher_id)
+select course_description_id, title, summary, teacher_id 
+from course_descriptions;
+
+insert into student_courses (enrolment_number, student_id, course_id)
+select enrolment_number, student_id, course_id from enrolments;
+
+insert into course_listing 
+    (course_id, course_description_id, title, summary, teacher_id, 
+     start_date, end_date, number_of_seats, number_of_enrolled, ongoing)
+select course_id, course_description_id, title, summary, teacher_id, 
+       start_date, end_date, number_of_seats, 
+       (select count(*) from student_courses 
+        where student_courses.course_id = courses.course_id),
+       coalesce(ongoing, false)
+from courses;
@@ -0,0 +1,54 @@
+/* 
+ * The MIT License
+ *
+ * Copyright 2018 André H. Juffer, Biocenter Oulu
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+/**
+ * Course, course description and enrolment identifiers are stored as native 
+ * uuid (16 bytes) instead of as text. Each table is rewritten once, and its 
+ * indexes are rebuilt. Fails if an identifier is not a UUID.
+ */
+alter table course_descriptions
+    alter column course_description_id type uuid 
+        using course_description_id::uuid;
+
+alter table courses
+    alter column course_id type uuid using course_id::uuid,
+    alter column course_description_id type uuid 
+        using course_description_id::uuid;
+
+alter table enrolments
+    alter column enrolment_number type uuid using enrolment_number::uuid,
+    alter column course_id type uuid using course_id::uuid;
+
+/* Read model. */
+alter table catalog_listing
+    alter column course_description_id type uuid 
+        using course_description_id::uuid;
+
+alter table course_listing
+    alter column course_id type uuid using course_id::uuid,
+    alter column course_description_id type uuid 
+        using course_description_id::uuid;
+
+alter table student_courses
+    alter column enrolment_number type uuid using enrolment_number::uuid,
+    alter column course_id type uuid using course_id::uuid;
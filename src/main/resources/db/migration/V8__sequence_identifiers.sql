@@ -0,0 +1,145 @@
+/* 
+ * The MIT License
+ *
+ * Copyright 2018 André H. Juffer, Biocenter Oulu
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+/**
+ * Module and student monitor identifiers are taken from per-course sequences. 
+ * Existing (random) identifiers are renumbered 1, 2, ... per course and per 
+ * course description, current modules of student monitors are renumbered 
+ * along, and the high-water marks are initialized to the highest numbers.
+ * A course module takes the number of the description module it was copied 
+ * from (same identifier), so that both still correspond; course modules no 
+ * longer in the description are numbered after the description's modules.
+ * Module identifiers are visible to clients, so references to modules kept 
+ * outside the database must be renumbered as well. The migration fails if a
+ * student monitor would no longer refer to its current module, or a course 
+ * module to its description module.
+ */
+alter table courses add column last_module_id integer not null default 0;
+alter table courses add column last_seat_number integer not null default 0;
+alter table course_descriptions add column last_module_id integer not null default 0;
+
+create temporary table description_module_numbers on commit drop as
+select id, course_description_id, module_id, 
+       row_number() over (
+           partition by course_description_id 
+           order by module_id, id
+       ) as number
+from modules
+where course_description_id is not null;
+
+create temporary table course_module_numbers on commit drop as
+select m.id, m.course_id, cd.id as course_description_id, m.module_id, d.number
+from modules m
+join courses c on c.id = m.course_id
+left join course_descriptions cd 
+on cd.course_description_id = c.course_description_id
+left join description_module_numbers d 
+on d.course_description_id = cd.id 
+and d.module_id = m.module_id;
+
+update course_module_numbers set number = u.number
+from (
+    select n.id, 
+           coalesce((
+               select max(d.number) from description_module_numbers d
+               where d.course_description_id = n.course_description_id
+           ), 0) + row_number() over (
+               partition by n.course_id 
+               order by n.module_id, n.id
+           ) as number
+    from course_module_numbers n
+    where n.number is null
+) u
+where u.id = course_module_numbers.id;
+
+create temporary table module_numbers on commit drop as
+select id, number from description_module_numbers
+union all
+select id, number from course_module_numbers;
+
+create temporary table current_modules on commit drop as
+select s.id, n.id as module
+from student_monitors s
+join rosters r on r.monitor_id = s.id
+join course_module_numbers n 
+on n.course_id = r.course_id 
+and n.module_id = s.current_module_id;
+
+create temporary table monitor_numbers on commit drop as
+select r.monitor_id as id, r.course_id, 
+       row_number() over (
+           partition by r.course_id 
+           order by m.monitor_id, m.id
+       ) as number
+from rosters r
+join student_monitors m on m.id = r.monitor_id;
+
+update student_monitors set current_module_id = n.number
+from current_modules c, module_numbers n
+where c.id = student_monitors.id 
+and n.id = c.module;
+
+update modules set module_id = n.number
+from module_numbers n
+where n.id = modules.id;
+
+update student_monitors set monitor_id = n.number
+from monitor_numbers n
+where n.id = student_monitors.id;
+
+update courses set 
+    last_module_id = coalesce((
+        select max(module_id) from modules where modules.course_id = courses.id
+    ), 0),
+    last_seat_number = coalesce((
+        select max(number) from monitor_numbers n where n.course_id = courses.id
+    ), 0);
+
+update course_descriptions set last_module_id = coalesce((
+    select max(module_id) from modules 
+    where modules.course_description_id = course_descriptions.id
+), 0);
+
+do $$
+begin
+    if exists (
+        select 1 from current_modules c
+        join student_monitors s on s.id = c.id
+        join modules m on m.id = c.module
+        where s.current_module_id <> m.module_id
+    ) then
+        raise exception 'Student monitors no longer refer to their current modules.';
+    end if;
+    if exists (
+        select 1 from course_module_numbers n
+        join description_module_numbers d 
+        on d.course_description_id = n.course_description_id 
+        and d.module_id = n.module_id
+        join modules cm on cm.id = n.id
+        join modules dm on dm.id = d.id
+        where cm.module_id <> dm.module_id
+    ) then
+        raise exception 'Course modules no longer correspond to description modules.';
+    end if;
+end
+$$;
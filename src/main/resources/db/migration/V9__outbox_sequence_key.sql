@@ -22,15 +22,7 @@
  * THE SOFTWARE.
  */
 /**
- * Author:  ajuffer
- * Created: Mar 14, 2018
+ * Outbox entries are relayed oldest first per sequence key, so that a pending
+ * entry holds back the later entries with the same key.
  */
-
-create table students
-(
-    id              UUID not null primary key,
-    student_id      varchar(200),
-    first_name      varchar(200),
-    surname         varchar(200)
-);
-
+create index event_outbox_sequence_key_idx on event_outbox (sequence_key, id);
@@ -0,0 +1,113 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2018 André H. Juffer, Biocenter Oulu
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.bco.cm;
+
+import java.time.Instant;
+import org.bco.cm.api.facade.CourseCatalogFacade;
+import org.bco.cm.api.facade.CourseFacade;
+import org.bco.cm.api.facade.StudentFacade;
+import org.bco.cm.api.facade.TeacherFacade;
+import org.bco.cm.domain.course.CourseDescriptionId;
+import org.bco.cm.domain.course.CourseId;
+import org.bco.cm.domain.student.StudentId;
+import org.bco.cm.domain.teacher.TeacherId;
+import org.bco.cm.dto.CourseDTO;
+import org.bco.cm.dto.CourseDescriptionDTO;
+import org.bco.cm.dto.ModuleDTO;
+import org.bco.cm.dto.StudentDTO;
+import org.bco.cm.dto.TeacherDTO;
+import org.springframework.context.ApplicationContext;
+
+/**
+ * Creates courses and students for tests, through the facades.
+ * @author Andr&#233; H. Juffer, Biocenter Oulu
+ */
+final class CourseFixtures {
+    
+    private CourseFixtures()
+    {
+    }
+    
+    /**
+     * Creates a course description with a single module, and activates it. 
+     * The course is open for enrolment for a year. Its teacher is registered 
+     * as well.
+     * @param context Application context.
+     * @param title Course title.
+     * @param seats Number of seats.
+     * @return Identifier of activated course.
+     */
+    static CourseId activateCourse(ApplicationContext context, 
+                                   String title, 
+                                   int seats)
+    {
+        TeacherFacade tf = context.getBean(TeacherFacade.class);
+        TeacherId teacherId = tf.generateTeacherId();
+        TeacherDTO teacher = new TeacherDTO();
+        teacher.setFirstName("Fixture");
+        teacher.setSurname("Teacher");
+        tf.register(teacherId, teacher);
+        
+        CourseCatalogFacade ccf = context.getBean(CourseCatalogFacade.class);
+        CourseDescriptionId courseDescriptionId = ccf.generate();
+        CourseDescriptionDTO description = new CourseDescriptionDTO();
+        description.setTitle(title);
+        description.setSummary("Course created by test fixture.");
+        ccf.postNewCourse(courseDescriptionId, teacherId, description);
+        ModuleDTO module = new ModuleDTO();
+        module.setName("Module 1");
+        ccf.addCourseModule(courseDescriptionId, teacherId, module);
+        
+        CourseFacade cf = context.getBean(CourseFacade.class);
+        CourseId courseId = cf.generate();
+        CourseDTO spec = new CourseDTO();
+        spec.setNumberOfSeats(seats);
+        Instant now = Instant.now();
+        spec.setStartDate(now.minusSeconds(60));
+        spec.setEndDate(now.plusSeconds(365*24*60*60));
+        cf.activate(teacherId, courseDescriptionId, courseId, spec);
+        return courseId;
+    }
+    
+    /**
+     * Registers a student.
+     * @param context Application context.
+     * @param firstName First name.
+     * @param surname Surname.
+     * @return Identifier of registered student.
+     */
+    static StudentId registerStudent(ApplicationContext context, 
+                                     String firstName,
+                                     String surname)
+    {
+        StudentFacade sf = context.getBean(StudentFacade.class);
+        StudentId studentId = sf.generateStudentId();
+        StudentDTO student = new StudentDTO();
+        student.setFirstName(firstName);
+        student.setSurname(surname);
+        sf.register(studentId, student);
+        return studentId;
+    }
+    
+}
@@ -0,0 +1,107 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2018 André H. Juffer, Biocenter Oulu
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.bco.cm;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.bco.cm.api.facade.CourseCatalogFacade;
+import org.bco.cm.api.facade.TeacherFacade;
+import org.bco.cm.domain.course.CourseDescriptionId;
+import org.bco.cm.domain.teacher.TeacherId;
+import org.bco.cm.dto.CourseDescriptionDTO;
+import org.bco.cm.dto.ModuleDTO;
+import org.bco.cm.dto.TeacherDTO;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+
+/**
+ * Checks that a course description read right after an update shows the 
+ * update, although it was cached before and events are relayed 
+ * asynchronously.
+ * @author Andr&#233; H. Juffer, Biocenter Oulu
+ */
+public class TestCatalogCacheFreshness {
+
+    /**
+     * @param args the command line arguments
+     */
+    public static void main(String[] args) 
+    {
+        Logger logger = LogManager.getLogger("org.bco.cm");
+        try {
+            AnnotationConfigApplicationContext context = 
+                new AnnotationConfigApplicationContext();
+            context.register(CmConfiguration.class);
+            context.refresh();
+            
+            TeacherFacade teacherFacade = context.getBean(TeacherFacade.class);
+            CourseCatalogFacade catalogFacade = 
+                context.getBean(CourseCatalogFacade.class);
+            
+            TeacherId teacherId = teacherFacade.generateTeacherId();
+            TeacherDTO teacher = new TeacherDTO();
+            teacher.setFirstName("First");
+            teacher.setSurname("Last");
+            teacherFacade.register(teacherId, teacher);
+            
+            CourseDescriptionId courseId = catalogFacade.generate();
+            CourseDescriptionDTO spec = new CourseDescriptionDTO();
+            spec.setTitle("Before");
+            spec.setSummary("Summary");
+            catalogFacade.postNewCourse(courseId, teacherId, spec);
+            
+            // Cache the course description.
+            check("Before", catalogFacade.getCourse(courseId).getTitle());
+            
+            // Update, then read.
+            CourseDescriptionDTO update = catalogFacade.getCourse(courseId);
+            update.setTitle("After");
+            catalogFacade.updateCourse(courseId, teacherId, update);
+            check("After", catalogFacade.getCourse(courseId).getTitle());
+            
+            // Add module, then read.
+            ModuleDTO module = new ModuleDTO();
+            module.setName("Module");
+            catalogFacade.addCourseModule(courseId, teacherId, module);
+            int modules = catalogFacade.getCourse(courseId).getModules().size();
+            check("1", String.valueOf(modules));
+            
+            catalogFacade.deleteCourse(courseId, teacherId);
+            logger.info("Course description read after update is fresh: OK.");
+            context.close();
+        } catch (Exception exception) {
+            logger.error(exception.getMessage(), exception);
+        }
+    }
+    
+    private static void check(String expected, String actual)
+    {
+        if ( !expected.equals(actual) ) {
+            throw new IllegalStateException(
+                "Expected '" + expected + "', read '" + actual + "'."
+            );
+        }
+    }
+    
+}
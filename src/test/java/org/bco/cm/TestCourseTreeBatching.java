@@ -0,0 +1,173 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2018 André H. Juffer, Biocenter Oulu
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.bco.cm;
+
+import java.util.ArrayList;
+import java.util.List;
+import javax.persistence.EntityManagerFactory;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.bco.cm.api.facade.CourseCatalogFacade;
+import org.bco.cm.api.facade.TeacherFacade;
+import org.bco.cm.domain.course.CourseDescriptionId;
+import org.bco.cm.domain.teacher.TeacherId;
+import org.bco.cm.dto.ChoiceDTO;
+import org.bco.cm.dto.CourseDescriptionDTO;
+import org.bco.cm.dto.ModuleDTO;
+import org.bco.cm.dto.ModuleItemDTO;
+import org.bco.cm.dto.MultipleChoiceQuestionDTO;
+import org.bco.cm.dto.QuizDTO;
+import org.bco.cm.dto.TeacherDTO;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+
+/**
+ * Regression test for JDBC batching of deep cascades. Saves a course 
+ * description with 20 modules, each with 10 quizzes of 10 questions with 4 
+ * choices, and counts inserted rows against JDBC statements prepared. Without
+ * batching, every row costs a statement and a round trip. With ordered inserts
+ * and batching, each table needs about rows / batch size round trips.
+ * @author Andr&#233; H. Juffer, Biocenter Oulu
+ */
+public class TestCourseTreeBatching {
+    
+    private static final int MODULES = 20;
+    private static final int QUIZZES = 10;
+    private static final int QUESTIONS = 10;
+    private static final int CHOICES = 4;
+    
+    // Course description, modules, quizzes, questions, choices.
+    private static final int TABLES = 5;
+    
+    // Selects preceding the inserts, e.g. teacher and course identifier lookups.
+    private static final int LOOKUPS = 4;
+
+    /**
+     * @param args the command line arguments
+     */
+    public static void main(String[] args) 
+    {
+        Logger logger = LogManager.getLogger("org.bco.cm");
+        try {
+            AnnotationConfigApplicationContext context = 
+                new AnnotationConfigApplicationContext();
+            context.register(CmConfiguration.class);
+            context.refresh();
+            
+            TeacherFacade tf = context.getBean(TeacherFacade.class);
+            TeacherId teacherId = tf.generateTeacherId();
+            TeacherDTO teacher = new TeacherDTO();
+            teacher.setFirstName("Batch");
+            teacher.setSurname("Test");
+            tf.register(teacherId, teacher);
+            
+            EntityManagerFactory emf = context.getBean(EntityManagerFactory.class);
+            SessionFactory sessionFactory = emf.unwrap(SessionFactory.class);
+            Object property = 
+                sessionFactory.getProperties().getOrDefault("hibernate.jdbc.batch_size", "1");
+            int batchSize = Integer.parseInt(property.toString());
+            Statistics statistics = sessionFactory.getStatistics();
+            statistics.setStatisticsEnabled(true);
+            statistics.clear();
+            
+            CourseCatalogFacade ccf = context.getBean(CourseCatalogFacade.class);
+            CourseDescriptionId courseId = ccf.generate();
+            long start = System.nanoTime();
+            ccf.postNewCourse(courseId, teacherId, course());
+            double millis = (System.nanoTime() - start) / 1.0e6;
+            
+            long inserts = statistics.getEntityInsertCount();
+            long updates = statistics.getEntityUpdateCount();
+            long statements = statistics.getPrepareStatementCount();
+            long expected = 
+                1 + MODULES + MODULES * QUIZZES + 
+                MODULES * QUIZZES * QUESTIONS + 
+                MODULES * QUIZZES * QUESTIONS * CHOICES;
+            long roundTrips = TABLES + inserts / batchSize;
+            logger.info("Saved course: " + inserts + " inserts, " + updates + 
+                        " updates, " + statements + " statements prepared, in " + 
+                        String.format("%.1f", millis) + " ms.");
+            logger.info("Batch size " + batchSize + ": at most " + roundTrips + 
+                        " insert round trips (unbatched: " + inserts + ").");
+            if ( inserts < expected ) {
+                throw new IllegalStateException(
+                    "Expected at least " + expected + " inserts, got " + inserts + "."
+                );
+            }
+            if ( updates != 0 ) {
+                throw new IllegalStateException(
+                    "Cascade issued " + updates + " updates after inserts."
+                );
+            }
+            if ( statements > roundTrips + LOOKUPS ) {
+                throw new IllegalStateException(
+                    "Inserts not batched: " + statements + " statements for " +
+                    inserts + " rows."
+                );
+            }
+            logger.info("Inserts batched.");
+            
+            context.close();
+        } catch (Exception exception) {
+            logger.error(exception.getMessage(), exception);
+        }
+    }
+    
+    private static CourseDescriptionDTO course()
+    {
+        CourseDescriptionDTO course = new CourseDescriptionDTO();
+        course.setTitle("Batching test");
+        course.setSummary("Course with a deep tree of modules.");
+        List<ModuleDTO> modules = new ArrayList<>();
+        for (int m = 0; m < MODULES; m++) {
+            ModuleDTO module = new ModuleDTO();
+            module.setName("Module " + m);
+            List<ModuleItemDTO> items = new ArrayList<>();
+            for (int q = 0; q < QUIZZES; q++) {
+                QuizDTO quiz = new QuizDTO();
+                quiz.setTitle("Quiz " + q);
+                List<MultipleChoiceQuestionDTO> questions = new ArrayList<>();
+                for (int n = 0; n < QUESTIONS; n++) {
+                    MultipleChoiceQuestionDTO question = new MultipleChoiceQuestionDTO();
+                    question.setQuestion("Question " + n + "?");
+                    List<ChoiceDTO> choices = new ArrayList<>();
+                    for (int c = 0; c < CHOICES; c++) {
+                        choices.add(new ChoiceDTO("Choice " + c));
+                    }
+                    question.setChoices(choices);
+                    question.setAnswer(new ChoiceDTO("Choice 0"));
+                    questions.add(question);
+                }
+                quiz.setQuestions(questions);
+                items.add(quiz);
+            }
+            module.setModuleItems(items);
+            modules.add(module);
+        }
+        course.setModules(modules);
+        return course;
+    }
+    
+}
@@ -0,0 +1,149 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2018 André H. Juffer, Biocenter Oulu
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.bco.cm;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import javax.sql.DataSource;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.bco.cm.application.query.EnrolmentSpecification;
+import org.bco.cm.application.query.ReadOnlyEnrolmentRegistry;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Benchmarks EnrolmentSpecification.query against 100k enrolments, with and 
+ * without the indexes of migration V2. Everything happens in one transaction 
+ * that is rolled back, so neither the seeded enrolments nor the dropped 
+ * indexes survive (PostgreSQL DDL is transactional).
+ * @author Andr&#233; H. Juffer, Biocenter Oulu
+ */
+public class TestEnrolmentIndexes {
+    
+    private static final int ENROLMENTS = 100000;
+    private static final int COURSES = 200;
+    private static final int QUERIES = 500;
+
+    /**
+     * @param args the command line arguments
+     */
+    public static void main(String[] args) 
+    {
+        Logger logger = LogManager.getLogger("org.bco.cm");
+        try {
+            AnnotationConfigApplicationContext context = 
+                new AnnotationConfigApplicationContext();
+            context.register(CmConfiguration.class);
+            context.refresh();
+            
+            DataSource dataSource = context.getBean(DataSource.class);
+            JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+            ReadOnlyEnrolmentRegistry registry = 
+                context.getBean(ReadOnlyEnrolmentRegistry.class);
+            TransactionTemplate tx = 
+                new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+            
+            tx.execute(status -> {
+                List<String[]> pairs = seed(jdbc);
+                logger.info("Seeded " + ENROLMENTS + " enrolments.");
+                
+                double after = measure(registry, pairs);
+                jdbc.execute("drop index enrolments_course_id_student_id_idx");
+                jdbc.execute("drop index enrolments_student_id_idx");
+                jdbc.execute("drop index enrolments_enrolment_number_idx");
+                jdbc.execute("analyze enrolments");
+                double before = measure(registry, pairs);
+                
+                logger.info(String.format(
+                    "EnrolmentSpecification.query: %.3f ms without indexes, " +
+                    "%.3f ms with indexes (mean of %d).", before, after, QUERIES
+                ));
+                status.setRollbackOnly();
+                return null;
+            });
+            context.close();
+        } catch (Exception exception) {
+            logger.error(exception.getMessage(), exception);
+        }
+    }
+    
+    private static List<String[]> seed(JdbcTemplate jdbc)
+    {
+        List<String> courseIds = new ArrayList<>();
+        for (int i = 0; i < COURSES; i++) {
+            courseIds.add(UUID.randomUUID().toString());
+        }
+        List<Object[]> rows = new ArrayList<>();
+        List<String[]> pairs = new ArrayList<>();
+        long now = System.currentTimeMillis();
+        for (int i = 0; i < ENROLMENTS; i++) {
+            String courseId = courseIds.get(i % COURSES);
+            String studentId = UUID.randomUUID().toString();
+            rows.add(new Object[]{
+                UUID.randomUUID(), UUID.randomUUID().toString(), 
+                courseId, studentId, now
+            });
+            if ( i % (ENROLMENTS / QUERIES) == 0 ) {
+                pairs.add(new String[]{courseId, studentId});
+            }
+        }
+        jdbc.batchUpdate(
+            "insert into enrolments " +
+            "(id, enrolment_number, course_id, student_id, date_of_registration) " +
+            "values (?, ?, ?, ?, ?)", 
+            rows
+        );
+        jdbc.execute("analyze enrolments");
+        return pairs;
+    }
+    
+    private static double measure(ReadOnlyEnrolmentRegistry registry, 
+                                  List<String[]> pairs)
+    {
+        long start = System.nanoTime();
+        for (int i = 0; i < QUERIES; i++) {
+            String[] pair = pairs.get(i % pairs.size());
+            EnrolmentSpecification spec = new EnrolmentSpecification();
+            switch ( i % 3 ) {
+                case 0:
+                    spec.setCourseId(pair[0]);
+                    spec.setStudentId(pair[1]);
+                    break;
+                case 1:
+                    spec.setCourseId(pair[0]);
+                    break;
+                default:
+                    spec.setStudentId(pair[1]);
+            }
+            spec.query(registry);
+        }
+        return (System.nanoTime() - start) / 1.0e6 / QUERIES;
+    }
+    
+}
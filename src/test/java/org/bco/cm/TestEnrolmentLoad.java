@@ -0,0 +1,131 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2018 André H. Juffer, Biocenter Oulu
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.bco.cm;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.bco.cm.api.facade.CourseFacade;
+import org.bco.cm.api.facade.EnrolmentFacade;
+import org.bco.cm.domain.course.CourseId;
+import org.bco.cm.domain.student.StudentId;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+
+/**
+ * Load test of enrolment. More students than there are seats enrol 
+ * concurrently in a single course with 500 seats. Reports enrolments per 
+ * second, and checks that exactly all seats were taken and the roster matches
+ * the enrolments.
+ * @author Andr&#233; H. Juffer, Biocenter Oulu
+ */
+public class TestEnrolmentLoad {
+    
+    private static final int SEATS = 500;
+    private static final int STUDENTS = 550;
+    private static final int THREADS = 16;
+
+    /**
+     * @param args the command line arguments
+     */
+    public static void main(String[] args) 
+    {
+        Logger logger = LogManager.getLogger("org.bco.cm");
+        try {
+            AnnotationConfigApplicationContext context = 
+                new AnnotationConfigApplicationContext();
+            context.register(CmConfiguration.class);
+            context.refresh();
+            
+            CourseId courseId = 
+                CourseFixtures.activateCourse(context, "Enrolment load test", SEATS);
+            List<StudentId> studentIds = registerStudents(context);
+            logger.info("Course with " + SEATS + " seats and " + 
+                        STUDENTS + " students created.");
+            
+            // Enrol concurrently.
+            EnrolmentFacade ef = context.getBean(EnrolmentFacade.class);
+            AtomicInteger enrolled = new AtomicInteger();
+            AtomicInteger rejected = new AtomicInteger();
+            ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+            List<Future<?>> futures = new ArrayList<>();
+            long start = System.nanoTime();
+            for (StudentId studentId : studentIds) {
+                futures.add(executor.submit(() -> {
+                    try {
+                        ef.register(ef.generateEnrolmentNumber(), courseId, studentId);
+                        enrolled.incrementAndGet();
+                    } catch (RuntimeException exception) {
+                        rejected.incrementAndGet();
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+            double seconds = (System.nanoTime() - start) / 1.0e9;
+            executor.shutdown();
+            executor.awaitTermination(1, TimeUnit.MINUTES);
+            
+            logger.info("Enrolled: " + enrolled.get() + ", rejected: " + 
+                        rejected.get() + ", in " + String.format("%.2f", seconds) +
+                        " s with " + THREADS + " threads.");
+            logger.info("Enrolments per second: " + 
+                        String.format("%.1f", enrolled.get() / seconds));
+            
+            CourseFacade cf = context.getBean(CourseFacade.class);
+            int roster = cf.getCourse(courseId).getRoster().size();
+            int enrolments = ef.getEnrolments(courseId).size();
+            if ( enrolled.get() != SEATS || roster != SEATS || enrolments != SEATS ) {
+                throw new IllegalStateException(
+                    "Expected " + SEATS + " enrolments, got " + enrolled.get() + 
+                    " (roster " + roster + ", enrolments " + enrolments + ")."
+                );
+            }
+            logger.info("Roster and enrolments consistent: " + roster);
+            
+            context.close();
+        } catch (Exception exception) {
+            logger.error(exception.getMessage(), exception);
+        }
+    }
+    
+    private static List<StudentId> registerStudents(AnnotationConfigApplicationContext context)
+    {
+        List<StudentId> studentIds = new ArrayList<>();
+        for (int n = 0; n < STUDENTS; n++) {
+            studentIds.add(
+                CourseFixtures.registerStudent(context, "Student", "No. " + n)
+            );
+        }
+        return studentIds;
+    }
+    
+}
@@ -0,0 +1,166 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2018 André H. Juffer, Biocenter Oulu
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.bco.cm;
+
+import java.util.ArrayList;
+import java.util.List;
+import javax.persistence.EntityManagerFactory;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.bco.cm.api.facade.CourseCatalogFacade;
+import org.bco.cm.api.facade.TeacherFacade;
+import org.bco.cm.domain.course.CourseDescriptionId;
+import org.bco.cm.domain.teacher.TeacherId;
+import org.bco.cm.dto.ChoiceDTO;
+import org.bco.cm.dto.CourseDescriptionDTO;
+import org.bco.cm.dto.ModuleDTO;
+import org.bco.cm.dto.ModuleItemDTO;
+import org.bco.cm.dto.MultipleChoiceQuestionDTO;
+import org.bco.cm.dto.QuizDTO;
+import org.bco.cm.dto.TeacherDTO;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+
+/**
+ * Regression test for incremental updates of course descriptions. Saves a 
+ * course description with 20 modules, each with 10 quizzes of 10 questions 
+ * with 4 choices, reads it back, changes the title of a single quiz and 
+ * updates the course description with it. Only the row of that quiz may be 
+ * written: one update, no inserts and no deletes.
+ * @author Andr&#233; H. Juffer, Biocenter Oulu
+ */
+public class TestIncrementalUpdate {
+    
+    private static final int MODULES = 20;
+    private static final int QUIZZES = 10;
+    private static final int QUESTIONS = 10;
+    private static final int CHOICES = 4;
+
+    /**
+     * @param args the command line arguments
+     */
+    public static void main(String[] args) 
+    {
+        Logger logger = LogManager.getLogger("org.bco.cm");
+        try {
+            AnnotationConfigApplicationContext context = 
+                new AnnotationConfigApplicationContext();
+            context.register(CmConfiguration.class);
+            context.refresh();
+            
+            TeacherFacade tf = context.getBean(TeacherFacade.class);
+            TeacherId teacherId = tf.generateTeacherId();
+            TeacherDTO teacher = new TeacherDTO();
+            teacher.setFirstName("Update");
+            teacher.setSurname("Test");
+            tf.register(teacherId, teacher);
+            
+            CourseCatalogFacade ccf = context.getBean(CourseCatalogFacade.class);
+            CourseDescriptionId courseId = ccf.generate();
+            ccf.postNewCourse(courseId, teacherId, course());
+            
+            EntityManagerFactory emf = context.getBean(EntityManagerFactory.class);
+            Statistics statistics = 
+                emf.unwrap(SessionFactory.class).getStatistics();
+            statistics.setStatisticsEnabled(true);
+            
+            // Retitle a single quiz in the middle of the course.
+            CourseDescriptionDTO spec = ccf.getCourse(courseId);
+            ModuleDTO module = spec.getModules().get(MODULES / 2);
+            ModuleItemDTO quiz = module.getModuleItems().get(QUIZZES / 2);
+            String title = "Retitled quiz";
+            quiz.setTitle(title);
+            
+            statistics.clear();
+            ccf.updateCourse(courseId, teacherId, spec);
+            long inserts = statistics.getEntityInsertCount();
+            long updates = statistics.getEntityUpdateCount();
+            long deletes = statistics.getEntityDeleteCount();
+            logger.info("Updated course: " + inserts + " inserts, " + updates + 
+                        " updates, " + deletes + " deletes, " + 
+                        statistics.getPrepareStatementCount() + 
+                        " statements prepared.");
+            if ( updates != 1 || inserts != 0 || deletes != 0 ) {
+                throw new IllegalStateException(
+                    "Failed: Expected a single update, got " + updates + 
+                    " updates, " + inserts + " inserts and " + deletes + 
+                    " deletes."
+                );
+            }
+            
+            CourseDescriptionDTO updated = ccf.getCourse(courseId);
+            ModuleItemDTO retitled = updated.getModules()
+                                            .get(MODULES / 2)
+                                            .getModuleItems()
+                                            .get(QUIZZES / 2);
+            if ( !title.equals(retitled.getTitle()) ) {
+                throw new IllegalStateException(
+                    "Failed: Quiz was not retitled."
+                );
+            }
+            logger.info("Quiz updated in place.");
+            
+            context.close();
+        } catch (Exception exception) {
+            logger.error(exception.getMessage(), exception);
+        }
+    }
+    
+    private static CourseDescriptionDTO course()
+    {
+        CourseDescriptionDTO course = new CourseDescriptionDTO();
+        course.setTitle("Update test");
+        course.setSummary("Course with a deep tree of modules.");
+        List<ModuleDTO> modules = new ArrayList<>();
+        for (int m = 0; m < MODULES; m++) {
+            ModuleDTO module = new ModuleDTO();
+            module.setName("Module " + m);
+            List<ModuleItemDTO> items = new ArrayList<>();
+            for (int q = 0; q < QUIZZES; q++) {
+                QuizDTO quiz = new QuizDTO();
+                quiz.setTitle("Quiz " + q);
+                List<MultipleChoiceQuestionDTO> questions = new ArrayList<>();
+                for (int n = 0; n < QUESTIONS; n++) {
+                    MultipleChoiceQuestionDTO question = new MultipleChoiceQuestionDTO();
+                    question.setQuestion("Question " + n + "?");
+                    List<ChoiceDTO> choices = new ArrayList<>();
+                    for (int c = 0; c < CHOICES; c++) {
+                        choices.add(new ChoiceDTO("Choice " + c));
+                    }
+                    question.setChoices(choices);
+                    question.setAnswer(new ChoiceDTO("Choice 0"));
+                    questions.add(question);
+                }
+                quiz.setQuestions(questions);
+                items.add(quiz);
+            }
+            module.setModuleItems(items);
+            modules.add(module);
+        }
+        course.setModules(modules);
+        return course;
+    }
+    
+}
@@ -0,0 +1,207 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2018 André H. Juffer, Biocenter Oulu
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.bco.cm;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import javax.persistence.EntityManagerFactory;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.bco.cm.api.facade.CourseCatalogFacade;
+import org.bco.cm.api.facade.CourseFacade;
+import org.bco.cm.api.facade.TeacherFacade;
+import org.bco.cm.domain.course.CourseDescriptionId;
+import org.bco.cm.domain.course.CourseId;
+import org.bco.cm.domain.teacher.TeacherId;
+import org.bco.cm.dto.ChoiceDTO;
+import org.bco.cm.dto.CourseDTO;
+import org.bco.cm.dto.CourseDescriptionDTO;
+import org.bco.cm.dto.ModuleDTO;
+import org.bco.cm.dto.ModuleItemDTO;
+import org.bco.cm.dto.MultipleChoiceQuestionDTO;
+import org.bco.cm.dto.QuizDTO;
+import org.bco.cm.dto.TeacherDTO;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+
+/**
+ * Regression test for copying modules on activation. Activates a course 
+ * description with a single module, and one with 10 modules, each with 5 
+ * quizzes of 5 questions with 4 choices. Both activated courses must hold 
+ * copies of all modules, module items, questions and choices, and activating
+ * the large course must take as many JDBC statements as the small one.
+ * @author Andr&#233; H. Juffer, Biocenter Oulu
+ */
+public class TestModuleCopier {
+    
+    private static final int MODULES = 10;
+    private static final int QUIZZES = 5;
+    private static final int QUESTIONS = 5;
+    private static final int CHOICES = 4;
+
+    /**
+     * @param args the command line arguments
+     */
+    public static void main(String[] args) 
+    {
+        Logger logger = LogManager.getLogger("org.bco.cm");
+        try {
+            AnnotationConfigApplicationContext context = 
+                new AnnotationConfigApplicationContext();
+            context.register(CmConfiguration.class);
+            context.refresh();
+            
+            TeacherFacade tf = context.getBean(TeacherFacade.class);
+            TeacherId teacherId = tf.generateTeacherId();
+            TeacherDTO teacher = new TeacherDTO();
+            teacher.setFirstName("Copy");
+            teacher.setSurname("Test");
+            tf.register(teacherId, teacher);
+            
+            CourseCatalogFacade ccf = context.getBean(CourseCatalogFacade.class);
+            CourseDescriptionId small = ccf.generate();
+            ccf.postNewCourse(small, teacherId, course(1, 1, 1, 1));
+            CourseDescriptionId large = ccf.generate();
+            ccf.postNewCourse(large, teacherId, course(MODULES, QUIZZES, QUESTIONS, CHOICES));
+            
+            EntityManagerFactory emf = context.getBean(EntityManagerFactory.class);
+            Statistics statistics = 
+                emf.unwrap(SessionFactory.class).getStatistics();
+            statistics.setStatisticsEnabled(true);
+            
+            CourseFacade cf = context.getBean(CourseFacade.class);
+            long smallStatements = activate(cf, statistics, teacherId, small, 1, 1, 1, 1);
+            long largeStatements = 
+                activate(cf, statistics, teacherId, large, MODULES, QUIZZES, QUESTIONS, CHOICES);
+            logger.info("Activated courses: " + smallStatements + " statements for " + 
+                        "1 module, " + largeStatements + " statements for " + 
+                        MODULES + " modules.");
+            if ( largeStatements != smallStatements ) {
+                throw new IllegalStateException(
+                    "Failed: Statements grow with modules copied."
+                );
+            }
+            logger.info("Modules copied.");
+            
+            context.close();
+        } catch (Exception exception) {
+            logger.error(exception.getMessage(), exception);
+        }
+    }
+    
+    // Activates course and checks its modules. Returns number of statements.
+    private static long activate(CourseFacade cf,
+                                 Statistics statistics,
+                                 TeacherId teacherId,
+                                 CourseDescriptionId courseDescriptionId,
+                                 int modules, 
+                                 int quizzes,
+                                 int questions,
+                                 int choices)
+    {
+        CourseDTO spec = new CourseDTO();
+        spec.setNumberOfSeats(15);
+        Instant now = Instant.now();
+        spec.setStartDate(now);
+        spec.setEndDate(now.plusSeconds(365*24*60*60));
+        CourseId courseId = cf.generate();
+        
+        statistics.clear();
+        cf.activate(teacherId, courseDescriptionId, courseId, spec);
+        long statements = statistics.getPrepareStatementCount();
+        
+        CourseDTO course = cf.getCourse(courseId);
+        if ( course.getModules().size() != modules ) {
+            throw new IllegalStateException(
+                "Failed: Expected " + modules + " modules, got " + 
+                course.getModules().size() + "."
+            );
+        }
+        for (ModuleDTO module : course.getModules()) {
+            if ( module.getModuleItems().size() != quizzes ) {
+                throw new IllegalStateException(
+                    "Failed: Module " + module.getModuleId() + " lacks quizzes."
+                );
+            }
+            for (ModuleItemDTO item : module.getModuleItems()) {
+                List<MultipleChoiceQuestionDTO> copied = ((QuizDTO)item).getQuestions();
+                if ( copied.size() != questions ) {
+                    throw new IllegalStateException(
+                        "Failed: Quiz '" + item.getTitle() + "' lacks questions."
+                    );
+                }
+                for (MultipleChoiceQuestionDTO question : copied) {
+                    if ( question.getChoices().size() != choices ) {
+                        throw new IllegalStateException(
+                            "Failed: Question '" + question.getQuestion() + 
+                            "' lacks choices."
+                        );
+                    }
+                }
+            }
+        }
+        return statements;
+    }
+    
+    private static CourseDescriptionDTO course(int modules, 
+                                               int quizzes,
+                                               int questions,
+                                               int choices)
+    {
+        CourseDescriptionDTO course = new CourseDescriptionDTO();
+        course.setTitle("Copy test");
+        course.setSummary("Course with modules copied on activation.");
+        List<ModuleDTO> moduleSpecs = new ArrayList<>();
+        for (int m = 0; m < modules; m++) {
+            ModuleDTO module = new ModuleDTO();
+            module.setName("Module " + m);
+            List<ModuleItemDTO> items = new ArrayList<>();
+            for (int q = 0; q < quizzes; q++) {
+                QuizDTO quiz = new QuizDTO();
+                quiz.setTitle("Quiz " + q);
+                List<MultipleChoiceQuestionDTO> questionSpecs = new ArrayList<>();
+                for (int n = 0; n < questions; n++) {
+                    MultipleChoiceQuestionDTO question = new MultipleChoiceQuestionDTO();
+                    question.setQuestion("Question " + n + "?");
+                    List<ChoiceDTO> choiceSpecs = new ArrayList<>();
+                    for (int c = 0; c < choices; c++) {
+                        choiceSpecs.add(new ChoiceDTO("Choice " + c));
+                    }
+                    question.setChoices(choiceSpecs);
+                    question.setAnswer(new ChoiceDTO("Choice 0"));
+                    questionSpecs.add(question);
+                }
+                quiz.setQuestions(questionSpecs);
+                items.add(quiz);
+            }
+            module.setModuleItems(items);
+            moduleSpecs.add(module);
+        }
+        course.setModules(moduleSpecs);
+        return course;
+    }
+    
+}
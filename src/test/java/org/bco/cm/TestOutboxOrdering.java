@@ -0,0 +1,126 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2018 André H. Juffer, Biocenter Oulu
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.bco.cm;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.bco.cm.application.event.handler.EventOutbox;
+import org.bco.cm.application.event.handler.OutboxEntry;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Checks that a failed outbox entry holds back the later entries with the 
+ * same sequence key, while entries with other keys are still pending, and 
+ * that an entry given up no longer does. Everything happens in one 
+ * transaction that is rolled back.
+ * @author Andr&#233; H. Juffer, Biocenter Oulu
+ */
+public class TestOutboxOrdering {
+    
+    private static final int MAX_ATTEMPTS = 3;
+
+    /**
+     * @param args the command line arguments
+     */
+    public static void main(String[] args) 
+    {
+        Logger logger = LogManager.getLogger("org.bco.cm");
+        try {
+            AnnotationConfigApplicationContext context = 
+                new AnnotationConfigApplicationContext();
+            context.register(CmConfiguration.class);
+            context.refresh();
+            
+            // The relay would pick up the entries, test the outbox alone.
+            context.stop();
+            EventOutbox outbox = context.getBean(EventOutbox.class);
+            TransactionTemplate tx = 
+                new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+            
+            tx.execute(status -> {
+                String key = "ordering-" + UUID.randomUUID();
+                String other = "ordering-" + UUID.randomUUID();
+                OutboxEntry first = entry(key);
+                OutboxEntry second = entry(key);
+                OutboxEntry third = entry(other);
+                outbox.append(Arrays.asList(first, second, third));
+                
+                check(outbox, first, true, "first entry pending");
+                check(outbox, second, false, "second entry held back by first");
+                
+                // First fails, and waits for its retry.
+                if ( outbox.failed(first.getEventId(), "Failure.", MAX_ATTEMPTS) ) {
+                    throw new IllegalStateException("Failed: first entry given up early.");
+                }
+                check(outbox, first, false, "failed entry waits for retry");
+                check(outbox, second, false, "second entry held back by failed first");
+                check(outbox, third, true, "entry with other key pending");
+                
+                // First is given up, and moved to the dead letters.
+                boolean givenUp = false;
+                for (int i = 1; i < MAX_ATTEMPTS; i++) {
+                    givenUp = outbox.failed(first.getEventId(), "Failure.", MAX_ATTEMPTS);
+                }
+                if ( !givenUp || outbox.remove(first.getEventId()) ) {
+                    throw new IllegalStateException("Failed: first entry given up.");
+                }
+                check(outbox, second, true, "second entry pending after given up first");
+                
+                status.setRollbackOnly();
+                return null;
+            });
+            logger.info("Outbox ordering per sequence key: OK.");
+            context.close();
+        } catch (Exception exception) {
+            logger.error(exception.getMessage(), exception);
+        }
+    }
+    
+    private static OutboxEntry entry(String sequenceKey)
+    {
+        return new OutboxEntry(
+            UUID.randomUUID().toString(), "Test", sequenceKey, "{}", 0
+        );
+    }
+    
+    private static void check(EventOutbox outbox, 
+                              OutboxEntry entry, 
+                              boolean pending,
+                              String what)
+    {
+        List<OutboxEntry> entries = outbox.pending(Integer.MAX_VALUE);
+        boolean found = entries.stream()
+            .anyMatch(e -> e.getEventId().equals(entry.getEventId()));
+        if ( found != pending ) {
+            throw new IllegalStateException("Failed: " + what + ".");
+        }
+    }
+    
+}
@@ -0,0 +1,118 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2018 André H. Juffer, Biocenter Oulu
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.bco.cm;
+
+import java.util.UUID;
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.bco.cm.application.query.ReadOnlyEnrolmentRegistry;
+import org.bco.cm.domain.course.CourseId;
+import org.bco.cm.domain.student.StudentId;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+
+/**
+ * Micro-benchmark comparing the query plan cache hit rate for HQL built by 
+ * string concatenation against named queries with bind parameters. Every 
+ * distinct query string must be parsed and compiled by Hibernate once, i.e.
+ * is a plan cache miss.
+ * @author Andr&#233; H. Juffer, Biocenter Oulu
+ */
+public class TestQueryPlanCache {
+    
+    private static final int N = 2000;
+
+    /**
+     * @param args the command line arguments
+     */
+    public static void main(String[] args) 
+    {
+        Logger logger = LogManager.getLogger("org.bco.cm");
+        try {
+            AnnotationConfigApplicationContext context = 
+                new AnnotationConfigApplicationContext();
+            context.register(CmConfiguration.class);
+            context.refresh();
+            
+            EntityManagerFactory emf = context.getBean(EntityManagerFactory.class);
+            Statistics statistics = 
+                emf.unwrap(SessionFactory.class).getStatistics();
+            statistics.setStatisticsEnabled(true);
+            
+            // Before: identifiers concatenated into the query string.
+            statistics.clear();
+            EntityManager em = emf.createEntityManager();
+            long start = System.nanoTime();
+            for (int i = 0; i < N; i++) {
+                String hql = 
+                    "select enrolment from EnrolmentDTO enrolment where " +
+                    "enrolment.courseId = '" + UUID.randomUUID() + "' and " +
+                    "enrolment.studentId = '" + UUID.randomUUID() + "'";
+                em.createQuery(hql).getResultList();
+            }
+            long before = System.nanoTime() - start;
+            em.close();
+            report(logger, "concatenated HQL", statistics, before);
+            
+            // After: named query with bind parameters.
+            statistics.clear();
+            ReadOnlyEnrolmentRegistry registry = 
+                context.getBean(ReadOnlyEnrolmentRegistry.class);
+            start = System.nanoTime();
+            for (int i = 0; i < N; i++) {
+                CourseId courseId = CourseId.generate();
+                StudentId studentId = StudentId.generate();
+                registry.getCourseEnrolment(courseId, studentId);
+            }
+            long after = System.nanoTime() - start;
+            report(logger, "named query", statistics, after);
+            
+            context.close();
+        } catch (Exception exception) {
+            logger.error(exception.getMessage(), exception);
+        }
+    }
+    
+    private static void report(Logger logger, 
+                               String label, 
+                               Statistics statistics, 
+                               long nanos)
+    {
+        long executions = statistics.getQueryExecutionCount();
+        int distinct = statistics.getQueries().length;
+        double hitRate = 
+            executions > 0 ? 100.0 * (executions - distinct) / executions : 0.0;
+        logger.info(
+            label + ": " + executions + " executions, " + 
+            distinct + " distinct query strings, " +
+            String.format("plan cache hit rate %.1f%%, ", hitRate) +
+            String.format("%.1f us/query", nanos / 1000.0 / N)
+        );
+    }
+    
+}
@@ -0,0 +1,136 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2018 André H. Juffer, Biocenter Oulu
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.bco.cm;
+
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.PersistenceUnitUtil;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.bco.cm.api.facade.CourseFacade;
+import org.bco.cm.api.facade.EnrolmentFacade;
+import org.bco.cm.domain.course.Course;
+import org.bco.cm.domain.course.CourseId;
+import org.bco.cm.domain.course.CourseRegistry;
+import org.bco.cm.domain.course.CourseRoster;
+import org.bco.cm.domain.course.SeatInventory;
+import org.bco.cm.domain.enrolment.Enrolment;
+import org.bco.cm.domain.enrolment.EnrolmentNumber;
+import org.bco.cm.domain.enrolment.EnrolmentRegistry;
+import org.bco.cm.domain.student.Student;
+import org.bco.cm.domain.student.StudentId;
+import org.bco.cm.domain.student.StudentRegistry;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Checks that enrolling a student, rejecting a repeated enrolment, and 
+ * canceling an enrolment do not load the course roster. Enrolments made in 
+ * the check are rolled back.
+ * @author Andr&#233; H. Juffer, Biocenter Oulu
+ */
+public class TestRosterNotLoaded {
+
+    /**
+     * @param args the command line arguments
+     */
+    public static void main(String[] args) 
+    {
+        Logger logger = LogManager.getLogger("org.bco.cm");
+        try {
+            AnnotationConfigApplicationContext context = 
+                new AnnotationConfigApplicationContext();
+            context.register(CmConfiguration.class);
+            context.refresh();
+            
+            CourseId courseId = CourseFixtures.activateCourse(context, "Roster test", 10);
+            StudentId enrolledId = CourseFixtures.registerStudent(context, "Enrolled", "Student");
+            StudentId newcomerId = CourseFixtures.registerStudent(context, "Newcomer", "Student");
+            EnrolmentFacade ef = context.getBean(EnrolmentFacade.class);
+            ef.register(ef.generateEnrolmentNumber(), courseId, enrolledId);
+            
+            CourseRegistry courseRegistry = context.getBean(CourseRegistry.class);
+            StudentRegistry studentRegistry = context.getBean(StudentRegistry.class);
+            EnrolmentRegistry enrolmentRegistry = 
+                context.getBean(EnrolmentRegistry.class);
+            SeatInventory seats = context.getBean(SeatInventory.class);
+            CourseRoster roster = context.getBean(CourseRoster.class);
+            PersistenceUnitUtil util = context.getBean(EntityManagerFactory.class)
+                .getPersistenceUnitUtil();
+            TransactionTemplate tx = 
+                new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+            
+            tx.execute(status -> {
+                status.setRollbackOnly();
+                Course course = courseRegistry.forOne(courseId);
+                Student enrolled = studentRegistry.forOne(enrolledId);
+                Student newcomer = studentRegistry.forOne(newcomerId);
+                
+                // Repeated enrolment.
+                boolean rejected = false;
+                try {
+                    Enrolment.register(
+                        EnrolmentNumber.generate(), course, enrolled, seats, roster
+                    );
+                } catch (IllegalStateException exception) {
+                    rejected = true;
+                }
+                if ( !rejected ) {
+                    throw new IllegalStateException("Student enrolled twice.");
+                }
+                
+                // New enrolment.
+                Enrolment enrolment = Enrolment.register(
+                    EnrolmentNumber.generate(), course, newcomer, seats, roster
+                );
+                enrolmentRegistry.add(enrolment);
+                if ( !roster.isEnrolled(course, newcomer) ) {
+                    throw new IllegalStateException("Student not enrolled.");
+                }
+                
+                // Cancel.
+                enrolmentRegistry.forCourse(course, enrolled)
+                                 .cancel(course, enrolled, seats, roster);
+                if ( util.isLoaded(course, "roster") ) {
+                    throw new IllegalStateException("Roster loaded.");
+                }
+                logger.info("Roster not loaded.");
+                return null;
+            });
+            
+            CourseFacade cf = context.getBean(CourseFacade.class);
+            int size = cf.getCourse(courseId).getRoster().size();
+            if ( size != 1 ) {
+                throw new IllegalStateException(
+                    "Expected 1 student on roster after rollback, found " + size
+                );
+            }
+            context.close();
+        } catch (Exception exception) {
+            logger.error(exception.getMessage(), exception);
+        }
+    }
+    
+}
@@ -0,0 +1,156 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2018 André H. Juffer, Biocenter Oulu
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.bco.cm;
+
+import java.util.List;
+import java.util.UUID;
+import javax.persistence.EntityManagerFactory;
+import javax.sql.DataSource;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.bco.cm.application.query.CourseSpecification;
+import org.bco.cm.application.query.ReadOnlyCourseRegistry;
+import org.bco.cm.application.query.ReadOnlyEnrolmentRegistry;
+import org.bco.cm.dto.CourseDTO;
+import org.hibernate.Hibernate;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Checks that selecting a student's courses takes at most two statements 
+ * (enrolments, then courses), regardless of the number of enrolments, and
+ * that rosters are not loaded. Test data is rolled back.
+ * @author Andr&#233; H. Juffer, Biocenter Oulu
+ */
+public class TestStudentCourses {
+    
+    private static final int COURSES = 40;
+    private static final long MAX_STATEMENTS = 2;
+
+    /**
+     * @param args the command line arguments
+     */
+    public static void main(String[] args) 
+    {
+        Logger logger = LogManager.getLogger("org.bco.cm");
+        try {
+            AnnotationConfigApplicationContext context = 
+                new AnnotationConfigApplicationContext();
+            context.register(CmConfiguration.class);
+            context.refresh();
+            
+            JdbcTemplate jdbc = new JdbcTemplate(context.getBean(DataSource.class));
+            ReadOnlyCourseRegistry courseRegistry = 
+                context.getBean(ReadOnlyCourseRegistry.class);
+            ReadOnlyEnrolmentRegistry enrolmentRegistry = 
+                context.getBean(ReadOnlyEnrolmentRegistry.class);
+            Statistics statistics = context.getBean(EntityManagerFactory.class)
+                .unwrap(SessionFactory.class).getStatistics();
+            TransactionTemplate tx = 
+                new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+            
+            tx.execute(status -> {
+                String studentId = seed(jdbc);
+                
+                statistics.setStatisticsEnabled(true);
+                statistics.clear();
+                CourseSpecification spec = new CourseSpecification();
+                spec.setStudentId(studentId);
+                List<CourseDTO> courses = spec.query(courseRegistry, enrolmentRegistry);
+                long statements = statistics.getPrepareStatementCount();
+                
+                logger.info(
+                    courses.size() + " courses in " + statements + " statements."
+                );
+                status.setRollbackOnly();
+                if ( courses.size() != COURSES ) {
+                    throw new IllegalStateException(
+                        "Expected " + COURSES + " courses, found " + courses.size()
+                    );
+                }
+                if ( Hibernate.isInitialized(courses.get(0).getRoster()) ) {
+                    throw new IllegalStateException("Roster loaded.");
+                }
+                if ( statements > MAX_STATEMENTS ) {
+                    throw new IllegalStateException(
+                        statements + " statements, expected at most " + MAX_STATEMENTS
+                    );
+                }
+                return null;
+            });
+            context.close();
+        } catch (Exception exception) {
+            logger.error(exception.getMessage(), exception);
+        }
+    }
+    
+    /**
+     * Enrols one student in many courses.
+     * @param jdbc JDBC template.
+     * @return Student identifier.
+     */
+    private static String seed(JdbcTemplate jdbc)
+    {
+        String studentId = UUID.randomUUID().toString();
+        long now = System.currentTimeMillis();
+        for (int i = 0; i < COURSES; i++) {
+            UUID id = UUID.randomUUID();
+            String courseId = UUID.randomUUID().toString();
+            jdbc.update(
+                "insert into courses " +
+                "(id, course_id, course_description_id, title, summary, " +
+                "teacher_id, number_of_seats, ongoing, start_date, end_date) " +
+                "values (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)",
+                id, courseId, UUID.randomUUID().toString(), "Course " + i, 
+                "Summary", UUID.randomUUID().toString(), 100, false, 
+                now, now + 86400000L
+            );
+            UUID monitorId = UUID.randomUUID();
+            jdbc.update(
+                "insert into student_monitors " +
+                "(id, monitor_id, student_id, current_module_id) " +
+                "values (?, ?, ?, ?)",
+                monitorId, i + 1, studentId, 0
+            );
+            jdbc.update(
+                "insert into rosters (monitor_id, course_id) values (?, ?)",
+                monitorId, id
+            );
+            jdbc.update(
+                "insert into enrolments " +
+                "(id, enrolment_number, course_id, student_id, date_of_registration) " +
+                "values (?, ?, ?, ?, ?)",
+                UUID.randomUUID(), UUID.randomUUID().toString(), 
+                courseId, studentId, now
+            );
+        }
+        return studentId;
+    }
+    
+}
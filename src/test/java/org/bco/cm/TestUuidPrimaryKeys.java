@@ -0,0 +1,90 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2018 André H. Juffer, Biocenter Oulu
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.bco.cm;
+
+import java.util.UUID;
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.bco.cm.domain.student.Student;
+import org.bco.cm.domain.student.StudentId;
+import org.bco.cm.dto.StudentDTO;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+
+/**
+ * Checks that primary keys generated for persisted entities are time-ordered 
+ * UUIDs (version 7), i.e. that the identifier generator of Uuids is installed 
+ * in Hibernate. The transaction is rolled back.
+ * @author Andr&#233; H. Juffer, Biocenter Oulu
+ */
+public class TestUuidPrimaryKeys {
+
+    /**
+     * @param args the command line arguments
+     */
+    public static void main(String[] args) 
+    {
+        Logger logger = LogManager.getLogger("org.bco.cm");
+        try {
+            AnnotationConfigApplicationContext context = 
+                new AnnotationConfigApplicationContext();
+            context.register(CmConfiguration.class);
+            context.refresh();
+            
+            EntityManagerFactory emf = context.getBean(EntityManagerFactory.class);
+            EntityManager em = emf.createEntityManager();
+            em.getTransaction().begin();
+            
+            StudentId studentId = StudentId.generate();
+            StudentDTO spec = new StudentDTO();
+            spec.setFirstName("First");
+            spec.setSurname("Last");
+            Student student = Student.valueOf(studentId, spec);
+            em.persist(student);
+            em.flush();
+            String key = (String)em.createNativeQuery(
+                "select cast(id as varchar) from students " +
+                "where student_id = :studentId"
+            ).setParameter("studentId", studentId.stringValue())
+             .getSingleResult();
+            UUID id = UUID.fromString(key);
+            em.getTransaction().rollback();
+            em.close();
+            
+            if ( id.version() != 7 ) {
+                throw new IllegalStateException(
+                    id + ": Primary key is a version " + id.version() + 
+                    " UUID, expected version 7."
+                );
+            }
+            logger.info(id + ": Primary key is a version 7 UUID.");
+            context.close();
+        } catch (Exception exception) {
+            logger.error(exception.getMessage(), exception);
+        }
+    }
+    
+}
@@ -53,7 +53,7 @@ public class TestCourseDescription {
         
         // Create a course.
         CourseDescriptionDTO sspec = new CourseDescriptionDTO();
-        CourseDescriptionId courseDescriptionId = new CourseDescriptionId("123456");
+        CourseDescriptionId courseDescriptionId = new CourseDescriptionId("6f1c3e9a-2b47-4d2e-9a51-0c8e7d3b5a14");
         // Leaving out any of the next two statements causes an exception.
         sspec.setSummary("This is a test description.");
         sspec.setTitle("This is a test title.");
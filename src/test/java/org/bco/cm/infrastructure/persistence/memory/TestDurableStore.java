@@ -0,0 +1,209 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2018 André H. Juffer, Biocenter Oulu
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.bco.cm.infrastructure.persistence.memory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.bco.cm.domain.course.Course;
+import org.bco.cm.domain.course.CourseCatalogService;
+import org.bco.cm.domain.course.CourseDescription;
+import org.bco.cm.domain.course.CourseDescriptionId;
+import org.bco.cm.domain.course.CourseId;
+import org.bco.cm.domain.student.Student;
+import org.bco.cm.domain.student.StudentId;
+import org.bco.cm.domain.teacher.Teacher;
+import org.bco.cm.domain.teacher.TeacherId;
+import org.bco.cm.dto.CourseDTO;
+import org.bco.cm.dto.CourseDescriptionDTO;
+import org.bco.cm.dto.ModuleDTO;
+import org.bco.cm.dto.StudentDTO;
+import org.bco.cm.dto.TeacherDTO;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Checks that courses are recovered from snapshot and log after a crash, that 
+ * enrolments are logged as roster changes rather than as whole courses, and 
+ * that a record torn by the crash is discarded. No database is needed.
+ * @author Andr&#233; H. Juffer, Biocenter Oulu
+ */
+public class TestDurableStore {
+    
+    private static final int STUDENTS = 3;
+    
+    /**
+     * @param args the command line arguments
+     */
+    public static void main(String[] args) 
+    {
+        Logger logger = LogManager.getLogger("org.bco.cm");
+        try {
+            TransactionTemplate tx = 
+                new TransactionTemplate(new InMemoryTransactionManager());
+            Path directory = Files.createTempDirectory("cm-store");
+            InMemoryCourseRepository courses = new InMemoryCourseRepository();
+            InMemoryCourseRoster roster = new InMemoryCourseRoster(courses);
+            InMemorySeatInventory seats = new InMemorySeatInventory();
+            DurableStore store = store(directory, courses);
+            
+            // Course in snapshot, enrolments and a cancellation in log.
+            Course course = course();
+            String id = course.getIdentifierAsString();
+            tx.execute(status -> {
+                courses.add(course);
+                return null;
+            });
+            store.snapshot();
+            List<Student> students = new ArrayList<>();
+            for (int n = 0; n < STUDENTS; n++) {
+                Student student = student(n);
+                students.add(student);
+                tx.execute(status -> {
+                    Course c = courses.forIdentifierAsString(id);
+                    c.enrolled(student, seats, roster);
+                    courses.update(c);
+                    return null;
+                });
+            }
+            tx.execute(status -> {
+                Course c = courses.forIdentifierAsString(id);
+                c.enrolmentCanceled(students.get(0), seats, roster);
+                courses.update(c);
+                return null;
+            });
+            
+            // Crash: copy snapshot and log, and tear a record at the end.
+            Path crashed = Files.createTempDirectory("cm-store");
+            Files.copy(directory.resolve("cm.snapshot"), crashed.resolve("cm.snapshot"));
+            Path log = Files.copy(directory.resolve("cm.log"), crashed.resolve("cm.log"));
+            store.close();
+            long size = Files.size(log);
+            List<Byte> types = types(log);
+            if ( types.size() != STUDENTS + 1 || !types.stream().allMatch(type -> type == DurableStore.PART) ) {
+                throw new IllegalStateException(
+                    "Failed: roster changes logged as " + types + "."
+                );
+            }
+            tear(log);
+            
+            InMemoryCourseRepository recovered = new InMemoryCourseRepository();
+            DurableStore reopened = store(crashed, recovered);
+            Course c = recovered.stored(id);
+            if ( c == null ) {
+                throw new IllegalStateException("Failed: course not recovered.");
+            }
+            for (int n = 0; n < STUDENTS; n++) {
+                if ( c.isEnrolled(students.get(n)) != (n > 0) ) {
+                    throw new IllegalStateException(
+                        "Failed: roster not recovered for student #" + n + "."
+                    );
+                }
+            }
+            if ( c.lastSeatNumber() != STUDENTS ) {
+                throw new IllegalStateException(
+                    "Failed: last seat number " + c.lastSeatNumber() + " recovered."
+                );
+            }
+            if ( Files.size(log) != size ) {
+                throw new IllegalStateException("Failed: torn record not discarded.");
+            }
+            reopened.close();
+            logger.info("Recovery from snapshot and log: OK.");
+        } catch (Exception exception) {
+            logger.error(exception.getMessage(), exception);
+        }
+    }
+    
+    private static DurableStore store(Path directory, InMemoryCourseRepository courses)
+        throws IOException
+    {
+        DurableStore store = new DurableStore(directory.toString(), 0);
+        store.register("courses", courses);
+        store.open();
+        return store;
+    }
+    
+    // Record types in log.
+    private static List<Byte> types(Path log) throws IOException
+    {
+        List<Byte> types = new ArrayList<>();
+        try (WriteAheadLog wal = new WriteAheadLog(log)) {
+            wal.replay(body -> types.add(body[0]));
+        }
+        return types;
+    }
+    
+    // Appends the first half of a record, as if the crash interrupted the write.
+    private static void tear(Path log) throws IOException
+    {
+        ByteBuffer record = WriteAheadLog.frame(new byte[64]);
+        record.limit(record.limit() / 2);
+        try (FileChannel channel = FileChannel.open(log, StandardOpenOption.APPEND)) {
+            channel.write(record);
+        }
+    }
+    
+    private static Course course()
+    {
+        TeacherDTO tspec = new TeacherDTO();
+        tspec.setFirstName("Test");
+        tspec.setSurname("Teacher");
+        Teacher teacher = Teacher.valueOf(TeacherId.generateId(), tspec);
+        CourseDescriptionDTO dspec = new CourseDescriptionDTO();
+        dspec.setTitle("Durable course");
+        dspec.setSummary("Course recovered after a crash.");
+        CourseDescription courseDescription = 
+            CourseDescription.valueOf(teacher, CourseDescriptionId.generate(), dspec);
+        InMemoryCourseCatalog catalog = new InMemoryCourseCatalog();
+        catalog.add(courseDescription);
+        ModuleDTO module = new ModuleDTO();
+        module.setName("Module");
+        CourseCatalogService.addModule(teacher, courseDescription, module, catalog);
+        CourseDTO spec = new CourseDTO();
+        Instant now = Instant.now();
+        spec.setStartDate(now.minus(1, ChronoUnit.DAYS));
+        spec.setEndDate(now.plus(30, ChronoUnit.DAYS));
+        spec.setNumberOfSeats(STUDENTS);
+        return Course.activate(CourseId.generate(), courseDescription, spec);
+    }
+    
+    private static Student student(int n)
+    {
+        StudentDTO spec = new StudentDTO();
+        spec.setFirstName("Student");
+        spec.setSurname("#" + n);
+        return Student.valueOf(StudentId.generate(), spec);
+    }
+    
+}